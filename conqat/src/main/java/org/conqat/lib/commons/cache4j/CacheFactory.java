@@ -327,8 +327,8 @@ public class CacheFactory {
 		public <K, V, X extends Exception> ICache<K, V, X> createCache(
 				String name, IParameterizedFactory<V, K, X> factory) {
 			return threadSupport.createCache(name, factory,
-					(ICacheBackend) cachingStrategy
-							.getBackend(cachingStrategyParameter));
+					(ICacheBackend) threadSupport.createBackend(
+							cachingStrategy, cachingStrategyParameter));
 		}
 	}
 
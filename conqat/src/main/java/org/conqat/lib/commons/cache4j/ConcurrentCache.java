@@ -0,0 +1,187 @@
+package org.conqat.lib.commons.cache4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.conqat.lib.commons.cache4j.backend.ECachingStrategy;
+import org.conqat.lib.commons.cache4j.backend.ICacheBackend;
+import org.conqat.lib.commons.error.NeverThrownRuntimeException;
+import org.conqat.lib.commons.factory.IParameterizedFactory;
+
+/**
+ * Cache implementation for multi-threaded environments that does not hold a
+ * global lock. Unlike {@link SynchronizedCache}, callers obtaining different
+ * keys do not block each other while the factory is running. Concurrent
+ * callers obtaining the same missing key are deduplicated, i.e. the value is
+ * created only once and all callers wait for it (or for the exception thrown
+ * by the factory).
+ * <p>
+ * The backend must support concurrent access (see
+ * {@link ECachingStrategy#getConcurrentBackend(int)}). Statistics are
+ * maintained with {@link LongAdder}s and thus are exact. Callers that waited
+ * for a value created by another thread are counted as hits. Values that are
+ * null are not cached.
+ *
+ * @param <K>
+ *            the key type. This must have both {@link Object#equals(Object)}
+ *            and {@link Object#hashCode()} correctly implemented.
+ * @param <V>
+ *            the value type. It is generally recommended to use an immutable
+ *            type here, but this is not required.
+ * @param <X>
+ *            the type of exception thrown. If no exception will be throws, use
+ *            {@link NeverThrownRuntimeException}.
+ */
+public class ConcurrentCache<K, V, X extends Exception> implements
+		ICache<K, V, X> {
+
+	/** The name of this cache (e.g. used for statistics). */
+	private final String name;
+
+	/** The cache backend. Replaced by {@link #clear(boolean)}. */
+	private volatile ICacheBackend<K, V> backend;
+
+	/**
+	 * The factory used to create new elements. It has to support
+	 * multi-threaded access.
+	 */
+	private final IParameterizedFactory<V, K, X> factory;
+
+	/** The values that are currently being created (keyed by their key). */
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<K, CompletableFuture<V>>();
+
+	/** Counts the number of cache hits. */
+	private final LongAdder hits = new LongAdder();
+
+	/** Counts the number of cache misses. */
+	private final LongAdder misses = new LongAdder();
+
+	/** Accumulated cost of cache misses in nanoseconds. */
+	private final LongAdder missCostNanos = new LongAdder();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param factory
+	 *            the factory has to support multi-threaded access.
+	 * @param backend
+	 *            the backend has to support multi-threaded access.
+	 */
+	public ConcurrentCache(String name,
+			IParameterizedFactory<V, K, X> factory, ICacheBackend<K, V> backend) {
+		this.name = name;
+		this.factory = factory;
+		this.backend = backend;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Values that are currently being created are not affected.
+	 */
+	@Override
+	public void clear(boolean allThreads) {
+		backend = backend.newInstance();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public V obtain(K key) throws X {
+		V value = backend.retrieve(key);
+		if (value != null) {
+			hits.increment();
+			return value;
+		}
+
+		if (key == null) {
+			// Not supported by the map of values in flight.
+			return create(key);
+		}
+
+		CompletableFuture<V> future = new CompletableFuture<V>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			hits.increment();
+			return await(existing);
+		}
+
+		try {
+			// The value may have been stored after our first lookup, but
+			// before we registered our future.
+			value = backend.retrieve(key);
+			if (value != null) {
+				hits.increment();
+			} else {
+				value = create(key);
+			}
+			future.complete(value);
+			return value;
+		} catch (Throwable t) {
+			future.completeExceptionally(t);
+			throw t;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	/** Creates the value for the given key and stores it in the backend. */
+	private V create(K key) throws X {
+		misses.increment();
+		long start = System.nanoTime();
+		V value = factory.create(key);
+		if (value != null) {
+			backend.store(key, value);
+		}
+		missCostNanos.add(System.nanoTime() - start);
+		return value;
+	}
+
+	/**
+	 * Waits for the value created by another thread. Rethrows the exception
+	 * thrown by the factory in the other thread.
+	 */
+	@SuppressWarnings("unchecked")
+	private V await(CompletableFuture<V> future) throws X {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			// The factory only throws unchecked exceptions or X.
+			throw (X) cause;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int getHits() {
+		return (int) hits.sum();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int getMisses() {
+		return (int) misses.sum();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public long getMissCostMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(missCostNanos.sum());
+	}
+}
@@ -16,6 +16,7 @@
 +-------------------------------------------------------------------------*/
 package org.conqat.lib.commons.cache4j;
 
+import org.conqat.lib.commons.cache4j.backend.ECachingStrategy;
 import org.conqat.lib.commons.cache4j.backend.ICacheBackend;
 import org.conqat.lib.commons.factory.IParameterizedFactory;
 
@@ -35,7 +36,26 @@ public enum ECacheThreadSupport {
 	SYNCHRONIZED,
 
 	/** Thread local implementation, i.e. each thread has a separate cache. */
-	THREADLOCAL;
+	THREADLOCAL,
+
+	/**
+	 * Single cache with concurrent access, but without a global lock (see
+	 * {@link ConcurrentCache}). Requires a concurrent backend (see
+	 * {@link #createBackend(ECachingStrategy, int)}).
+	 */
+	CONCURRENT;
+
+	/**
+	 * Factory method for creating a backend suitable for caches created by
+	 * {@link #createCache(String, IParameterizedFactory, ICacheBackend)}.
+	 */
+	public <K, V> ICacheBackend<K, V> createBackend(
+			ECachingStrategy cachingStrategy, int parameter) {
+		if (this == CONCURRENT) {
+			return cachingStrategy.getConcurrentBackend(parameter);
+		}
+		return cachingStrategy.getBackend(parameter);
+	}
 
 	/** Factory method for creating a cache from a synchronization strategy. */
 	public <K, V, X extends Exception> ICache<K, V, X> createCache(String name,
@@ -48,6 +68,8 @@ public enum ECacheThreadSupport {
 			return new SynchronizedCache<K, V, X>(name, factory, backend);
 		case THREADLOCAL:
 			return new ThreadLocalCache<K, V, X>(name, factory, backend);
+		case CONCURRENT:
+			return new ConcurrentCache<K, V, X>(name, factory, backend);
 		default:
 			throw new AssertionError("Unknown enum value: " + this);
 		}
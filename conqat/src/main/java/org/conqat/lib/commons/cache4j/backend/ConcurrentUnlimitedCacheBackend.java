@@ -0,0 +1,39 @@
+package org.conqat.lib.commons.cache4j.backend;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Backend that never discards data and supports concurrent access without
+ * locking (based on {@link ConcurrentHashMap}). Null keys and values are not
+ * stored.
+ */
+/* package */class ConcurrentUnlimitedCacheBackend<K, V> implements
+		ICacheBackend<K, V> {
+
+	/** The actual cache. */
+	private final ConcurrentMap<K, V> cache = new ConcurrentHashMap<K, V>();
+
+	/** {@inheritDoc} */
+	@Override
+	public void store(K key, V value) {
+		if (key != null && value != null) {
+			cache.put(key, value);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public V retrieve(K key) {
+		if (key == null) {
+			return null;
+		}
+		return cache.get(key);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public ConcurrentUnlimitedCacheBackend<K, V> newInstance() {
+		return new ConcurrentUnlimitedCacheBackend<K, V>();
+	}
+}
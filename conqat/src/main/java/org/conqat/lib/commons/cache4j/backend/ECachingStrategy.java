@@ -55,6 +55,9 @@ public enum ECachingStrategy {
 	 */
 	UNLIMITED;
 
+	/** The number of stripes of concurrent backends. */
+	private static final int CONCURRENT_STRIPES = 16;
+
 	/**
 	 * Returns the cache backend for the strategy (factory method).
 	 * 
@@ -81,4 +84,40 @@ public enum ECachingStrategy {
 			throw new AssertionError("Unknown enum value: " + this);
 		}
 	}
+
+	/**
+	 * Returns a cache backend for the strategy that supports concurrent access
+	 * (factory method). Unlimited caching is based on a concurrent map. The
+	 * other strategies are striped (see {@link StripedCacheBackend}), i.e. the
+	 * LRU strategy is applied per stripe and the maximal number of elements is
+	 * distributed over the stripes.
+	 *
+	 * @param parameter
+	 *            the parameter used for the caching strategy. This is ignored
+	 *            by those strategies that are not parameterizable.
+	 */
+	public <K, V> ICacheBackend<K, V> getConcurrentBackend(int parameter) {
+		switch (this) {
+		case OFF:
+			// Stateless and thus thread-safe.
+			return new NoneCacheBackend<K, V>();
+		case SINGLE:
+			return new StripedCacheBackend<K, V>(
+					new SingleElementCacheBackend<K, V>(), 1);
+		case LRU:
+			if (parameter < 1) {
+				parameter = 10;
+			}
+			int numStripes = Math.min(CONCURRENT_STRIPES, parameter);
+			return new StripedCacheBackend<K, V>(new LRUCacheBackend<K, V>(
+					(parameter + numStripes - 1) / numStripes), numStripes);
+		case MEMORY:
+			return new StripedCacheBackend<K, V>(
+					new SoftRefCacheBackend<K, V>(), CONCURRENT_STRIPES);
+		case UNLIMITED:
+			return new ConcurrentUnlimitedCacheBackend<K, V>();
+		default:
+			throw new AssertionError("Unknown enum value: " + this);
+		}
+	}
 }
\ No newline at end of file
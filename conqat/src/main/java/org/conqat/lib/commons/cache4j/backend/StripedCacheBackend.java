@@ -0,0 +1,74 @@
+package org.conqat.lib.commons.cache4j.backend;
+
+import org.conqat.lib.commons.assertion.CCSMPre;
+
+/**
+ * Backend that supports concurrent access by splitting the cache into
+ * stripes. Each stripe is a (non thread-safe) backend guarded by its own
+ * lock. Keys are assigned to stripes by their hash code. Thus, threads
+ * accessing keys of different stripes do not block each other. Note that the
+ * strategy of the stripe backends (e.g. LRU) is applied per stripe.
+ *
+ * @param <K>
+ *            the key type. This must have both {@link Object#equals(Object)}
+ *            and {@link Object#hashCode()} correctly implemented.
+ *
+ * @param <V>
+ *            the value type. It is generally recommended to use an immutable
+ *            type here, but this is not required.
+ */
+/* package */class StripedCacheBackend<K, V> implements ICacheBackend<K, V> {
+
+	/** The stripes. Each stripe is used as its own lock. */
+	private final ICacheBackend<K, V>[] stripes;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param prototype
+	 *            the stripes are created with
+	 *            {@link ICacheBackend#newInstance()} from this backend.
+	 * @param numStripes
+	 *            the number of stripes.
+	 */
+	@SuppressWarnings("unchecked")
+	public StripedCacheBackend(ICacheBackend<K, V> prototype, int numStripes) {
+		CCSMPre.isTrue(numStripes > 0, "Number of stripes must be positive!");
+		stripes = new ICacheBackend[numStripes];
+		for (int i = 0; i < numStripes; i++) {
+			stripes[i] = prototype.newInstance();
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void store(K key, V value) {
+		ICacheBackend<K, V> stripe = stripeOf(key);
+		synchronized (stripe) {
+			stripe.store(key, value);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public V retrieve(K key) {
+		ICacheBackend<K, V> stripe = stripeOf(key);
+		synchronized (stripe) {
+			return stripe.retrieve(key);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public StripedCacheBackend<K, V> newInstance() {
+		return new StripedCacheBackend<K, V>(stripes[0], stripes.length);
+	}
+
+	/** Returns the stripe of the given key. */
+	private ICacheBackend<K, V> stripeOf(K key) {
+		int hash = key == null ? 0 : key.hashCode();
+		// Spread the higher bits (as done by HashMap).
+		hash ^= hash >>> 16;
+		return stripes[(hash & Integer.MAX_VALUE) % stripes.length];
+	}
+}
@@ -886,6 +886,7 @@ class CPPScanner extends QueuedScannerBase<CPPToken> {
    */    
   public void reset(java.io.Reader reader, String originId) {
     this.originId = originId;
+    clearQueue();
     yyreset(reader);
   } 
   
@@ -0,0 +1,145 @@
+package org.conqat.lib.scanner;
+
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * A reusable, unsynchronized reader for {@link CharSequence}s. Unlike
+ * {@link java.io.StringReader} and {@link java.io.CharArrayReader}, this
+ * reader does not acquire a lock for each read operation and may be pointed
+ * to new input using {@link #setInput(CharSequence)}, which allows to scan
+ * several inputs with the same reader (and scanner, see {@link ScannerPool}).
+ * The input is never copied, except into the buffer passed to
+ * {@link #read(char[], int, int)}. Strings and array backed
+ * {@link CharBuffer}s are transferred in bulk.
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public class CharSequenceReader extends Reader {
+
+	/** The input to read from. */
+	private CharSequence input;
+
+	/** The current position in {@link #input}. */
+	private int position;
+
+	/** The position marked by {@link #mark(int)}. */
+	private int mark;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param input
+	 *            the input to read from
+	 */
+	public CharSequenceReader(CharSequence input) {
+		setInput(input);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param input
+	 *            the input to read from. The array is wrapped, not copied.
+	 */
+	public CharSequenceReader(char[] input) {
+		this(CharBuffer.wrap(input));
+	}
+
+	/**
+	 * Points this reader to the given input and rewinds it.
+	 *
+	 * @param input
+	 *            the input to read from
+	 */
+	public void setInput(CharSequence input) {
+		if (input == null) {
+			throw new NullPointerException("input");
+		}
+		this.input = input;
+		position = 0;
+		mark = 0;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read() {
+		if (position >= input.length()) {
+			return -1;
+		}
+		return input.charAt(position++);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read(char[] buffer, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > buffer.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (length == 0) {
+			return 0;
+		}
+		final int remaining = input.length() - position;
+		if (remaining <= 0) {
+			return -1;
+		}
+		final int count = Math.min(length, remaining);
+		if (input instanceof String) {
+			((String) input).getChars(position, position + count, buffer,
+					offset);
+		} else if (input instanceof CharBuffer
+				&& ((CharBuffer) input).hasArray()) {
+			final CharBuffer charBuffer = (CharBuffer) input;
+			System.arraycopy(charBuffer.array(), charBuffer.arrayOffset()
+					+ charBuffer.position() + position, buffer, offset, count);
+		} else {
+			for (int i = 0; i < count; i++) {
+				buffer[offset + i] = input.charAt(position + i);
+			}
+		}
+		position += count;
+		return count;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public long skip(long n) {
+		final int skipped = (int) Math.max(0,
+				Math.min(n, input.length() - position));
+		position += skipped;
+		return skipped;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean ready() {
+		return true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void mark(int readAheadLimit) {
+		mark = position;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void reset() {
+		position = mark;
+	}
+
+	/**
+	 * Does nothing, so that scanners closing their reader at the end of the
+	 * input do not prevent this reader from being reused.
+	 */
+	@Override
+	public void close() {
+		// nothing to do
+	}
+}
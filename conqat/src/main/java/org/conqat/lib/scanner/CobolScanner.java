@@ -8444,6 +8444,7 @@ class CobolScanner implements ILenientScanner {
    */    
   public void reset(java.io.Reader reader, String originId) {
     this.originId = originId;
+    java.util.Arrays.fill(zzFin, false);
     yyreset(reader);
   } 
   
@@ -526,6 +526,7 @@ class MatlabScanner implements ILenientScanner {
     braceDepth = 0;
     brackDepth = 0;
     whiteSpaceSinceLastToken = false;
+    java.util.Arrays.fill(zzFin, false);
     yyreset(reader);
   }
 
@@ -861,6 +861,11 @@ class PythonScanner extends QueuedScannerBase<PythonToken> {
   /** Resets scanner */    
   public void reset(java.io.Reader reader, String originId) {
     this.originId=originId;
+    lastToken = null;
+    indent.clear();
+    indent.push(0);
+    brackets.clear();
+    clearQueue();
     yyreset(reader);
   }
   
@@ -823,6 +823,7 @@ class RubyScanner extends QueuedScannerBase<RubyToken> {
   @Override 
   public void reset(java.io.Reader reader, String originId) {
     this.originId = originId;
+    lastTokenType = null;
     templateText.setLength(0);
     string.setLength(0);
     startLine=0;
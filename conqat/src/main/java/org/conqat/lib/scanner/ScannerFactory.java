@@ -119,6 +119,25 @@ public class ScannerFactory {
 		return newLenientScanner(language, new StringReader(input), originId);
 	}
 
+	/**
+	 * Create a new lenient scanner that scans a character array. The array is
+	 * not copied and must not be modified while the scanner is in use.
+	 * 
+	 * @param language
+	 *            implementation language
+	 * @param input
+	 *            the characters to scan
+	 * @param originId
+	 *            origin id that denotes the resource the tokens stem from
+	 * @return a new lenient scanner
+	 * @see ScannerPool
+	 */
+	public static ILenientScanner newLenientScanner(ELanguage language,
+			char[] input, String originId) {
+		return newLenientScanner(language, new CharSequenceReader(input),
+				originId);
+	}
+
 	/**
 	 * Create a new strict scanner that uses the specified reader.
 	 * 
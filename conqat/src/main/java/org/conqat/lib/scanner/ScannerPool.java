@@ -0,0 +1,160 @@
+package org.conqat.lib.scanner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A pool of reusable lenient scanners. Creating a scanner is comparably
+ * expensive since each scanner allocates its own (16K) input buffer. The pool
+ * avoids these allocations by resetting (see
+ * {@link IScanner#reset(Reader, String)}) scanners that have been returned to
+ * the pool. Scanners are obtained with {@link #borrow(ELanguage, CharSequence,
+ * String)} and returned by closing them:
+ *
+ * <pre>
+ * try (ScannerPool.PooledScanner scanner = ScannerPool.borrow(language,
+ * 		content, originId)) {
+ * 	for (IToken token = scanner.getNextToken(); token.getType() != ETokenType.EOF; token = scanner
+ * 			.getNextToken()) {
+ * 		...
+ * 	}
+ * }
+ * </pre>
+ *
+ * The pool is thread-local, that is, each thread reuses its own scanners and
+ * there is no synchronization overhead. A scanner must not be used after it
+ * has been returned to the pool.
+ */
+public class ScannerPool {
+
+	/** The maximum number of idle scanners kept per language and thread. */
+	private static final int MAX_IDLE_SCANNERS = 4;
+
+	/** The idle scanners of each language (per thread). */
+	private static final ThreadLocal<Map<ELanguage, ArrayDeque<PooledScanner>>> IDLE_SCANNERS = ThreadLocal
+			.withInitial(() -> new EnumMap<>(ELanguage.class));
+
+	/** prevent instantiation */
+	private ScannerPool() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Borrows a lenient scanner for the given language and input from the
+	 * pool. If there is no idle scanner, a new one is created. The input is
+	 * not copied.
+	 *
+	 * @param language
+	 *            implementation language
+	 * @param input
+	 *            the input to scan
+	 * @param originId
+	 *            origin id that denotes the resource the tokens stem from
+	 * @return a lenient scanner that is returned to the pool when closed
+	 */
+	public static PooledScanner borrow(ELanguage language, CharSequence input,
+			String originId) {
+		final ArrayDeque<PooledScanner> idle = IDLE_SCANNERS.get().get(
+				language);
+		PooledScanner scanner = idle == null ? null : idle.pollFirst();
+		if (scanner == null) {
+			final CharSequenceReader reader = new CharSequenceReader(input);
+			scanner = new PooledScanner(language, reader,
+					ScannerFactory.newLenientScanner(language, reader,
+							originId));
+		} else {
+			scanner.reader.setInput(input);
+			scanner.scanner.reset(scanner.reader, originId);
+		}
+		scanner.borrowed = true;
+		return scanner;
+	}
+
+	/**
+	 * Borrows a lenient scanner for the given language and input from the
+	 * pool. The array is wrapped, not copied, and must not be modified while
+	 * the scanner is in use.
+	 *
+	 * @see #borrow(ELanguage, CharSequence, String)
+	 */
+	public static PooledScanner borrow(ELanguage language, char[] input,
+			String originId) {
+		return borrow(language, CharBuffer.wrap(input), originId);
+	}
+
+	/** Returns the given scanner to the pool of the current thread. */
+	private static void release(PooledScanner scanner) {
+		final ArrayDeque<PooledScanner> idle = IDLE_SCANNERS.get()
+				.computeIfAbsent(scanner.language, l -> new ArrayDeque<>());
+		if (idle.size() < MAX_IDLE_SCANNERS) {
+			// Drop the reference to the input so that it can be collected.
+			scanner.reader.setInput("");
+			idle.addFirst(scanner);
+		}
+	}
+
+	/**
+	 * A lenient scanner borrowed from the pool. Closing this scanner returns
+	 * it to the pool.
+	 */
+	public static class PooledScanner implements ILenientScanner,
+			AutoCloseable {
+
+		/** The language of {@link #scanner}. */
+		private final ELanguage language;
+
+		/** The reader {@link #scanner} reads from. */
+		private final CharSequenceReader reader;
+
+		/** The underlying scanner. */
+		private final ILenientScanner scanner;
+
+		/** Whether this scanner is currently borrowed. */
+		private boolean borrowed;
+
+		/** Constructor. */
+		private PooledScanner(ELanguage language, CharSequenceReader reader,
+				ILenientScanner scanner) {
+			this.language = language;
+			this.reader = reader;
+			this.scanner = scanner;
+		}
+
+		/** Returns the language of this scanner. */
+		public ELanguage getLanguage() {
+			return language;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public IToken getNextToken() throws IOException {
+			if (!borrowed) {
+				throw new IllegalStateException(
+						"Scanner has been returned to the pool");
+			}
+			return scanner.getNextToken();
+		}
+
+		/**
+		 * Resets the underlying scanner. The pool will reset the scanner with
+		 * its own reader when the scanner is borrowed again.
+		 */
+		@Override
+		public void reset(Reader reader, String originId) {
+			scanner.reset(reader, originId);
+		}
+
+		/** Returns this scanner to the pool. Subsequent calls are ignored. */
+		@Override
+		public void close() {
+			if (borrowed) {
+				borrowed = false;
+				release(this);
+			}
+		}
+	}
+}
@@ -90,6 +90,29 @@ public class ScannerUtils {
 
 	}
 
+	/**
+	 * Read tokens from a lenient scanner and store them in a
+	 * {@link TokenBuffer}. Unlike {@link #readTokens(ILenientScanner)}, the
+	 * read tokens are not retained. This expects the scanner to return a token
+	 * with type {@link ETokenType#EOF} at the end of the file. This last token
+	 * will not be added to the buffer.
+	 * 
+	 * @param scanner
+	 *            the scanner to read from
+	 * @param buffer
+	 *            the buffer to store the tokens in
+	 * 
+	 * @throws IOException
+	 *             thrown if scanner throws an IO exception
+	 */
+	public static void readTokens(ILenientScanner scanner, TokenBuffer buffer)
+			throws IOException {
+		IToken token = null;
+		while ((token = scanner.getNextToken()).getType() != ETokenType.EOF) {
+			buffer.add(token);
+		}
+	}
+
 	/**
 	 * Returns the results of scanning a string. The origin of the tokens is set
 	 * to some arbitrary value.
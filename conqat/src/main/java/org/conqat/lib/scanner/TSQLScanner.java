@@ -1680,6 +1680,7 @@ class TSQLScanner implements ILenientScanner {
    */    
   public void reset(java.io.Reader reader, String originId) {
     this.originId = originId;
+    java.util.Arrays.fill(zzFin, false);
     yyreset(reader);
   } 
   
@@ -0,0 +1,308 @@
+package org.conqat.lib.scanner;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Stores the tokens of a single resource in parallel primitive arrays (type
+ * ordinal, offset, length, and line number) rather than as one {@link IToken}
+ * object per token. The text of a token is not stored but taken from the
+ * source text the tokens stem from. Only tokens whose text differs from the
+ * corresponding source text (for example, Java tokens containing unicode
+ * escapes) keep their own text. {@link IToken} instances are materialized on
+ * demand only (see {@link #getToken(int)} and {@link #asList()}).
+ * <p>
+ * Use {@link #scan(ELanguage, String, String)} to fill a buffer with the
+ * tokens of a string. As the scanner is borrowed from the {@link ScannerPool}
+ * and the created token objects are not retained, scanning large amounts of
+ * code with this class produces hardly any long-living objects.
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public class TokenBuffer {
+
+	/** The initial capacity of the arrays. */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Cache of the token types (avoids copying the array of values). */
+	private static final ETokenType[] TOKEN_TYPES = ETokenType.values();
+
+	/** The source text the tokens stem from. */
+	private final String source;
+
+	/** Identifier of the resource the tokens stem from. */
+	private final String originId;
+
+	/**
+	 * Is used to materialize tokens of the correct language (see
+	 * {@link IToken#newToken(ETokenType, int, int, String, String)}). Is
+	 * {@code null} as long as this buffer is empty.
+	 */
+	private IToken prototype;
+
+	/** The number of tokens in this buffer. */
+	private int size = 0;
+
+	/** The ordinal of the type of each token. */
+	private short[] types = new short[INITIAL_CAPACITY];
+
+	/** The offset of each token. */
+	private int[] offsets = new int[INITIAL_CAPACITY];
+
+	/** The length of the text of each token. */
+	private int[] lengths = new int[INITIAL_CAPACITY];
+
+	/** The line number of each token. */
+	private int[] lines = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The texts of the tokens whose text differs from the source text (keyed
+	 * by the index of a token).
+	 */
+	private final Map<Integer, String> divergentTexts = new HashMap<Integer, String>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param source
+	 *            the source text the tokens stem from
+	 * @param originId
+	 *            origin id that denotes the resource the tokens stem from
+	 */
+	public TokenBuffer(String source, String originId) {
+		if (source == null) {
+			throw new NullPointerException("source");
+		}
+		this.source = source;
+		this.originId = originId;
+	}
+
+	/**
+	 * Scans the given string and returns a buffer containing all of its tokens
+	 * (excluding {@link ETokenType#EOF}).
+	 *
+	 * @param language
+	 *            implementation language
+	 * @param source
+	 *            the string to scan
+	 * @param originId
+	 *            origin id that denotes the resource the tokens stem from
+	 * @return a buffer containing the tokens of {@code source}
+	 */
+	public static TokenBuffer scan(ELanguage language, String source,
+			String originId) {
+		TokenBuffer buffer = new TokenBuffer(source, originId);
+		try (ScannerPool.PooledScanner scanner = ScannerPool.borrow(language,
+				source, originId)) {
+			ScannerUtils.readTokens(scanner, buffer);
+		} catch (IOException e) {
+			throw new AssertionError(
+					"can not happen as the scanner is lenient and we are working from memory");
+		}
+		return buffer;
+	}
+
+	/**
+	 * Appends the given token. The token itself is not retained (except for
+	 * the very first token which is used to materialize tokens of the correct
+	 * language).
+	 *
+	 * @param token
+	 *            the token to append
+	 */
+	public void add(IToken token) {
+		if (size == types.length) {
+			int capacity = size * 2;
+			types = Arrays.copyOf(types, capacity);
+			offsets = Arrays.copyOf(offsets, capacity);
+			lengths = Arrays.copyOf(lengths, capacity);
+			lines = Arrays.copyOf(lines, capacity);
+		}
+		if (prototype == null) {
+			prototype = token;
+		}
+		String text = token.getText();
+		int offset = token.getOffset();
+		types[size] = (short) token.getType().ordinal();
+		offsets[size] = offset;
+		lengths[size] = text.length();
+		lines[size] = token.getLineNumber();
+		if (offset < 0 || !source.regionMatches(offset, text, 0, text.length())) {
+			divergentTexts.put(size, text);
+		}
+		size++;
+	}
+
+	/** Returns the number of tokens in this buffer. */
+	public int size() {
+		return size;
+	}
+
+	/** Returns whether this buffer is empty. */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Returns the source text the tokens stem from. */
+	public String getSource() {
+		return source;
+	}
+
+	/** Returns the origin id of the tokens. */
+	public String getOriginId() {
+		return originId;
+	}
+
+	/** Returns the type of the token at the given index. */
+	public ETokenType getType(int index) {
+		return TOKEN_TYPES[types[checkIndex(index)]];
+	}
+
+	/** Returns the offset of the token at the given index. */
+	public int getOffset(int index) {
+		return offsets[checkIndex(index)];
+	}
+
+	/**
+	 * Returns the end offset of the token at the given index (see
+	 * {@link IToken#getEndOffset()}).
+	 */
+	public int getEndOffset(int index) {
+		return offsets[checkIndex(index)] + lengths[index] - 1;
+	}
+
+	/** Returns the length of the text of the token at the given index. */
+	public int getLength(int index) {
+		return lengths[checkIndex(index)];
+	}
+
+	/** Returns the line number of the token at the given index. */
+	public int getLineNumber(int index) {
+		return lines[checkIndex(index)];
+	}
+
+	/**
+	 * Returns the text of the token at the given index. Unlike
+	 * {@link #textHashCode(int)} and {@link #textEquals(int, int)}, this
+	 * method creates a new string (unless the text differs from the source
+	 * text).
+	 */
+	public String getText(int index) {
+		String text = getDivergentText(checkIndex(index));
+		if (text != null) {
+			return text;
+		}
+		return source.substring(offsets[index], offsets[index]
+				+ lengths[index]);
+	}
+
+	/**
+	 * Returns the hash code of the text of the token at the given index. The
+	 * hash code is equal to {@code getText(index).hashCode()}, but no string
+	 * is created.
+	 */
+	public int textHashCode(int index) {
+		String text = getDivergentText(checkIndex(index));
+		if (text != null) {
+			return text.hashCode();
+		}
+		int hash = 0;
+		for (int i = offsets[index], end = i + lengths[index]; i < end; i++) {
+			hash = 31 * hash + source.charAt(i);
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns whether the texts of the tokens at the given indices are equal.
+	 * No string is created.
+	 */
+	public boolean textEquals(int index, int otherIndex) {
+		return textEquals(index, this, otherIndex);
+	}
+
+	/**
+	 * Returns whether the text of the token at the given index is equal to the
+	 * text of the token at index {@code otherIndex} of buffer {@code other}.
+	 * No string is created.
+	 */
+	public boolean textEquals(int index, TokenBuffer other, int otherIndex) {
+		checkIndex(index);
+		other.checkIndex(otherIndex);
+		int length = lengths[index];
+		if (length != other.lengths[otherIndex]) {
+			return false;
+		}
+		if (divergentTexts.isEmpty() && other.divergentTexts.isEmpty()) {
+			return source.regionMatches(offsets[index], other.source,
+					other.offsets[otherIndex], length);
+		}
+		return getText(index).equals(other.getText(otherIndex));
+	}
+
+	/**
+	 * Materializes the token at the given index. Each call creates a new
+	 * token.
+	 */
+	public IToken getToken(int index) {
+		checkIndex(index);
+		return prototype.newToken(getType(index), offsets[index],
+				lines[index], getText(index), originId);
+	}
+
+	/**
+	 * Returns an unmodifiable list view of the tokens of this buffer. The
+	 * tokens of the view are materialized on demand (see
+	 * {@link #getToken(int)}). The view reflects tokens added after its
+	 * creation.
+	 */
+	public List<IToken> asList() {
+		return new TokenList();
+	}
+
+	/**
+	 * Returns the text of the token at the given index if it differs from the
+	 * source text, {@code null} otherwise. Avoids boxing the index if there
+	 * are no divergent texts at all (the common case).
+	 */
+	private String getDivergentText(int index) {
+		if (divergentTexts.isEmpty()) {
+			return null;
+		}
+		return divergentTexts.get(index);
+	}
+
+	/**
+	 * Throws an {@link IndexOutOfBoundsException} if there is no token at the
+	 * given index.
+	 */
+	private int checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+					+ size);
+		}
+		return index;
+	}
+
+	/** The list view of {@link TokenBuffer#asList()}. */
+	private class TokenList extends AbstractList<IToken> implements
+			RandomAccess {
+
+		/** {@inheritDoc} */
+		@Override
+		public IToken get(int index) {
+			return getToken(index);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes canonical paths (see {@link java.io.File#getCanonicalFile()}) of
+ * the files of the revision currently checked out by a {@link VCSEngine}.
+ * Each engine provides a single instance (see
+ * {@link VCSEngine#getCanonicalPaths()}) that is shared by the engine itself
+ * and any tool that needs to compare paths with each other.
+ *
+ * Canonicalizing a path is a file system round-trip. If the tree rooted at
+ * {@link VCSEngine#getOutput()} is known to contain no symbolic links (see
+ * {@link #reset(boolean)}) and the file system is case-sensitive, paths
+ * located in the output directory are normalized lexically instead. In all
+ * other cases, the canonical path of a file is computed once per revision and
+ * is cached until the next call of {@link #reset(boolean)}.
+ *
+ * This class is threadsafe.
+ */
+public class CanonicalPaths {
+
+	/**
+	 * The instances of engines that do not provide an instance on their own
+	 * (see {@link #of(VCSEngine)}). Engines are referenced weakly so that
+	 * they can be garbage collected.
+	 */
+	private static final Map<VCSEngine, CanonicalPaths> DEFAULT_INSTANCES =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * The absolute and normalized output directory of the engine.
+	 */
+	private final Path output;
+
+	/**
+	 * The canonical path of {@link #output}. {@code null} as long as the
+	 * output directory does not exist.
+	 */
+	private volatile Path canonicalOutput = null;
+
+	/**
+	 * Indicates whether the file system of {@link #output} is
+	 * case-sensitive. {@code null} if not determined yet.
+	 */
+	private volatile Boolean caseSensitive = null;
+
+	/**
+	 * Indicates whether paths located in {@link #output} are normalized
+	 * lexically.
+	 */
+	private volatile boolean lexical = false;
+
+	/**
+	 * Caches the canonical paths of the current revision.
+	 */
+	private final Map<Path, Path> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new instance for the given output directory (see
+	 * {@link VCSEngine#getOutput()}). Lexical normalization is disabled until
+	 * {@link #reset(boolean)} is called.
+	 *
+	 * @param pOutput
+	 * 		The output directory of an engine.
+	 * @throws NullPointerException
+	 * 		If {@code pOutput} is {@code null}.
+	 */
+	public CanonicalPaths(final Path pOutput) throws NullPointerException {
+		Validate.notNull(pOutput);
+		output = pOutput.toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Returns the instance of the given engine that is used by the default
+	 * implementation of {@link VCSEngine#getCanonicalPaths()}. The instance
+	 * is created on first call.
+	 *
+	 * @param pEngine
+	 * 		The engine whose instance is returned.
+	 * @return
+	 * 		The instance of {@code pEngine}.
+	 * @throws NullPointerException
+	 * 		If {@code pEngine} is {@code null}.
+	 */
+	static CanonicalPaths of(final VCSEngine pEngine)
+			throws NullPointerException {
+		Validate.notNull(pEngine);
+		return DEFAULT_INSTANCES.computeIfAbsent(pEngine,
+				e -> new CanonicalPaths(e.getOutput()));
+	}
+
+	/**
+	 * Invalidates all cached paths. Must be called whenever the tree rooted at
+	 * the output directory changes---that is, after a revision has been
+	 * checked out.
+	 *
+	 * @param pSymlinkFree
+	 * 		Indicates whether the tree rooted at the output directory is known
+	 * 		to contain no symbolic links. Pass {@code false} if unknown.
+	 */
+	public void reset(final boolean pSymlinkFree) {
+		cache.clear();
+		lexical = false;
+		if (canonicalOutput == null) {
+			try {
+				canonicalOutput = Files.exists(output)
+						? output.toFile().getCanonicalFile().toPath()
+						: null;
+			} catch (final IOException e) {
+				canonicalOutput = null;
+			}
+		}
+		if (canonicalOutput == null) {
+			return;
+		}
+		if (caseSensitive == null) {
+			caseSensitive = isCaseSensitive(canonicalOutput);
+		}
+		lexical = pSymlinkFree && caseSensitive;
+	}
+
+	/**
+	 * Indicates whether paths located in the output directory are currently
+	 * normalized lexically.
+	 *
+	 * @return
+	 * 		{@code true} if paths located in the output directory are
+	 * 		normalized lexically, {@code false} otherwise.
+	 */
+	public boolean isLexical() {
+		return lexical;
+	}
+
+	/**
+	 * Returns the canonical path of {@code pPath}. Relative paths are
+	 * resolved against the current working directory (just like
+	 * {@link java.io.File#getCanonicalFile()} does).
+	 *
+	 * @param pPath
+	 * 		The path to canonicalize.
+	 * @return
+	 * 		The canonical path of {@code pPath}.
+	 * @throws NullPointerException
+	 * 		If {@code pPath} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while querying the file system.
+	 */
+	public Path canonicalize(final Path pPath) throws NullPointerException,
+			IOException {
+		Validate.notNull(pPath);
+		final Path path = pPath.toAbsolutePath().normalize();
+		final Path root = canonicalOutput;
+		if (lexical && root != null && path.startsWith(output)) {
+			return root.resolve(output.relativize(path));
+		}
+		try {
+			return cache.computeIfAbsent(path, p -> {
+				try {
+					return p.toFile().getCanonicalFile().toPath();
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Returns the canonical path of {@code pPath} (see
+	 * {@link #canonicalize(Path)}).
+	 *
+	 * @param pPath
+	 * 		The path to canonicalize.
+	 * @return
+	 * 		The canonical path of {@code pPath}.
+	 * @throws NullPointerException
+	 * 		If {@code pPath} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while querying the file system.
+	 */
+	public String canonicalize(final String pPath) throws NullPointerException,
+			IOException {
+		Validate.notNull(pPath);
+		return canonicalize(Paths.get(pPath)).toString();
+	}
+
+	/**
+	 * Returns the canonical path of {@code pFile} (see
+	 * {@link #canonicalize(Path)}).
+	 *
+	 * @param pFile
+	 * 		The file whose path is canonicalized.
+	 * @return
+	 * 		The canonical path of {@code pFile}.
+	 * @throws NullPointerException
+	 * 		If {@code pFile} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while querying the file system.
+	 */
+	public Path canonicalize(final VCSFile pFile) throws NullPointerException,
+			IOException {
+		Validate.notNull(pFile);
+		return canonicalize(pFile.toPath());
+	}
+
+	/**
+	 * Checks whether the file system of the given (existing and canonical)
+	 * directory is case-sensitive by looking up the directory with the case
+	 * of its name toggled. If the name of the directory, and of all its
+	 * parents, has no cased characters, case-insensitivity is assumed.
+	 */
+	private static boolean isCaseSensitive(final Path pDirectory) {
+		for (Path dir = pDirectory; dir != null && dir.getFileName() != null;
+				dir = dir.getParent()) {
+			final String name = dir.getFileName().toString();
+			final String toggled = name.equals(name.toUpperCase())
+					? name.toLowerCase()
+					: name.toUpperCase();
+			if (!toggled.equals(name)) {
+				return !Files.exists(dir.resolveSibling(toggled));
+			}
+		}
+		return false;
+	}
+}
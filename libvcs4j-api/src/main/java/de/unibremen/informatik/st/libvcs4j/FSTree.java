@@ -24,6 +24,14 @@ import java.util.stream.Collectors;
  * Allows to represent a collection of {@link VCSFile} instances as a file
  * system tree with a generic value that may be attached to a file.
  *
+ * The value of a directory (see {@link #getValue()}) is computed bottom-up
+ * once and is cached until the value of one of its (recursively) sub files
+ * changes. Thus, the aggregation function must be associative. Use
+ * {@link #update(Collection, Function)} to keep a tree in sync with the
+ * files of a subsequent revision. If a file is added outside of a root
+ * directory, the root becomes a virtual root directory (see
+ * {@link #ROOT_DIRECTORY}). This class is NOT threadsafe.
+ *
  * @param <V>
  * 		The type of the values attached to the files.
  */
@@ -98,7 +106,7 @@ public class FSTree<V> {
 	/**
 	 * The parent of a tree. Is {@code null} for the root node.
 	 */
-	private final FSTree<V> parent;
+	private FSTree<V> parent;
 
 	/**
 	 * The relative path of the referenced file (if {@link #file} is present)
@@ -107,7 +115,13 @@ public class FSTree<V> {
 	 * {@link #ROOT_DIRECTORY} in case of a tree with multiple root nodes or
 	 * {@link #EMPTY_DIRECTORY} in case of an "empty" tree.
 	 */
-	private final String path;
+	private String path;
+
+	/**
+	 * The name of the referenced file or directory. Is {@code null} for
+	 * virtual root directories (see {@link #isVirtualRoot()}).
+	 */
+	private String name;
 
 	/**
 	 * The referenced file. Is {@code null} if {@link #nodes} is present.
@@ -117,7 +131,7 @@ public class FSTree<V> {
 	/**
 	 * The value attached to {@link #file}. May be {@code null}.
 	 */
-	private final V value;
+	private V value;
 
 	/**
 	 * The referenced sub files and directories. Is {@code null} if
@@ -125,9 +139,35 @@ public class FSTree<V> {
 	 */
 	private final List<FSTree<V>> nodes;
 
+	/**
+	 * Maps the names of the sub files and directories in {@link #nodes} to
+	 * their tree. Is {@code null} if {@link #file} is present.
+	 */
+	private final Map<String, FSTree<V>> nodesByName;
+
+	/**
+	 * The cached value of a directory. Is valid only if {@link #aggregated}
+	 * is {@code true}. May be {@code null}.
+	 */
+	private V aggregate;
+
+	/**
+	 * Indicates whether {@link #aggregate} is valid. If {@code false}, the
+	 * aggregates of all parents are invalid as well.
+	 */
+	private boolean aggregated = false;
+
+	/**
+	 * Indicates whether this tree has been created with {@link #compact()}.
+	 * Compacted trees cannot be updated.
+	 */
+	private final boolean compacted;
+
 	/**
 	 * Is used to calculate the value of a directory by aggregating the values
-	 * of all sub files and directories.
+	 * of all sub files and directories. Files keep the aggregator of their
+	 * tree so that a virtual root directory can be created for them (see
+	 * {@link #update(Collection, Function)}).
 	 */
 	private final BinaryOperator<V> aggregator;
 
@@ -141,17 +181,46 @@ public class FSTree<V> {
 	 * @param pValueOf
 	 * 		The function that is used to map a file to its value. The function
 	 * 		may return {@code null}.
+	 * @param pAggregator
+	 * 		The aggregation function of the tree the file belongs to.
 	 * @throws NullPointerException
 	 *      If {@code pFile} or {@code pValueOf} is {@code null}.
 	 */
 	private FSTree(final FSTree<V> pParent, final VCSFile pFile,
-			final Function<VCSFile, V> pValueOf) {
+			final Function<VCSFile, V> pValueOf,
+			final BinaryOperator<V> pAggregator) {
+		this(pParent, pFile, Validate.notNull(pValueOf).apply(pFile),
+				pAggregator, false);
+	}
+
+	/**
+	 * Creates a file with given parent, {@link VCSFile}, and value.
+	 *
+	 * @param pParent
+	 * 		The parent of the file to create. Pass {@code null} for root nodes.
+	 * @param pFile
+	 * 		The referenced {@link VCSFile} instance.
+	 * @param pValue
+	 * 		The value of the file to create. May be {@code null}.
+	 * @param pAggregator
+	 * 		The aggregation function of the tree the file belongs to.
+	 * @param pCompacted
+	 * 		Whether the file is part of a compacted tree.
+	 * @throws NullPointerException
+	 *      If {@code pFile} is {@code null}.
+	 */
+	private FSTree(final FSTree<V> pParent, final VCSFile pFile,
+			final V pValue, final BinaryOperator<V> pAggregator,
+			final boolean pCompacted) {
 		parent = pParent;
 		file = Validate.notNull(pFile);
 		path = file.toRelativePath().toString();
-		value = Validate.notNull(pValueOf).apply(file);
+		name = nameOf(path);
+		value = pValue;
 		nodes = null;
-		aggregator = null;
+		nodesByName = null;
+		aggregator = pAggregator;
+		compacted = pCompacted;
 	}
 
 	/**
@@ -171,12 +240,37 @@ public class FSTree<V> {
 	 */
 	private FSTree(final FSTree<V> pParent, final String pPath,
 			final BinaryOperator<V> pAggregator) {
+		this(pParent, pPath, pAggregator, false);
+	}
+
+	/**
+	 * Creates a directory with given parent, relative path, and aggregation
+	 * function.
+	 *
+	 * @param pParent
+	 * 		The parent of the directory to create. Pass {@code null} for root
+	 * 		nodes.
+	 * @param pPath
+	 *      The relative path of the directory to create.
+	 * @param pAggregator
+	 * 		The aggregation function used to calculate the value of a
+	 * 		directory. The function must not handle {@code null} values.
+	 * @param pCompacted
+	 * 		Whether the directory is part of a compacted tree.
+	 * @throws NullPointerException
+	 *      If {@code pPath} or {@code pAggregator} is {@code null}.
+	 */
+	private FSTree(final FSTree<V> pParent, final String pPath,
+			final BinaryOperator<V> pAggregator, final boolean pCompacted) {
 		parent = pParent;
 		path = Validate.notNull(pPath);
+		name = isVirtualRoot() ? null : nameOf(path);
 		nodes = new ArrayList<>();
+		nodesByName = new HashMap<>();
 		aggregator = Validate.notNull(pAggregator);
 		file = null;
 		value = null;
+		compacted = pCompacted;
 	}
 
 	/**
@@ -225,7 +319,7 @@ public class FSTree<V> {
 					dir = new FSTree<>(parent, path, pAggregator);
 					cache.put(path, dir);
 					if (parent != null) {
-						parent.nodes.add(dir);
+						parent.addNode(dir);
 					}
 				}
 				if (parent == null) {
@@ -238,10 +332,10 @@ public class FSTree<V> {
 			final String relativePathStr = relativePath.toString();
 			FSTree<V> file = cache.get(relativePathStr);
 			if (file == null) {
-				file = new FSTree<>(parent, f, pValueOf);
+				file = new FSTree<>(parent, f, pValueOf, pAggregator);
 				cache.put(relativePathStr, file);
 				if (parent != null) {
-					parent.nodes.add(file);
+					parent.addNode(file);
 				}
 			}
 			if (parent == null) {
@@ -254,7 +348,10 @@ public class FSTree<V> {
 		} else if (treesWithoutParent.size() > 1) {
 			final FSTree<V> root = new FSTree<>(
 					null, ROOT_DIRECTORY, pAggregator);
-			root.nodes.addAll(treesWithoutParent);
+			treesWithoutParent.forEach(t -> {
+				t.parent = root;
+				root.addNode(t);
+			});
 			return root;
 		} else {
 			return treesWithoutParent.iterator().next();
@@ -308,9 +405,7 @@ public class FSTree<V> {
 	 * 		The name of this file or directory.
 	 */
 	public String getName() {
-		return isVirtualRoot()
-				? path
-				: Paths.get(path).getFileName().toString();
+		return name == null ? path : name;
 	}
 
 	/**
@@ -326,7 +421,10 @@ public class FSTree<V> {
 	/**
 	 * Either returns the value of this file (if this tree represents a file)
 	 * or the aggregated values of all (recursively) sub files (if this tree
-	 * represents a directory).
+	 * represents a directory). The value of a directory is computed once and
+	 * is cached until it is invalidated by {@link #setValue(Object)},
+	 * {@link #put(VCSFile, Object)}, {@link #remove(String)}, or
+	 * {@link #update(Collection, Function)}.
 	 *
 	 * @return
 	 * 		The value of this file or the aggregated values of all
@@ -335,29 +433,242 @@ public class FSTree<V> {
 	 * 		{@link Optional} is returned.
 	 */
 	public Optional<V> getValue() {
-		final List<V> values = new ArrayList<>();
-		final Visitor<V> visitor = new Visitor<V>() {
-			@Override
-			protected void visitFile(final FSTree<V> pTree) {
-				if (pTree.value != null) {
-					values.add(pTree.value);
+		return Optional.ofNullable(isFile() ? value : aggregate());
+	}
+
+	/**
+	 * Computes the value of this directory (post-order) and caches it in
+	 * {@link #aggregate}. Sub directories with a valid cache are not visited
+	 * again.
+	 *
+	 * @return
+	 * 		The value of this directory. May be {@code null}.
+	 */
+	private V aggregate() {
+		if (!aggregated) {
+			V result = null;
+			for (final FSTree<V> node : nodes) {
+				final V v = node.isFile() ? node.value : node.aggregate();
+				if (v != null) {
+					result = result == null ? v : aggregator.apply(result, v);
 				}
-				super.visitFile(pTree);
 			}
-		};
-		visitor.visit(this);
-		if (values.isEmpty()) {
-			return Optional.empty();
-		} else if (values.size() == 1) {
-			return Optional.ofNullable(values.get(0));
+			aggregate = result;
+			aggregated = true;
+		}
+		return aggregate;
+	}
+
+	/**
+	 * Invalidates the cached value of this directory and of all of its
+	 * parents. Stops at the first parent whose cache is already invalid.
+	 */
+	private void invalidate() {
+		FSTree<V> tree = this;
+		while (tree != null && tree.aggregated) {
+			tree.aggregated = false;
+			tree.aggregate = null;
+			tree = tree.parent;
+		}
+	}
+
+	/**
+	 * Sets the value of this file and invalidates the cached value of all
+	 * parents.
+	 *
+	 * @param pValue
+	 * 		The value to set. May be {@code null}.
+	 * @throws IllegalStateException
+	 * 		If this tree is not a file or has been created with
+	 * 		{@link #compact()}.
+	 */
+	public void setValue(final V pValue) throws IllegalStateException {
+		Validate.validateState(isFile(), "'%s' is not a file", path);
+		Validate.validateState(!compacted,
+				"Compacted trees cannot be updated");
+		value = pValue;
+		if (parent != null) {
+			parent.invalidate();
+		}
+	}
+
+	/**
+	 * Adds the given file with given value to this directory. Missing sub
+	 * directories are created. If there already is a file with the same path,
+	 * it is replaced. Root directories accept files with any path: Virtual
+	 * root directories (see {@link #isVirtualRoot()}) contain all files
+	 * anyway and any other root directory becomes a virtual root directory
+	 * containing a copy of the former root if the file is not located in
+	 * it. The sub files and directories of the former root are moved to the
+	 * copy.
+	 *
+	 * @param pFile
+	 * 		The file to add.
+	 * @param pValue
+	 * 		The value of the file to add. May be {@code null}.
+	 * @return
+	 * 		The tree representing the added file.
+	 * @throws NullPointerException
+	 * 		If {@code pFile} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If this directory is not a root and {@code pFile} is not located
+	 * 		in this directory, or if one of its parent directories is a file.
+	 * @throws IllegalStateException
+	 * 		If this tree is not a directory or has been created with
+	 * 		{@link #compact()}.
+	 */
+	public FSTree<V> put(final VCSFile pFile, final V pValue)
+			throws NullPointerException, IllegalArgumentException,
+			IllegalStateException {
+		Validate.notNull(pFile);
+		Validate.validateState(isDirectory(), "'%s' is not a directory", path);
+		Validate.validateState(!compacted,
+				"Compacted trees cannot be updated");
+		final List<String> parts = partsOf(pFile.toRelativePath());
+		if (isRoot() && !isVirtualRoot() && !startsWith(parts)) {
+			promote();
+		}
+		final int offset = locate(parts);
+		Validate.isTrue(offset < parts.size(),
+				"'%s' is not located in '%s'", pFile.toRelativePath(), path);
+
+		// (1) Create missing directories.
+		final FSTree<V> dir = mkdirs(parts, offset);
+
+		// (2) Add or replace file.
+		final FSTree<V> node = new FSTree<>(
+				dir, pFile, pValue, aggregator, false);
+		final FSTree<V> existing = dir.nodesByName.get(node.name);
+		if (existing == null) {
+			dir.addNode(node);
 		} else {
-			return values.stream().reduce(aggregator);
+			Validate.isTrue(existing.isFile(),
+					"'%s' is a directory", existing.path);
+			dir.nodes.set(dir.nodes.indexOf(existing), node);
+			dir.nodesByName.put(node.name, node);
+			existing.parent = null;
+			dir.invalidate();
+		}
+		if (path.equals(EMPTY_DIRECTORY)) {
+			path = ROOT_DIRECTORY;
 		}
+		return node;
+	}
+
+	/**
+	 * Removes the file with given relative path from this directory. Sub
+	 * directories that become empty are removed as well.
+	 *
+	 * @param pPath
+	 * 		The relative path of the file to remove (see
+	 * 		{@link VCSFile#getRelativePath()}).
+	 * @return
+	 * 		The removed file, if such a file exists.
+	 * @throws NullPointerException
+	 * 		If {@code pPath} is {@code null}.
+	 * @throws IllegalStateException
+	 * 		If this tree is not a directory or has been created with
+	 * 		{@link #compact()}.
+	 */
+	public Optional<FSTree<V>> remove(final String pPath)
+			throws NullPointerException, IllegalStateException {
+		Validate.notNull(pPath);
+		Validate.validateState(isDirectory(), "'%s' is not a directory", path);
+		Validate.validateState(!compacted,
+				"Compacted trees cannot be updated");
+		final List<String> parts = partsOf(Paths.get(pPath));
+		if (!isVirtualRoot() && !startsWith(parts)) {
+			return Optional.empty();
+		}
+
+		FSTree<V> node = this;
+		for (int i = locate(parts); i < parts.size(); i++) {
+			node = node.isDirectory()
+					? node.nodesByName.get(parts.get(i))
+					: null;
+			if (node == null) {
+				return Optional.empty();
+			}
+		}
+		if (node.isDirectory()) {
+			return Optional.empty();
+		}
+
+		final FSTree<V> removed = node;
+		FSTree<V> dir = removed.parent;
+		dir.removeNode(removed);
+		while (dir != this && dir.nodes.isEmpty()) {
+			final FSTree<V> parentDir = dir.parent;
+			parentDir.removeNode(dir);
+			dir = parentDir;
+		}
+		if (path.equals(ROOT_DIRECTORY) && nodes.isEmpty()) {
+			path = EMPTY_DIRECTORY;
+		}
+		return Optional.of(removed);
+	}
+
+	/**
+	 * Applies the given file changes to this directory. Removed files (see
+	 * {@link FileChange#getOldFile()}) are removed first. Afterwards, added
+	 * files (see {@link FileChange#getNewFile()}) are added (or replaced)
+	 * with the value computed by {@code pValueOf}. Only the values of the
+	 * directories containing changed files are recomputed by
+	 * {@link #getValue()}.
+	 *
+	 * If this tree is a root directory, it remains the root of the updated
+	 * tree (see {@link #put(VCSFile, Object)}). If this tree is a root file,
+	 * which is the case if {@link #of(Collection, Function, BinaryOperator)}
+	 * is called with a single file, a virtual root directory containing this
+	 * file is created and updated instead. Hence, use the returned tree for
+	 * subsequent updates.
+	 *
+	 * @param pChanges
+	 * 		The file changes to apply.
+	 * @param pValueOf
+	 * 		The function that is used to map a file to its value. The function
+	 * 		may return {@code null}.
+	 * @return
+	 * 		The root of the updated tree. This tree, unless it is a root file.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If this tree is not a root and a new file is not located in this
+	 * 		directory (see {@link #put(VCSFile, Object)}), or if
+	 * 		{@code pChanges} contains {@code null}.
+	 * @throws IllegalStateException
+	 * 		If this tree is a file, but not a root, or if this tree has been
+	 * 		created with {@link #compact()}.
+	 */
+	public FSTree<V> update(final Collection<FileChange> pChanges,
+			final Function<VCSFile, V> pValueOf) throws NullPointerException,
+			IllegalArgumentException, IllegalStateException {
+		Validate.noNullElements(pChanges);
+		Validate.notNull(pValueOf);
+		Validate.validateState(isDirectory() || isRoot(),
+				"'%s' is not a directory", path);
+		Validate.validateState(!compacted,
+				"Compacted trees cannot be updated");
+		FSTree<V> root = this;
+		if (isFile()) {
+			root = new FSTree<>(null, ROOT_DIRECTORY, aggregator);
+			parent = root;
+			root.addNode(this);
+		}
+		final FSTree<V> dir = root;
+		pChanges.forEach(c -> c.getOldFile()
+				.map(VCSFile::getRelativePath)
+				.ifPresent(dir::remove));
+		pChanges.forEach(c -> c.getNewFile()
+				.ifPresent(f -> dir.put(f, pValueOf.apply(f))));
+		return root;
 	}
 
 	/**
 	 * Returns the sub files and directories of this tree if this tree is a
-	 * directory. If this tree is a file, an empty list is returned.
+	 * directory. If this tree is a file, an empty list is returned. The
+	 * returned list is an unmodifiable view and reflects subsequent updates
+	 * of this tree.
 	 *
 	 * @return
 	 *      The sub files and directories of this tree.
@@ -365,7 +676,7 @@ public class FSTree<V> {
 	public List<FSTree<V>> getNodes() {
 		return nodes == null
 				? Collections.emptyList()
-				: new ArrayList<>(nodes);
+				: Collections.unmodifiableList(nodes);
 	}
 
 	/**
@@ -495,12 +806,10 @@ public class FSTree<V> {
 					return tail.isEmpty() && hasFileName(head)
 							? Optional.of(this) : Optional.empty();
 				} else {
-					return nodes.stream()
-							.filter(n -> n.hasFileName(head))
-							.findFirst()
-							.map(n -> n.navigateTo(tail))
-							.filter(Optional::isPresent)
-							.map(Optional::get);
+					final FSTree<V> node = nodesByName.get(head);
+					return node == null
+							? Optional.empty()
+							: node.navigateTo(tail);
 				}
 		}
 	}
@@ -510,7 +819,7 @@ public class FSTree<V> {
 	 * containing only files or at least two sub directories. If this tree is a
 	 * sequence of single directories, an "empty" directory is returned. This
 	 * method does not modify this tree or any of its sub nodes, but creates a
-	 * flat copy it.
+	 * flat copy it. The returned copy cannot be updated.
 	 *
 	 * @return
 	 * 		A Tree consisting of files, and directories containing only files
@@ -548,8 +857,8 @@ public class FSTree<V> {
 		final T value = current.value;
 		final BinaryOperator<T> aggregator = current.aggregator;
 		final FSTree<T> compacted = current.isDirectory()
-				? new FSTree<>(pParent, path, aggregator)
-				: new FSTree<>(pParent, current.file, f -> value);
+				? new FSTree<>(pParent, path, aggregator, true)
+				: new FSTree<>(pParent, current.file, value, aggregator, true);
 
 		// Compact sub nodes in case of a directory. Ignore empty directories.
 		if (compacted.isDirectory()) {
@@ -557,7 +866,7 @@ public class FSTree<V> {
 				// compactedNode may be an empty directory.
 				final FSTree<T> compactedNode = compact(node, compacted);
 				if (compactedNode.isFile() || !compactedNode.nodes.isEmpty()) {
-					compacted.nodes.add(compactedNode);
+					compacted.addNode(compactedNode);
 				}
 			});
 		}
@@ -565,6 +874,153 @@ public class FSTree<V> {
 		return compacted;
 	}
 
+	/**
+	 * Returns the directory with the path given by {@code pParts} without its
+	 * last element (e.g., a file name). Missing directories are created.
+	 *
+	 * @param pParts
+	 * 		The elements of a relative path.
+	 * @param pOffset
+	 * 		The number of leading elements covered by this directory (see
+	 * 		{@link #locate(List)}).
+	 * @return
+	 * 		The parent directory of {@code pParts}.
+	 * @throws IllegalArgumentException
+	 * 		If one of the parent directories is a file.
+	 */
+	private FSTree<V> mkdirs(final List<String> pParts, final int pOffset)
+			throws IllegalArgumentException {
+		FSTree<V> dir = this;
+		for (int i = pOffset; i < pParts.size() - 1; i++) {
+			FSTree<V> next = dir.nodesByName.get(pParts.get(i));
+			if (next == null) {
+				next = new FSTree<>(dir, String.join(
+						File.separator, pParts.subList(0, i + 1)), aggregator);
+				dir.addNode(next);
+			}
+			Validate.isTrue(next.isDirectory(), "'%s' is a file", next.path);
+			dir = next;
+		}
+		return dir;
+	}
+
+	/**
+	 * Turns this root directory into a virtual root directory (see
+	 * {@link #ROOT_DIRECTORY}). The sub files and directories of this
+	 * directory are moved to a new directory with the former path of this
+	 * directory, which becomes a (recursive) sub directory of this directory.
+	 */
+	private void promote() {
+		assert isRoot() && isDirectory() && !isVirtualRoot();
+		final List<String> parts = partsOf(Paths.get(path));
+		final FSTree<V> former = new FSTree<>(null, path, aggregator);
+		nodes.forEach(node -> {
+			node.parent = former;
+			former.addNode(node);
+		});
+		nodes.clear();
+		nodesByName.clear();
+		path = ROOT_DIRECTORY;
+		name = null;
+		aggregated = false;
+		aggregate = null;
+
+		final FSTree<V> dir = mkdirs(parts, 0);
+		former.parent = dir;
+		dir.addNode(former);
+	}
+
+	/**
+	 * Adds the given node to the sub nodes of this directory and invalidates
+	 * the cached value of this directory.
+	 *
+	 * @param pNode
+	 * 		The node to add.
+	 */
+	private void addNode(final FSTree<V> pNode) {
+		nodes.add(pNode);
+		nodesByName.put(pNode.getName(), pNode);
+		invalidate();
+	}
+
+	/**
+	 * Removes the given node from the sub nodes of this directory and
+	 * invalidates the cached value of this directory.
+	 *
+	 * @param pNode
+	 * 		The node to remove.
+	 */
+	private void removeNode(final FSTree<V> pNode) {
+		nodes.remove(pNode);
+		nodesByName.remove(pNode.getName());
+		pNode.parent = null;
+		invalidate();
+	}
+
+	/**
+	 * Returns whether the path of this tree is a prefix of the path with
+	 * given elements.
+	 *
+	 * @param pParts
+	 * 		The elements of a relative path.
+	 * @return
+	 * 		{@code true} if the path of this tree is a prefix of
+	 * 		{@code pParts}, {@code false} otherwise.
+	 */
+	private boolean startsWith(final List<String> pParts) {
+		final List<String> prefix = partsOf(Paths.get(path));
+		return prefix.size() <= pParts.size()
+				&& prefix.equals(pParts.subList(0, prefix.size()));
+	}
+
+	/**
+	 * Returns the number of leading elements of {@code pParts} that are
+	 * covered by the path of this directory. Virtual root directories cover
+	 * no elements.
+	 *
+	 * @param pParts
+	 * 		The elements of a relative path.
+	 * @return
+	 * 		The number of leading elements covered by this directory.
+	 * @throws IllegalArgumentException
+	 * 		If the path of this directory is not a prefix of {@code pParts}.
+	 */
+	private int locate(final List<String> pParts)
+			throws IllegalArgumentException {
+		if (isVirtualRoot()) {
+			return 0;
+		}
+		Validate.isTrue(startsWith(pParts), "'%s' is not located in '%s'",
+				String.join(File.separator, pParts), path);
+		return Paths.get(path).getNameCount();
+	}
+
+	/**
+	 * Splits the given path into its elements.
+	 *
+	 * @param pPath
+	 * 		The path to split.
+	 * @return
+	 * 		The elements of {@code pPath}.
+	 */
+	private static List<String> partsOf(final Path pPath) {
+		final List<String> parts = new ArrayList<>();
+		pPath.forEach(p -> parts.add(p.toString()));
+		return parts;
+	}
+
+	/**
+	 * Returns the file name of the given path.
+	 *
+	 * @param pPath
+	 * 		The path whose file name is returned.
+	 * @return
+	 * 		The file name of {@code pPath}.
+	 */
+	private static String nameOf(final String pPath) {
+		return Paths.get(pPath).getFileName().toString();
+	}
+
 	/**
 	 * Returns whether the filename of this tree matches the given filename.
 	 *
@@ -0,0 +1,152 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Collects the files of a directory tree. Each directory is listed by a
+ * separate task of {@link ForkJoinPool#commonPool()} so that the tree is
+ * traversed in parallel. Symbolic links are not followed and are collected
+ * like regular files (see {@link #hasSymbolicLinks()}).
+ *
+ * Entries are excluded by passing their name to a {@link FilenameFilter}.
+ * As the tree is traversed in parallel, the filter must be threadsafe. The
+ * {@link File} object passed to the filter is created once per directory.
+ *
+ * This class is NOT threadsafe. Use a walker once only.
+ */
+class FileTreeWalker {
+
+	/**
+	 * The root directory of the tree to walk.
+	 */
+	private final Path root;
+
+	/**
+	 * The filter used to exclude files and directories. May be {@code null}.
+	 */
+	private final FilenameFilter filter;
+
+	/**
+	 * Indicates whether a symbolic link has been collected.
+	 */
+	private volatile boolean symbolicLinks = false;
+
+	/**
+	 * Creates a new walker for the given directory.
+	 *
+	 * @param pRoot
+	 * 		The root directory of the tree to walk. Can not be excluded.
+	 * @param pFilter
+	 * 		The filter used to exclude files and directories. {@code null}
+	 * 		does not exclude anything.
+	 * @throws NullPointerException
+	 * 		If {@code pRoot} is {@code null}.
+	 */
+	FileTreeWalker(final Path pRoot, final FilenameFilter pFilter)
+			throws NullPointerException {
+		root = Validate.notNull(pRoot);
+		filter = pFilter;
+	}
+
+	/**
+	 * Walks the tree and returns the paths of all non-excluded files relative
+	 * to the root directory (see {@link Path#relativize(Path)}). The paths
+	 * do not have a trailing separator.
+	 *
+	 * @return
+	 * 		The relative paths of all non-excluded files.
+	 * @throws IOException
+	 * 		If an error occurred while listing a directory.
+	 */
+	List<String> walk() throws IOException {
+		try {
+			return ForkJoinPool.commonPool().invoke(
+					new DirectoryTask(root, ""));
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Indicates whether the last call of {@link #walk()} collected a
+	 * symbolic link.
+	 *
+	 * @return
+	 * 		{@code true} if a symbolic link has been collected, {@code false}
+	 * 		otherwise.
+	 */
+	boolean hasSymbolicLinks() {
+		return symbolicLinks;
+	}
+
+	/**
+	 * Lists a single directory and forks a task for each of its
+	 * non-excluded subdirectories.
+	 */
+	private class DirectoryTask extends RecursiveTask<List<String>> {
+
+		/**
+		 * The directory to list.
+		 */
+		private final Path directory;
+
+		/**
+		 * The relative path of {@link #directory} including a trailing
+		 * separator. Empty for {@link #root}.
+		 */
+		private final String prefix;
+
+		private DirectoryTask(final Path pDirectory, final String pPrefix) {
+			directory = pDirectory;
+			prefix = pPrefix;
+		}
+
+		@Override
+		protected List<String> compute() {
+			final File dir = filter == null ? null : directory.toFile();
+			final List<String> files = new ArrayList<>();
+			final List<DirectoryTask> tasks = new ArrayList<>();
+			try (DirectoryStream<Path> stream =
+						 Files.newDirectoryStream(directory)) {
+				for (final Path entry : stream) {
+					final String name = entry.getFileName().toString();
+					if (filter != null && !filter.accept(dir, name)) {
+						continue;
+					}
+					final BasicFileAttributes attrs = Files.readAttributes(
+							entry, BasicFileAttributes.class,
+							LinkOption.NOFOLLOW_LINKS);
+					if (attrs.isDirectory()) {
+						final DirectoryTask task = new DirectoryTask(entry,
+								prefix + name + File.separator);
+						task.fork();
+						tasks.add(task);
+					} else {
+						if (attrs.isSymbolicLink()) {
+							symbolicLinks = true;
+						}
+						files.add(prefix + name);
+					}
+				}
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			for (final DirectoryTask task : tasks) {
+				files.addAll(task.join());
+			}
+			return files;
+		}
+	}
+}
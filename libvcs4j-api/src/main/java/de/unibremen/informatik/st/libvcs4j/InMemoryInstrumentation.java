@@ -0,0 +1,258 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link Instrumentation} that keeps all measurements in memory. The
+ * measurements of the currently processed revision (see
+ * {@link #revision(String)}) are kept separately from the measurements of
+ * all revisions, so that both can be dumped as JSON (see {@link #toJSON()}
+ * and {@link #toTotalJSON()}). A typical usage looks as follows:
+ *
+ * <pre>
+ * InMemoryInstrumentation instrumentation = new InMemoryInstrumentation();
+ * engine.setInstrumentation(instrumentation);
+ * for (RevisionRange range : engine) {
+ *     ...
+ *     System.out.println(instrumentation.toJSON());
+ * }
+ * </pre>
+ *
+ * The JSON object of a revision has the following structure (durations are
+ * given in nanoseconds, histogram buckets are keyed by their exclusive
+ * upper bound, which is a power of two):
+ *
+ * <pre>
+ * {
+ *   "revision": "...",
+ *   "timers": {"next": {"count": 1, "sum": 42, "min": 42, "max": 42,
+ *                       "mean": 42.0, "buckets": {"64": 1}}, ...},
+ *   "counters": {"read.bytes": 1024, ...},
+ *   "histograms": {"next.files": {...}, ...}
+ * }
+ * </pre>
+ *
+ * This class is threadsafe.
+ */
+public class InMemoryInstrumentation implements Instrumentation {
+
+	/**
+	 * The measurements of all revisions.
+	 */
+	private final Metrics total = new Metrics();
+
+	/**
+	 * The measurements of the currently processed revision.
+	 */
+	private volatile Metrics current = new Metrics();
+
+	/**
+	 * The id of the currently processed revision. {@code null} if no
+	 * revision has been processed yet.
+	 */
+	private volatile String revision = null;
+
+	@Override
+	public void revision(final String id) {
+		current = new Metrics();
+		revision = id;
+	}
+
+	@Override
+	public void time(final String name, final long nanos) {
+		current.timers.computeIfAbsent(name, n -> new Stats()).add(nanos);
+		total.timers.computeIfAbsent(name, n -> new Stats()).add(nanos);
+	}
+
+	@Override
+	public void count(final String name, final long delta) {
+		current.counters.computeIfAbsent(name, n -> new AtomicLong())
+				.addAndGet(delta);
+		total.counters.computeIfAbsent(name, n -> new AtomicLong())
+				.addAndGet(delta);
+	}
+
+	@Override
+	public void record(final String name, final long value) {
+		current.histograms.computeIfAbsent(name, n -> new Stats()).add(value);
+		total.histograms.computeIfAbsent(name, n -> new Stats()).add(value);
+	}
+
+	/**
+	 * Returns the value of the counter with the given name of the currently
+	 * processed revision. Returns {@code 0} if there is no such counter.
+	 *
+	 * @param name
+	 * 		The name of the counter.
+	 * @return
+	 * 		The value of the counter.
+	 */
+	public long getCounter(final String name) {
+		final AtomicLong counter = current.counters.get(name);
+		return counter == null ? 0 : counter.get();
+	}
+
+	/**
+	 * Returns the hit ratio of the cache with the given name (see
+	 * {@link #lookup(String, boolean)}) of the currently processed revision.
+	 * Returns {@link Double#NaN} if the cache has not been looked up.
+	 *
+	 * @param name
+	 * 		The name of the cache.
+	 * @return
+	 * 		The hit ratio of the cache.
+	 */
+	public double getHitRatio(final String name) {
+		final long hits = getCounter(name + ".hits");
+		final long misses = getCounter(name + ".misses");
+		return hits + misses == 0
+				? Double.NaN
+				: (double) hits / (hits + misses);
+	}
+
+	/**
+	 * Returns the measurements of the currently processed revision as JSON
+	 * object.
+	 *
+	 * @return
+	 * 		The measurements of the currently processed revision.
+	 */
+	public String toJSON() {
+		return toJSON(revision, current);
+	}
+
+	/**
+	 * Returns the measurements of all revisions as JSON object. The
+	 * revision of the object is the currently processed revision.
+	 *
+	 * @return
+	 * 		The measurements of all revisions.
+	 */
+	public String toTotalJSON() {
+		return toJSON(revision, total);
+	}
+
+	private static String toJSON(final String pRevision,
+			final Metrics pMetrics) {
+		final StringBuilder builder = new StringBuilder("{\"revision\":");
+		if (pRevision == null) {
+			builder.append("null");
+		} else {
+			appendString(builder, pRevision);
+		}
+		builder.append(",\"timers\":");
+		appendStats(builder, pMetrics.timers);
+		builder.append(",\"counters\":{");
+		boolean first = true;
+		for (final Map.Entry<String, AtomicLong> entry :
+				new TreeMap<>(pMetrics.counters).entrySet()) {
+			if (!first) {
+				builder.append(',');
+			}
+			first = false;
+			appendString(builder, entry.getKey());
+			builder.append(':').append(entry.getValue().get());
+		}
+		builder.append("},\"histograms\":");
+		appendStats(builder, pMetrics.histograms);
+		return builder.append('}').toString();
+	}
+
+	private static void appendStats(final StringBuilder pBuilder,
+			final Map<String, Stats> pStats) {
+		pBuilder.append('{');
+		boolean first = true;
+		for (final Map.Entry<String, Stats> entry :
+				new TreeMap<>(pStats).entrySet()) {
+			if (!first) {
+				pBuilder.append(',');
+			}
+			first = false;
+			appendString(pBuilder, entry.getKey());
+			pBuilder.append(':');
+			entry.getValue().appendJSON(pBuilder);
+		}
+		pBuilder.append('}');
+	}
+
+	private static void appendString(final StringBuilder pBuilder,
+			final String pString) {
+		pBuilder.append('"');
+		for (int i = 0; i < pString.length(); i++) {
+			final char c = pString.charAt(i);
+			if (c == '"' || c == '\\') {
+				pBuilder.append('\\').append(c);
+			} else if (c < 0x20) {
+				pBuilder.append(String.format("\\u%04x", (int) c));
+			} else {
+				pBuilder.append(c);
+			}
+		}
+		pBuilder.append('"');
+	}
+
+	/**
+	 * The measurements of one or more revisions.
+	 */
+	private static class Metrics {
+		private final Map<String, Stats> timers = new ConcurrentHashMap<>();
+		private final Map<String, AtomicLong> counters =
+				new ConcurrentHashMap<>();
+		private final Map<String, Stats> histograms =
+				new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Summary statistics and a histogram with power of two buckets of a
+	 * series of values.
+	 */
+	private static class Stats {
+		private long count = 0;
+		private long sum = 0;
+		private long min = Long.MAX_VALUE;
+		private long max = Long.MIN_VALUE;
+
+		/**
+		 * Bucket {@code i} counts the values {@code v} with
+		 * {@code 2^(i-1) <= v < 2^i}. Bucket 0 counts the values
+		 * {@code <= 0}.
+		 */
+		private final long[] buckets = new long[Long.SIZE];
+
+		private synchronized void add(final long pValue) {
+			count++;
+			sum += pValue;
+			min = Math.min(min, pValue);
+			max = Math.max(max, pValue);
+			buckets[pValue <= 0
+					? 0
+					: Long.SIZE - Long.numberOfLeadingZeros(pValue)]++;
+		}
+
+		private synchronized void appendJSON(final StringBuilder pBuilder) {
+			pBuilder.append("{\"count\":").append(count)
+					.append(",\"sum\":").append(sum)
+					.append(",\"min\":").append(min)
+					.append(",\"max\":").append(max)
+					.append(",\"mean\":").append((double) sum / count)
+					.append(",\"buckets\":{");
+			boolean first = true;
+			for (int i = 0; i < buckets.length; i++) {
+				if (buckets[i] == 0) {
+					continue;
+				}
+				if (!first) {
+					pBuilder.append(',');
+				}
+				first = false;
+				pBuilder.append('"')
+						.append(Long.toUnsignedString(1L << i))
+						.append("\":").append(buckets[i]);
+			}
+			pBuilder.append("}}");
+		}
+	}
+}
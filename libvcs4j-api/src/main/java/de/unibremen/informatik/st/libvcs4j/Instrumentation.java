@@ -0,0 +1,125 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+/**
+ * Receives measurements of the hot paths of a {@link VCSEngine}, such as the
+ * time spent for checking out a revision or the number of bytes read from
+ * the underlying VCS. Use {@link VCSEngine#setInstrumentation(Instrumentation)}
+ * to install an instrumentation and {@link InMemoryInstrumentation} to
+ * collect and dump measurements.
+ *
+ * All methods have an empty default implementation, which allows
+ * implementations to pick the measurements they are interested in.
+ * Measurements may be reported concurrently. Hence, implementations must be
+ * threadsafe. Measurements are identified by name. Engines use dot-separated
+ * names, for instance, {@code "next.checkout"} or {@code "hg.cat"}.
+ */
+public interface Instrumentation {
+
+	/**
+	 * An instrumentation that discards all measurements.
+	 */
+	Instrumentation NOOP = new Instrumentation() {
+		@Override
+		public void count(final String name, final long delta) {}
+
+		@Override
+		public void lookup(final String name, final boolean hit) {}
+
+		@Override
+		public Timer start(final String name) {
+			return Timer.NOOP;
+		}
+	};
+
+	/**
+	 * Measures the duration of a single execution of a phase. Closing a
+	 * timer reports the elapsed time (see {@link #time(String, long)}).
+	 */
+	interface Timer extends AutoCloseable {
+
+		/**
+		 * A timer that does not report anything.
+		 */
+		Timer NOOP = () -> {};
+
+		/**
+		 * Reports the elapsed time.
+		 */
+		@Override
+		void close();
+	}
+
+	/**
+	 * Signals that the engine starts processing the revision with the given
+	 * id. All subsequent measurements, until the next call of this method,
+	 * belong to this revision.
+	 *
+	 * @param id
+	 * 		The id of the revision (see {@link Revision#getId()}).
+	 */
+	default void revision(final String id) {}
+
+	/**
+	 * Reports a single execution of the phase with the given name.
+	 *
+	 * @param name
+	 * 		The name of the phase.
+	 * @param nanos
+	 * 		The duration of the execution in nanoseconds.
+	 */
+	default void time(final String name, final long nanos) {}
+
+	/**
+	 * Increments the counter with the given name.
+	 *
+	 * @param name
+	 * 		The name of the counter.
+	 * @param delta
+	 * 		The value to add.
+	 */
+	default void count(final String name, final long delta) {}
+
+	/**
+	 * Records a value of the histogram with the given name.
+	 *
+	 * @param name
+	 * 		The name of the histogram.
+	 * @param value
+	 * 		The value to record.
+	 */
+	default void record(final String name, final long value) {}
+
+	/**
+	 * Reports a lookup of the cache with the given name. The default
+	 * implementation increments the counters {@code <name>.hits} and
+	 * {@code <name>.misses}, respectively.
+	 *
+	 * @param name
+	 * 		The name of the cache.
+	 * @param hit
+	 * 		{@code true} if the lookup was a hit, {@code false} otherwise.
+	 */
+	default void lookup(final String name, final boolean hit) {
+		count(name + (hit ? ".hits" : ".misses"), 1);
+	}
+
+	/**
+	 * Starts a timer for the phase with the given name. Use this method in
+	 * try-with-resources statements:
+	 *
+	 * <pre>
+	 * try (Instrumentation.Timer t = instrumentation.start("phase")) {
+	 *     ...
+	 * }
+	 * </pre>
+	 *
+	 * @param name
+	 * 		The name of the phase.
+	 * @return
+	 * 		A timer that reports the elapsed time when closed.
+	 */
+	default Timer start(final String name) {
+		final long start = System.nanoTime();
+		return () -> time(name, System.nanoTime() - start);
+	}
+}
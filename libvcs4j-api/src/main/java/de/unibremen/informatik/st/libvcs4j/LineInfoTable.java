@@ -0,0 +1,400 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A compact, immutable representation of the line information of a
+ * {@link VCSFile} (see {@link VCSFile#readLineInfo()}). Rather than storing
+ * the commit id, author, message, and datetime of each line separately, this
+ * class stores every distinct commit once and assigns an index of this commit
+ * table to each line. The {@link LineInfo} instances of this list are created
+ * on demand using {@link VCSModelFactory#createLineInfo(String, String,
+ * String, LocalDateTime, int, String, VCSFile, VCSEngine)}. Consequently,
+ * {@link #get(int)} returns a new instance with each call.
+ *
+ * Use {@link Builder} to create instances of this class.
+ */
+public class LineInfoTable extends AbstractList<LineInfo>
+		implements RandomAccess {
+
+	/**
+	 * Builds {@link LineInfoTable} instances.
+	 */
+	public static class Builder {
+
+		/**
+		 * Identifies a commit of the commit table.
+		 */
+		private static final class CommitKey {
+
+			private final String id;
+			private final String author;
+			private final String message;
+			private final LocalDateTime dateTime;
+
+			private CommitKey(final String id, final String author,
+					final String message, final LocalDateTime dateTime) {
+				this.id = id;
+				this.author = author;
+				this.message = message;
+				this.dateTime = dateTime;
+			}
+
+			@Override
+			public boolean equals(final Object o) {
+				if (this == o) {
+					return true;
+				}
+				if (!(o instanceof CommitKey)) {
+					return false;
+				}
+				final CommitKey key = (CommitKey) o;
+				return id.equals(key.id) &&
+						author.equals(key.author) &&
+						message.equals(key.message) &&
+						dateTime.equals(key.dateTime);
+			}
+
+			@Override
+			public int hashCode() {
+				return Objects.hash(id, author, dateTime);
+			}
+		}
+
+		/**
+		 * The file the line information belongs to.
+		 */
+		private final VCSFile file;
+
+		/**
+		 * The engine of the line information.
+		 */
+		private final VCSEngine engine;
+
+		/**
+		 * Maps each commit to its index in the commit table.
+		 */
+		private final Map<CommitKey, Integer> commitIndices = new HashMap<>();
+
+		/**
+		 * The commit table.
+		 */
+		private final List<CommitKey> commits = new ArrayList<>();
+
+		/**
+		 * The commit index of each line.
+		 */
+		private int[] lineCommits = new int[64];
+
+		/**
+		 * The content of each line.
+		 */
+		private final List<String> contents = new ArrayList<>();
+
+		/**
+		 * Creates a new builder.
+		 *
+		 * @param file
+		 * 		The file the line information belongs to.
+		 * @param engine
+		 * 		The engine of the line information.
+		 * @throws NullPointerException
+		 * 		If any of the given arguments is {@code null}.
+		 */
+		public Builder(final VCSFile file, final VCSEngine engine)
+				throws NullPointerException {
+			this.file = Validate.notNull(file);
+			this.engine = Validate.notNull(engine);
+		}
+
+		/**
+		 * Adds a commit to the commit table and returns its index. If an
+		 * equal commit (same id, author, message, and datetime) has already
+		 * been added, the index of the existing commit is returned.
+		 *
+		 * @param id
+		 * 		The commit id.
+		 * @param author
+		 * 		The author of the commit.
+		 * @param message
+		 * 		The commit message.
+		 * @param dateTime
+		 * 		The datetime of the commit.
+		 * @return
+		 * 		The index of the commit.
+		 * @throws NullPointerException
+		 * 		If any of the given arguments is {@code null}.
+		 * @throws IllegalArgumentException
+		 * 		If {@code id} is empty.
+		 */
+		public int addCommit(final String id, final String author,
+				final String message, final LocalDateTime dateTime)
+				throws NullPointerException, IllegalArgumentException {
+			Validate.notEmpty(id);
+			Validate.notNull(author);
+			Validate.notNull(message);
+			Validate.notNull(dateTime);
+			final CommitKey key = new CommitKey(id, author, message, dateTime);
+			return commitIndices.computeIfAbsent(key, k -> {
+				commits.add(k);
+				return commits.size() - 1;
+			});
+		}
+
+		/**
+		 * Appends a line that belongs to the commit with index
+		 * {@code commit} (see {@link #addCommit(String, String, String,
+		 * LocalDateTime)}).
+		 *
+		 * @param commit
+		 * 		The index of the commit the line belongs to.
+		 * @param content
+		 * 		The content of the line.
+		 * @return
+		 * 		This builder.
+		 * @throws NullPointerException
+		 * 		If {@code content} is {@code null}.
+		 * @throws IndexOutOfBoundsException
+		 * 		If there is no commit with index {@code commit}.
+		 */
+		public Builder addLine(final int commit, final String content)
+				throws NullPointerException, IndexOutOfBoundsException {
+			Objects.checkIndex(commit, commits.size());
+			Validate.notNull(content);
+			final int line = contents.size();
+			if (line == lineCommits.length) {
+				lineCommits = Arrays.copyOf(lineCommits, line * 2);
+			}
+			lineCommits[line] = commit;
+			contents.add(content);
+			return this;
+		}
+
+		/**
+		 * Returns the number of lines added so far.
+		 *
+		 * @return
+		 * 		The number of lines added so far.
+		 */
+		public int getNumLines() {
+			return contents.size();
+		}
+
+		/**
+		 * Returns the index of the commit of the line with index
+		 * {@code index} (0 origin).
+		 *
+		 * @param index
+		 * 		The index of the line (0 origin).
+		 * @return
+		 * 		The index of the commit of the line.
+		 * @throws IndexOutOfBoundsException
+		 * 		If there is no line with index {@code index}.
+		 */
+		public int getCommitOfLine(final int index)
+				throws IndexOutOfBoundsException {
+			Objects.checkIndex(index, contents.size());
+			return lineCommits[index];
+		}
+
+		/**
+		 * Creates a new {@link LineInfoTable} from the commits and lines
+		 * added so far.
+		 *
+		 * @return
+		 * 		The created {@link LineInfoTable}.
+		 */
+		public LineInfoTable build() {
+			final int numCommits = commits.size();
+			final String[] ids = new String[numCommits];
+			final String[] authors = new String[numCommits];
+			final String[] messages = new String[numCommits];
+			final LocalDateTime[] dateTimes = new LocalDateTime[numCommits];
+			for (int i = 0; i < numCommits; i++) {
+				final CommitKey key = commits.get(i);
+				ids[i] = key.id;
+				authors[i] = key.author;
+				messages[i] = key.message;
+				dateTimes[i] = key.dateTime;
+			}
+			return new LineInfoTable(file, engine, ids, authors, messages,
+					dateTimes, Arrays.copyOf(lineCommits, contents.size()),
+					contents.toArray(new String[0]));
+		}
+	}
+
+	/**
+	 * The file the line information belongs to.
+	 */
+	private final VCSFile file;
+
+	/**
+	 * The engine of the line information.
+	 */
+	private final VCSEngine engine;
+
+	/**
+	 * The commit ids of the commit table.
+	 */
+	private final String[] ids;
+
+	/**
+	 * The authors of the commit table.
+	 */
+	private final String[] authors;
+
+	/**
+	 * The messages of the commit table.
+	 */
+	private final String[] messages;
+
+	/**
+	 * The datetimes of the commit table.
+	 */
+	private final LocalDateTime[] dateTimes;
+
+	/**
+	 * The commit index of each line.
+	 */
+	private final int[] lineCommits;
+
+	/**
+	 * The content of each line.
+	 */
+	private final String[] contents;
+
+	private LineInfoTable(final VCSFile file, final VCSEngine engine,
+			final String[] ids, final String[] authors,
+			final String[] messages, final LocalDateTime[] dateTimes,
+			final int[] lineCommits, final String[] contents) {
+		this.file = file;
+		this.engine = engine;
+		this.ids = ids;
+		this.authors = authors;
+		this.messages = messages;
+		this.dateTimes = dateTimes;
+		this.lineCommits = lineCommits;
+		this.contents = contents;
+	}
+
+	@Override
+	public LineInfo get(final int index) throws IndexOutOfBoundsException {
+		Objects.checkIndex(index, lineCommits.length);
+		final int commit = lineCommits[index];
+		return engine.getModelFactory().createLineInfo(ids[commit],
+				authors[commit], messages[commit], dateTimes[commit],
+				index + 1, contents[index], file, engine);
+	}
+
+	@Override
+	public int size() {
+		return lineCommits.length;
+	}
+
+	/**
+	 * Returns the file the line information belongs to.
+	 *
+	 * @return
+	 * 		The file the line information belongs to.
+	 */
+	public VCSFile getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the number of distinct commits of this table.
+	 *
+	 * @return
+	 * 		The number of distinct commits of this table.
+	 */
+	public int getNumCommits() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the index of the commit of the line with index {@code index}
+	 * (0 origin). Use this method in combination with {@link #getId(int)},
+	 * {@link #getAuthor(int)}, {@link #getMessage(int)}, and
+	 * {@link #getDateTime(int)} to process the line information without
+	 * creating {@link LineInfo} instances.
+	 *
+	 * @param index
+	 * 		The index of the line (0 origin).
+	 * @return
+	 * 		The index of the commit of the line.
+	 * @throws IndexOutOfBoundsException
+	 * 		If there is no line with index {@code index}.
+	 */
+	public int getCommitOfLine(final int index)
+			throws IndexOutOfBoundsException {
+		Objects.checkIndex(index, lineCommits.length);
+		return lineCommits[index];
+	}
+
+	/**
+	 * Returns the id of the commit with index {@code commit}.
+	 *
+	 * @param commit
+	 * 		The index of the commit.
+	 * @return
+	 * 		The id of the commit.
+	 * @throws IndexOutOfBoundsException
+	 * 		If there is no commit with index {@code commit}.
+	 */
+	public String getId(final int commit) throws IndexOutOfBoundsException {
+		return ids[Objects.checkIndex(commit, ids.length)];
+	}
+
+	/**
+	 * Returns the author of the commit with index {@code commit}.
+	 *
+	 * @param commit
+	 * 		The index of the commit.
+	 * @return
+	 * 		The author of the commit.
+	 * @throws IndexOutOfBoundsException
+	 * 		If there is no commit with index {@code commit}.
+	 */
+	public String getAuthor(final int commit)
+			throws IndexOutOfBoundsException {
+		return authors[Objects.checkIndex(commit, authors.length)];
+	}
+
+	/**
+	 * Returns the message of the commit with index {@code commit}.
+	 *
+	 * @param commit
+	 * 		The index of the commit.
+	 * @return
+	 * 		The message of the commit.
+	 * @throws IndexOutOfBoundsException
+	 * 		If there is no commit with index {@code commit}.
+	 */
+	public String getMessage(final int commit)
+			throws IndexOutOfBoundsException {
+		return messages[Objects.checkIndex(commit, messages.length)];
+	}
+
+	/**
+	 * Returns the datetime of the commit with index {@code commit}.
+	 *
+	 * @param commit
+	 * 		The index of the commit.
+	 * @return
+	 * 		The datetime of the commit.
+	 * @throws IndexOutOfBoundsException
+	 * 		If there is no commit with index {@code commit}.
+	 */
+	public LocalDateTime getDateTime(final int commit)
+			throws IndexOutOfBoundsException {
+		return dateTimes[Objects.checkIndex(commit, dateTimes.length)];
+	}
+}
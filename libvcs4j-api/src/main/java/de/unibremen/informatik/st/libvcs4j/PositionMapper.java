@@ -0,0 +1,460 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Projects positions and ranges located in the old file of a
+ * {@link FileChange} onto its new file. The diff of the file change (see
+ * {@link FileChange#computeDiff()}) is computed only once, when creating a
+ * mapper, and is turned into a translation table. Afterwards, any number of
+ * positions and ranges can be projected, each requiring a binary search over
+ * the table only. Use this class rather than
+ * {@link VCSFile.Position#apply(FileChange)} and
+ * {@link VCSFile.Range#apply(FileChange)} if you need to project several
+ * locations within the same file.
+ *
+ * The projection rules are those of
+ * {@link VCSFile.Position#apply(FileChange)}.
+ */
+public class PositionMapper {
+
+	/**
+	 * The file change to apply.
+	 */
+	private final FileChange fileChange;
+
+	/**
+	 * The old file of {@link #fileChange}.
+	 */
+	private final VCSFile oldFile;
+
+	/**
+	 * The new file of {@link #fileChange}. {@code null} if
+	 * {@link #fileChange} is a removal.
+	 */
+	private final VCSFile newFile;
+
+	/**
+	 * The (sorted) lines of {@link #oldFile} that have been deleted without a
+	 * corresponding insertion.
+	 */
+	private final int[] deletedLines;
+
+	/**
+	 * The (sorted) lines of {@link #oldFile} from which on the corresponding
+	 * insertion (without deletion) shifts the position of a line by one.
+	 */
+	private final int[] insertionThresholds;
+
+	/**
+	 * Lazily loaded lines of {@link #oldFile} (see
+	 * {@link VCSFile#readLines()}).
+	 */
+	private List<String> oldLines = null;
+
+	/**
+	 * Lazily loaded lines of {@link #newFile} (see
+	 * {@link VCSFile#readLines()}).
+	 */
+	private List<String> newLines = null;
+
+	/**
+	 * Lazily loaded lines of {@link #newFile} including EOL characters (see
+	 * {@link VCSFile#readLinesWithEOL()}).
+	 */
+	private List<String> newLinesWithEOL = null;
+
+	/**
+	 * The offsets of the first character of each line of {@link #newFile}.
+	 * Loaded alongside with {@link #newLinesWithEOL}.
+	 */
+	private int[] newLineOffsets = null;
+
+	/**
+	 * Creates a new mapper for the given file change.
+	 *
+	 * @param fileChange
+	 * 		The file change to apply.
+	 * @throws NullPointerException
+	 * 		If {@code fileChange} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code fileChange} has no old file.
+	 * @throws IOException
+	 * 		If computing the line diff (see {@link FileChange#computeDiff()})
+	 * 		fails.
+	 */
+	public PositionMapper(final FileChange fileChange)
+			throws NullPointerException, IllegalArgumentException,
+			IOException {
+		this.fileChange = Validate.notNull(fileChange);
+		oldFile = fileChange.getOldFile().orElseThrow(
+				() -> new IllegalArgumentException(
+						"The given file change has no old file."));
+
+		// Ignore removed files.
+		if (fileChange.getType() == FileChange.Type.REMOVE) {
+			newFile = null;
+			deletedLines = new int[0];
+			insertionThresholds = new int[0];
+			return;
+		}
+		// getType() != REMOVE => new file must exist.
+		newFile = fileChange.getNewFile()
+				.orElseThrow(IllegalStateException::new);
+
+		// Sorted lines of all deletions and insertions.
+		final List<LineChange> changes = fileChange.computeDiff();
+		final int[] dels = changes.stream()
+				.filter(lc -> lc.getType() == LineChange.Type.DELETE)
+				.mapToInt(LineChange::getLine)
+				.sorted()
+				.toArray();
+		final int[] ins = changes.stream()
+				.filter(lc -> lc.getType() == LineChange.Type.INSERT)
+				.mapToInt(LineChange::getLine)
+				.sorted()
+				.toArray();
+
+		// Find all deletions without insertions and insertions without
+		// deletions.
+		final int[] delsWithoutIns = new int[dels.length];
+		final int[] insWithoutDels = new int[ins.length];
+		int numDels = 0; // Number of deletions without insertions.
+		int numIns = 0;  // Number of insertions without deletions.
+		int delsIdx = 0; // Index of the currently processed deletion.
+		int insIdx = 0;  // Index of currently processed insertion.
+		while (delsIdx < dels.length && insIdx < ins.length) {
+			final int delLine = dels[delsIdx] + numIns;
+			final int inLine = ins[insIdx] + numDels;
+			if (delLine == inLine) {
+				delsIdx++;
+				insIdx++;
+			} else if (delLine < inLine) {
+				delsWithoutIns[numDels++] = dels[delsIdx++];
+			} else {
+				insWithoutDels[numIns++] = ins[insIdx++];
+			}
+		}
+		while (delsIdx < dels.length) {
+			delsWithoutIns[numDels++] = dels[delsIdx++];
+		}
+		while (insIdx < ins.length) {
+			insWithoutDels[numIns++] = ins[insIdx++];
+		}
+		deletedLines = Arrays.copyOf(delsWithoutIns, numDels);
+
+		// An insertion without deletion shifts a line l if all preceding
+		// insertions shift l and if the insertion, translated back to the
+		// old file, is located at or before l. Both conditions are monotone
+		// in l. Hence, each insertion can be assigned the smallest line it
+		// shifts.
+		insertionThresholds = new int[numIns];
+		int numPrecedingDels = 0;
+		int threshold = 1;
+		for (int i = 0; i < numIns; i++) {
+			final int line = insWithoutDels[i];
+			// On equal lines, deletions precede insertions.
+			while (numPrecedingDels < numDels &&
+					deletedLines[numPrecedingDels] <= line) {
+				numPrecedingDels++;
+			}
+			threshold = Math.max(threshold, smallestShiftedLine(
+					line - i, numPrecedingDels));
+			insertionThresholds[i] = threshold;
+		}
+	}
+
+	/**
+	 * Returns the smallest line {@code l >= 1} such that {@code l} minus the
+	 * number of the first {@code numDels} entries of {@link #deletedLines}
+	 * located at or before {@code l} is greater than or equal to
+	 * {@code target}.
+	 *
+	 * @param target
+	 * 		The line to reach.
+	 * @param numDels
+	 * 		The number of deletions to take into account.
+	 * @return
+	 * 		The smallest line satisfying the condition described above.
+	 */
+	private int smallestShiftedLine(final int target, final int numDels) {
+		int low = 1;
+		int high = Math.max(1, target + numDels);
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			final int dels = Math.min(numDels, countLE(deletedLines, mid));
+			if (mid - dels >= target) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Counts the values of the sorted array {@code values} that are less than
+	 * or equal to {@code value}.
+	 *
+	 * @param values
+	 * 		The sorted array.
+	 * @param value
+	 * 		The value to compare with.
+	 * @return
+	 * 		The number of values less than or equal to {@code value}.
+	 */
+	private static int countLE(final int[] values, final int value) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (values[mid] <= value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the file change applied by this mapper.
+	 *
+	 * @return
+	 * 		The file change applied by this mapper.
+	 */
+	public FileChange getFileChange() {
+		return fileChange;
+	}
+
+	/**
+	 * Maps the given line of the old file to the corresponding line of the
+	 * new file. Returns an empty {@link Optional} if the file change is a
+	 * removal, or if {@code line} was deleted without a corresponding
+	 * insertion.
+	 *
+	 * @param line
+	 * 		The line (of the old file) to map.
+	 * @return
+	 * 		The corresponding line of the new file.
+	 * @throws IllegalArgumentException
+	 * 		If {@code line < 1}.
+	 */
+	public Optional<Integer> mapLine(final int line)
+			throws IllegalArgumentException {
+		Validate.isPositive(line, "Line (%d) < 1", line);
+		if (newFile == null) {
+			return Optional.empty();
+		}
+		// Handle special case: Line was deleted entirely.
+		if (Arrays.binarySearch(deletedLines, line) >= 0) {
+			return Optional.empty();
+		}
+		return Optional.of(line
+				// Remove deleted lines.
+				- countLE(deletedLines, line)
+				// Add inserted lines.
+				+ countLE(insertionThresholds, line));
+	}
+
+	/**
+	 * Maps {@code position} to the new file of the file change of this
+	 * mapper. Behaves exactly like
+	 * {@link VCSFile.Position#apply(FileChange)}.
+	 *
+	 * @param position
+	 * 		The position to map.
+	 * @return
+	 * 		The updated position.
+	 * @throws NullPointerException
+	 * 		If {@code position} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If the file referenced by {@code position} differs from the old
+	 * 		file of the file change of this mapper.
+	 * @throws IOException
+	 * 		If an error occurred while reading the content of the old or new
+	 * 		file.
+	 */
+	public Optional<VCSFile.Position> map(final VCSFile.Position position)
+			throws NullPointerException, IllegalArgumentException,
+			IOException {
+		Validate.notNull(position);
+		Validate.isEqualTo(oldFile, position.getFile(),
+				"The given file change references an invalid file.");
+
+		final Optional<Integer> line = mapLine(position.getLine());
+		if (line.isEmpty()) {
+			return Optional.empty();
+		}
+		final int mappedLine = line.get();
+		if (oldLines == null) {
+			oldLines = oldFile.readLines();
+		}
+		if (newLines == null) {
+			newLines = newFile.readLines();
+		}
+		final String oldLineStr = oldLines.get(position.getLine() - 1);
+		final String newLineStr = newLines.get(mappedLine - 1);
+		if (newLineStr.isEmpty()) {
+			// We can't create a position for an empty line.
+			return Optional.empty();
+		}
+		final int mappedColumn = !oldLineStr.equals(newLineStr)
+				? 1 // We can't determine the column of a changed line, use 1
+				    // as fallback.
+				: position.getColumn();
+		return Optional.of(positionOf(mappedLine, mappedColumn,
+				position.getTabSize())
+				// Validate implementation.
+				.orElseThrow(IllegalStateException::new));
+	}
+
+	/**
+	 * Maps {@code range} to the new file of the file change of this mapper.
+	 * Behaves exactly like {@link VCSFile.Range#apply(FileChange)}.
+	 *
+	 * @param range
+	 * 		The range to map.
+	 * @return
+	 * 		The updated range.
+	 * @throws NullPointerException
+	 * 		If {@code range} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If the file referenced by {@code range} differs from the old file
+	 * 		of the file change of this mapper.
+	 * @throws IOException
+	 * 		If an error occurred while reading the content of the old or new
+	 * 		file.
+	 */
+	public Optional<VCSFile.Range> map(final VCSFile.Range range)
+			throws NullPointerException, IllegalArgumentException,
+			IOException {
+		Validate.notNull(range);
+		final Optional<VCSFile.Position> newBegin = map(range.getBegin());
+		final Optional<VCSFile.Position> newEnd = map(range.getEnd());
+		return newBegin.isPresent() && newEnd.isPresent()
+				? Optional.of(range.getVCSEngine().getModelFactory()
+						.createRange(newBegin.get(), newEnd.get(),
+								range.getVCSEngine()))
+				: Optional.empty();
+	}
+
+	/**
+	 * Maps all {@code positions} (see {@link #map(VCSFile.Position)}). The
+	 * returned list has the same order as {@code positions}. Unmappable
+	 * positions are represented by empty {@link Optional}s.
+	 *
+	 * @param positions
+	 * 		The positions to map.
+	 * @return
+	 * 		The updated positions.
+	 * @throws NullPointerException
+	 * 		If {@code positions} is {@code null} or contains {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If any of the given positions references a file that differs from
+	 * 		the old file of the file change of this mapper.
+	 * @throws IOException
+	 * 		If an error occurred while reading the content of the old or new
+	 * 		file.
+	 */
+	public List<Optional<VCSFile.Position>> mapPositions(
+			final List<VCSFile.Position> positions)
+			throws NullPointerException, IllegalArgumentException,
+			IOException {
+		Validate.notNull(positions);
+		final List<Optional<VCSFile.Position>> result =
+				new ArrayList<>(positions.size());
+		for (final VCSFile.Position position : positions) {
+			result.add(map(position));
+		}
+		return result;
+	}
+
+	/**
+	 * Maps all {@code ranges} (see {@link #map(VCSFile.Range)}). The
+	 * returned list has the same order as {@code ranges}. Unmappable ranges
+	 * are represented by empty {@link Optional}s.
+	 *
+	 * @param ranges
+	 * 		The ranges to map.
+	 * @return
+	 * 		The updated ranges.
+	 * @throws NullPointerException
+	 * 		If {@code ranges} is {@code null} or contains {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If any of the given ranges references a file that differs from
+	 * 		the old file of the file change of this mapper.
+	 * @throws IOException
+	 * 		If an error occurred while reading the content of the old or new
+	 * 		file.
+	 */
+	public List<Optional<VCSFile.Range>> mapRanges(
+			final List<VCSFile.Range> ranges)
+			throws NullPointerException, IllegalArgumentException,
+			IOException {
+		Validate.notNull(ranges);
+		final List<Optional<VCSFile.Range>> result =
+				new ArrayList<>(ranges.size());
+		for (final VCSFile.Range range : ranges) {
+			result.add(map(range));
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a position of the new file from the given line, column, and tab
+	 * size. Behaves like {@link VCSFile#positionOf(int, int, int)}, but uses
+	 * the cached lines and line offsets of the new file.
+	 *
+	 * @param line
+	 * 		The line of the position to create.
+	 * @param column
+	 * 		The column of the position to create.
+	 * @param tabSize
+	 * 		The number of characters acquired by a tab (\t).
+	 * @return
+	 * 		The corresponding position.
+	 * @throws IOException
+	 * 		If an error occurred while reading the content of the new file.
+	 */
+	private Optional<VCSFile.Position> positionOf(final int line,
+			final int column, final int tabSize) throws IOException {
+		if (newLinesWithEOL == null) {
+			newLinesWithEOL = newFile.readLinesWithEOL();
+			newLineOffsets = new int[newLinesWithEOL.size()];
+			int offset = 0;
+			for (int i = 0; i < newLineOffsets.length; i++) {
+				newLineOffsets[i] = offset;
+				offset += newLinesWithEOL.get(i).length();
+			}
+		}
+		if (line > newLinesWithEOL.size()) {
+			return Optional.empty();
+		}
+
+		final int lineIdx = line - 1;
+		final String lineStr = newLinesWithEOL.get(lineIdx);
+		int col = 1;
+		for (int offsetInLine = 0; offsetInLine < lineStr.length();
+				offsetInLine++) {
+			final char c = lineStr.charAt(offsetInLine);
+			if (c == '\n' || c == '\r' || col > column) {
+				return Optional.empty();
+			} else if (col == column) {
+				final int offset = newLineOffsets[lineIdx] + offsetInLine;
+				return Optional.of(newFile.getVCSEngine().getModelFactory()
+						.createPosition(newFile, line, column, offset,
+								offsetInLine, tabSize,
+								newFile.getVCSEngine()));
+			}
+			col = c == '\t'
+					? ( (col-1)/tabSize + 1 ) * tabSize + 1
+					: col + 1;
+		}
+		return Optional.empty();
+	}
+}
@@ -1,15 +1,13 @@
 package de.unibremen.informatik.st.libvcs4j;
 
 import java.nio.file.Path;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -105,111 +103,161 @@ public interface RevisionRange extends VCSModelElement {
 	/**
 	 * Returns all files that have changed between {@link #getPrevious()} and
 	 * {@link #getCurrent()}. The default implementation, if necessary, merges
-	 * the file changes of all commits listed in {@link #getCommits()}.
+	 * the file changes of all commits listed in {@link #getCommits()}. The
+	 * changes of a commit are matched with the accumulated changes of its
+	 * predecessors by their relative paths (see
+	 * {@link VCSFile#toRelativePath()}) using hash maps. Thus, merging the
+	 * commits of a range takes time linear to the number of file changes.
 	 *
 	 * @return
 	 * 		The list of file changes.
 	 */
 	default List<FileChange> getFileChanges() {
-		if (getCommits().size() == 1) {
-			return getCommits().get(0).getFileChanges();
+		final List<Commit> commits = getCommits();
+		if (commits.size() == 1) {
+			return commits.get(0).getFileChanges();
 		} else {
-			// Accumulates the result
+			final VCSEngine engine = getVCSEngine();
+			final VCSModelFactory factory = engine.getModelFactory();
+			// Accumulates the result. Changes that cancel each other out are
+			// set to null.
 			final List<FileChange> accum = new ArrayList<>(
-					getCommits().get(0).getFileChanges());
+					commits.get(0).getFileChanges());
+			// Maps the new path of each accumulated change which is not a
+			// removal to its index in accum.
+			final Map<Path, Integer> existing = new HashMap<>();
+			// Maps the old path of each accumulated removal to its index in
+			// accum.
+			final Map<Path, Integer> removed = new HashMap<>();
+			// Registers a change of accum in the maps above.
+			final BiConsumer<FileChange, Integer> register = (change, idx) -> {
+				final Optional<VCSFile> nev = change.getNewFile();
+				if (nev.isPresent()) {
+					existing.putIfAbsent(nev.get().toRelativePath(), idx);
+				} else {
+					removed.putIfAbsent(change.getOldFile()
+							.orElseThrow(IllegalStateException::new)
+							.toRelativePath(), idx);
+				}
+			};
+			// Unregisters a change of accum from the maps above.
+			final BiConsumer<FileChange, Integer> unregister = (change, idx) -> {
+				final Optional<VCSFile> nev = change.getNewFile();
+				if (nev.isPresent()) {
+					existing.remove(nev.get().toRelativePath(), idx);
+				} else {
+					removed.remove(change.getOldFile()
+							.orElseThrow(IllegalStateException::new)
+							.toRelativePath(), idx);
+				}
+			};
+			for (int i = 0; i < accum.size(); i++) {
+				register.accept(accum.get(i), i);
+			}
+
 			// Merge subsequent commits one after another
-			for (int i = 1; i < getCommits().size(); i++) {
-				// Try to find a match in this list
-				final List<FileChange> toProcess = new ArrayList<>(
-						getCommits().get(i).getFileChanges());
-				// Use a ListIterator to remove/set the current value
-				final ListIterator<FileChange> iter = accum.listIterator();
-				while (iter.hasNext()) {
-					final FileChange change = iter.next();
+			for (int i = 1; i < commits.size(); i++) {
+				final List<FileChange> toProcess =
+						commits.get(i).getFileChanges();
+				// Find the accumulated change (if any) each change of this
+				// commit applies to. The maps are not updated before all
+				// changes of this commit are matched, so that changes of the
+				// same commit are never merged with each other.
+				final int[] matches = new int[toProcess.size()];
+				final boolean[] matched = new boolean[accum.size()];
+				for (int j = 0; j < toProcess.size(); j++) {
+					final FileChange change = toProcess.get(j);
 					final FileChange.Type type = change.getType();
-					// Used to export the match from within a lambda
-					final Deque<FileChange> matches = new ArrayDeque<>();
-					if (type == ADD || type == REMOVE) {
-						final Path path = type == ADD
-								? change.getNewFile()
-									.orElseThrow(IllegalStateException::new)
-									.toRelativePath()
-								: change.getOldFile()
-									.orElseThrow(IllegalStateException::new)
-									.toRelativePath();
-						toProcess.stream().filter(c ->
-								(type == ADD
-										? c.getOldFile()
-										: c.getNewFile())
-								.map(VCSFile::toRelativePath)
-								.map(p -> p.equals(path))
-								.orElse(false))
-						.findAny().ifPresent(match -> {
-							final FileChange.Type oType = match.getType();
-							Validate.validateState(
-									!(type == ADD && oType == ADD),
-									"'%s' has been added after being added",
-									path);
-							Validate.validateState(
-									!(type == REMOVE && oType == REMOVE),
-									"'%s' has been removed after being removed",
-									path);
-							toProcess.remove(match);
-							if (oType == REMOVE) {
-								iter.remove();
-							} else {
-								matches.add(match);
-							}
-						});
-					} else {
+					Integer match = null;
+					if (type != ADD) {
+						// Modifies, relocates, or removes a previously
+						// added, modified, or relocated file.
+						final Path path = change.getOldFile()
+								.orElseThrow(IllegalStateException::new)
+								.toRelativePath();
+						match = existing.get(path);
+					}
+					if ((match == null || matched[match]) && type != REMOVE) {
 						final Path path = change.getNewFile()
 								.orElseThrow(IllegalStateException::new)
 								.toRelativePath();
-						toProcess.stream().filter(c ->
-								(c.getType() != ADD
-										? c.getOldFile()
-										: c.getNewFile()) // < indicates a bug
-								.map(VCSFile::toRelativePath)
-								.map(p -> p.equals(path))
-								.orElse(false)
-						).findAny().ifPresent(match -> {
-							final FileChange.Type oType = match.getType();
-							Validate.validateState(
-									!(type == MODIFY && oType == ADD),
-									"'%s' has been added after being modified",
-									path);
-							Validate.validateState(
-									!(type == RELOCATE && oType == ADD),
-									"'%s' has been added after being relocated to this path",
-									path);
-							toProcess.remove(match);
-							matches.add(match);
-						});
+						// Restores (or relocates to) a previously removed
+						// file.
+						match = removed.get(path);
+						if (match == null && type == ADD) {
+							final Integer prev = existing.get(path);
+							if (prev != null) {
+								final FileChange.Type pType =
+										accum.get(prev).getType();
+								Validate.validateState(pType != MODIFY,
+										"'%s' has been added after being modified",
+										path);
+								Validate.validateState(pType != RELOCATE,
+										"'%s' has been added after being relocated to this path",
+										path);
+							}
+						}
+					}
+					if (match != null && !matched[match]) {
+						matched[match] = true;
+						matches[j] = match;
+					} else {
+						matches[j] = -1;
+					}
+				}
+
+				// Merge matches and append the remaining changes.
+				final List<Integer> updated = new ArrayList<>();
+				final List<FileChange> vacated = new ArrayList<>();
+				for (int j = 0; j < toProcess.size(); j++) {
+					if (matches[j] >= 0) {
+						final int idx = matches[j];
+						final FileChange change = accum.get(idx);
+						final FileChange match = toProcess.get(j);
+						unregister.accept(change, idx);
+						if (change.getType() == ADD &&
+								match.getType() == REMOVE) {
+							accum.set(idx, null);
+						} else {
+							if (change.getType() == REMOVE &&
+									match.getType() == RELOCATE) {
+								// The file has been relocated to a removed
+								// path. Thus, its previous path is gone.
+								vacated.add(factory.createFileChange(
+										match.getOldFile().orElse(null),
+										null, engine));
+							}
+							accum.set(idx, factory.createFileChange(
+									change.getOldFile().orElse(null),
+									match.getNewFile().orElse(null),
+									engine));
+							updated.add(idx);
+						}
 					}
-					Validate.validateState(matches.size() <= 1,
-							"Unexpected number of matches (%d)",
-							matches.size());
-					if (!matches.isEmpty()) {
-						final FileChange match = matches.poll();
-						final VCSEngine engine = getVCSEngine();
-						iter.set(engine.getModelFactory().createFileChange(
-								change.getOldFile().orElse(null),
-								match.getNewFile().orElse(null),
-								engine));
+				}
+				updated.forEach(idx -> register.accept(accum.get(idx), idx));
+				for (int j = 0; j < toProcess.size(); j++) {
+					if (matches[j] < 0) {
+						final FileChange change = toProcess.get(j);
+						register.accept(change, accum.size());
+						accum.add(change);
 					}
 				}
-				accum.addAll(toProcess);
+				for (final FileChange change : vacated) {
+					register.accept(change, accum.size());
+					accum.add(change);
+				}
 			}
 			// Postprocessing: Replace accumulated file changes such that the
 			// revisions of the referenced files match with the predecessor and
 			// successor revision of this range.
 			final Revision predRev = getPrevious().orElse(null);
 			final Revision rev = getCurrent();
-			final VCSEngine engine = getVCSEngine();
-			final VCSModelFactory factory = engine.getModelFactory();
-			final ListIterator<FileChange> it = accum.listIterator();
-			while (it.hasNext()) {
-				final FileChange change = it.next();
+			final List<FileChange> result = new ArrayList<>(accum.size());
+			for (final FileChange change : accum) {
+				if (change == null) {
+					continue;
+				}
 				final VCSFile newOldFile = change.getOldFile()
 						.map(file -> {
 							Validate.validateState(predRev != null);
@@ -233,11 +281,10 @@ public interface RevisionRange extends VCSModelElement {
 											relPath, rev, engine);
 						})
 						.orElse(null);
-				final FileChange newChange = factory.createFileChange(
-						newOldFile, newNewFile, engine);
-				it.set(newChange);
+				result.add(factory.createFileChange(
+						newOldFile, newNewFile, engine));
 			}
-			return accum;
+			return result;
 		}
 	}
 
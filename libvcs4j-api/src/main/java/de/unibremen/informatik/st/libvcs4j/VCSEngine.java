@@ -5,13 +5,9 @@ import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.nio.file.FileVisitResult;
-import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -226,6 +222,51 @@ public interface VCSEngine extends Iterable<RevisionRange> {
 	 */
 	void setModelFactory(VCSModelFactory factory) throws NullPointerException;
 
+	/**
+	 * Returns the instrumentation which receives the measurements of this
+	 * engine. The default implementation returns
+	 * {@link Instrumentation#NOOP}.
+	 *
+	 * @return
+	 * 		The instrumentation which receives the measurements of this
+	 * 		engine.
+	 */
+	default Instrumentation getInstrumentation() {
+		return Instrumentation.NOOP;
+	}
+
+	/**
+	 * Sets the instrumentation which receives the measurements of this
+	 * engine. Use {@link Instrumentation#NOOP} to disable instrumentation.
+	 * The default implementation ignores the given instrumentation, that is,
+	 * engines that do not report measurements keep returning
+	 * {@link Instrumentation#NOOP} (see {@link #getInstrumentation()}).
+	 *
+	 * @param instrumentation
+	 * 		The instrumentation which receives the measurements of this
+	 * 		engine.
+	 * @throws NullPointerException
+	 * 		If {@code instrumentation} is {@code null}.
+	 */
+	default void setInstrumentation(final Instrumentation instrumentation)
+			throws NullPointerException {
+		Validate.notNull(instrumentation);
+	}
+
+	/**
+	 * Returns the service used to canonicalize the paths of the files of the
+	 * currently processed revision (see {@link CanonicalPaths}). Engines are
+	 * supposed to return the same instance on each call so that cached paths
+	 * are shared by all users of an engine. The default implementation
+	 * creates an instance on first call and returns it on subsequent calls.
+	 *
+	 * @return
+	 * 		The service used to canonicalize paths.
+	 */
+	default CanonicalPaths getCanonicalPaths() {
+		return CanonicalPaths.of(this);
+	}
+
 	/**
 	 * Returns a {@link FilenameFilter} that is supposed to exclude VCS
 	 * specific files and directories. The default implementation creates a
@@ -245,10 +286,9 @@ public interface VCSEngine extends Iterable<RevisionRange> {
 	/**
 	 * Returns all non-VCS-specific files located in {@link #getOutput()}. All
 	 * paths of the returned list are absolute and the list does not contain
-	 * any directory path. The default implementation uses the
-	 * {@link FilenameFilter} returned by {@link #createVCSFileFilter()} to
-	 * exclude particular files from {@link #getOutput()}. {@link #getOutput()}
-	 * itself can not be excluded.
+	 * any directory path. The default implementation resolves the paths
+	 * returned by {@link #listRelativeFilesInOutput()} against
+	 * {@link #getOutput()}.
 	 *
 	 * @return
 	 * 		All non-VCS-specific files located in {@link #getOutput()}.
@@ -258,65 +298,53 @@ public interface VCSEngine extends Iterable<RevisionRange> {
 	 * 		If an error occurred while collecting files.
 	 */
 	default List<Path> listFilesInOutput() throws IOException {
-		final File output = getOutput().toFile();
-		if (!output.exists()) {
+		final Path output = getOutput().toAbsolutePath();
+		final List<String> files = listRelativeFilesInOutput();
+		final List<Path> filesInOutput = new ArrayList<>(files.size());
+		for (final String file : files) {
+			filesInOutput.add(output.resolve(file));
+		}
+		return filesInOutput;
+	}
+
+	/**
+	 * Returns the paths of all non-VCS-specific files located in
+	 * {@link #getOutput()} relative to {@link #getOutput()} (see
+	 * {@link Path#relativize(Path)}). If {@link #getOutput()} is a file, the
+	 * returned list contains the empty path only. The default implementation
+	 * walks {@link #getOutput()} in parallel and uses the
+	 * {@link FilenameFilter} returned by {@link #createVCSFileFilter()},
+	 * which, therefore, must be threadsafe, to exclude particular files from
+	 * {@link #getOutput()}. {@link #getOutput()} itself can not be excluded.
+	 * Symbolic links are not followed. As the whole tree is walked anyway,
+	 * the service returned by {@link #getCanonicalPaths()} is reset (see
+	 * {@link CanonicalPaths#reset(boolean)}) according to whether the listed
+	 * tree contains symbolic links.
+	 *
+	 * @return
+	 * 		The relative paths of all non-VCS-specific files located in
+	 * 		{@link #getOutput()}.
+	 * @throws FileNotFoundException
+	 * 		If {@link #getOutput()} does not exist.
+	 * @throws IOException
+	 * 		If an error occurred while collecting files.
+	 */
+	default List<String> listRelativeFilesInOutput() throws IOException {
+		final Path output = getOutput();
+		if (!Files.exists(output)) {
 			throw new FileNotFoundException(
-					String.format("'%s' does not exist", getOutput()));
-		} else if (output.isFile()) {
-			return Collections.singletonList(getOutput().toAbsolutePath());
+					String.format("'%s' does not exist", output));
+		} else if (!Files.isDirectory(output)) {
+			getCanonicalPaths().reset(!Files.isSymbolicLink(output));
+			final List<String> files = new ArrayList<>();
+			files.add("");
+			return files;
 		} else {
-			final List<Path> filesInOutput = new ArrayList<>();
-			// For the sake of stability, handle null filters.
-			final Optional<FilenameFilter> filter =
-					Optional.ofNullable(createVCSFileFilter());
-			final Path rootDir = getOutput();
-			Files.walkFileTree(rootDir, new FileVisitor<Path>() {
-				@Override
-				public FileVisitResult preVisitDirectory(
-						final Path dir, final BasicFileAttributes attrs)
-						throws IOException {
-					if (dir.equals(rootDir)) {
-						return FileVisitResult.CONTINUE;
-					}
-					return filter
-							.map(f -> f.accept(dir.getParent().toFile(),
-									dir.getFileName().toString()))
-							.filter(b -> !b)
-							.map(b -> FileVisitResult.SKIP_SUBTREE)
-							.orElse(FileVisitResult.CONTINUE);
-				}
-
-				@Override
-				public FileVisitResult visitFile(
-						final Path file, final BasicFileAttributes attrs)
-						throws IOException {
-					filter
-							.map(f -> f.accept(file.getParent().toFile(),
-									file.getFileName().toString()))
-							.filter(b -> b)
-							.map(__ -> file.toAbsolutePath())
-							.ifPresent(filesInOutput::add);
-					return FileVisitResult.CONTINUE;
-				}
-
-				@Override
-				public FileVisitResult visitFileFailed(
-						final Path file, final IOException exc)
-						throws IOException {
-					throw exc;
-				}
-
-				@Override
-				public FileVisitResult postVisitDirectory(
-						final Path dir, final IOException exc)
-						throws IOException {
-					if (exc != null) {
-						throw exc;
-					}
-					return FileVisitResult.CONTINUE;
-				}
-			});
-			return filesInOutput;
+			final FileTreeWalker walker =
+					new FileTreeWalker(output, createVCSFileFilter());
+			final List<String> files = walker.walk();
+			getCanonicalPaths().reset(!walker.hasSymbolicLinks());
+			return files;
 		}
 	}
 }
@@ -110,6 +110,10 @@ public interface VCSFile extends VCSModelElement {
 		 * position was changed to a non-empty string, the resulting column is
 		 * set to 1. If the line of this position was changed to an empty
 		 * string, an empty {@link Optional} is returned.
+		 * <p>
+		 * Each call computes the diff of {@code fileChange}. Use a
+		 * {@link PositionMapper} to apply the same file change to several
+		 * positions.
 		 *
 		 * @param fileChange
 		 * 		The file change to apply.
@@ -128,113 +132,7 @@ public interface VCSFile extends VCSModelElement {
 				throws NullPointerException, IllegalArgumentException,
 				IOException {
 			Validate.notNull(fileChange);
-			final VCSFile oldFile = fileChange.getOldFile().orElseThrow(
-					() -> new IllegalArgumentException(
-							"The given file change has no old file."));
-			Validate.isEqualTo(oldFile, getFile(),
-					"The given file change references an invalid file.");
-
-			// Ignore removed files.
-			if (fileChange.getType() == FileChange.Type.REMOVE) {
-				return Optional.empty();
-			}
-			// getType() != REMOVE => new file must exist.
-			final VCSFile newFile = fileChange.getNewFile()
-					.orElseThrow(IllegalStateException::new);
-
-			// Find all deletions without insertions and insertions without
-			// deletions.
-			final List<LineChange> changes = fileChange.computeDiff();
-			final List<LineChange> dels = changes.stream()
-					.filter(lc -> lc.getType() == LineChange.Type.DELETE)
-					.sorted(Comparator.comparingInt(LineChange::getLine))
-					.collect(Collectors.toList());
-			final List<LineChange> ins = changes.stream()
-					.filter(lc -> lc.getType() == LineChange.Type.INSERT)
-					.sorted(Comparator.comparingInt(LineChange::getLine))
-					.collect(Collectors.toList());
-			final List<LineChange> delsWithoutIns = new ArrayList<>();
-			final List<LineChange> insWithoutDels = new ArrayList<>();
-			int delsIdx = 0; // Index of the currently processed deletion.
-			int insIdx = 0;  // Index of currently processed insertion.
-			while (delsIdx < dels.size() && insIdx < ins.size()) {
-				final LineChange del = dels.get(delsIdx);
-				final LineChange in = ins.get(insIdx);
-				final int delLine = del.getLine() + insWithoutDels.size();
-				final int inLine = in.getLine() + delsWithoutIns.size();
-				if (delLine == inLine) {
-					delsIdx++;
-					insIdx++;
-				} else if (delLine < inLine) {
-					delsWithoutIns.add(del);
-					delsIdx++;
-				} else {
-					insWithoutDels.add(in);
-					insIdx++;
-				}
-			}
-			for(; delsIdx < dels.size(); delsIdx++) {
-				delsWithoutIns.add(dels.get(delsIdx));
-			}
-			for (; insIdx < ins.size(); insIdx++) {
-				insWithoutDels.add(ins.get(insIdx));
-			}
-
-			// Handle special case: Line was deleted entirely.
-			if (delsWithoutIns.stream().anyMatch(
-					lc -> lc.getLine() == getLine())) {
-				return Optional.empty();
-			}
-
-			// Find all deletions and insertions applied up to this position.
-			final List<LineChange> layoutChanges = new ArrayList<>();
-			layoutChanges.addAll(delsWithoutIns);
-			layoutChanges.addAll(insWithoutDels);
-			layoutChanges.sort(Comparator.comparingInt(LineChange::getLine));
-			final List<LineChange> relevantDels = new ArrayList<>();
-			final List<LineChange> relevantIns = new ArrayList<>();
-			for (LineChange lc : layoutChanges) {
-				if (lc.getType() == LineChange.Type.DELETE &&
-						lc.getLine() <= getLine()) {
-					relevantDels.add(lc);
-				} else if (lc.getType() == LineChange.Type.INSERT) {
-					final int inLine = lc.getLine()
-							+ relevantDels.size()
-							- relevantIns.size();
-					if (inLine <= getLine()) {
-						relevantIns.add(lc);
-					}
-				}
-			}
-			final List<LineChange> relevantChanges = new ArrayList<>();
-			relevantChanges.addAll(relevantDels);
-			relevantChanges.addAll(relevantIns);
-
-			// Map position.
-			final int mappedLine = getLine() -
-					// Remove deleted lines.
-					(int) relevantChanges.stream()
-						.filter(fc -> fc.getType() == LineChange.Type.DELETE)
-						.count() +
-					// Add inserted lines.
-					(int) relevantChanges.stream()
-						.filter(fc -> fc.getType() == LineChange.Type.INSERT)
-						.count();
-			final String oldLineStr = oldFile.readLines().get(getLine() - 1);
-			final String newLineStr = newFile.readLines().get(mappedLine - 1);
-			if (newLineStr.isEmpty()) {
-				// We can't create a position for an empty line.
-				return Optional.empty();
-			}
-			final int mappedColumn = !oldLineStr.equals(newLineStr)
-					? 1 // We can't determine the column of a changed line, use
-					    // 1 as fallback.
-					: getColumn();
-			return Optional.of(fileChange.getNewFile()
-					.orElseThrow(IllegalStateException::new)
-					.positionOf(mappedLine, mappedColumn, getTabSize())
-					// Validate implementation.
-					.orElseThrow(IllegalStateException::new));
+			return new PositionMapper(fileChange).map(this);
 		}
 
 		/**
@@ -542,6 +440,10 @@ public interface VCSFile extends VCSModelElement {
 		 * {@code fileChange} is of type {@link FileChange.Type#REMOVE}, or if
 		 * {@link #getBegin()} or {@link #getEnd()} returns an empty
 		 * {@link Optional}.
+		 * <p>
+		 * Each call computes the diff of {@code fileChange}. Use a
+		 * {@link PositionMapper} to apply the same file change to several
+		 * ranges.
 		 *
 		 * @param fileChange
 		 * 		The file change to apply.
@@ -559,12 +461,7 @@ public interface VCSFile extends VCSModelElement {
 		default Optional<Range> apply(final FileChange fileChange)
 				throws NullPointerException, IOException {
 			Validate.notNull(fileChange);
-			final Optional<Position> newBegin = getBegin().apply(fileChange);
-			final Optional<Position> newEnd = getEnd().apply(fileChange);
-			return newBegin.isPresent() && newEnd.isPresent()
-					? Optional.of(getVCSEngine().getModelFactory().createRange(
-							newBegin.get(), newEnd.get(), getVCSEngine()))
-					: Optional.empty();
+			return new PositionMapper(fileChange).map(this);
 		}
 
 		/**
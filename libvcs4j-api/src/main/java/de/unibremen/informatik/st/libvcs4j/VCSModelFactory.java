@@ -418,6 +418,13 @@ public interface VCSModelFactory {
 		final List<Commit> _commits = createCopy(commits);
 		Validate.notEmpty(_commits, "There must be at least one commit");
 		return new RevisionRange() {
+
+			/**
+			 * Caches the (merged) file changes of this range (see
+			 * {@link #getFileChanges()}).
+			 */
+			private List<FileChange> fileChangesCache = null;
+
 			@Override
 			public int getOrdinal() {
 				return ordinal;
@@ -438,6 +445,15 @@ public interface VCSModelFactory {
 				return new ArrayList<>(_commits);
 			}
 
+			@Override
+			public List<FileChange> getFileChanges() {
+				if (fileChangesCache == null) {
+					fileChangesCache = createCopy(
+							RevisionRange.super.getFileChanges());
+				}
+				return new ArrayList<>(fileChangesCache);
+			}
+
 			@Override
 			public VCSEngine getVCSEngine() {
 				return engine;
@@ -0,0 +1,85 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+public class CanonicalPathsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void lexicalIfSymlinkFree() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Path dir = Files.createDirectory(root.resolve("dir"));
+		Files.createFile(dir.resolve("a"));
+		CanonicalPaths paths = new CanonicalPaths(root);
+		assertThat(paths.isLexical()).isFalse();
+
+		paths.reset(true);
+		assertThat(paths.isLexical()).isTrue();
+		assertThat(paths.canonicalize(dir.resolve("..").resolve("dir/a")))
+				.isEqualTo(dir.resolve("a").toFile()
+						.getCanonicalFile().toPath());
+	}
+
+	@Test
+	public void resolvesSymlinks() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Path dir = Files.createDirectory(root.resolve("dir"));
+		Files.createFile(dir.resolve("a"));
+		Path link = Files.createSymbolicLink(root.resolve("link"), dir);
+		CanonicalPaths paths = new CanonicalPaths(root);
+
+		paths.reset(false);
+		assertThat(paths.isLexical()).isFalse();
+		assertThat(paths.canonicalize(link.resolve("a")))
+				.isEqualTo(paths.canonicalize(dir.resolve("a")));
+		assertThat(paths.canonicalize(link.resolve("a").toString()))
+				.isEqualTo(dir.resolve("a").toFile().getCanonicalPath());
+	}
+
+	@Test
+	public void listFilesInOutputDetectsSymlinks() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Path dir = Files.createDirectory(root.resolve("dir"));
+		Files.createFile(dir.resolve("a"));
+		CanonicalPaths paths = new CanonicalPaths(root);
+		VCSEngine engine = spy(VCSEngine.class);
+		when(engine.getOutput()).thenReturn(root);
+		when(engine.getCanonicalPaths()).thenReturn(paths);
+
+		engine.listFilesInOutput();
+		assertThat(paths.isLexical()).isTrue();
+
+		Files.createSymbolicLink(root.resolve("link"), dir);
+		engine.listFilesInOutput();
+		assertThat(paths.isLexical()).isFalse();
+	}
+
+	@Test
+	public void defaultInstanceIsSharedPerEngine() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Files.createFile(root.resolve("a"));
+		VCSEngine engine = spy(VCSEngine.class);
+		when(engine.getOutput()).thenReturn(root);
+		VCSEngine other = spy(VCSEngine.class);
+		when(other.getOutput()).thenReturn(root);
+
+		CanonicalPaths paths = engine.getCanonicalPaths();
+		assertThat(engine.getCanonicalPaths()).isSameAs(paths);
+		assertThat(other.getCanonicalPaths()).isNotSameAs(paths);
+
+		engine.listFilesInOutput();
+		assertThat(paths.isLexical()).isTrue();
+	}
+}
@@ -2,12 +2,15 @@ package de.unibremen.informatik.st.libvcs4j;
 
 import org.junit.Test;
 
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -83,4 +86,178 @@ public class FSTreeTest {
 				.orElseThrow(AssertionError::new);
 		assertThat(file.getRoot()).isSameAs(root);
 	}
+
+	@Test
+	public void setValueUpdatesAggregates() {
+		VCSFile a = mockFile(Paths.get("dir1", "A.java"));
+		VCSFile b = mockFile(Paths.get("dir1", "B.java"));
+		VCSFile c = mockFile(Paths.get("dir2", "C.java"));
+
+		FSTree<Integer> tree = FSTree.of(
+				Arrays.asList(a, b, c),
+				f -> 1,
+				Integer::sum);
+		assertThat(tree.getValue()).hasValue(3);
+
+		FSTree<Integer> fileA = tree.navigateTo("dir1/A.java")
+				.orElseThrow(AssertionError::new);
+		fileA.setValue(5);
+		assertThat(tree.getValue()).hasValue(7);
+		assertThat(tree.navigateTo("dir1"))
+				.flatMap(FSTree::getValue)
+				.hasValue(6);
+		assertThat(tree.navigateTo("dir2"))
+				.flatMap(FSTree::getValue)
+				.hasValue(1);
+
+		fileA.setValue(null);
+		assertThat(tree.getValue()).hasValue(2);
+	}
+
+	@Test
+	public void putAndRemove() {
+		VCSFile a = mockFile(Paths.get("src", "A.java"));
+		VCSFile b = mockFile(Paths.get("src", "main", "B.java"));
+
+		FSTree<Integer> tree = FSTree.of(
+				Collections.singletonList(a),
+				f -> 1,
+				Integer::sum);
+		assertThat(tree.getValue()).hasValue(1);
+
+		FSTree<Integer> fileB = tree.put(b, 2);
+		assertThat(fileB.getPath()).isEqualTo(b.toRelativePath().toString());
+		assertThat(tree.getValue()).hasValue(3);
+		assertThat(tree.navigateTo("main/B.java")).hasValue(fileB);
+		assertThat(fileB.getRoot()).isSameAs(tree);
+
+		assertThat(tree.remove(b.getRelativePath())).hasValue(fileB);
+		assertThat(tree.getValue()).hasValue(1);
+		assertThat(tree.navigateTo("main")).isEmpty();
+		assertThat(tree.remove(b.getRelativePath())).isEmpty();
+
+		// Only root directories accept files located elsewhere.
+		FSTree<Integer> main = tree.put(b, 2).getParent()
+				.orElseThrow(AssertionError::new);
+		VCSFile c = mockFile(Paths.get("test", "C.java"));
+		assertThatThrownBy(() -> main.put(c, 1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void updateRootDirectoryGainsSibling() {
+		VCSFile a = mockFile(Paths.get("src", "A.java"));
+		VCSFile b = mockFile(Paths.get("src", "main", "B.java"));
+		VCSFile readme = mockFile(Paths.get("README.md"));
+
+		FSTree<Integer> tree = FSTree.of(
+				Arrays.asList(a, b),
+				f -> 1,
+				Integer::sum);
+		assertThat(tree.getPath()).isEqualTo("src");
+		FSTree<Integer> fileB = tree.navigateTo("main/B.java")
+				.orElseThrow(AssertionError::new);
+
+		FileChange addReadme = mock(FileChange.class);
+		when(addReadme.getOldFile()).thenReturn(Optional.empty());
+		when(addReadme.getNewFile()).thenReturn(Optional.of(readme));
+		assertThat(tree.update(Collections.singletonList(addReadme), f -> 4))
+				.isSameAs(tree);
+		assertThat(tree.getPath()).isEqualTo(FSTree.ROOT_DIRECTORY);
+		assertThat(tree.getValue()).hasValue(6);
+		assertThat(tree.getNodes())
+				.extracting(FSTree::getName)
+				.containsExactlyInAnyOrder("src", "README.md");
+		assertThat(tree.navigateTo("src/main/B.java")).hasValue(fileB);
+		assertThat(fileB.getRoot()).isSameAs(tree);
+
+		FileChange modifyB = mock(FileChange.class);
+		when(modifyB.getOldFile()).thenReturn(Optional.of(b));
+		when(modifyB.getNewFile()).thenReturn(Optional.of(b));
+		tree.update(Collections.singletonList(modifyB), f -> 2);
+		assertThat(tree.navigateTo("src"))
+				.flatMap(FSTree::getValue)
+				.hasValue(3);
+		assertThat(tree.getValue()).hasValue(7);
+	}
+
+	@Test
+	public void updateRootFile() {
+		VCSFile a = mockFile(Paths.get("A.java"));
+		VCSFile b = mockFile(Paths.get("src", "B.java"));
+
+		FSTree<Integer> file = FSTree.of(
+				Collections.singletonList(a),
+				f -> 1,
+				Integer::sum);
+		assertThat(file.isFile()).isTrue();
+
+		FileChange addB = mock(FileChange.class);
+		when(addB.getOldFile()).thenReturn(Optional.empty());
+		when(addB.getNewFile()).thenReturn(Optional.of(b));
+		FSTree<Integer> tree = file.update(
+				Collections.singletonList(addB), f -> 2);
+		assertThat(tree.getPath()).isEqualTo(FSTree.ROOT_DIRECTORY);
+		assertThat(tree.getValue()).hasValue(3);
+		assertThat(file.getRoot()).isSameAs(tree);
+		assertThat(tree.update(Collections.emptyList(), f -> 2))
+				.isSameAs(tree);
+	}
+
+	@Test
+	public void updateVirtualRoot() {
+		VCSFile a = mockFile(Paths.get("dir1", "A.java"));
+		VCSFile b = mockFile(Paths.get("dir2", "B.java"));
+
+		FSTree<Integer> tree = FSTree.of(
+				Collections.emptyList(),
+				f -> 1,
+				Integer::sum);
+		assertThat(tree.getValue()).isEmpty();
+
+		FileChange addA = mock(FileChange.class);
+		when(addA.getOldFile()).thenReturn(Optional.empty());
+		when(addA.getNewFile()).thenReturn(Optional.of(a));
+		FileChange addB = mock(FileChange.class);
+		when(addB.getOldFile()).thenReturn(Optional.empty());
+		when(addB.getNewFile()).thenReturn(Optional.of(b));
+		tree.update(Arrays.asList(addA, addB), f -> 1);
+		assertThat(tree.getPath()).isEqualTo(FSTree.ROOT_DIRECTORY);
+		assertThat(tree.getValue()).hasValue(2);
+
+		FileChange modifyA = mock(FileChange.class);
+		when(modifyA.getOldFile()).thenReturn(Optional.of(a));
+		when(modifyA.getNewFile()).thenReturn(Optional.of(a));
+		FileChange removeB = mock(FileChange.class);
+		when(removeB.getOldFile()).thenReturn(Optional.of(b));
+		when(removeB.getNewFile()).thenReturn(Optional.empty());
+		tree.update(Arrays.asList(modifyA, removeB), f -> 4);
+		assertThat(tree.getValue()).hasValue(4);
+		assertThat(tree.getNodes())
+				.extracting(FSTree::getName)
+				.containsExactly("dir1");
+
+		List<FSTree<Integer>> nodes = tree.getNodes();
+		tree.remove(a.getRelativePath());
+		assertThat(nodes).isEmpty();
+		assertThat(tree.getPath()).isEqualTo(FSTree.EMPTY_DIRECTORY);
+		assertThat(tree.getValue()).isEmpty();
+	}
+
+	@Test
+	public void compactedTreeCannotBeUpdated() {
+		VCSFile a = mockFile(Paths.get("src", "main", "A.java"));
+
+		FSTree<Void> tree = FSTree.of(Collections.singletonList(a))
+				.compact();
+		assertThatThrownBy(() -> tree.remove(a.getRelativePath()))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private VCSFile mockFile(Path path) {
+		VCSFile file = mock(VCSFile.class);
+		when(file.toRelativePath()).thenReturn(path);
+		when(file.getRelativePath()).thenReturn(path.toString());
+		return file;
+	}
 }
@@ -0,0 +1,66 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class InMemoryInstrumentationTest {
+
+	@Test
+	public void emptyRevision() {
+		InMemoryInstrumentation instrumentation =
+				new InMemoryInstrumentation();
+		assertThat(instrumentation.toJSON()).isEqualTo("{\"revision\":null," +
+				"\"timers\":{},\"counters\":{},\"histograms\":{}}");
+	}
+
+	@Test
+	public void measurementsPerRevision() {
+		InMemoryInstrumentation instrumentation =
+				new InMemoryInstrumentation();
+		instrumentation.revision("1");
+		instrumentation.time("next", 5);
+		instrumentation.time("next", 3);
+		instrumentation.count("read.bytes", 10);
+		instrumentation.record("next.files", 0);
+		instrumentation.lookup("cache", true);
+		instrumentation.lookup("cache", false);
+		instrumentation.lookup("cache", true);
+		assertThat(instrumentation.toJSON()).isEqualTo("{\"revision\":\"1\"," +
+				"\"timers\":{\"next\":{\"count\":2,\"sum\":8,\"min\":3," +
+				"\"max\":5,\"mean\":4.0,\"buckets\":{\"4\":1,\"8\":1}}}," +
+				"\"counters\":{\"cache.hits\":2,\"cache.misses\":1," +
+				"\"read.bytes\":10}," +
+				"\"histograms\":{\"next.files\":{\"count\":1,\"sum\":0," +
+				"\"min\":0,\"max\":0,\"mean\":0.0,\"buckets\":{\"1\":1}}}}");
+		assertThat(instrumentation.getHitRatio("cache"))
+				.isCloseTo(2.0 / 3, within(1e-9));
+
+		instrumentation.revision("2\"");
+		instrumentation.count("read.bytes", 5);
+		assertThat(instrumentation.getCounter("read.bytes")).isEqualTo(5);
+		assertThat(instrumentation.getHitRatio("cache")).isNaN();
+		assertThat(instrumentation.toJSON()).isEqualTo(
+				"{\"revision\":\"2\\\"\",\"timers\":{}," +
+				"\"counters\":{\"read.bytes\":5},\"histograms\":{}}");
+		assertThat(instrumentation.toTotalJSON())
+				.contains("\"read.bytes\":15")
+				.contains("\"count\":2,\"sum\":8");
+	}
+
+	@Test
+	public void timers() {
+		InMemoryInstrumentation instrumentation =
+				new InMemoryInstrumentation();
+		try (Instrumentation.Timer timer = instrumentation.start("phase")) {
+			assertThat(timer).isNotNull();
+		}
+		assertThat(instrumentation.toJSON()).contains("\"phase\":{\"count\":1");
+
+		try (Instrumentation.Timer timer =
+				Instrumentation.NOOP.start("phase")) {
+			assertThat(timer).isSameAs(Instrumentation.Timer.NOOP);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class LineInfoTableTest {
+
+	private static final LocalDateTime DATE_TIME =
+			LocalDateTime.of(2019, 3, 12, 14, 30);
+
+	private VCSEngine engine;
+
+	private VCSFile file;
+
+	@Before
+	public void init() {
+		final VCSModelFactory factory = new VCSModelFactory() {};
+		engine = mock(VCSEngine.class);
+		when(engine.getModelFactory()).thenReturn(factory);
+		file = mock(VCSFile.class);
+		when(file.getVCSEngine()).thenReturn(engine);
+	}
+
+	@Test
+	public void commitsAreShared() {
+		LineInfoTable.Builder builder = new LineInfoTable.Builder(file, engine);
+		int first = builder.addCommit("1", "alice", "Init", DATE_TIME);
+		int second = builder.addCommit("2", "bob", "Fix", DATE_TIME);
+		builder.addLine(first, "a");
+		builder.addLine(second, "b");
+		builder.addLine(builder.addCommit("1", "alice", "Init", DATE_TIME),
+				"c");
+		LineInfoTable table = builder.build();
+
+		assertThat(table.getNumCommits()).isEqualTo(2);
+		assertThat(table).hasSize(3);
+		assertThat(table.getCommitOfLine(0)).isEqualTo(first);
+		assertThat(table.getCommitOfLine(1)).isEqualTo(second);
+		assertThat(table.getCommitOfLine(2)).isEqualTo(first);
+		assertThat(table.getAuthor(second)).isEqualTo("bob");
+		assertThat(table.getMessage(second)).isEqualTo("Fix");
+	}
+
+	@Test
+	public void createLineInfo() {
+		LineInfoTable.Builder builder = new LineInfoTable.Builder(file, engine);
+		int commit = builder.addCommit("1", "alice", "Init", DATE_TIME);
+		builder.addLine(commit, "a");
+		builder.addLine(commit, "b");
+		LineInfoTable table = builder.build();
+
+		LineInfo lineInfo = table.get(1);
+		assertThat(lineInfo.getId()).isEqualTo("1");
+		assertThat(lineInfo.getAuthor()).isEqualTo("alice");
+		assertThat(lineInfo.getMessage()).isEqualTo("Init");
+		assertThat(lineInfo.getDateTime()).isEqualTo(DATE_TIME);
+		assertThat(lineInfo.getLine()).isEqualTo(2);
+		assertThat(lineInfo.getContent()).isEqualTo("b");
+		assertThat(lineInfo.getFile()).isSameAs(file);
+		assertThat(lineInfo.getVCSEngine()).isSameAs(engine);
+	}
+
+	@Test
+	public void commitsWithDifferentAuthorsAreDistinct() {
+		LineInfoTable.Builder builder = new LineInfoTable.Builder(file, engine);
+		int first = builder.addCommit("1", "alice", "Init", DATE_TIME);
+		int second = builder.addCommit("1", "bob", "Init", DATE_TIME);
+		assertThat(first).isNotEqualTo(second);
+	}
+
+	@Test
+	public void addLineWithUnknownCommit() {
+		LineInfoTable.Builder builder = new LineInfoTable.Builder(file, engine);
+		assertThatThrownBy(() -> builder.addLine(0, "a"))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	@Test
+	public void emptyTable() {
+		LineInfoTable table =
+				new LineInfoTable.Builder(file, engine).build();
+		assertThat(table).isEmpty();
+		assertThat(table.getNumCommits()).isZero();
+		assertThatThrownBy(() -> table.get(0))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+}
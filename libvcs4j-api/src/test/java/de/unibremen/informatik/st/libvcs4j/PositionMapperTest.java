@@ -0,0 +1,179 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PositionMapperTest {
+
+	private VCSEngine engine;
+
+	private VCSFile oldFile;
+
+	private VCSFile newFile;
+
+	private FileChange fileChange;
+
+	private static LineChange lineChange(final LineChange.Type type,
+			final int line) {
+		LineChange lineChange = mock(LineChange.class);
+		when(lineChange.getType()).thenReturn(type);
+		when(lineChange.getLine()).thenReturn(line);
+		return lineChange;
+	}
+
+	@Before
+	public void init() throws IOException {
+		final VCSModelFactory factory = new VCSModelFactory() {};
+		engine = mock(VCSEngine.class);
+		when(engine.getModelFactory()).thenReturn(factory);
+
+		Revision oldRevision = mock(Revision.class);
+		when(oldRevision.getId()).thenReturn("1");
+
+		oldFile = mock(VCSFile.class);
+		when(oldFile.getVCSEngine()).thenReturn(engine);
+		when(oldFile.getRevision()).thenReturn(oldRevision);
+		when(oldFile.getRelativePath()).thenReturn("A.java");
+		when(oldFile.readLines()).thenReturn(Arrays.asList(
+				"alpha",
+				"beta",
+				"gamma",
+				"delta",
+				"epsilon"));
+		when(oldFile.readLinesWithEOL()).thenReturn(Arrays.asList(
+				"alpha\n",
+				"beta\n",
+				"gamma\n",
+				"delta\n",
+				"epsilon"));
+		when(oldFile.positionOf(anyInt(), anyInt(), anyInt()))
+				.thenCallRealMethod();
+
+		Revision newRevision = mock(Revision.class);
+		when(newRevision.getId()).thenReturn("2");
+
+		newFile = mock(VCSFile.class);
+		when(newFile.getVCSEngine()).thenReturn(engine);
+		when(newFile.getRevision()).thenReturn(newRevision);
+		when(newFile.getRelativePath()).thenReturn("A.java");
+		when(newFile.readLines()).thenReturn(Arrays.asList(
+				"alpha",
+				"BETA",
+				"gamma",
+				"epsilon",
+				"zeta"));
+		when(newFile.readLinesWithEOL()).thenReturn(Arrays.asList(
+				"alpha\n",
+				"BETA\n",
+				"gamma\n",
+				"epsilon\n",
+				"zeta"));
+
+		fileChange = mock(FileChange.class);
+		when(fileChange.getType()).thenReturn(FileChange.Type.MODIFY);
+		when(fileChange.getOldFile()).thenReturn(Optional.of(oldFile));
+		when(fileChange.getNewFile()).thenReturn(Optional.of(newFile));
+		when(fileChange.computeDiff()).thenReturn(Arrays.asList(
+				lineChange(LineChange.Type.DELETE, 2),
+				lineChange(LineChange.Type.DELETE, 4),
+				lineChange(LineChange.Type.INSERT, 2),
+				lineChange(LineChange.Type.INSERT, 5)));
+	}
+
+	@Test
+	public void mapLines() throws IOException {
+		PositionMapper mapper = new PositionMapper(fileChange);
+		assertThat(mapper.mapLine(1)).contains(1);
+		assertThat(mapper.mapLine(2)).contains(2);
+		assertThat(mapper.mapLine(3)).contains(3);
+		assertThat(mapper.mapLine(4)).isEmpty();
+		assertThat(mapper.mapLine(5)).contains(4);
+	}
+
+	@Test
+	public void mapSeveralPositionsWithSingleDiff() throws IOException {
+		VCSFile.Position unchanged = oldFile.positionOf(5, 3, 4)
+				.orElseThrow(AssertionError::new);
+		VCSFile.Position changed = oldFile.positionOf(2, 3, 4)
+				.orElseThrow(AssertionError::new);
+		VCSFile.Position deleted = oldFile.positionOf(4, 2, 4)
+				.orElseThrow(AssertionError::new);
+
+		PositionMapper mapper = new PositionMapper(fileChange);
+		List<Optional<VCSFile.Position>> mapped = mapper.mapPositions(
+				Arrays.asList(unchanged, changed, deleted));
+
+		VCSFile.Position first = mapped.get(0)
+				.orElseThrow(AssertionError::new);
+		assertThat(first.getFile()).isSameAs(newFile);
+		assertThat(first.getLine()).isEqualTo(4);
+		assertThat(first.getColumn()).isEqualTo(3);
+		assertThat(first.getOffset()).isEqualTo(19);
+		assertThat(first.getLineOffset()).isEqualTo(2);
+		assertThat(first.getTabSize()).isEqualTo(4);
+
+		VCSFile.Position second = mapped.get(1)
+				.orElseThrow(AssertionError::new);
+		assertThat(second.getLine()).isEqualTo(2);
+		assertThat(second.getColumn()).isEqualTo(1);
+		assertThat(second.getOffset()).isEqualTo(6);
+
+		assertThat(mapped.get(2)).isEmpty();
+		verify(fileChange, times(1)).computeDiff();
+	}
+
+	@Test
+	public void mapRange() throws IOException {
+		VCSFile.Position begin = oldFile.positionOf(1, 1, 4)
+				.orElseThrow(AssertionError::new);
+		VCSFile.Position end = oldFile.positionOf(3, 5, 4)
+				.orElseThrow(AssertionError::new);
+
+		PositionMapper mapper = new PositionMapper(fileChange);
+		VCSFile.Range range = mapper.map(begin.rangeTo(end))
+				.orElseThrow(AssertionError::new);
+		assertThat(range.getFile()).isSameAs(newFile);
+		assertThat(range.getBegin().getOffset()).isEqualTo(0);
+		assertThat(range.getEnd().getLine()).isEqualTo(3);
+		assertThat(range.getEnd().getColumn()).isEqualTo(5);
+		assertThat(range.getEnd().getOffset()).isEqualTo(15);
+	}
+
+	@Test
+	public void mapRemovedFile() throws IOException {
+		when(fileChange.getType()).thenReturn(FileChange.Type.REMOVE);
+		when(fileChange.getNewFile()).thenReturn(Optional.empty());
+		VCSFile.Position position = oldFile.positionOf(1, 1, 4)
+				.orElseThrow(AssertionError::new);
+
+		PositionMapper mapper = new PositionMapper(fileChange);
+		assertThat(mapper.map(position)).isEmpty();
+		verify(fileChange, never()).computeDiff();
+	}
+
+	@Test
+	public void createWithAddedFile() {
+		when(fileChange.getType()).thenReturn(FileChange.Type.ADD);
+		when(fileChange.getOldFile()).thenReturn(Optional.empty());
+		assertThatThrownBy(() -> new PositionMapper(fileChange))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void mapPositionOfOtherFile() throws IOException {
+		VCSFile.Position other = mock(VCSFile.Position.class);
+		when(other.getFile()).thenReturn(newFile);
+
+		PositionMapper mapper = new PositionMapper(fileChange);
+		assertThatThrownBy(() -> mapper.map(other))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
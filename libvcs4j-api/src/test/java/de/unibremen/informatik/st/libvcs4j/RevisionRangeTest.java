@@ -13,6 +13,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RevisionRangeTest {
@@ -343,6 +345,115 @@ public class RevisionRangeTest {
                 .isEqualTo(r3.getType());
     }
 
+    @Test
+    public void testRemoveRelocateToRemovedPath() {
+        VCSModelFactory factory = new VCSModelFactory() {};
+        VCSEngine vcs = mock(VCSEngine.class);
+        when(vcs.getModelFactory()).thenReturn(factory);
+
+        Revision rev1 = mock(Revision.class);
+        when(rev1.getId()).thenReturn("1");
+        Revision rev2 = mock(Revision.class);
+        when(rev2.getId()).thenReturn("2");
+        Revision rev3 = mock(Revision.class);
+        when(rev3.getId()).thenReturn("3");
+
+        VCSFile a = mock(VCSFile.class);
+        when(a.getRelativePath()).thenReturn("a");
+        when(a.toRelativePath()).thenReturn(Paths.get("a"));
+        when(a.getRevision()).thenReturn(rev2);
+
+        VCSFile b1 = mock(VCSFile.class);
+        when(b1.getRelativePath()).thenReturn("b");
+        when(b1.toRelativePath()).thenReturn(Paths.get("b"));
+        when(b1.getRevision()).thenReturn(rev1);
+
+        VCSFile b3 = mock(VCSFile.class);
+        when(b3.getRelativePath()).thenReturn("b");
+        when(b3.toRelativePath()).thenReturn(Paths.get("b"));
+        when(b3.getRevision()).thenReturn(rev3);
+
+        FileChange remove = mock(FileChange.class);
+        when(remove.getOldFile()).thenReturn(Optional.of(b1));
+        when(remove.getNewFile()).thenReturn(Optional.empty());
+        when(remove.getType()).thenReturn(FileChange.Type.REMOVE);
+
+        FileChange relocate = mock(FileChange.class);
+        when(relocate.getOldFile()).thenReturn(Optional.of(a));
+        when(relocate.getNewFile()).thenReturn(Optional.of(b3));
+        when(relocate.getType()).thenReturn(FileChange.Type.RELOCATE);
+
+        Commit c1 = mock(Commit.class);
+        when(c1.getFileChanges()).thenReturn(singletonList(remove));
+
+        Commit c2 = mock(Commit.class);
+        when(c2.getFileChanges()).thenReturn(singletonList(relocate));
+
+        RevisionRange range = spy(RevisionRange.class);
+        when(range.getCommits()).thenReturn(Arrays.asList(c1, c2));
+        when(range.getVCSEngine()).thenReturn(vcs);
+        when(range.getPrevious()).thenReturn(Optional.of(rev1));
+        when(range.getCurrent()).thenReturn(rev3);
+
+        List<FileChange> changes = range.getFileChanges();
+        assertThat(changes).hasSize(2);
+        assertThat(changes.get(0).getType())
+                .isEqualTo(FileChange.Type.MODIFY);
+        assertThat(changes.get(0).getNewFile()
+                .orElseThrow(AssertionError::new)
+                .getRelativePath()).isEqualTo("b");
+        assertThat(changes.get(1).getType())
+                .isEqualTo(FileChange.Type.REMOVE);
+        assertThat(changes.get(1).getOldFile()
+                .orElseThrow(AssertionError::new)
+                .getRelativePath()).isEqualTo("a");
+    }
+
+    @Test
+    public void mergedFileChangesAreCached() {
+        VCSModelFactory factory = new VCSModelFactory() {};
+        VCSEngine engine = mock(VCSEngine.class);
+        when(engine.getModelFactory()).thenReturn(factory);
+
+        Revision rev1 = mock(Revision.class);
+        when(rev1.getId()).thenReturn("1");
+        Revision rev2 = mock(Revision.class);
+        when(rev2.getId()).thenReturn("2");
+
+        VCSFile a = mock(VCSFile.class);
+        when(a.getRelativePath()).thenReturn("a");
+        when(a.toRelativePath()).thenReturn(Paths.get("a"));
+        when(a.getRevision()).thenReturn(rev1);
+
+        VCSFile b = mock(VCSFile.class);
+        when(b.getRelativePath()).thenReturn("b");
+        when(b.toRelativePath()).thenReturn(Paths.get("b"));
+        when(b.getRevision()).thenReturn(rev2);
+
+        FileChange addA = mock(FileChange.class);
+        when(addA.getOldFile()).thenReturn(Optional.empty());
+        when(addA.getNewFile()).thenReturn(Optional.of(a));
+        when(addA.getType()).thenReturn(FileChange.Type.ADD);
+
+        FileChange addB = mock(FileChange.class);
+        when(addB.getOldFile()).thenReturn(Optional.empty());
+        when(addB.getNewFile()).thenReturn(Optional.of(b));
+        when(addB.getType()).thenReturn(FileChange.Type.ADD);
+
+        Commit c1 = mock(Commit.class);
+        when(c1.getFileChanges()).thenReturn(singletonList(addA));
+
+        Commit c2 = mock(Commit.class);
+        when(c2.getFileChanges()).thenReturn(singletonList(addB));
+
+        RevisionRange range = factory.createRevisionRange(1, rev2, null,
+                Arrays.asList(c1, c2), engine);
+        assertThat(range.getFileChanges()).hasSize(2);
+        assertThat(range.getAddedFiles()).hasSize(2);
+        verify(c1, times(1)).getFileChanges();
+        verify(c2, times(1)).getFileChanges();
+    }
+
     @Test
     public void singleCommit() {
         VCSFile file = mock(VCSFile.class);
@@ -102,4 +102,41 @@ public class VCSEngineTest {
 
 		assertThat(engine.listFilesInOutput()).hasSize(7);
 	}
+
+	@Test
+	public void testListRelativeFilesInOutput() throws IOException {
+		VCSEngine engine = spy(VCSEngine.class);
+		when(engine.getOutput()).thenReturn(folder.getRoot().toPath());
+		when(engine.createVCSFileFilter()).thenReturn(
+				(dir, name) -> !name.equals("c"));
+
+		assertThat(engine.listRelativeFilesInOutput()).containsExactlyInAnyOrder(
+				"a", "b", "d", "e",
+				Paths.get("f", "f1").toString(),
+				Paths.get("f", "ff", "ff1").toString(),
+				Paths.get("f", "ff", "ff2").toString());
+	}
+
+	@Test
+	public void testSymbolicLinksAreNotFollowed() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Files.createSymbolicLink(root.resolve("link"), root.resolve("f"));
+		VCSEngine engine = spy(VCSEngine.class);
+		when(engine.getOutput()).thenReturn(root);
+
+		assertThat(engine.listFilesInOutput())
+				.hasSize(11)
+				.contains(root.resolve("link").toAbsolutePath());
+	}
+
+	@Test
+	public void testDefaultSetInstrumentationIsNoOp() {
+		VCSEngine engine = spy(VCSEngine.class);
+		engine.setInstrumentation(new InMemoryInstrumentation());
+		assertThat(engine.getInstrumentation())
+				.isSameAs(Instrumentation.NOOP);
+
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> engine.setInstrumentation(null));
+	}
 }
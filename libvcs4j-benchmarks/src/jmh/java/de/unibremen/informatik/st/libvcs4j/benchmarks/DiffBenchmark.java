@@ -0,0 +1,96 @@
+package de.unibremen.informatik.st.libvcs4j.benchmarks;
+
+import bmsi.util.Diff;
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.LineChange;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Diff} on synthetic line sequences and
+ * {@link VCSEngine#computeDiff(FileChange)} on the modified files of a
+ * {@link FixtureRepository}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiffBenchmark {
+
+	@Param({"1000", "10000"})
+	private int numLines;
+
+	/**
+	 * The percentage of changed lines.
+	 */
+	@Param({"5"})
+	private int changeRate;
+
+	private String[] oldLines;
+
+	private String[] newLines;
+
+	private FixtureRepository fixture;
+
+	private VCSEngine engine;
+
+	private final List<FileChange> modifications = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final Random random = new Random(42);
+		oldLines = SyntheticCode.lines(numLines, random);
+		final List<String> lines = new ArrayList<>(Arrays.asList(oldLines));
+		final int numChanges = numLines * changeRate / 100;
+		for (int i = 0; i < numChanges; i++) {
+			final int line = random.nextInt(lines.size());
+			if (random.nextBoolean()) {
+				lines.set(line, SyntheticCode.line(random));
+			} else {
+				lines.add(line, SyntheticCode.line(random));
+			}
+		}
+		newLines = lines.toArray(new String[0]);
+
+		fixture = new FixtureRepository(50, 20, numLines / 10, 42);
+		engine = fixture.newEngine();
+		for (final RevisionRange range : engine) {
+			modifications.addAll(range.getModifiedFiles());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fixture.close();
+	}
+
+	@Benchmark
+	public Diff.change diff() {
+		return new Diff(oldLines, newLines).diff_2(false);
+	}
+
+	@Benchmark
+	public void computeDiff(final Blackhole pBlackhole) throws IOException {
+		for (final FileChange change : modifications) {
+			final List<LineChange> lineChanges = engine.computeDiff(change);
+			pBlackhole.consume(lineChanges);
+		}
+	}
+}
@@ -0,0 +1,199 @@
+package de.unibremen.informatik.st.libvcs4j.benchmarks;
+
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+/**
+ * A synthetic Git repository that is created locally with JGit (no network
+ * access required). The history of the repository is deterministic for a
+ * given seed: Each commit modifies (replaces, inserts, and deletes lines) a
+ * few files and, now and then, adds or removes a file.
+ */
+final class FixtureRepository implements AutoCloseable {
+
+	/**
+	 * The directory containing the repository and the working copies of the
+	 * engines created with {@link #newEngine()}.
+	 */
+	private final Path directory;
+
+	/**
+	 * The directory of the repository.
+	 */
+	private final Path repository;
+
+	/**
+	 * Creates a new fixture repository.
+	 *
+	 * @param pNumCommits
+	 * 		The number of commits of the repository.
+	 * @param pNumFiles
+	 * 		The initial number of files.
+	 * @param pNumLines
+	 * 		The initial number of lines of each file.
+	 * @param pSeed
+	 * 		The seed of the random generator.
+	 * @throws IOException
+	 * 		If an error occurred while writing the repository.
+	 */
+	FixtureRepository(final int pNumCommits, final int pNumFiles,
+			final int pNumLines, final long pSeed) throws IOException {
+		directory = Files.createTempDirectory("libvcs4j-benchmarks");
+		repository = directory.resolve("repository");
+		final Random random = new Random(pSeed);
+		final List<Path> files = new ArrayList<>();
+		try (Git git = Git.init()
+				.setDirectory(repository.toFile())
+				.setInitialBranch("master")
+				.call()) {
+			for (int i = 0; i < pNumFiles; i++) {
+				final Path file = repository.resolve("src")
+						.resolve("pkg" + i % 10)
+						.resolve("File" + i + ".java");
+				Files.createDirectories(file.getParent());
+				write(file, SyntheticCode.lines(pNumLines, random));
+				files.add(file);
+			}
+			commit(git, 0);
+			for (int c = 1; c < pNumCommits; c++) {
+				final int numModified = 1 + random.nextInt(3);
+				for (int i = 0; i < numModified; i++) {
+					modify(files.get(random.nextInt(files.size())), random);
+				}
+				if (random.nextInt(10) == 0) {
+					final Path file = repository.resolve("src")
+							.resolve("File" + (pNumFiles + c) + ".java");
+					write(file, SyntheticCode.lines(pNumLines, random));
+					files.add(file);
+				} else if (random.nextInt(10) == 0 && files.size() > 1) {
+					Files.delete(files.remove(random.nextInt(files.size())));
+				}
+				commit(git, c);
+			}
+		} catch (final GitAPIException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Returns the directory of the repository.
+	 *
+	 * @return
+	 * 		The directory of the repository.
+	 */
+	Path getRepository() {
+		return repository;
+	}
+
+	/**
+	 * Creates a new engine processing all commits of this repository.
+	 *
+	 * @return
+	 * 		A new engine processing all commits of this repository.
+	 * @throws IOException
+	 * 		If an error occurred while creating the working copy.
+	 */
+	VCSEngine newEngine() throws IOException {
+		return VCSEngineBuilder
+				.ofGit("file://" + repository.toAbsolutePath())
+				.withTarget(Files.createTempDirectory(directory, "target"))
+				.build();
+	}
+
+	/**
+	 * Deletes the working copy of the given engine (see
+	 * {@link VCSEngine#getTarget()}).
+	 *
+	 * @param pEngine
+	 * 		The engine whose working copy is deleted.
+	 * @throws IOException
+	 * 		If an error occurred while deleting a file.
+	 */
+	void deleteTarget(final VCSEngine pEngine) throws IOException {
+		delete(pEngine.getTarget());
+	}
+
+	/**
+	 * Deletes the repository and all working copies.
+	 *
+	 * @throws IOException
+	 * 		If an error occurred while deleting a file.
+	 */
+	@Override
+	public void close() throws IOException {
+		delete(directory);
+	}
+
+	private static void delete(final Path pDirectory) throws IOException {
+		try (Stream<Path> paths = Files.walk(pDirectory)) {
+			for (final Path path : (Iterable<Path>) paths
+					.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	private static void write(final Path pFile, final String[] pLines)
+			throws IOException {
+		Files.write(pFile, Arrays.asList(pLines), StandardCharsets.UTF_8);
+	}
+
+	private static void modify(final Path pFile, final Random pRandom)
+			throws IOException {
+		final List<String> lines = new ArrayList<>(
+				Files.readAllLines(pFile, StandardCharsets.UTF_8));
+		final int numEdits = 1 + pRandom.nextInt(10);
+		for (int i = 0; i < numEdits; i++) {
+			final int line = pRandom.nextInt(lines.size() + 1);
+			switch (pRandom.nextInt(3)) {
+				case 0:
+					lines.add(line, SyntheticCode.line(pRandom));
+					break;
+				case 1:
+					if (line < lines.size() && lines.size() > 1) {
+						lines.remove(line);
+					}
+					break;
+				default:
+					if (line < lines.size()) {
+						lines.set(line, SyntheticCode.line(pRandom));
+					}
+			}
+		}
+		Files.write(pFile, lines, StandardCharsets.UTF_8);
+	}
+
+	private static void commit(final Git pGit, final int pIndex)
+			throws GitAPIException {
+		pGit.add().addFilepattern(".").call();
+		pGit.add().addFilepattern(".").setUpdate(true).call();
+		final PersonIdent author = new PersonIdent("libvcs4j",
+				"libvcs4j@example.org",
+				Date.from(Instant.ofEpochSecond(1_500_000_000L
+						+ pIndex * 3600L)),
+				TimeZone.getTimeZone(ZoneOffset.UTC));
+		pGit.commit()
+				.setMessage("Commit " + pIndex)
+				.setAuthor(author)
+				.setCommitter(author)
+				.call();
+	}
+}
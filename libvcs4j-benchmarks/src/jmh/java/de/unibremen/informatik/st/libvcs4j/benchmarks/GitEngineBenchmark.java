@@ -0,0 +1,73 @@
+package de.unibremen.informatik.st.libvcs4j.benchmarks;
+
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures iterating all revisions of a {@link FixtureRepository} with a
+ * {@link de.unibremen.informatik.st.libvcs4j.git.GitEngine}. Each
+ * invocation checks out every revision of a new working copy. Cloning the
+ * repository (local file protocol) and deleting the working copy is not
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GitEngineBenchmark {
+
+	@Param({"100"})
+	private int numCommits;
+
+	@Param({"100"})
+	private int numFiles;
+
+	private FixtureRepository fixture;
+
+	private VCSEngine engine;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fixture = new FixtureRepository(numCommits, numFiles, 200, 42);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fixture.close();
+	}
+
+	/**
+	 * Creates a new engine and clones the repository, which happens lazily
+	 * with the first revision otherwise.
+	 */
+	@Setup(Level.Invocation)
+	public void createEngine() throws IOException {
+		engine = fixture.newEngine();
+		engine.listRevisions();
+	}
+
+	@TearDown(Level.Invocation)
+	public void deleteEngine() throws IOException {
+		fixture.deleteTarget(engine);
+	}
+
+	@Benchmark
+	public void next(final Blackhole pBlackhole) throws IOException {
+		for (final RevisionRange range : engine) {
+			pBlackhole.consume(range.getFileChanges());
+		}
+	}
+}
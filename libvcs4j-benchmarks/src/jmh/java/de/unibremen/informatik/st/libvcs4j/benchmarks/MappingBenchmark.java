@@ -0,0 +1,88 @@
+package de.unibremen.informatik.st.libvcs4j.benchmarks;
+
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.mapping.Mappable;
+import de.unibremen.informatik.st.libvcs4j.mapping.Mapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Mapping#map(java.util.Collection, RevisionRange)} over all
+ * revisions of a {@link FixtureRepository}. Each file of each revision
+ * contributes one mappable per block of lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MappingBenchmark {
+
+	/**
+	 * The number of lines of a mappable.
+	 */
+	private static final int BLOCK_SIZE = 10;
+
+	@Param({"50"})
+	private int numCommits;
+
+	private FixtureRepository fixture;
+
+	private final List<RevisionRange> ranges = new ArrayList<>();
+
+	private final List<List<Mappable<String>>> mappables = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fixture = new FixtureRepository(numCommits, 20, 100, 42);
+		final VCSEngine engine = fixture.newEngine();
+		for (final RevisionRange range : engine) {
+			final List<Mappable<String>> blocks = new ArrayList<>();
+			for (final VCSFile file : range.getCurrent().getFiles()) {
+				final int numLines = file.readLines().size();
+				for (int line = 1; line + BLOCK_SIZE - 1 <= numLines;
+						line += BLOCK_SIZE) {
+					final VCSFile.Position begin =
+							file.positionOf(line, 1, 4).orElse(null);
+					final VCSFile.Position end = file.positionOf(
+							line + BLOCK_SIZE - 1, 1, 4).orElse(null);
+					if (begin != null && end != null) {
+						final List<VCSFile.Range> blockRanges =
+								Collections.singletonList(begin.rangeTo(end));
+						blocks.add(() -> blockRanges);
+					}
+				}
+			}
+			ranges.add(range);
+			mappables.add(blocks);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fixture.close();
+	}
+
+	@Benchmark
+	public void map(final Blackhole pBlackhole) throws IOException {
+		final Mapping<String> mapping = new Mapping<>();
+		for (int i = 0; i < ranges.size(); i++) {
+			pBlackhole.consume(mapping.map(mappables.get(i), ranges.get(i)));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package de.unibremen.informatik.st.libvcs4j.benchmarks;
+
+import org.conqat.lib.scanner.ELanguage;
+import org.conqat.lib.scanner.ETokenType;
+import org.conqat.lib.scanner.ILenientScanner;
+import org.conqat.lib.scanner.IToken;
+import org.conqat.lib.scanner.ScannerFactory;
+import org.conqat.lib.scanner.ScannerPool;
+import org.conqat.lib.scanner.TokenBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the conqat scanners per language. Compares a
+ * new scanner per file ({@link ScannerFactory}) with a pooled scanner
+ * ({@link ScannerPool}) and a columnar token sink ({@link TokenBuffer}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScannerBenchmark {
+
+	@Param({"JAVA", "CPP", "CS", "JAVASCRIPT", "PYTHON"})
+	private ELanguage language;
+
+	@Param({"1000"})
+	private int numLines;
+
+	private String code;
+
+	@Setup
+	public void setup() {
+		code = SyntheticCode.generate(language, numLines, 42);
+	}
+
+	@Benchmark
+	public int newScanner() throws IOException {
+		final ILenientScanner scanner =
+				ScannerFactory.newLenientScanner(language, code, "");
+		return count(scanner);
+	}
+
+	@Benchmark
+	public int pooledScanner() throws IOException {
+		try (ScannerPool.PooledScanner scanner =
+				ScannerPool.borrow(language, code, "")) {
+			return count(scanner);
+		}
+	}
+
+	@Benchmark
+	public TokenBuffer tokenBuffer() {
+		return TokenBuffer.scan(language, code, "");
+	}
+
+	private static int count(final ILenientScanner pScanner)
+			throws IOException {
+		int tokens = 0;
+		for (IToken token = pScanner.getNextToken();
+				token.getType() != ETokenType.EOF;
+				token = pScanner.getNextToken()) {
+			tokens++;
+		}
+		return tokens;
+	}
+}
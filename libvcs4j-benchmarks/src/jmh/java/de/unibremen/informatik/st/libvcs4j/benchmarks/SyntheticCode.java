@@ -0,0 +1,132 @@
+package de.unibremen.informatik.st.libvcs4j.benchmarks;
+
+import org.conqat.lib.scanner.ELanguage;
+
+import java.util.Random;
+
+/**
+ * Generates deterministic, syntactically plausible source code. The
+ * generated code mixes declarations, control flow, literals, and comments so
+ * that scanners exercise most of their states.
+ */
+final class SyntheticCode {
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private SyntheticCode() {
+	}
+
+	/**
+	 * Generates source code of given language with approximately the given
+	 * number of lines.
+	 *
+	 * @param pLanguage
+	 * 		The language of the code to generate. Languages other than
+	 * 		{@link ELanguage#PYTHON} get C-like code.
+	 * @param pNumLines
+	 * 		The approximate number of lines to generate.
+	 * @param pSeed
+	 * 		The seed of the random generator.
+	 * @return
+	 * 		The generated code.
+	 */
+	static String generate(final ELanguage pLanguage, final int pNumLines,
+			final long pSeed) {
+		final Random random = new Random(pSeed);
+		final StringBuilder builder = new StringBuilder(pNumLines * 32);
+		int function = 0;
+		int lines = 0;
+		for (int counted = 0; lines < pNumLines; ) {
+			if (pLanguage == ELanguage.PYTHON) {
+				appendPythonFunction(builder, random, function++);
+			} else {
+				appendCFunction(builder, random, function++);
+			}
+			for (; counted < builder.length(); counted++) {
+				if (builder.charAt(counted) == '\n') {
+					lines++;
+				}
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Generates the lines of a file of a fixture repository.
+	 *
+	 * @param pNumLines
+	 * 		The number of lines to generate.
+	 * @param pRandom
+	 * 		The random generator to use.
+	 * @return
+	 * 		The generated lines.
+	 */
+	static String[] lines(final int pNumLines, final Random pRandom) {
+		final String[] lines = new String[pNumLines];
+		for (int i = 0; i < pNumLines; i++) {
+			lines[i] = line(pRandom);
+		}
+		return lines;
+	}
+
+	/**
+	 * Generates a single (C-like) statement.
+	 *
+	 * @param pRandom
+	 * 		The random generator to use.
+	 * @return
+	 * 		The generated statement.
+	 */
+	static String line(final Random pRandom) {
+		switch (pRandom.nextInt(4)) {
+			case 0:
+				return "\tint v" + pRandom.nextInt(100) + " = "
+						+ pRandom.nextInt(1000) + ";";
+			case 1:
+				return "\tcall" + pRandom.nextInt(20) + "(\"text "
+						+ pRandom.nextInt(1000) + "\");";
+			case 2:
+				return "\t// comment " + pRandom.nextInt(1000);
+			default:
+				return "\tif (v" + pRandom.nextInt(100) + " > "
+						+ pRandom.nextInt(10) + ") { return; }";
+		}
+	}
+
+	private static void appendCFunction(final StringBuilder pBuilder,
+			final Random pRandom, final int pIndex) {
+		pBuilder.append("/**\n * Function ").append(pIndex)
+				.append(".\n */\n")
+				.append("int function").append(pIndex)
+				.append("(int a, int b) {\n")
+				.append("\tint sum = 0;\n")
+				.append("\tfor (int i = 0; i < a; i++) {\n");
+		final int statements = 1 + pRandom.nextInt(6);
+		for (int i = 0; i < statements; i++) {
+			pBuilder.append('\t').append(line(pRandom)).append('\n');
+		}
+		pBuilder.append("\t\tsum += i * b + ")
+				.append(pRandom.nextInt(100)).append(";\n")
+				.append("\t}\n")
+				.append("\treturn sum > 0x7f ? sum : -1; // result\n")
+				.append("}\n\n");
+	}
+
+	private static void appendPythonFunction(final StringBuilder pBuilder,
+			final Random pRandom, final int pIndex) {
+		pBuilder.append("# Function ").append(pIndex).append(".\n")
+				.append("def function").append(pIndex).append("(a, b):\n")
+				.append("    total = 0\n")
+				.append("    for i in range(a):\n");
+		final int statements = 1 + pRandom.nextInt(6);
+		for (int i = 0; i < statements; i++) {
+			pBuilder.append("        v").append(pRandom.nextInt(100))
+					.append(" = call(\"text ").append(pRandom.nextInt(1000))
+					.append("\", [1, 2, 3])\n");
+		}
+		pBuilder.append("        total += i * b + ")
+				.append(pRandom.nextInt(100)).append('\n')
+				.append("    return total if total > 0x7f else -1\n\n");
+	}
+}
@@ -0,0 +1,85 @@
+package de.unibremen.informatik.st.libvcs4j.benchmarks;
+
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the text access methods of {@link VCSFile} on the largest file of
+ * the last revision of a {@link FixtureRepository}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VCSFileBenchmark {
+
+	@Param({"1000", "10000"})
+	private int numLines;
+
+	private FixtureRepository fixture;
+
+	private VCSFile file;
+
+	private int lastLine;
+
+	private int lastOffset;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fixture = new FixtureRepository(2, 10, numLines, 42);
+		final VCSEngine engine = fixture.newEngine();
+		RevisionRange last = null;
+		for (final RevisionRange range : engine) {
+			last = range;
+		}
+		final List<VCSFile> files = last.getCurrent().getFiles();
+		file = files.stream()
+				.max(Comparator.comparingLong(f -> f.toFile().length()))
+				.orElseThrow(IllegalStateException::new);
+		lastLine = file.readLines().size();
+		// Offset of the first character of the last line.
+		final String content = file.readContent();
+		lastOffset = content.lastIndexOf('\n', content.length() - 2) + 1;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fixture.close();
+	}
+
+	@Benchmark
+	public String readContent() throws IOException {
+		return file.readContent();
+	}
+
+	@Benchmark
+	public List<String> readLines() throws IOException {
+		return file.readLines();
+	}
+
+	@Benchmark
+	public Optional<VCSFile.Position> positionOfOffset() throws IOException {
+		return file.positionOf(lastOffset, 4);
+	}
+
+	@Benchmark
+	public Optional<VCSFile.Position> positionOfLine() throws IOException {
+		return file.positionOf(lastLine, 1, 4);
+	}
+}
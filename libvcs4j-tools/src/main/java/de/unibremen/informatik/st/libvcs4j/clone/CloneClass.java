@@ -0,0 +1,66 @@
+package de.unibremen.informatik.st.libvcs4j.clone;
+
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import de.unibremen.informatik.st.libvcs4j.mapping.Mappable;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An unmodifiable representation of a clone class, that is, a set of code
+ * fragments (see {@link #getRanges()}) whose normalized token sequences are
+ * equal. Clone classes are {@link Mappable}s so that they can be tracked
+ * across revisions with {@link de.unibremen.informatik.st.libvcs4j.mapping.Mapping}
+ * and {@link de.unibremen.informatik.st.libvcs4j.mapping.Tracker}.
+ */
+public class CloneClass implements Mappable<String> {
+
+	/**
+	 * The ranges of the fragments of a clone class.
+	 */
+	@NonNull
+	private final List<VCSFile.Range> ranges;
+
+	/**
+	 * The number of tokens of each fragment of a clone class.
+	 */
+	@Getter
+	private final int numTokens;
+
+	/**
+	 * Creates a new clone class with given ranges and number of tokens.
+	 *
+	 * @param ranges
+	 * 		The ranges of the fragments of the clone class to create.
+	 * @param numTokens
+	 * 		The number of tokens of each fragment.
+	 * @throws NullPointerException
+	 * 		If {@code ranges} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code ranges} contains {@code null} or less than two
+	 * 		ranges, or if {@code numTokens <= 0}.
+	 */
+	public CloneClass(@NonNull final List<VCSFile.Range> ranges,
+			final int numTokens) throws NullPointerException,
+			IllegalArgumentException {
+		Validate.noNullElements(ranges);
+		Validate.isTrue(ranges.size() >= 2,
+				"A clone class requires at least two fragments");
+		this.ranges = new ArrayList<>(ranges);
+		this.numTokens = Validate.isPositive(numTokens);
+	}
+
+	/**
+	 * Returns a copy of the ranges of the fragments of this clone class.
+	 *
+	 * @return
+	 * 		A copy of the ranges of the fragments of this clone class.
+	 */
+	@Override
+	public List<VCSFile.Range> getRanges() {
+		return new ArrayList<>(ranges);
+	}
+}
@@ -0,0 +1,587 @@
+package de.unibremen.informatik.st.libvcs4j.clone;
+
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import de.unibremen.informatik.st.libvcs4j.tokenizer.Tokenizer;
+import org.conqat.lib.scanner.ETokenType;
+import org.conqat.lib.scanner.TokenBuffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An index of the token n-grams of the files of a repository that detects
+ * clones, that is, fragments whose normalized token sequences are equal.
+ * Tokens are normalized by replacing identifiers and literals with
+ * placeholders and by dropping comments. Thus, consistently and
+ * inconsistently renamed fragments (type-2 clones) are detected as well.
+ *
+ * The index is updated incrementally. Rather than re-indexing all files of
+ * each revision, only the files that have been changed in a
+ * {@link RevisionRange} (see {@link RevisionRange#getFileChanges()}) are
+ * (re-)tokenized and (re-)indexed. The tokenization is delegated to a
+ * {@link Tokenizer}, that is, changed files are tokenized in parallel:
+ *
+ * <pre>
+ * try (Tokenizer tokenizer = new Tokenizer()) {
+ *     CloneIndex index = new CloneIndex(tokenizer, 50);
+ *     for (RevisionRange range : engine) {
+ *         index.apply(range);
+ *         List&lt;CloneClass&gt; clones = index.getCloneClasses();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * Only n-grams that occur at least twice are considered when computing clone
+ * classes (see {@link #getCloneClasses()}). Hence, the costs of a query are
+ * proportional to the amount of duplicated code rather than to the size of
+ * the repository.
+ */
+public class CloneIndex {
+
+	/**
+	 * The unit of identifier tokens.
+	 */
+	private static final int IDENTIFIER_UNIT = -1;
+
+	/**
+	 * The unit of literal tokens.
+	 */
+	private static final int LITERAL_UNIT = -2;
+
+	/**
+	 * The base of the polynomial n-gram hash.
+	 */
+	private static final long HASH_BASE = 1_000_003L;
+
+	/**
+	 * The tab size used to create positions.
+	 */
+	private static final int TAB_SIZE = 1;
+
+	/**
+	 * The indexed data of a file.
+	 */
+	private static class FileEntry {
+
+		/**
+		 * The id of a file (see {@link CloneIndex#pack(int, int)}).
+		 */
+		private final int id;
+
+		/**
+		 * The indexed file.
+		 */
+		private final VCSFile file;
+
+		/**
+		 * The normalized tokens (units) of {@link #file}.
+		 */
+		private final int[] units;
+
+		/**
+		 * The begin offset of each unit.
+		 */
+		private final int[] begins;
+
+		/**
+		 * The end offset (inclusive) of each unit.
+		 */
+		private final int[] ends;
+
+		private FileEntry(final int pId, final VCSFile pFile,
+				final int[] pUnits, final int[] pBegins, final int[] pEnds) {
+			id = pId;
+			file = pFile;
+			units = pUnits;
+			begins = pBegins;
+			ends = pEnds;
+		}
+	}
+
+	/**
+	 * The occurrences of an n-gram. An occurrence is a file id and a unit
+	 * index packed into a single long (see {@link CloneIndex#pack(int, int)}).
+	 */
+	private static class Bucket {
+
+		/**
+		 * The packed occurrences.
+		 */
+		private long[] occurrences = new long[1];
+
+		/**
+		 * The number of occurrences.
+		 */
+		private int size = 0;
+
+		private void add(final long pOccurrence) {
+			if (size == occurrences.length) {
+				occurrences = Arrays.copyOf(occurrences, size * 2);
+			}
+			occurrences[size++] = pOccurrence;
+		}
+
+		private void remove(final long pOccurrence) {
+			for (int i = 0; i < size; i++) {
+				if (occurrences[i] == pOccurrence) {
+					occurrences[i] = occurrences[--size];
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A fragment of a file given by the index of its first unit and its
+	 * number of units.
+	 */
+	private static class Fragment {
+
+		private final FileEntry entry;
+
+		private final int start;
+
+		private final int length;
+
+		private Fragment(final FileEntry pEntry, final int pStart,
+				final int pLength) {
+			entry = pEntry;
+			start = pStart;
+			length = pLength;
+		}
+
+		@Override
+		public boolean equals(final Object pObject) {
+			if (!(pObject instanceof Fragment)) {
+				return false;
+			}
+			final Fragment other = (Fragment) pObject;
+			return entry == other.entry && start == other.start
+					&& length == other.length;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(entry.id, start, length);
+		}
+	}
+
+	/**
+	 * Tokenizes changed files.
+	 */
+	private final Tokenizer tokenizer;
+
+	/**
+	 * The number of units of an n-gram, which is the minimum number of
+	 * tokens of a clone.
+	 */
+	private final int minTokens;
+
+	/**
+	 * Maps the relative path of a file to its indexed data.
+	 */
+	private final Map<String, FileEntry> files = new HashMap<>();
+
+	/**
+	 * Maps the id of a file to its indexed data.
+	 */
+	private final Map<Integer, FileEntry> filesById = new HashMap<>();
+
+	/**
+	 * Maps the hash of an n-gram to its occurrences.
+	 */
+	private final Map<Long, Bucket> buckets = new HashMap<>();
+
+	/**
+	 * The hashes of the n-grams that occur at least twice.
+	 */
+	private final Set<Long> duplicatedHashes = new LinkedHashSet<>();
+
+	/**
+	 * The id of the next file that is indexed.
+	 */
+	private int nextId = 0;
+
+	/**
+	 * Creates a new clone index.
+	 *
+	 * @param pTokenizer
+	 * 		The tokenizer used to tokenize changed files.
+	 * @param pMinTokens
+	 * 		The minimum number of tokens of a clone.
+	 * @throws NullPointerException
+	 * 		If {@code pTokenizer} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pMinTokens <= 0}.
+	 */
+	public CloneIndex(final Tokenizer pTokenizer, final int pMinTokens)
+			throws NullPointerException, IllegalArgumentException {
+		tokenizer = Validate.notNull(pTokenizer);
+		minTokens = Validate.isPositive(pMinTokens);
+	}
+
+	/**
+	 * Applies the file changes of the given range. Removed files and the old
+	 * version of modified and relocated files are removed from this index.
+	 * Added files and the new version of modified and relocated files are
+	 * tokenized and added to this index. Files are tokenized before this
+	 * index is updated. Hence, if an error occurs while tokenizing a file,
+	 * this index remains unchanged.
+	 *
+	 * @param pRange
+	 * 		The range to apply.
+	 * @throws NullPointerException
+	 * 		If {@code pRange} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of a file.
+	 */
+	public void apply(final RevisionRange pRange)
+			throws NullPointerException, IOException {
+		Validate.notNull(pRange);
+		final List<FileChange> changes = pRange.getFileChanges();
+		final List<FileEntry> entries = new ArrayList<>();
+		tokenizer.tokenizeChanges(changes,
+				(file, tokens) -> entries.add(normalize(file, tokens)));
+		// Remove all old files first. Otherwise, a file that is added (or
+		// relocated) to the path of a file that is removed (or relocated) in
+		// the same range would be removed right after being added.
+		changes.stream()
+				.map(FileChange::getOldFile)
+				.filter(Optional::isPresent)
+				.map(Optional::get)
+				.forEach(f -> remove(f.getRelativePath()));
+		entries.forEach(this::add);
+	}
+
+	/**
+	 * Returns the number of indexed files.
+	 *
+	 * @return
+	 * 		The number of indexed files.
+	 */
+	public int getNumFiles() {
+		return files.size();
+	}
+
+	/**
+	 * Computes the clone classes of the indexed files. A clone class consists
+	 * of all fragments that have the same normalized token sequence of
+	 * maximal length. Fragments of the same file do not overlap. Note that a
+	 * fragment may be part of several clone classes if its maximal extension
+	 * differs from clone to clone.
+	 *
+	 * To keep the costs linear in the number of occurrences of an n-gram
+	 * (common n-grams, such as getters, may occur thousands of times), each
+	 * occurrence is extended against the first occurrence of the n-gram only
+	 * rather than against every other occurrence. Consequently, two
+	 * fragments that share a longer token sequence with each other than with
+	 * the first occurrence end up in the clone class of the shorter
+	 * sequence.
+	 *
+	 * @return
+	 * 		The clone classes of the indexed files.
+	 * @throws IOException
+	 * 		If an error occurred while creating the range of a fragment.
+	 */
+	public List<CloneClass> getCloneClasses() throws IOException {
+		final Map<Fragment, Fragment> parents = new LinkedHashMap<>();
+		for (final Long hash : duplicatedHashes) {
+			final Bucket bucket = buckets.get(hash);
+			for (int i = 1; i < bucket.size; i++) {
+				addClonePair(bucket.occurrences[0], bucket.occurrences[i],
+						parents);
+			}
+		}
+
+		// Group fragments by the root of their set.
+		final Map<Fragment, List<Fragment>> classes = new LinkedHashMap<>();
+		for (final Fragment fragment : parents.keySet()) {
+			classes.computeIfAbsent(find(fragment, parents),
+					k -> new ArrayList<>()).add(fragment);
+		}
+		final List<CloneClass> cloneClasses = new ArrayList<>(classes.size());
+		for (final List<Fragment> fragments : classes.values()) {
+			final List<VCSFile.Range> ranges =
+					new ArrayList<>(fragments.size());
+			for (final Fragment fragment : fragments) {
+				final FileEntry entry = fragment.entry;
+				ranges.add(createRange(entry.file,
+						entry.begins[fragment.start],
+						entry.ends[fragment.start + fragment.length - 1]));
+			}
+			cloneClasses.add(new CloneClass(ranges,
+					fragments.get(0).length));
+		}
+		return cloneClasses;
+	}
+
+	/**
+	 * Creates the range of a fragment.
+	 *
+	 * @param pFile
+	 * 		The file of the fragment.
+	 * @param pBegin
+	 * 		The offset of the first character of the fragment.
+	 * @param pEnd
+	 * 		The offset of the last character of the fragment.
+	 * @return
+	 * 		The range of the fragment.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of
+	 * 		{@code pFile}, or if {@code pBegin} or {@code pEnd} does not
+	 * 		exist.
+	 */
+	protected VCSFile.Range createRange(final VCSFile pFile,
+			final int pBegin, final int pEnd) throws IOException {
+		final VCSFile.Position begin = pFile.positionOf(pBegin, TAB_SIZE)
+				.orElseThrow(() -> new IOException(String.format(
+						"Begin position (%d) of clone in '%s' does not exist",
+						pBegin, pFile.getRelativePath())));
+		final VCSFile.Position end = pFile.positionOf(pEnd, TAB_SIZE)
+				.orElseThrow(() -> new IOException(String.format(
+						"End position (%d) of clone in '%s' does not exist",
+						pEnd, pFile.getRelativePath())));
+		return begin.rangeTo(end);
+	}
+
+	/**
+	 * Extends the given occurrences of an n-gram to a maximal clone pair and
+	 * unites the two fragments. Occurrences that can be extended to the left
+	 * are skipped as they are covered by the preceding n-gram.
+	 *
+	 * @param pFirst
+	 * 		The first (packed) occurrence.
+	 * @param pSecond
+	 * 		The second (packed) occurrence.
+	 * @param pParents
+	 * 		The union-find structure of the fragments.
+	 */
+	private void addClonePair(final long pFirst, final long pSecond,
+			final Map<Fragment, Fragment> pParents) {
+		FileEntry a = filesById.get(fileIdOf(pFirst));
+		FileEntry b = filesById.get(fileIdOf(pSecond));
+		int i = indexOf(pFirst);
+		int j = indexOf(pSecond);
+		if (a == b && i > j) {
+			final int tmp = i;
+			i = j;
+			j = tmp;
+		}
+		if (i > 0 && j > 0 && a.units[i - 1] == b.units[j - 1]) {
+			return;
+		}
+		int length = 0;
+		while (i + length < a.units.length && j + length < b.units.length
+				&& a.units[i + length] == b.units[j + length]) {
+			length++;
+		}
+		if (a == b) {
+			// Fragments of the same file must not overlap.
+			length = Math.min(length, j - i);
+		}
+		// Less than n equal units are caused by hash collisions.
+		if (length < minTokens) {
+			return;
+		}
+		union(new Fragment(a, i, length), new Fragment(b, j, length),
+				pParents);
+	}
+
+	/**
+	 * Normalizes the tokens of the given file. The returned entry is not
+	 * added to this index yet (see {@link #add(FileEntry)}).
+	 *
+	 * @param pFile
+	 * 		The file to normalize.
+	 * @param pTokens
+	 * 		The tokens of {@code pFile}.
+	 * @return
+	 * 		The normalized file.
+	 */
+	private FileEntry normalize(final VCSFile pFile,
+			final TokenBuffer pTokens) {
+		final int size = pTokens.size();
+		int[] units = new int[size];
+		int[] begins = new int[size];
+		int[] ends = new int[size];
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			final ETokenType type = pTokens.getType(i);
+			switch (type.getTokenClass()) {
+				case COMMENT:
+				case WHITESPACE:
+				case SYNTHETIC:
+				case ERROR:
+					continue;
+				case IDENTIFIER:
+					units[n] = IDENTIFIER_UNIT;
+					break;
+				case LITERAL:
+					units[n] = LITERAL_UNIT;
+					break;
+				default:
+					units[n] = type.ordinal();
+			}
+			begins[n] = pTokens.getOffset(i);
+			ends[n] = pTokens.getEndOffset(i);
+			n++;
+		}
+		if (n < size) {
+			units = Arrays.copyOf(units, n);
+			begins = Arrays.copyOf(begins, n);
+			ends = Arrays.copyOf(ends, n);
+		}
+		return new FileEntry(nextId++, pFile, units, begins, ends);
+	}
+
+	/**
+	 * Adds the n-grams of the given file to this index.
+	 *
+	 * @param pEntry
+	 * 		The normalized file to add.
+	 */
+	private void add(final FileEntry pEntry) {
+		final String path = pEntry.file.getRelativePath();
+		// Should not happen, but keep the index consistent anyway.
+		remove(path);
+		files.put(path, pEntry);
+		filesById.put(pEntry.id, pEntry);
+		forEachNGram(pEntry.units, (index, hash) -> {
+			final Bucket bucket =
+					buckets.computeIfAbsent(hash, h -> new Bucket());
+			bucket.add(pack(pEntry.id, index));
+			if (bucket.size == 2) {
+				duplicatedHashes.add(hash);
+			}
+		});
+	}
+
+	/**
+	 * Removes the n-grams of the file with given path from this index.
+	 *
+	 * @param pPath
+	 * 		The relative path of the file to remove.
+	 */
+	private void remove(final String pPath) {
+		final FileEntry entry = files.remove(pPath);
+		if (entry == null) {
+			return;
+		}
+		filesById.remove(entry.id);
+		forEachNGram(entry.units, (index, hash) -> {
+			final Bucket bucket = buckets.get(hash);
+			bucket.remove(pack(entry.id, index));
+			if (bucket.size == 1) {
+				duplicatedHashes.remove(hash);
+			} else if (bucket.size == 0) {
+				buckets.remove(hash);
+			}
+		});
+	}
+
+	/**
+	 * Receives the index and hash of an n-gram.
+	 */
+	@FunctionalInterface
+	private interface NGramConsumer {
+		void accept(int pIndex, long pHash);
+	}
+
+	/**
+	 * Computes the (rolling) hash of each n-gram of the given units.
+	 *
+	 * @param pUnits
+	 * 		The units to compute the n-gram hashes of.
+	 * @param pConsumer
+	 * 		Receives the index and hash of each n-gram.
+	 */
+	private void forEachNGram(final int[] pUnits,
+			final NGramConsumer pConsumer) {
+		if (pUnits.length < minTokens) {
+			return;
+		}
+		// HASH_BASE^(minTokens - 1), used to remove the leading unit.
+		long power = 1;
+		for (int i = 1; i < minTokens; i++) {
+			power *= HASH_BASE;
+		}
+		long hash = 0;
+		for (int i = 0; i < pUnits.length; i++) {
+			if (i >= minTokens) {
+				hash -= pUnits[i - minTokens] * power;
+			}
+			hash = hash * HASH_BASE + pUnits[i];
+			if (i >= minTokens - 1) {
+				pConsumer.accept(i - minTokens + 1, hash);
+			}
+		}
+	}
+
+	/**
+	 * Packs the given file id and unit index into a single long.
+	 */
+	private static long pack(final int pFileId, final int pIndex) {
+		return ((long) pFileId << 32) | (pIndex & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Returns the file id of the given packed occurrence.
+	 */
+	private static int fileIdOf(final long pOccurrence) {
+		return (int) (pOccurrence >>> 32);
+	}
+
+	/**
+	 * Returns the unit index of the given packed occurrence.
+	 */
+	private static int indexOf(final long pOccurrence) {
+		return (int) pOccurrence;
+	}
+
+	/**
+	 * Returns the root of the set of the given fragment.
+	 */
+	private static Fragment find(final Fragment pFragment,
+			final Map<Fragment, Fragment> pParents) {
+		Fragment root = pFragment;
+		Fragment parent;
+		while (!(parent = pParents.get(root)).equals(root)) {
+			root = parent;
+		}
+		// Path compression.
+		Fragment current = pFragment;
+		while (!current.equals(root)) {
+			final Fragment next = pParents.get(current);
+			pParents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Unites the sets of the given fragments.
+	 */
+	private static void union(final Fragment pFirst, final Fragment pSecond,
+			final Map<Fragment, Fragment> pParents) {
+		pParents.putIfAbsent(pFirst, pFirst);
+		pParents.putIfAbsent(pSecond, pSecond);
+		final Fragment firstRoot = find(pFirst, pParents);
+		final Fragment secondRoot = find(pSecond, pParents);
+		if (!firstRoot.equals(secondRoot)) {
+			pParents.put(secondRoot, firstRoot);
+		}
+	}
+}
@@ -0,0 +1,558 @@
+package de.unibremen.informatik.st.libvcs4j.cochange;
+
+import de.unibremen.informatik.st.libvcs4j.Commit;
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Mines association rules between files that are frequently changed together
+ * (logical coupling). Each commit is a transaction whose items are the
+ * relative paths of the changed files. Commits are consumed as a stream (see
+ * {@link #apply(RevisionRange)}) and are inserted into an FP-tree right away.
+ * The rules are computed on demand with FP-growth (see {@link #getRules()}),
+ * which, unlike Apriori, does not rescan the transactions for each itemset
+ * size:
+ *
+ * <pre>
+ * CoChangeMiner miner = new CoChangeMiner(5, 0.8, 30, Duration.ofDays(365), 2);
+ * for (RevisionRange range : engine) {
+ *     miner.apply(range);
+ * }
+ * List&lt;CoChangeRule&gt; rules = miner.getRules();
+ * </pre>
+ *
+ * Commits changing more than {@code maxCommitSize} files (for example, license
+ * updates or merges of long-living branches) are skipped. If a window is
+ * given, commits that are older than the window (relative to the latest
+ * commit) are removed from the tree again. Relocated files keep their
+ * history, that is, rules report their latest path.
+ *
+ * Paths are inserted into the tree in the order they have been seen first
+ * (rather than by descending frequency as in the original FP-tree). This
+ * order is stable while the tree grows and shrinks, which is a prerequisite
+ * for inserting and removing transactions incrementally. This class is NOT
+ * threadsafe.
+ */
+public class CoChangeMiner {
+
+	/**
+	 * A node of an FP-tree.
+	 */
+	private static class Node {
+
+		/**
+		 * The item of a node. Is {@code -1} for the root node.
+		 */
+		private final int item;
+
+		/**
+		 * The parent of a node. Is {@code null} for the root node.
+		 */
+		private final Node parent;
+
+		/**
+		 * The number of transactions passing through a node.
+		 */
+		private int count = 0;
+
+		/**
+		 * The child nodes of a node indexed by their item. Created lazily.
+		 */
+		private Map<Integer, Node> children;
+
+		/**
+		 * The previous node with the same item.
+		 */
+		private Node prev;
+
+		/**
+		 * The next node with the same item.
+		 */
+		private Node next;
+
+		private Node(final int pItem, final Node pParent) {
+			item = pItem;
+			parent = pParent;
+		}
+	}
+
+	/**
+	 * The nodes of an item linked by {@link Node#next}.
+	 */
+	private static class Header {
+
+		/**
+		 * The first node of the item.
+		 */
+		private Node first;
+
+		/**
+		 * The number of transactions containing the item.
+		 */
+		private int count = 0;
+	}
+
+	/**
+	 * An FP-tree. Items are inserted in ascending order.
+	 */
+	private static class Tree {
+
+		private final Node root = new Node(-1, null);
+
+		private final Map<Integer, Header> headers = new HashMap<>();
+
+		/**
+		 * Inserts the given sorted items with given count.
+		 *
+		 * @return
+		 * 		The node of the last item.
+		 */
+		private Node insert(final int[] pItems, final int pLength,
+				final int pCount) {
+			Node node = root;
+			for (int i = 0; i < pLength; i++) {
+				final int item = pItems[i];
+				if (node.children == null) {
+					node.children = new HashMap<>();
+				}
+				Node child = node.children.get(item);
+				if (child == null) {
+					child = new Node(item, node);
+					node.children.put(item, child);
+					final Header header = headers.computeIfAbsent(
+							item, k -> new Header());
+					child.next = header.first;
+					if (header.first != null) {
+						header.first.prev = child;
+					}
+					header.first = child;
+				}
+				child.count += pCount;
+				headers.get(item).count += pCount;
+				node = child;
+			}
+			return node;
+		}
+
+		/**
+		 * Removes a single transaction given by the node of its last item.
+		 */
+		private void remove(final Node pLast) {
+			for (Node node = pLast; node != root; node = node.parent) {
+				node.count--;
+				final Header header = headers.get(node.item);
+				header.count--;
+				if (node.count == 0) {
+					// Children have been removed already (their count is
+					// bounded by the count of their parent).
+					node.parent.children.remove(node.item);
+					if (node.prev != null) {
+						node.prev.next = node.next;
+					} else {
+						header.first = node.next;
+					}
+					if (node.next != null) {
+						node.next.prev = node.prev;
+					}
+				}
+				if (header.count == 0) {
+					headers.remove(node.item);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A transaction within the window.
+	 */
+	private static class Transaction {
+
+		private final LocalDateTime dateTime;
+
+		private final Node last;
+
+		private Transaction(final LocalDateTime pDateTime, final Node pLast) {
+			dateTime = pDateTime;
+			last = pLast;
+		}
+	}
+
+	/**
+	 * A sorted set of items used as key of the support map.
+	 */
+	private static class ItemSet {
+
+		private final int[] items;
+
+		private ItemSet(final int[] pItems) {
+			items = pItems;
+			Arrays.sort(items);
+		}
+
+		@Override
+		public boolean equals(final Object pObject) {
+			return pObject instanceof ItemSet
+					&& Arrays.equals(items, ((ItemSet) pObject).items);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(items);
+		}
+	}
+
+	/**
+	 * The minimum number of commits changing all files of a rule.
+	 */
+	private final int minSupport;
+
+	/**
+	 * The minimum confidence of a rule.
+	 */
+	private final double minConfidence;
+
+	/**
+	 * Commits changing more files are skipped.
+	 */
+	private final int maxCommitSize;
+
+	/**
+	 * The sliding time window. Is {@code null} if all commits are kept.
+	 */
+	private final Duration window;
+
+	/**
+	 * The maximum number of files of a rule.
+	 */
+	private final int maxRuleSize;
+
+	/**
+	 * Relative path -> item.
+	 */
+	private final Map<String, Integer> items = new HashMap<>();
+
+	/**
+	 * Item -> (latest) relative path.
+	 */
+	private final List<String> paths = new ArrayList<>();
+
+	/**
+	 * The FP-tree of all transactions within the window.
+	 */
+	private final Tree tree = new Tree();
+
+	/**
+	 * The transactions within the window in the order they have been added.
+	 */
+	private final Deque<Transaction> transactions = new ArrayDeque<>();
+
+	/**
+	 * The latest commit date seen so far.
+	 */
+	private LocalDateTime latest = null;
+
+	/**
+	 * The number of commits that have been skipped due to
+	 * {@link #maxCommitSize}.
+	 */
+	private int numSkippedCommits = 0;
+
+	/**
+	 * Creates a new miner without commit size limit and time window that
+	 * mines rules between pairs of files.
+	 *
+	 * @param pMinSupport
+	 * 		The minimum number of commits changing all files of a rule.
+	 * @param pMinConfidence
+	 * 		The minimum confidence of a rule.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pMinSupport <= 0} or if {@code pMinConfidence} is not
+	 * 		in [0, 1].
+	 */
+	public CoChangeMiner(final int pMinSupport, final double pMinConfidence)
+			throws IllegalArgumentException {
+		this(pMinSupport, pMinConfidence, Integer.MAX_VALUE, null, 2);
+	}
+
+	/**
+	 * Creates a new miner.
+	 *
+	 * @param pMinSupport
+	 * 		The minimum number of commits changing all files of a rule.
+	 * @param pMinConfidence
+	 * 		The minimum confidence of a rule.
+	 * @param pMaxCommitSize
+	 * 		Commits changing more files are skipped.
+	 * @param pWindow
+	 * 		Commits that are older than the latest commit by more than
+	 * 		{@code pWindow} are discarded. Pass {@code null} to keep all
+	 * 		commits.
+	 * @param pMaxRuleSize
+	 * 		The maximum number of files of a rule (antecedent and
+	 * 		consequent).
+	 * @throws IllegalArgumentException
+	 * 		If {@code pMinSupport <= 0}, if {@code pMinConfidence} is not in
+	 * 		[0, 1], if {@code pMaxCommitSize < 2}, if {@code pWindow} is
+	 * 		negative, or if {@code pMaxRuleSize < 2}.
+	 */
+	public CoChangeMiner(final int pMinSupport, final double pMinConfidence,
+			final int pMaxCommitSize, final Duration pWindow,
+			final int pMaxRuleSize) throws IllegalArgumentException {
+		minSupport = Validate.isPositive(pMinSupport);
+		minConfidence = Validate.hasRange(pMinConfidence, 0.0, 1.0);
+		maxCommitSize = Validate.isGreaterThanOrEquals(pMaxCommitSize, 2);
+		Validate.isTrue(pWindow == null || !pWindow.isNegative(),
+				"Negative window");
+		window = pWindow;
+		maxRuleSize = Validate.isGreaterThanOrEquals(pMaxRuleSize, 2);
+	}
+
+	/**
+	 * Adds the commits of the given range. Relocations are applied before
+	 * the commit is added.
+	 *
+	 * @param pRange
+	 * 		The range whose commits are added.
+	 * @throws NullPointerException
+	 * 		If {@code pRange} is {@code null}.
+	 */
+	public void apply(final RevisionRange pRange)
+			throws NullPointerException {
+		Validate.notNull(pRange);
+		pRange.getCommits().forEach(this::add);
+	}
+
+	/**
+	 * Adds the given commit.
+	 *
+	 * @param pCommit
+	 * 		The commit to add.
+	 * @throws NullPointerException
+	 * 		If {@code pCommit} is {@code null}.
+	 */
+	public void add(final Commit pCommit) throws NullPointerException {
+		Validate.notNull(pCommit);
+		final List<FileChange> changes = pCommit.getFileChanges();
+		final int[] transaction = new int[changes.size()];
+		int length = 0;
+		for (final FileChange change : changes) {
+			final Optional<VCSFile> oldFile = change.getOldFile();
+			final Optional<VCSFile> newFile = change.getNewFile();
+			if (change.getType() == FileChange.Type.RELOCATE) {
+				relocate(oldFile.get().getRelativePath(),
+						newFile.get().getRelativePath());
+			}
+			final String path = newFile.orElseGet(oldFile::get)
+					.getRelativePath();
+			transaction[length++] = itemOf(path);
+		}
+
+		Arrays.sort(transaction, 0, length);
+		int distinct = 0;
+		for (int i = 0; i < length; i++) {
+			if (distinct == 0 || transaction[distinct - 1] != transaction[i]) {
+				transaction[distinct++] = transaction[i];
+			}
+		}
+		if (distinct > maxCommitSize) {
+			numSkippedCommits++;
+			return;
+		}
+
+		final LocalDateTime dateTime = pCommit.getDateTime();
+		if (latest == null || (dateTime != null && dateTime.isAfter(latest))) {
+			latest = dateTime;
+		}
+		// Single files are counted as well. Otherwise, the confidence of
+		// rules would be overestimated.
+		if (distinct > 0) {
+			transactions.add(new Transaction(dateTime,
+					tree.insert(transaction, distinct, 1)));
+		}
+		evict();
+	}
+
+	/**
+	 * Returns the number of commits within the window.
+	 *
+	 * @return
+	 * 		The number of commits within the window.
+	 */
+	public int getNumCommits() {
+		return transactions.size();
+	}
+
+	/**
+	 * Returns the number of commits that have been skipped because they
+	 * changed too many files.
+	 *
+	 * @return
+	 * 		The number of skipped commits.
+	 */
+	public int getNumSkippedCommits() {
+		return numSkippedCommits;
+	}
+
+	/**
+	 * Computes the association rules of the commits within the window. Each
+	 * rule has a single consequent. The rules are sorted by descending
+	 * confidence and descending support.
+	 *
+	 * @return
+	 * 		The association rules of the commits within the window.
+	 */
+	public List<CoChangeRule> getRules() {
+		final Map<ItemSet, Integer> supports = new HashMap<>();
+		mine(tree, new int[0], supports);
+
+		final List<CoChangeRule> rules = new ArrayList<>();
+		final int n = transactions.size();
+		supports.forEach((itemSet, support) -> {
+			final int[] set = itemSet.items;
+			if (set.length < 2) {
+				return;
+			}
+			for (int i = 0; i < set.length; i++) {
+				final int[] antecedent = new int[set.length - 1];
+				System.arraycopy(set, 0, antecedent, 0, i);
+				System.arraycopy(set, i + 1, antecedent, i, set.length - i - 1);
+				final double confidence = (double) support /
+						supports.get(new ItemSet(antecedent));
+				if (confidence < minConfidence) {
+					continue;
+				}
+				final double lift = confidence * n /
+						supports.get(new ItemSet(new int[] { set[i] }));
+				final List<String> lhs = new ArrayList<>(antecedent.length);
+				for (final int item : antecedent) {
+					lhs.add(paths.get(item));
+				}
+				rules.add(new CoChangeRule(lhs, paths.get(set[i]), support,
+						confidence, lift));
+			}
+		});
+		rules.sort(Comparator
+				.comparingDouble(CoChangeRule::getConfidence).reversed()
+				.thenComparing(Comparator
+						.comparingInt(CoChangeRule::getSupport).reversed())
+				.thenComparing(CoChangeRule::getConsequent)
+				.thenComparing(r -> String.join("\n", r.getAntecedent())));
+		return rules;
+	}
+
+	/**
+	 * Recursively computes the frequent itemsets of {@code pTree} (FP-growth)
+	 * and stores their support in {@code pSupports}.
+	 *
+	 * @param pTree
+	 * 		The (conditional) tree to mine.
+	 * @param pSuffix
+	 * 		The items {@code pTree} is conditioned on.
+	 * @param pSupports
+	 * 		Stores the support of each frequent itemset.
+	 */
+	private void mine(final Tree pTree, final int[] pSuffix,
+			final Map<ItemSet, Integer> pSupports) {
+		pTree.headers.forEach((item, header) -> {
+			if (header.count < minSupport) {
+				return;
+			}
+			final int[] itemSet = Arrays.copyOf(pSuffix, pSuffix.length + 1);
+			itemSet[pSuffix.length] = item;
+			pSupports.put(new ItemSet(itemSet.clone()), header.count);
+			if (itemSet.length >= maxRuleSize) {
+				return;
+			}
+
+			// Count the items of the conditional pattern base.
+			final Map<Integer, Integer> counts = new HashMap<>();
+			for (Node node = header.first; node != null; node = node.next) {
+				for (Node p = node.parent; p != pTree.root; p = p.parent) {
+					counts.merge(p.item, node.count, Integer::sum);
+				}
+			}
+			counts.values().removeIf(c -> c < minSupport);
+			if (counts.isEmpty()) {
+				return;
+			}
+
+			// Build the conditional tree of the frequent items.
+			final Tree conditional = new Tree();
+			final int[] path = new int[counts.size()];
+			for (Node node = header.first; node != null; node = node.next) {
+				int length = 0;
+				for (Node p = node.parent; p != pTree.root; p = p.parent) {
+					if (counts.containsKey(p.item)) {
+						path[length++] = p.item;
+					}
+				}
+				// Ancestors have been collected in descending order.
+				for (int i = 0, j = length - 1; i < j; i++, j--) {
+					final int tmp = path[i];
+					path[i] = path[j];
+					path[j] = tmp;
+				}
+				if (length > 0) {
+					conditional.insert(path, length, node.count);
+				}
+			}
+			mine(conditional, itemSet, pSupports);
+		});
+	}
+
+	/**
+	 * Removes the transactions that are out of the window.
+	 */
+	private void evict() {
+		if (window == null || latest == null) {
+			return;
+		}
+		final LocalDateTime begin = latest.minus(window);
+		while (!transactions.isEmpty()) {
+			final Transaction first = transactions.peekFirst();
+			if (first.dateTime == null || !first.dateTime.isBefore(begin)) {
+				break;
+			}
+			tree.remove(transactions.pollFirst().last);
+		}
+	}
+
+	/**
+	 * Returns the item of the given relative path. Creates a new item if
+	 * necessary.
+	 */
+	private int itemOf(final String pPath) {
+		Integer item = items.get(pPath);
+		if (item == null) {
+			item = paths.size();
+			items.put(pPath, item);
+			paths.add(pPath);
+		}
+		return item;
+	}
+
+	/**
+	 * Moves the item of {@code pOldPath} to {@code pNewPath}.
+	 */
+	private void relocate(final String pOldPath, final String pNewPath) {
+		final Integer item = items.remove(pOldPath);
+		if (item != null) {
+			items.put(pNewPath, item);
+			paths.set(item, pNewPath);
+		}
+	}
+}
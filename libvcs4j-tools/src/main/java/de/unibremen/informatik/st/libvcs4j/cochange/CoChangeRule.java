@@ -0,0 +1,105 @@
+package de.unibremen.informatik.st.libvcs4j.cochange;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An unmodifiable association rule between files that have been changed
+ * together (logical coupling). A rule {@code A, B -> C} states that commits
+ * changing {@code A} and {@code B} change {@code C} as well with probability
+ * {@link #getConfidence()}.
+ */
+public class CoChangeRule {
+
+	/**
+	 * The relative paths of the files of the left-hand side of a rule.
+	 * Sorted lexicographically.
+	 */
+	private final List<String> antecedent;
+
+	/**
+	 * The relative path of the file of the right-hand side of a rule.
+	 */
+	@Getter
+	private final String consequent;
+
+	/**
+	 * The number of commits changing all files of a rule.
+	 */
+	@Getter
+	private final int support;
+
+	/**
+	 * The number of commits changing all files of a rule divided by the
+	 * number of commits changing all files of {@link #antecedent}.
+	 */
+	@Getter
+	private final double confidence;
+
+	/**
+	 * {@link #confidence} divided by the relative frequency of commits
+	 * changing {@link #consequent}. Values greater than 1 indicate that
+	 * the files of a rule are changed together more often than by chance.
+	 */
+	@Getter
+	private final double lift;
+
+	/**
+	 * Creates a new rule.
+	 *
+	 * @param antecedent
+	 * 		The relative paths of the left-hand side.
+	 * @param consequent
+	 * 		The relative path of the right-hand side.
+	 * @param support
+	 * 		The number of commits changing all files of the rule.
+	 * @param confidence
+	 * 		The confidence of the rule.
+	 * @param lift
+	 * 		The lift of the rule.
+	 * @throws NullPointerException
+	 * 		If {@code antecedent} or {@code consequent} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code antecedent} is empty or contains {@code null}, if
+	 * 		{@code support <= 0}, or if {@code confidence} is not in
+	 * 		[0, 1].
+	 */
+	public CoChangeRule(@NonNull final Collection<String> antecedent,
+			@NonNull final String consequent, final int support,
+			final double confidence, final double lift)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.noNullElements(antecedent);
+		Validate.isTrue(!antecedent.isEmpty(), "Empty antecedent");
+		Validate.hasRange(confidence, 0.0, 1.0);
+		this.antecedent = new ArrayList<>(antecedent);
+		Collections.sort(this.antecedent);
+		this.consequent = consequent;
+		this.support = Validate.isPositive(support);
+		this.confidence = confidence;
+		this.lift = lift;
+	}
+
+	/**
+	 * Returns the relative paths of the files of the left-hand side of this
+	 * rule. The paths are sorted lexicographically.
+	 *
+	 * @return
+	 * 		An unmodifiable view of the left-hand side of this rule.
+	 */
+	public List<String> getAntecedent() {
+		return Collections.unmodifiableList(antecedent);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s -> %s (support=%d, confidence=%.3f, lift=%.3f)",
+				String.join(", ", antecedent), consequent, support,
+				confidence, lift);
+	}
+}
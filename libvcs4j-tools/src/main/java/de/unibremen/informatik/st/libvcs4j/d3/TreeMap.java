@@ -4,14 +4,22 @@ import de.unibremen.informatik.st.libvcs4j.FSTree;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 
-import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Scanner;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -32,6 +40,40 @@ public class TreeMap {
 	 */
 	private static final double EPSILON = 0.0001;
 
+	/**
+	 * Placeholder of the HTML template that is replaced with
+	 * {@link #minColor}.
+	 */
+	private static final String MIN_COLOR = "@MIN_COLOR@";
+
+	/**
+	 * Placeholder of the HTML template that is replaced with
+	 * {@link #maxColor}.
+	 */
+	private static final String MAX_COLOR = "@MAX_COLOR@";
+
+	/**
+	 * Placeholder of the HTML template that is replaced with the D3 script.
+	 */
+	private static final String D3_SCRIPT = "@D3_SCRIPT@";
+
+	/**
+	 * Placeholder of the HTML template that is replaced with the JSON string
+	 * generated by {@link #generateJSON(Writer, boolean)}.
+	 */
+	private static final String JSON_STRING = "@JSON_STRING@";
+
+	/**
+	 * The D3 script. Is read once (see {@link #readD3File()}).
+	 */
+	private static String d3Script = null;
+
+	/**
+	 * The HTML template split into literal text and placeholders. Is read
+	 * once (see {@link #readHTMLFile()}).
+	 */
+	private static List<String> htmlTemplate = null;
+
 	/**
 	 * Stores the values that are required to build the TreeMap.
 	 */
@@ -251,15 +293,60 @@ public class TreeMap {
 	 *
 	 * @return
 	 * 		The resulting HTML page as a string.
+	 * @throws UncheckedIOException
+	 * 		If an error occurred while reading the HTML template or the D3
+	 * 		script (for instance, if the resource is missing).
+	 */
+	public String generateHTML() throws UncheckedIOException {
+		final StringWriter writer = new StringWriter();
+		try {
+			generateHTML(writer);
+		} catch (final IOException e) {
+			// StringWriter does not throw IOExceptions. Hence, the exception
+			// was thrown while reading the HTML template or the D3 script.
+			throw new UncheckedIOException(
+					"Error while reading the HTML template or the D3 script",
+					e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Writes the resulting HTML page to the given writer. The HTML template
+	 * is streamed to {@code pWriter}, and the JSON string (see
+	 * {@link #generateJSON(Writer, boolean)}) is written while the tree is
+	 * visited. The JSON string is encoded compactly. {@code pWriter} is
+	 * neither flushed nor closed.
+	 *
+	 * @param pWriter
+	 * 		The writer to write the HTML page to.
+	 * @throws NullPointerException
+	 * 		If {@code pWriter} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while writing to {@code pWriter} or while
+	 * 		reading the HTML template or the D3 script.
 	 */
-	public String generateHTML() {
-		final String json = generateJSON();
-		final String d3 = readD3File();
-		return readHTMLFile()
-				.replace("@MIN_COLOR@", String.valueOf(minColor))
-				.replace("@MAX_COLOR@", String.valueOf(maxColor))
-				.replace("@D3_SCRIPT@", d3)
-				.replace("@JSON_STRING@", json);
+	public void generateHTML(final Writer pWriter)
+			throws NullPointerException, IOException {
+		Validate.notNull(pWriter);
+		for (final String segment : readHTMLFile()) {
+			switch (segment) {
+				case MIN_COLOR:
+					pWriter.write(String.valueOf(minColor));
+					break;
+				case MAX_COLOR:
+					pWriter.write(String.valueOf(maxColor));
+					break;
+				case D3_SCRIPT:
+					pWriter.write(readD3File());
+					break;
+				case JSON_STRING:
+					generateJSON(pWriter, true);
+					break;
+				default:
+					pWriter.write(segment);
+			}
+		}
 	}
 
 	/**
@@ -269,93 +356,184 @@ public class TreeMap {
 	 * 		The JSON string that is used by the HTML page.
 	 */
 	public String generateJSON() {
-		final StringBuilder builder = new StringBuilder();
+		final StringWriter writer = new StringWriter();
+		try {
+			generateJSON(writer, false);
+		} catch (final IOException e) {
+			// Only the writer may throw an IOException (no resources are
+			// read), and StringWriter does not.
+			throw new IllegalStateException(e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Writes the JSON string that is used by the HTML page to the given
+	 * writer. Each node is written as soon as it is visited. That is, the
+	 * JSON string is never kept in memory as a whole. {@code pWriter} is
+	 * neither flushed nor closed.
+	 *
+	 * @param pWriter
+	 * 		The writer to write the JSON string to.
+	 * @param pCompact
+	 * 		If {@code true}, no optional whitespace is written.
+	 * @throws NullPointerException
+	 * 		If {@code pWriter} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while writing to {@code pWriter}.
+	 */
+	public void generateJSON(final Writer pWriter, final boolean pCompact)
+			throws NullPointerException, IOException {
+		Validate.notNull(pWriter);
+		final String nameKey = pCompact ? "{\"name\":\"" : "{\"name\": \"";
+		final String colorKey = "\",\"color\":";
+		final String childrenKey = pCompact
+				? ",\"children\":[" : ",\"children\": [";
+		final String valueKey = pCompact ? "\",\"value\":" : "\",\"value\": ";
+		final String fileColorKey = pCompact ? ",\"color\":" : ",\"color\" :";
+
 		final FSTree<Cell> tree = createTree();
 		final FSTree.Visitor<Cell> visitor = new FSTree.Visitor<Cell>() {
-			@Override
-			public void visit(final FSTree<Cell> pTree) {
-				super.visit(pTree);
-				if (pTree.isRoot() && builder.length() > 0) {
-					// Remove ',' generated by last sub node.
-					builder.setLength(builder.length() - 1);
-				}
-			}
-
 			@Override
 			protected void visitDirectory(final FSTree<Cell> pDirectory) {
-				final String name = pDirectory.getName();
 				final Cell cell = pDirectory.getValue()
 						.orElseThrow(IllegalStateException::new);
-				builder.append("{");
-				builder.append("\"name\": ");
-				builder.append("\"").append(name).append("\"");
-				builder.append(",");
-				builder.append("\"color\":");
-				builder.append(colorToString(cell.getColor()));
-				builder.append(",");
-				builder.append("\"children\": [");
-				super.visitDirectory(pDirectory);
-				// Remove ',' generated by last sub node.
-				builder.setLength(builder.length() - 1);
-				builder.append("]");
-				builder.append("},");
+				write(nameKey);
+				write(pDirectory.getName());
+				write(colorKey);
+				write(colorToString(cell.getColor()));
+				write(childrenKey);
+				boolean first = true;
+				for (final FSTree<Cell> node : pDirectory.getNodes()) {
+					if (!first) {
+						write(",");
+					}
+					first = false;
+					visit(node);
+				}
+				write("]}");
 			}
 
 			@Override
 			protected void visitFile(final FSTree<Cell> pFile) {
-				final String name = pFile.getName();
 				final Cell cell = pFile.getValue()
 						.orElseThrow(IllegalStateException::new);
-				builder.append("{");
-				builder.append("\"name\": ");
-				builder.append("\"").append(name).append("\"");
-				builder.append(",");
-				builder.append("\"value\": ");
-				builder.append(sizeToString(cell.getSize()));
-				builder.append(",");
-				builder.append("\"color\" :");
-				builder.append(colorToString(cell.getColor()));
-				builder.append("},");
+				write(nameKey);
+				write(pFile.getName());
+				write(valueKey);
+				write(sizeToString(cell.getSize()));
+				write(fileColorKey);
+				write(colorToString(cell.getColor()));
+				write("}");
 				super.visitFile(pFile);
 			}
+
+			private void write(final String pString) {
+				try {
+					pWriter.write(pString);
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
 		};
-		visitor.visit(tree);
-		return builder.toString();
+		try {
+			visitor.visit(tree);
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
 	}
 
 	/**
-	 * Reads the D3 script.
+	 * Reads the D3 script. The script is read only once and is shared by all
+	 * instances.
 	 *
 	 * @return
 	 * 		The D3 script.
+	 * @throws IOException
+	 * 		If an error occurred while reading the D3 script.
+	 */
+	private static synchronized String readD3File() throws IOException {
+		if (d3Script == null) {
+			d3Script = readResource("/d3.v3.min.js");
+		}
+		return d3Script;
+	}
+
+	/**
+	 * Reads the HTML template and splits it into literal text and
+	 * placeholders ({@link #MIN_COLOR}, {@link #MAX_COLOR},
+	 * {@link #D3_SCRIPT}, and {@link #JSON_STRING}). The template is read
+	 * only once and is shared by all instances.
+	 *
+	 * @return
+	 * 		The HTML template split into literal text and placeholders.
+	 * @throws IOException
+	 * 		If an error occurred while reading the HTML template.
 	 */
-	private String readD3File() {
-		final BufferedInputStream bis = new BufferedInputStream(getClass()
-				.getResourceAsStream("/d3.v3.min.js"));
-		try (Scanner scanner = new Scanner(bis)) {
-			return scanner.useDelimiter("\\A").next();
+	private static synchronized List<String> readHTMLFile()
+			throws IOException {
+		if (htmlTemplate == null) {
+			final String html = readResource("/treemap.html.in");
+			final String[] placeholders = {
+					MIN_COLOR, MAX_COLOR, D3_SCRIPT, JSON_STRING };
+			final List<String> segments = new ArrayList<>();
+			int begin = 0;
+			while (begin < html.length()) {
+				int end = html.length();
+				String placeholder = null;
+				for (final String p : placeholders) {
+					final int index = html.indexOf(p, begin);
+					if (index >= 0 && index < end) {
+						end = index;
+						placeholder = p;
+					}
+				}
+				segments.add(html.substring(begin, end));
+				if (placeholder == null) {
+					break;
+				}
+				segments.add(placeholder);
+				begin = end + placeholder.length();
+			}
+			htmlTemplate = Collections.unmodifiableList(segments);
 		}
+		return htmlTemplate;
 	}
 
 	/**
-	 * Reads the HTML template.
+	 * Reads the resource with given name as UTF-8 string.
 	 *
+	 * @param pName
+	 * 		The name of the resource to read.
 	 * @return
-	 * 		The HTML template.
+	 * 		The content of the resource.
+	 * @throws IOException
+	 * 		If there is no such resource or if an error occurred while
+	 * 		reading it.
 	 */
-	private String readHTMLFile() {
-		final BufferedInputStream bis = new BufferedInputStream(getClass()
-				.getResourceAsStream("/treemap.html.in"));
-		try (Scanner scanner = new Scanner(bis)) {
-			return scanner.useDelimiter("\\A").next();
+	private static String readResource(final String pName)
+			throws IOException {
+		final InputStream is = TreeMap.class.getResourceAsStream(pName);
+		if (is == null) {
+			throw new IOException("Missing resource " + pName);
+		}
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(is, StandardCharsets.UTF_8))) {
+			final StringBuilder builder = new StringBuilder();
+			final char[] buffer = new char[8192];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				builder.append(buffer, 0, read);
+			}
+			return builder.toString();
 		}
 	}
 
 	/**
-	 * Creates the tree that is parsed by {@link #generateJSON()}.
+	 * Creates the tree that is parsed by {@link #generateJSON(Writer, boolean)}.
 	 *
 	 * @return
-	 * 		The tree that is parsed by {@link #generateJSON()}.
+	 * 		The tree that is parsed by {@link #generateJSON(Writer, boolean)}.
 	 */
 	private FSTree<Cell> createTree() {
 		final Map<VCSFile, Cell> mapping = new HashMap<>();
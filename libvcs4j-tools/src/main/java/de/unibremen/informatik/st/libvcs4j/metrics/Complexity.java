@@ -198,6 +198,26 @@ public class Complexity {
 					getNumOperators()        + other.getNumOperators(),
 					getNumOperands()         + other.getNumOperands());
 		}
+
+		/**
+		 * Returns the difference of this and the given halstead.
+		 *
+		 * @param other
+		 * 		The halstead to subtract.
+		 * @return
+		 * 		A new instance containing the difference of this and the given
+		 * 		halstead.
+		 * @throws IllegalArgumentException
+		 * 		If any of the resulting values is negative.
+		 */
+		public Halstead subtract(final Halstead other)
+				throws IllegalArgumentException {
+			return new Halstead(
+					getNumDistinctOperators()- other.getNumDistinctOperators(),
+					getNumDistinctOperands() - other.getNumDistinctOperands(),
+					getNumOperators()        - other.getNumOperators(),
+					getNumOperands()         - other.getNumOperands());
+		}
 	}
 
 	/**
@@ -263,4 +283,22 @@ public class Complexity {
 				getMcCabe() + other.getMcCabe(),
 				getHalstead().add(other.getHalstead()));
 	}
+
+	/**
+	 * Returns the difference of this and the given other.
+	 *
+	 * @param other
+	 * 		The complexity to subtract.
+	 * @return
+	 * 		A new instance containing the difference of this and the given
+	 * 		other.
+	 * @throws IllegalArgumentException
+	 * 		If any of the resulting values is negative.
+	 */
+	public Complexity subtract(final Complexity other)
+			throws IllegalArgumentException {
+		return new Complexity(
+				getMcCabe() - other.getMcCabe(),
+				getHalstead().subtract(other.getHalstead()));
+	}
 }
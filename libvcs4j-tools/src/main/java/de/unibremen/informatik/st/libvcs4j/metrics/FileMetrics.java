@@ -0,0 +1,79 @@
+package de.unibremen.informatik.st.libvcs4j.metrics;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Stores the metrics of a single file (see
+ * {@link Metrics#computeAll(de.unibremen.informatik.st.libvcs4j.VCSFile)}).
+ */
+public class FileMetrics {
+
+	/**
+	 * An empty (default) file metrics.
+	 */
+	public static final FileMetrics EMPTY_FILE_METRICS = new FileMetrics(
+			Size.EMPTY_SIZE, Complexity.EMPTY_COMPLEXITY);
+
+	/**
+	 * The size of a file.
+	 */
+	@Getter
+	private final Size size;
+
+	/**
+	 * The complexity of a file.
+	 */
+	@Getter
+	private final Complexity complexity;
+
+	/**
+	 * Creates a new file metrics with given values.
+	 *
+	 * @param pSize
+	 * 		The size of a file.
+	 * @param pComplexity
+	 * 		The complexity of a file.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public FileMetrics(@NonNull final Size pSize,
+			@NonNull final Complexity pComplexity)
+			throws NullPointerException {
+		size = pSize;
+		complexity = pComplexity;
+	}
+
+	/**
+	 * Returns the sum of this and the given file metrics.
+	 *
+	 * @param other
+	 * 		The other file metrics.
+	 * @return
+	 * 		A new instance containing the sum of this and the given file
+	 * 		metrics.
+	 */
+	public FileMetrics add(final FileMetrics other) {
+		return new FileMetrics(
+				size.add(other.size),
+				complexity.add(other.complexity));
+	}
+
+	/**
+	 * Returns the difference of this and the given file metrics.
+	 *
+	 * @param other
+	 * 		The file metrics to subtract.
+	 * @return
+	 * 		A new instance containing the difference of this and the given
+	 * 		file metrics.
+	 * @throws IllegalArgumentException
+	 * 		If any of the resulting values is negative.
+	 */
+	public FileMetrics subtract(final FileMetrics other)
+			throws IllegalArgumentException {
+		return new FileMetrics(
+				size.subtract(other.size),
+				complexity.subtract(other.complexity));
+	}
+}
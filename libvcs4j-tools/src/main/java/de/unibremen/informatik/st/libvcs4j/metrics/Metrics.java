@@ -4,16 +4,13 @@ import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import org.conqat.lib.scanner.ELanguage;
 import org.conqat.lib.scanner.ETokenType;
-import org.conqat.lib.scanner.IScanner;
 import org.conqat.lib.scanner.IToken;
-import org.conqat.lib.scanner.ScannerException;
-import org.conqat.lib.scanner.ScannerFactory;
+import org.conqat.lib.scanner.ScannerPool;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Provides methods to calculate different metrics. Subclasses may override
@@ -24,18 +21,21 @@ import java.util.stream.Collectors;
 public class Metrics {
 
 	/**
-	 * Tries to compute the size of the given file.
+	 * Tries to compute the size and the complexity of the given file. Unlike
+	 * calling {@link #computeSize(VCSFile)} and
+	 * {@link #computeComplexity(VCSFile)} one after another, this method
+	 * reads and scans {@code pFile} only once.
 	 *
 	 * @param pFile
-	 * 		The file to compute the size for.
+	 * 		The file to compute the metrics for.
 	 * @return
-	 * 		The size of {@code pFile}.
+	 * 		The metrics of {@code pFile}.
 	 * @throws NullPointerException
 	 * 		If {@code pFile} is {@code null}.
 	 * @throws IOException
 	 * 		If an error occurred while reading the contents of {@code pFile}.
 	 */
-	public Optional<Size> computeSize(final VCSFile pFile)
+	public Optional<FileMetrics> computeAll(final VCSFile pFile)
 			throws NullPointerException, IOException {
 		Validate.notNull(pFile);
 
@@ -46,21 +46,28 @@ public class Metrics {
 
 		final ELanguage lang = maybeLang.get();
 		final String content = pFile.readContent();
-		final IScanner scanner = ScannerFactory
-				.newLenientScanner(lang, content, "");
 
-		final String LINE_SEP = "\\r?\\n";
+		// Size
 		int loc  = 0;
 		int sloc = 0;
 		int cloc = 0;
 		int not  = 0;
 		int snot = 0;
 		int cnot = 0;
-		IToken lastToken = null;
-		try {
+		// Complexity
+		final Set<String> distinctOperators = new HashSet<>();
+		final Set<String> distinctOperands = new HashSet<>();
+		int operators = 0;
+		int operands = 0;
+		int mccabe = 1;
+
+		// The (0 origin) line the last token ends in.
+		int ltEndLine = 0;
+		try (ScannerPool.PooledScanner scanner =
+				ScannerPool.borrow(lang, content, "")) {
 			for (IToken token = scanner.getNextToken();
 				 token.getType() != ETokenType.EOF;
-				 lastToken = token, token = scanner.getNextToken()) {
+				 token = scanner.getNextToken()) {
 				not++;
 				final boolean comment = isCommentType(token);
 				if (comment) {
@@ -68,22 +75,17 @@ public class Metrics {
 				} else {
 					snot++;
 				}
-				if (lastToken == null) {
+				final int lines = countLines(content, token.getOffset(),
+						token.getEndOffset() + 1);
+				if (not == 1) { // first token
 					if (comment) {
-						cloc = token.getText().split(LINE_SEP).length;
+						final String text = token.getText();
+						cloc = countLines(text, 0, text.length());
 					} else {
 						sloc = 1;
 					}
 				} else {
-					final String ltText = content.substring(
-							lastToken.getOffset(),
-							lastToken.getEndOffset() + 1);
-					final int ltEndLine = lastToken.getLineNumber() +
-							ltText.split(LINE_SEP).length - 1;
-					final String text = content.substring(
-							token.getOffset(),
-							token.getEndOffset() + 1);
-					int linesToAdd = text.split(LINE_SEP).length;
+					int linesToAdd = lines;
 					if (ltEndLine == token.getLineNumber()) {
 						linesToAdd--;
 					}
@@ -93,21 +95,53 @@ public class Metrics {
 						sloc += linesToAdd;
 					}
 				}
+				ltEndLine = token.getLineNumber() + lines - 1;
+
+				if (comment || token.getType().isError()) {
+					continue;
+				} else if (token.getType().isOperator()) {
+					operators++;
+					distinctOperators.add(token.getText());
+				} else {
+					operands++;
+					distinctOperands.add(token.getText());
+				}
+				if (isControlType(token)) {
+					mccabe++;
+				}
 			}
-		} catch (final ScannerException e) {
-			throw new IOException(e);
 		}
-		if (lastToken != null) {
-			final String text = content.substring(
-					lastToken.getOffset(),
-					lastToken.getEndOffset() + 1);
-			final int endLine = lastToken.getLineNumber()
-					+ text.split(LINE_SEP).length - 1;
-			loc = endLine + 1;
+		if (not > 0) {
+			loc = ltEndLine + 1;
 		}
 
 		final Size size = new Size(loc, sloc, cloc, not, snot, cnot);
-		return Optional.of(size);
+		final Complexity.Halstead halstead =
+				new Complexity.Halstead(
+						distinctOperators.size(),
+						distinctOperands.size(),
+						operators,
+						operands);
+		final Complexity complexity = new Complexity(mccabe, halstead);
+		return Optional.of(new FileMetrics(size, complexity));
+	}
+
+	/**
+	 * Tries to compute the size of the given file.
+	 *
+	 * @param pFile
+	 * 		The file to compute the size for.
+	 * @return
+	 * 		The size of {@code pFile}.
+	 * @throws NullPointerException
+	 * 		If {@code pFile} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of {@code pFile}.
+	 * @see #computeAll(VCSFile)
+	 */
+	public Optional<Size> computeSize(final VCSFile pFile)
+			throws NullPointerException, IOException {
+		return computeAll(pFile).map(FileMetrics::getSize);
 	}
 
 	/**
@@ -121,69 +155,67 @@ public class Metrics {
 	 * 		If {@code pFile} is {@code null}.
 	 * @throws IOException
 	 * 		If an error occurred while reading the contents of {@code pFile}.
+	 * @see #computeAll(VCSFile)
 	 */
 	public Optional<Complexity> computeComplexity(final VCSFile pFile)
 			throws NullPointerException, IOException {
-		Validate.notNull(pFile);
+		return computeAll(pFile).map(FileMetrics::getComplexity);
+	}
 
-		final Optional<ELanguage> maybeLang = getLanguage(pFile);
-		if (!maybeLang.isPresent()) {
-			return Optional.empty();
+	/**
+	 * Counts the lines of {@code pText} in range [{@code pBegin},
+	 * {@code pEnd}). The result is equal to
+	 * {@code pText.subSequence(pBegin, pEnd).split("\\r?\\n").length},
+	 * that is, line separators at the end of the range do not count and a
+	 * range that consists of line separators only has zero lines. Unlike
+	 * {@link String#split(String)}, this method does not allocate any
+	 * memory.
+	 *
+	 * @param pText
+	 * 		The text to count the lines of.
+	 * @param pBegin
+	 * 		The begin of the range (inclusive).
+	 * @param pEnd
+	 * 		The end of the range (exclusive).
+	 * @return
+	 * 		The number of lines.
+	 */
+	static int countLines(final CharSequence pText, final int pBegin,
+			final int pEnd) {
+		if (pBegin >= pEnd) {
+			return 1;
 		}
-
-		final ELanguage lang = maybeLang.get();
-		final String content = pFile.readContent();
-		final IScanner scanner = ScannerFactory
-				.newLenientScanner(lang, content, "");
-
-		final List<IToken> operators = new ArrayList<>();
-		final List<IToken> operands = new ArrayList<>();
-		int mccabe = 1;
-		try {
-			for (IToken token = scanner.getNextToken();
-				 token.getType() != ETokenType.EOF;
-				 token = scanner.getNextToken()) {
-				if (isCommentType(token) || token.getType().isError()) {
-					continue;
-				} else if (token.getType().isOperator()) {
-					operators.add(token);
-				} else {
-					operands.add(token);
-				}
-
-				if (isControlType(token)) {
-					mccabe++;
-				}
+		// Skip trailing line separators.
+		int end = pEnd;
+		while (end > pBegin) {
+			final char c = pText.charAt(end - 1);
+			if (c == '\n') {
+				end--;
+			} else if (c == '\r' && end < pEnd
+					&& pText.charAt(end) == '\n') {
+				end--;
+			} else {
+				break;
 			}
-		} catch (final ScannerException e) {
-			throw new IOException(e);
 		}
-		final List<String> distinctOperators =
-				operators.stream()
-						.map(IToken::getText)
-						.distinct()
-						.collect(Collectors.toList());
-		final List<String> distinctOperands =
-				operands.stream()
-						.map(IToken::getText)
-						.distinct()
-						.collect(Collectors.toList());
-
-		final Complexity.Halstead halstead =
-				new Complexity.Halstead(
-						distinctOperators.size(),
-						distinctOperands.size(),
-						operators.size(),
-						operands.size());
-		final Complexity complexity = new Complexity(mccabe, halstead);
-		return Optional.of(complexity);
+		if (end == pBegin) {
+			return 0;
+		}
+		int lines = 1;
+		for (int i = pBegin; i < end; i++) {
+			if (pText.charAt(i) == '\n') {
+				lines++;
+			}
+		}
+		return lines;
 	}
 
 	/**
 	 * Returns whether the given token is a comment.
 	 *
 	 * You may override this method to change the behaviour of
-	 * {@link #computeSize(VCSFile)} and {@link #computeComplexity(VCSFile)}.
+	 * {@link #computeAll(VCSFile)}, {@link #computeSize(VCSFile)}, and
+	 * {@link #computeComplexity(VCSFile)}.
 	 *
 	 * @param pToken
 	 * 		The token to check.
@@ -205,7 +237,7 @@ public class Metrics {
 	 * Returns whether the given token is a control flow.
 	 *
 	 * You may override this method to change the behaviour of
-	 * {@link #computeComplexity(VCSFile)}.
+	 * {@link #computeAll(VCSFile)} and {@link #computeComplexity(VCSFile)}.
 	 *
 	 * @param pToken
 	 * 		The token to check.
@@ -0,0 +1,328 @@
+package de.unibremen.informatik.st.libvcs4j.metrics;
+
+import de.unibremen.informatik.st.libvcs4j.FSTree;
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Incrementally computes the metrics of a repository. Rather than analyzing
+ * all files of each revision, an aggregator keeps the metrics of each file
+ * (keyed by its relative path) and analyzes only the files that have been
+ * changed in a {@link RevisionRange} (see
+ * {@link RevisionRange#getFileChanges()}). Along with the file metrics, an
+ * aggregator maintains the total metrics of the repository and the
+ * aggregated metrics of each directory. Thus, the costs of analyzing the
+ * history of a repository are proportional to the number of changed files
+ * rather than to the size of the repository times the number of revisions.
+ *
+ * Pass each range of a {@link de.unibremen.informatik.st.libvcs4j.VCSEngine}
+ * to {@link #apply(RevisionRange)}, starting with the first one:
+ *
+ * <pre>
+ * MetricsAggregator aggregator = new MetricsAggregator();
+ * for (RevisionRange range : engine) {
+ *     aggregator.apply(range);
+ *     Size size = aggregator.getTotal().getSize();
+ *     ...
+ * }
+ * </pre>
+ *
+ * Files whose language is unknown (see {@link Metrics#computeAll(VCSFile)})
+ * do not have metrics and, thus, do not contribute to any aggregate.
+ */
+public class MetricsAggregator {
+
+	/**
+	 * The aggregated metrics of a directory.
+	 */
+	private static class Aggregate {
+
+		/**
+		 * The sum of the metrics of all (recursively) sub files.
+		 */
+		private FileMetrics metrics = FileMetrics.EMPTY_FILE_METRICS;
+
+		/**
+		 * The number of (recursively) sub files with metrics.
+		 */
+		private int numFiles = 0;
+	}
+
+	/**
+	 * Computes the metrics of changed files.
+	 */
+	private final Metrics metrics;
+
+	/**
+	 * Maps the relative path of a file to its metrics.
+	 */
+	private final Map<String, FileMetrics> fileMetrics = new HashMap<>();
+
+	/**
+	 * Maps the relative path of a directory to its aggregated metrics.
+	 */
+	private final Map<String, Aggregate> directoryMetrics = new HashMap<>();
+
+	/**
+	 * The sum of the metrics of all files.
+	 */
+	private FileMetrics total = FileMetrics.EMPTY_FILE_METRICS;
+
+	/**
+	 * The number of files that have been analyzed so far.
+	 */
+	private long numAnalyzedFiles = 0;
+
+	/**
+	 * Creates a new aggregator that uses a default {@link Metrics} instance.
+	 */
+	public MetricsAggregator() {
+		this(new Metrics());
+	}
+
+	/**
+	 * Creates a new aggregator that uses the given {@link Metrics} instance
+	 * to compute the metrics of changed files.
+	 *
+	 * @param pMetrics
+	 * 		The metrics instance to use.
+	 * @throws NullPointerException
+	 * 		If {@code pMetrics} is {@code null}.
+	 */
+	public MetricsAggregator(final Metrics pMetrics)
+			throws NullPointerException {
+		metrics = Validate.notNull(pMetrics);
+	}
+
+	/**
+	 * Applies the file changes of the given range. Only added, modified, and
+	 * relocated files are analyzed. Relocated files are analyzed even if
+	 * their content did not change, as their language may have changed (for
+	 * instance, when renaming {@code Foo.java} to {@code Foo.txt}). The
+	 * metrics of removed (and the old version of relocated) files are
+	 * subtracted from their directories and the total.
+	 *
+	 * @param pRange
+	 * 		The range to apply.
+	 * @throws NullPointerException
+	 * 		If {@code pRange} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of a file.
+	 */
+	public void apply(final RevisionRange pRange)
+			throws NullPointerException, IOException {
+		Validate.notNull(pRange);
+		final List<FileChange> changes = pRange.getFileChanges();
+
+		// Detach all old files first. Otherwise, a file that is added (or
+		// relocated) to the path of a file that is removed (or relocated) in
+		// the same range would be detached right after being attached.
+		for (final FileChange change : changes) {
+			change.getOldFile().ifPresent(f -> detach(f.getRelativePath()));
+		}
+
+		for (final FileChange change : changes) {
+			final Optional<VCSFile> newFile = change.getNewFile();
+			if (!newFile.isPresent()) {
+				continue;
+			}
+			final FileMetrics fm = analyze(newFile.get());
+			if (fm != null) {
+				attach(newFile.get().getRelativePath(), fm);
+			}
+		}
+	}
+
+	/**
+	 * Returns the sum of the metrics of all files.
+	 *
+	 * @return
+	 * 		The sum of the metrics of all files.
+	 */
+	public FileMetrics getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the metrics of the file with given relative path.
+	 *
+	 * @param pPath
+	 * 		The relative path of the file.
+	 * @return
+	 * 		The metrics of the file or an empty {@link Optional} if there is
+	 * 		no such file or if the file has no metrics.
+	 * @throws NullPointerException
+	 * 		If {@code pPath} is {@code null}.
+	 */
+	public Optional<FileMetrics> getFileMetrics(final String pPath)
+			throws NullPointerException {
+		Validate.notNull(pPath);
+		return Optional.ofNullable(fileMetrics.get(pPath));
+	}
+
+	/**
+	 * Returns the metrics of the given file.
+	 *
+	 * @param pFile
+	 * 		The file.
+	 * @return
+	 * 		The metrics of {@code pFile} or an empty {@link Optional} if
+	 * 		{@code pFile} is unknown or has no metrics.
+	 * @throws NullPointerException
+	 * 		If {@code pFile} is {@code null}.
+	 */
+	public Optional<FileMetrics> getFileMetrics(final VCSFile pFile)
+			throws NullPointerException {
+		Validate.notNull(pFile);
+		return getFileMetrics(pFile.getRelativePath());
+	}
+
+	/**
+	 * Returns the aggregated metrics of the directory with given relative
+	 * path. The path of a directory is equal to {@link FSTree#getPath()}.
+	 *
+	 * @param pPath
+	 * 		The relative path of the directory.
+	 * @return
+	 * 		The aggregated metrics of the directory or an empty
+	 * 		{@link Optional} if there is no such directory or if none of its
+	 * 		(recursively) sub files has metrics.
+	 * @throws NullPointerException
+	 * 		If {@code pPath} is {@code null}.
+	 */
+	public Optional<FileMetrics> getDirectoryMetrics(final String pPath)
+			throws NullPointerException {
+		Validate.notNull(pPath);
+		final Aggregate aggregate = directoryMetrics.get(pPath);
+		return aggregate == null
+				? Optional.empty()
+				: Optional.of(aggregate.metrics);
+	}
+
+	/**
+	 * Creates a {@link FSTree} of the files of the given revision whose
+	 * values are the metrics kept by this aggregator. The given revision is
+	 * supposed to be the current revision of the last range passed to
+	 * {@link #apply(RevisionRange)}.
+	 *
+	 * @param pRevision
+	 * 		The revision to create the tree from.
+	 * @return
+	 * 		The created tree.
+	 * @throws NullPointerException
+	 * 		If {@code pRevision} is {@code null}.
+	 */
+	public FSTree<FileMetrics> toFSTree(final Revision pRevision)
+			throws NullPointerException {
+		Validate.notNull(pRevision);
+		return FSTree.of(pRevision.getFiles(),
+				f -> fileMetrics.get(f.getRelativePath()),
+				FileMetrics::add);
+	}
+
+	/**
+	 * Returns the number of files that have been analyzed so far.
+	 *
+	 * @return
+	 * 		The number of files that have been analyzed so far.
+	 */
+	public long getNumAnalyzedFiles() {
+		return numAnalyzedFiles;
+	}
+
+	/**
+	 * Computes the metrics of the given file.
+	 *
+	 * @param pFile
+	 * 		The file to analyze.
+	 * @return
+	 * 		The metrics of {@code pFile} or {@code null} if {@code pFile} has
+	 * 		no metrics.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of
+	 * 		{@code pFile}.
+	 */
+	private FileMetrics analyze(final VCSFile pFile) throws IOException {
+		numAnalyzedFiles++;
+		return metrics.computeAll(pFile).orElse(null);
+	}
+
+	/**
+	 * Adds the given metrics to the file with given path, its directories,
+	 * and the total.
+	 *
+	 * @param pPath
+	 * 		The relative path of the file.
+	 * @param pMetrics
+	 * 		The metrics of the file.
+	 */
+	private void attach(final String pPath, final FileMetrics pMetrics) {
+		final FileMetrics old = fileMetrics.put(pPath, pMetrics);
+		if (old != null) {
+			// Should not happen, but keep the aggregates consistent anyway.
+			update(pPath, old, false);
+		}
+		update(pPath, pMetrics, true);
+	}
+
+	/**
+	 * Removes the metrics of the file with given path from the file, its
+	 * directories, and the total.
+	 *
+	 * @param pPath
+	 * 		The relative path of the file.
+	 * @return
+	 * 		The removed metrics or {@code null} if the file has no metrics.
+	 */
+	private FileMetrics detach(final String pPath) {
+		final FileMetrics old = fileMetrics.remove(pPath);
+		if (old != null) {
+			update(pPath, old, false);
+		}
+		return old;
+	}
+
+	/**
+	 * Adds (or subtracts) the given metrics to (from) the directories of the
+	 * file with given path and the total.
+	 *
+	 * @param pPath
+	 * 		The relative path of the file.
+	 * @param pMetrics
+	 * 		The metrics to add or subtract.
+	 * @param pAdd
+	 * 		{@code true} to add {@code pMetrics}, {@code false} to subtract
+	 * 		{@code pMetrics}.
+	 */
+	private void update(final String pPath, final FileMetrics pMetrics,
+			final boolean pAdd) {
+		total = pAdd ? total.add(pMetrics) : total.subtract(pMetrics);
+		for (Path dir = Paths.get(pPath).getParent(); dir != null;
+				dir = dir.getParent()) {
+			final String key = dir.toString();
+			final Aggregate aggregate =
+					directoryMetrics.computeIfAbsent(key, k -> new Aggregate());
+			if (pAdd) {
+				aggregate.metrics = aggregate.metrics.add(pMetrics);
+				aggregate.numFiles++;
+			} else {
+				aggregate.metrics = aggregate.metrics.subtract(pMetrics);
+				aggregate.numFiles--;
+				if (aggregate.numFiles == 0) {
+					directoryMetrics.remove(key);
+				}
+			}
+		}
+	}
+}
@@ -161,4 +161,25 @@ public class Size {
 				SNOT + size.SNOT,
 				CNOT + size.CNOT);
 	}
+
+	/**
+	 * Returns the difference of this and the given size.
+	 *
+	 * @param size
+	 * 		The size to subtract.
+	 * @return
+	 * 		A new instance containing the difference of this and the given
+	 * 		size.
+	 * @throws IllegalArgumentException
+	 * 		If any of the resulting values is negative.
+	 */
+	public Size subtract(final Size size) throws IllegalArgumentException {
+		return new Size(
+				LOC  - size.LOC,
+				SLOC - size.SLOC,
+				CLOC - size.CLOC,
+				NOT  - size.NOT,
+				SNOT - size.SNOT,
+				CNOT - size.CNOT);
+	}
 }
@@ -0,0 +1,195 @@
+package de.unibremen.informatik.st.libvcs4j.pmd;
+
+import de.unibremen.informatik.st.libvcs4j.CanonicalPaths;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import lombok.NonNull;
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.RuleViolation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Converts the {@link RuleViolation}s of a PMD {@link Report} into
+ * {@link PMDViolation}s.
+ */
+class PMDReportConverter {
+
+	/**
+	 * The tab size (see {@link VCSFile.Position#getTabSize()}) which is used
+	 * for creating positions within the source-code files analyzed by PMD.
+	 * <p>
+	 * <a href="https://github.com/pmd/pmd/pull/2656">Since mid 2020</a>,
+	 * {@code 1} for all languages.
+	 */
+	private static final int TAB_SIZE = 1;
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(PMDReportConverter.class);
+
+	/**
+	 * Used to map paths detected by PMD to {@link VCSFile} instances.
+	 */
+	private final Map<Path, VCSFile> path2File = new HashMap<>();
+
+	/**
+	 * Used to canonicalize the paths of {@link #path2File} and the paths
+	 * detected by PMD. Shared with the engine of the files to link
+	 * violations against.
+	 */
+	private final CanonicalPaths canonicalPaths;
+
+	/**
+	 * Creates a new converter which uses the given collection of
+	 * {@link VCSFile}s to link violations in files detected by PMD to their
+	 * corresponding {@link VCSFile} instance. {@code null} values in
+	 * {@code files} are filtered out.
+	 *
+	 * @param files
+	 * 		The files to link violations against.
+	 * @throws NullPointerException
+	 * 		If {@code files} is {@code null}.
+	 */
+	PMDReportConverter(@NonNull final Collection<VCSFile> files)
+			throws NullPointerException {
+		canonicalPaths = files.stream()
+				.filter(Objects::nonNull)
+				.findFirst()
+				.map(f -> f.getVCSEngine().getCanonicalPaths())
+				.orElseGet(() -> new CanonicalPaths(Paths.get("")));
+		files.stream().filter(Objects::nonNull).forEach(f -> {
+			try {
+				path2File.put(canonicalPaths.canonicalize(f), f);
+			} catch (final IOException e) {
+				log.warn("Unable to get canonical path of file '{}'. " +
+						"Falling back to regular path.", f.getPath());
+				path2File.put(f.toPath(), f);
+			}
+		});
+	}
+
+	/**
+	 * Converts the violations of the given report. Violations that cannot be
+	 * linked to a {@link VCSFile}, or whose range does not exist, are
+	 * skipped. Processing errors are logged.
+	 *
+	 * @param report
+	 * 		The report to convert.
+	 * @return
+	 * 		The converted violations.
+	 * @throws NullPointerException
+	 * 		If {@code report} is {@code null}.
+	 */
+	List<PMDViolation> convert(@NonNull final Report report)
+			throws NullPointerException {
+		report.getProcessingErrors().forEach(e ->
+				log.warn("PMD failed to process file '{}': {}",
+						e.getFile(), e.getMsg()));
+
+		final List<PMDViolation> violations = new ArrayList<>();
+		// Canonicalizing is expensive; violations of a file are reported
+		// together.
+		String lastName = null;
+		VCSFile file = null;
+		for (final RuleViolation violation : report.getViolations()) {
+			final String name = violation.getFilename();
+			if (name == null) {
+				log.warn("Skipping violation due to missing file name");
+				continue;
+			}
+			if (!name.equals(lastName)) {
+				lastName = name;
+				file = fileOf(name);
+			}
+			if (file != null) {
+				toViolation(file, violation).ifPresent(violations::add);
+			}
+		}
+		return violations;
+	}
+
+	/**
+	 * Returns the {@link VCSFile} of the file with given name as reported by
+	 * PMD. Returns {@code null} if there is no such file.
+	 */
+	private VCSFile fileOf(final String name) {
+		Path path = Paths.get(name);
+		try {
+			path = canonicalPaths.canonicalize(path);
+		} catch (final IOException e) {
+			log.warn("Skipping file whose canonical path could not be obtained ({})",
+					path);
+			return null;
+		}
+		final VCSFile file = path2File.get(path);
+		if (file == null) {
+			log.warn("Skipping violations due to missing file mapping ({})",
+					path);
+		}
+		return file;
+	}
+
+	/**
+	 * Creates the {@link PMDViolation} of {@code violation} located in
+	 * {@code file}.
+	 */
+	private Optional<PMDViolation> toViolation(final VCSFile file,
+			final RuleViolation violation) {
+		if (violation.getRule() == null) {
+			log.warn("Skipping violation due to missing rule");
+			return Optional.empty();
+		}
+		final String rule = violation.getRule().getName();
+		if (rule == null) {
+			log.warn("Skipping violation due to missing rule name");
+			return Optional.empty();
+		}
+		final String ruleSet = violation.getRule().getRuleSetName();
+		if (ruleSet == null) {
+			log.warn("Skipping violation due to missing rule set name");
+			return Optional.empty();
+		}
+
+		try {
+			final int bl = violation.getBeginLine();
+			final int bc = violation.getBeginColumn();
+			final Optional<VCSFile.Position> begin =
+					file.positionOf(bl, bc, TAB_SIZE);
+			if (begin.isEmpty()) {
+				log.warn("Skipping violation due to not existing begin position. " +
+								"file: {}, line: {}, column: {}, tab size: {}",
+						file.getPath(), bl, bc, TAB_SIZE);
+				return Optional.empty();
+			}
+			final int el = violation.getEndLine();
+			final int ec = violation.getEndColumn();
+			final Optional<VCSFile.Position> end =
+					file.positionOf(el, ec, TAB_SIZE);
+			if (end.isEmpty()) {
+				log.warn("Skipping violation due to not existing end position. " +
+								"file: {}, line: {}, column: {}, tab size: {}",
+						file.getPath(), el, ec, TAB_SIZE);
+				return Optional.empty();
+			}
+			return Optional.of(new PMDViolation(
+					begin.get().rangeTo(end.get()), rule, ruleSet));
+		} catch (final IOException e) {
+			log.warn("Skipping violation due to an IO error while creating its range",
+					e);
+			return Optional.empty();
+		}
+	}
+}
@@ -1,33 +1,40 @@
 package de.unibremen.informatik.st.libvcs4j.pmd;
 
+import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.VCSModelFactory;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import net.sourceforge.pmd.PMD;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import net.sourceforge.pmd.PMDConfiguration;
+import net.sourceforge.pmd.PmdAnalysis;
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.lang.document.FileCollector;
+
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.PrintStream;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
- * Allows to configure and run PMD on {@link Revision} instances.
+ * Allows to configure and run PMD on {@link Revision} and
+ * {@link RevisionRange} instances. PMD is run in-process, that is, neither
+ * global state (such as {@link System#out}) is modified nor is the output of
+ * PMD serialized. Hence, several runners may be used concurrently. A single
+ * runner, however, is not thread-safe.
  */
 @Slf4j
 public class PMDRunner {
@@ -55,6 +62,20 @@ public class PMDRunner {
 	 */
 	private Path cacheFile = null;
 
+	/**
+	 * The violations of the revision analyzed last, grouped by the relative
+	 * path of their file. Used to carry forward the violations of unchanged
+	 * files (see {@link #analyze(RevisionRange)}).
+	 */
+	private final Map<String, List<PMDViolation>> violationsByPath =
+			new HashMap<>();
+
+	/**
+	 * The id of the revision analyzed last. {@code null} if no revision has
+	 * been analyzed yet.
+	 */
+	private String analyzedRevision = null;
+
 	/**
 	 * Enable (or disable) incremental analysis.
 	 */
@@ -116,65 +137,213 @@ public class PMDRunner {
 			throws IOException {
 		Validate.validateState(!rules.isEmpty());
 
-		if (incremental && cacheFile == null) {
+		final List<PMDViolation> violations = run(revision.getFiles(),
+				files -> files.addDirectory(revision.getOutput()));
+		violationsByPath.clear();
+		violations.forEach(v -> violationsByPath
+				.computeIfAbsent(v.getRange().getFile().getRelativePath(),
+						__ -> new ArrayList<>())
+				.add(v));
+		analyzedRevision = revision.getId();
+		return new PMDDetectionResult(violations);
+	}
+
+	/**
+	 * Analyzes the current revision of the given range (see
+	 * {@link RevisionRange#getCurrent()}). If the previous revision of
+	 * {@code range} is the revision analyzed last by this runner, only added
+	 * and modified files are passed to PMD. The violations of all other files
+	 * are carried forward, that is, the violations of unchanged files are
+	 * bound to the files of the current revision and the violations of
+	 * relocated files (without content changes) are moved to their new
+	 * location. Otherwise, the whole revision is analyzed (see
+	 * {@link #analyze(Revision)}).
+	 *
+	 * Note that carrying forward violations assumes that the violations of a
+	 * file depend on the content of this file only. This does not hold for
+	 * rules that take other files into account, for instance, rules that
+	 * resolve types or track usages across files (the auxiliary classpath of
+	 * PMD). The violations of such rules may be outdated for files that have
+	 * not been changed themselves, but depend on files that have. Use
+	 * {@link #analyze(Revision)} if you need such rules to be accurate.
+	 *
+	 * @param range
+	 * 		The range to analyze.
+	 * @return
+	 * 		The detection result.
+	 * @throws NullPointerException
+	 * 		If {@code range} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while analyzing {@code range}.
+	 */
+	public PMDDetectionResult analyze(@NonNull final RevisionRange range)
+			throws IOException {
+		Validate.validateState(!rules.isEmpty());
+
+		final Revision revision = range.getCurrent();
+		final boolean continuous = range.getPrevious()
+				.map(Revision::getId)
+				.filter(id -> id.equals(analyzedRevision))
+				.isPresent();
+		if (!continuous) {
+			return analyze(revision);
+		}
+
+		// Remove all changed files first. Otherwise, a file that has been
+		// removed and then re-added by a relocation, for example, would lose
+		// its violations.
+		final List<FileChange> changes = range.getFileChanges();
+		final List<List<PMDViolation>> previous =
+				new ArrayList<>(changes.size());
+		for (final FileChange change : changes) {
+			previous.add(change.getOldFile()
+					.map(VCSFile::getRelativePath)
+					.map(violationsByPath::remove)
+					.orElse(null));
+		}
+
+		final List<VCSFile> toAnalyze = new ArrayList<>();
+		final Map<String, List<PMDViolation>> moved = new HashMap<>();
+		for (int i = 0; i < changes.size(); i++) {
+			final FileChange change = changes.get(i);
+			final Optional<VCSFile> newFile = change.getNewFile();
+			if (newFile.isEmpty()) {
+				continue; // REMOVE
+			}
+			final List<PMDViolation> violations = previous.get(i);
+			if (change.getType() == FileChange.Type.RELOCATE
+					&& change.computeDiff().isEmpty()) {
+				moved.put(newFile.get().getRelativePath(), violations == null
+						? new ArrayList<>()
+						: rebind(violations, newFile.get()));
+			} else {
+				toAnalyze.add(newFile.get());
+			}
+		}
+
+		// Bind the violations of unchanged files to the current revision.
+		final Map<String, VCSFile> files = new HashMap<>();
+		revision.getFiles().forEach(f -> files.put(f.getRelativePath(), f));
+		final Map<String, List<PMDViolation>> carried = new HashMap<>();
+		violationsByPath.forEach((path, violations) -> {
+			final VCSFile file = files.get(path);
+			if (file != null) {
+				carried.put(path, rebind(violations, file));
+			}
+		});
+		carried.putAll(moved);
+
+		if (!toAnalyze.isEmpty()) {
+			analyzeFiles(toAnalyze).forEach(v -> carried
+					.computeIfAbsent(v.getRange().getFile().getRelativePath(),
+							__ -> new ArrayList<>())
+					.add(v));
+		}
+
+		violationsByPath.clear();
+		violationsByPath.putAll(carried);
+		analyzedRevision = revision.getId();
+		return new PMDDetectionResult(violationsByPath.values().stream()
+				.flatMap(List::stream)
+				.collect(Collectors.toList()));
+	}
+
+	/**
+	 * Runs PMD on the given files only. Used by
+	 * {@link #analyze(RevisionRange)} to analyze added and modified files.
+	 *
+	 * @param files
+	 * 		The files to analyze.
+	 * @return
+	 * 		The violations of {@code files}.
+	 * @throws IOException
+	 * 		If an error occurred while analyzing {@code files}.
+	 */
+	protected List<PMDViolation> analyzeFiles(final List<VCSFile> files)
+			throws IOException {
+		return run(files, collector -> {
+			for (final VCSFile file : files) {
+				collector.addFile(file.toPath());
+			}
+		});
+	}
+
+	/**
+	 * Runs PMD in-process on the files added by {@code input} and converts
+	 * the detected violations. {@code files} is used to link violations to
+	 * their {@link VCSFile} instance.
+	 */
+	private List<PMDViolation> run(final Collection<VCSFile> files,
+			final PMDInput input) throws IOException {
+		final PMDConfiguration config = new PMDConfiguration();
+		config.setRuleSets(rules);
+		config.setThreads(Runtime.getRuntime().availableProcessors());
+		if (incremental) {
+			config.setAnalysisCacheLocation(getCacheFile().toString());
+		} else {
+			config.setIgnoreIncrementalAnalysis(true);
+		}
+
+		try (PmdAnalysis pmd = PmdAnalysis.create(config)) {
+			input.addTo(pmd.files());
+			final Report report = pmd.performAnalysisAndCollectReport();
+			return new PMDReportConverter(files).convert(report);
+		}
+	}
+
+	/**
+	 * Returns the PMD cache file. Creates it if necessary.
+	 */
+	private Path getCacheFile() throws IOException {
+		if (cacheFile == null) {
 			log.info("Creating PMD cache file");
 			cacheFile = Files.createTempFile("libvcs4j-pmd", null)
 					.toAbsolutePath();
 			log.info("Cache file is '{}'", cacheFile);
+			final Path file = cacheFile;
 			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-				log.info("Deleting PMD cache file '{}'", cacheFile);
+				log.info("Deleting PMD cache file '{}'", file);
 				try {
-					Files.delete(cacheFile);
+					Files.delete(file);
 				} catch (final IOException e) {
 					log.warn("Error while deleting PMD cache", e);
 				}
 			}));
 		}
-		final List<String> args = new ArrayList<>();
-		// input
-		args.add("-d");
-		args.add(revision.getOutput().toString());
-		// format
-		args.add("-f");
-		args.add("xml");
-		// rules
-		args.add("-R");
-		args.add(String.join(",", rules));
-		// cache
-		if (incremental) {
-			args.add("-cache");
-			args.add(cacheFile.toString());
-		}
-		// threads
-		args.add("-t");
-		args.add(String.valueOf(Runtime.getRuntime().availableProcessors()));
-
-		// Temporarily redirect stdout to a string.
-		final PrintStream stdout = System.out;
-		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		final PrintStream ps = new PrintStream(bos);
-		System.setOut(ps);
-		try {
-			PMD.run(args.toArray(String[]::new));
-			// According to PMD the resulting xml is UTF-8 encoded.
-			final String output = bos.toString(StandardCharsets.UTF_8.name());
-
-			// Parse output
-			final SAXParserFactory factory = SAXParserFactory.newInstance();
-			final SAXParser saxParser = factory.newSAXParser();
-			final InputStream bis = new ByteArrayInputStream(
-					output.getBytes(StandardCharsets.UTF_8.name()));
-			PMDSaxHandler handler = new PMDSaxHandler(revision.getFiles());
-			saxParser.parse(bis, handler);
-
-			// Result
-			return new PMDDetectionResult(handler.getViolations());
-		} catch (final UnsupportedOperationException | SAXException
-				| ParserConfigurationException e) {
-			throw new IOException(e);
-		} finally {
-			// Make sure to reset stdout.
-			System.setOut(stdout);
+		return cacheFile;
+	}
+
+	/**
+	 * Binds the given violations to {@code file}, which must have the same
+	 * content as the file of the violations. Line, column, and offset of
+	 * all positions are kept, so there is no need to read {@code file}.
+	 */
+	private static List<PMDViolation> rebind(
+			final List<PMDViolation> violations, final VCSFile file) {
+		final VCSEngine engine = file.getVCSEngine();
+		final VCSModelFactory factory = engine.getModelFactory();
+		final List<PMDViolation> result = new ArrayList<>(violations.size());
+		for (final PMDViolation v : violations) {
+			final VCSFile.Position b = v.getRange().getBegin();
+			final VCSFile.Position e = v.getRange().getEnd();
+			final VCSFile.Range range = factory.createRange(
+					factory.createPosition(file, b.getLine(), b.getColumn(),
+							b.getOffset(), b.getLineOffset(), b.getTabSize(),
+							engine),
+					factory.createPosition(file, e.getLine(), e.getColumn(),
+							e.getOffset(), e.getLineOffset(), e.getTabSize(),
+							engine),
+					engine);
+			result.add(new PMDViolation(range, v.getRule(), v.getRuleSet()));
 		}
+		return result;
+	}
+
+	/**
+	 * Adds the files to analyze to a PMD {@link FileCollector}.
+	 */
+	@FunctionalInterface
+	private interface PMDInput {
+		void addTo(FileCollector collector) throws IOException;
 	}
 }
@@ -1,5 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j.spoon;
 
+import de.unibremen.informatik.st.libvcs4j.CanonicalPaths;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import lombok.NonNull;
 import spoon.reflect.cu.SourcePosition;
@@ -89,11 +90,13 @@ public abstract class ElementExtractor extends Scanner {
 	 * 		The {@link VCSFile} that contains {@code position}.
 	 */
 	public Optional<VCSFile> findFile(final SourcePosition position) {
+		final CanonicalPaths paths = environment.getRevision()
+				.getVCSEngine().getCanonicalPaths();
 		return Optional.ofNullable(position)
 				// Make position canonical.
 				.map(p -> {
 					try {
-						return p.getFile().getCanonicalFile();
+						return paths.canonicalize(p.getFile().toPath());
 					} catch (final IOException e) {
 						throw new UncheckedIOException(e);
 					}
@@ -102,7 +105,7 @@ public abstract class ElementExtractor extends Scanner {
 				.map(p -> environment.getRevision().getFiles().stream()
 						.filter(f -> {
 							try {
-								return f.toFile().getCanonicalFile().equals(p);
+								return paths.canonicalize(f).equals(p);
 							} catch (final IOException e) {
 								throw new UncheckedIOException(e);
 							}
@@ -1,5 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j.spoon;
 
+import de.unibremen.informatik.st.libvcs4j.CanonicalPaths;
 import de.unibremen.informatik.st.libvcs4j.Revision;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
@@ -12,10 +13,10 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.factory.CompilationUnitFactory;
 import spoon.reflect.reference.CtTypeReference;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -60,13 +61,16 @@ public class Environment {
 		final CompilationUnitFactory factory = ctModel.getRootPackage()
 				.getFactory().CompilationUnit();
 		final Map<String, CompilationUnit> compilationUnits = factory.getMap();
+		final Revision revision = revisionRange.getCurrent();
+		final CanonicalPaths paths =
+				revision.getVCSEngine().getCanonicalPaths();
 
 		// Make compilation unit paths canonical.
 		final Map<Path, CompilationUnit> cPathToUnit = new HashMap<>();
 		try {
 			for (String path : compilationUnits.keySet()) {
 				final CompilationUnit unit = compilationUnits.get(path);
-				final Path cPath = new File(path).getCanonicalFile().toPath();
+				final Path cPath = paths.canonicalize(Paths.get(path));
 				cPathToUnit.put(cPath, unit);
 			}
 		} catch (final IOException e) {
@@ -79,9 +83,8 @@ public class Environment {
 		// Make VCS file paths canonical.
 		final Map<VCSFile, Path> fileToCPath = new IdentityHashMap<>();
 		try {
-			final Revision revision = revisionRange.getCurrent();
 			for (final VCSFile vFile : revision.getFiles()) {
-				final Path cPath = vFile.toFile().getCanonicalFile().toPath();
+				final Path cPath = paths.canonicalize(vFile);
 				fileToCPath.put(vFile, cPath);
 			}
 		} catch (final IOException e) {
@@ -4,68 +4,128 @@ import de.unibremen.informatik.st.libvcs4j.spoon.Environment;
 import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.CodeSmell;
 import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.CodeSmellDetector;
 import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Thresholds;
+import lombok.Getter;
 import lombok.NonNull;
+import spoon.reflect.code.CtAbstractInvocation;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtParameter;
 import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtTypeParameter;
+import spoon.reflect.reference.CtArrayTypeReference;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtTypeParameterReference;
 import spoon.reflect.reference.CtTypeReference;
 
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.function.Function;
 
+/**
+ * Detects cyclic dependencies between types. Field types, parameter types,
+ * invoked executables, and super types are recorded as edges of a
+ * {@link DependencyGraph}. Each strongly connected component of this graph
+ * (with at least two types) is reported as a code smell.
+ *
+ * A graph built while analyzing a previous revision may be passed to
+ * {@link #CycleDetector(Environment, DependencyGraph)}. The edges of all
+ * scanned types are replaced, and the edges of types that are no longer
+ * scanned are removed.
+ */
 public class CycleDetector extends CodeSmellDetector {
 
-	private final Map<CtType, Set<CtType>> dependencies = new HashMap<>();
+	@Getter
+	private final DependencyGraph graph;
+
+	private final Map<String, CtType<?>> types = new HashMap<>();
+
+	private final Deque<String> enclosingTypes = new ArrayDeque<>();
 
 	public CycleDetector(@NonNull Environment environment) {
+		this(environment, new DependencyGraph());
+	}
+
+	public CycleDetector(@NonNull final Environment environment,
+			@NonNull final DependencyGraph graph) {
 		super(environment);
+		this.graph = graph;
 	}
 
 	@Override
 	public void visitRoot(final CtElement element) {
+		types.clear();
+		enclosingTypes.clear();
 		super.visitRoot(element);
-		final Set<CtType> types = new HashSet<>(dependencies.keySet());
+		graph.retainEdgesFrom(types.keySet());
 
-		for (final CtType t1 : types) {
-			final Set<CtType> t1deps = dependencies.get(t1);
-			for (final CtType t2 : types) {
-				if (!t1.equals(t2)) {
-					final Set<CtType> t2deps = dependencies.get(t2);
-					if (t1deps.contains(t2) && t2deps.contains(t1)) {
-						t1deps.remove(t2);
-						t2deps.remove(t1);
-						addCodeSmellWithMultiplePositions(
-								Arrays.asList(t1, t2),
-								Collections.emptyList(),
-								null, "Direct cycle");
-					}
-				}
+		for (final List<String> cycle : graph.findCycles()) {
+			final List<CtElement> elements = new ArrayList<>(cycle.size());
+			cycle.stream().map(types::get).forEach(elements::add);
+			addCodeSmellWithMultiplePositions(elements,
+					Collections.emptyList(), null, elements.size() == 2
+							? "Direct cycle"
+							: "Cycle of " + elements.size() + " types");
+		}
+	}
+
+	@Override
+	protected void enter(final CtElement element) {
+		if (isType(element)) {
+			final CtType<?> type = (CtType<?>) element;
+			final String name = type.getQualifiedName();
+			// Replace the edges of the previous revision.
+			if (types.put(name, type) == null) {
+				graph.removeEdgesFrom(name);
+			}
+			graph.addNode(name);
+			enclosingTypes.push(name);
+			addDependency(type.getSuperclass());
+			type.getSuperInterfaces().forEach(this::addDependency);
+		} else if (element instanceof CtField) {
+			addDependency(((CtField<?>) element).getType());
+		} else if (element instanceof CtParameter) {
+			addDependency(((CtParameter<?>) element).getType());
+		} else if (element instanceof CtAbstractInvocation) {
+			final CtExecutableReference<?> executable =
+					((CtAbstractInvocation<?>) element).getExecutable();
+			if (executable != null) {
+				addDependency(executable.getDeclaringType());
 			}
 		}
+		super.enter(element);
 	}
 
 	@Override
-	public <T> void visitCtField(final CtField<T> field) {
-		final Optional<CtType> from = Optional
-				.ofNullable(field.getDeclaringType());
-		final Optional<CtType> to = Optional
-				.ofNullable(field.getType())
-				.map(t -> getCache().getOrResolve(t))
-				.flatMap(Function.identity());
-		if (from.isPresent() && to.isPresent()) {
-			dependencies.computeIfAbsent(from.get(), f -> {
-				final Set<CtType> set = new HashSet<>();
-				set.add(f);
-				return set;
-			}).add(to.get());
+	protected void exit(final CtElement element) {
+		if (isType(element)) {
+			enclosingTypes.pop();
+		}
+		super.exit(element);
+	}
+
+	private boolean isType(final CtElement element) {
+		// Type parameters are modeled as types as well.
+		return element instanceof CtType
+				&& !(element instanceof CtTypeParameter);
+	}
+
+	private void addDependency(final CtTypeReference<?> reference) {
+		if (reference == null || reference.isPrimitive()
+				|| reference instanceof CtTypeParameterReference
+				|| enclosingTypes.isEmpty()) {
+			return;
+		}
+		if (reference instanceof CtArrayTypeReference) {
+			addDependency(((CtArrayTypeReference<?>) reference)
+					.getComponentType());
+			return;
 		}
-		super.visitCtField(field);
+		graph.addEdge(enclosingTypes.peek(), reference.getQualifiedName());
+		reference.getActualTypeArguments().forEach(this::addDependency);
 	}
 
 	@Override
@@ -0,0 +1,286 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.codesmell.coupler;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A directed graph of type dependencies. Types are identified by their
+ * qualified name and are mapped to consecutive indices. The outgoing edges of
+ * each type are stored as adjacency arrays, so that cycles of any length can
+ * be found with Tarjan's algorithm in O(V + E) (see {@link #findCycles()}).
+ *
+ * The graph may be updated incrementally, for example, between two revisions.
+ * To do so, remove the outgoing edges of changed types (see
+ * {@link #removeEdgesFrom(String)} and {@link #retainEdgesFrom(Collection)})
+ * and add their new edges. Indices are never reused. This class is NOT
+ * threadsafe.
+ */
+public class DependencyGraph {
+
+	/**
+	 * Initial capacity of an adjacency array.
+	 */
+	private static final int INITIAL_DEGREE = 4;
+
+	/**
+	 * Qualified name -> index.
+	 */
+	private final Map<String, Integer> indices = new HashMap<>();
+
+	/**
+	 * Index -> qualified name.
+	 */
+	private final List<String> names = new ArrayList<>();
+
+	/**
+	 * Index -> outgoing edges. Only the first {@code degrees[i]} entries of
+	 * {@code adjacency[i]} are valid.
+	 */
+	private int[][] adjacency = new int[16][];
+
+	/**
+	 * Index -> number of outgoing edges.
+	 */
+	private int[] degrees = new int[16];
+
+	/**
+	 * All edges packed with {@link #pack(int, int)}. Used to avoid duplicate
+	 * edges.
+	 */
+	private final Set<Long> edges = new HashSet<>();
+
+	/**
+	 * Returns the index of the type with given qualified name. Adds the type
+	 * if necessary.
+	 *
+	 * @param name
+	 * 		The qualified name of the type.
+	 * @return
+	 * 		The index of the type.
+	 * @throws NullPointerException
+	 * 		If {@code name} is {@code null}.
+	 */
+	public int addNode(@NonNull final String name) throws NullPointerException {
+		final Integer index = indices.get(name);
+		if (index != null) {
+			return index;
+		}
+		final int newIndex = names.size();
+		if (newIndex == degrees.length) {
+			adjacency = Arrays.copyOf(adjacency, newIndex * 2);
+			degrees = Arrays.copyOf(degrees, newIndex * 2);
+		}
+		indices.put(name, newIndex);
+		names.add(name);
+		return newIndex;
+	}
+
+	/**
+	 * Adds an edge from type {@code from} to type {@code to}. Adds the types
+	 * if necessary. Self edges are ignored.
+	 *
+	 * @param from
+	 * 		The qualified name of the depending type.
+	 * @param to
+	 * 		The qualified name of the type {@code from} depends on.
+	 * @return
+	 * 		{@code true} if the edge has been added, {@code false} if it
+	 * 		already exists or if {@code from} equals {@code to}.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public boolean addEdge(@NonNull final String from, @NonNull final String to)
+			throws NullPointerException {
+		final int f = addNode(from);
+		final int t = addNode(to);
+		if (f == t || !edges.add(pack(f, t))) {
+			return false;
+		}
+		int[] targets = adjacency[f];
+		if (targets == null) {
+			targets = new int[INITIAL_DEGREE];
+		} else if (degrees[f] == targets.length) {
+			targets = Arrays.copyOf(targets, targets.length * 2);
+		}
+		targets[degrees[f]++] = t;
+		adjacency[f] = targets;
+		return true;
+	}
+
+	/**
+	 * Returns whether there is an edge from type {@code from} to type
+	 * {@code to}.
+	 *
+	 * @param from
+	 * 		The qualified name of the depending type.
+	 * @param to
+	 * 		The qualified name of the type {@code from} may depend on.
+	 * @return
+	 * 		{@code true} if there is such an edge, {@code false} otherwise.
+	 */
+	public boolean hasEdge(final String from, final String to) {
+		final Integer f = indices.get(from);
+		final Integer t = indices.get(to);
+		return f != null && t != null && edges.contains(pack(f, t));
+	}
+
+	/**
+	 * Removes all outgoing edges of the type with given qualified name. Does
+	 * nothing if there is no such type.
+	 *
+	 * @param name
+	 * 		The qualified name of the type.
+	 */
+	public void removeEdgesFrom(final String name) {
+		final Integer index = indices.get(name);
+		if (index != null) {
+			removeEdgesFrom(index);
+		}
+	}
+
+	/**
+	 * Removes the outgoing edges of all types that are not contained in
+	 * {@code names}.
+	 *
+	 * @param names
+	 * 		The qualified names of the types whose edges are retained.
+	 * @throws NullPointerException
+	 * 		If {@code names} is {@code null}.
+	 */
+	public void retainEdgesFrom(@NonNull final Collection<String> names)
+			throws NullPointerException {
+		final Set<String> retain = names instanceof Set
+				? (Set<String>) names : new HashSet<>(names);
+		for (int i = 0; i < this.names.size(); i++) {
+			if (degrees[i] > 0 && !retain.contains(this.names.get(i))) {
+				removeEdgesFrom(i);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of types.
+	 *
+	 * @return
+	 * 		The number of types.
+	 */
+	public int getNumNodes() {
+		return names.size();
+	}
+
+	/**
+	 * Returns the number of edges.
+	 *
+	 * @return
+	 * 		The number of edges.
+	 */
+	public int getNumEdges() {
+		return edges.size();
+	}
+
+	/**
+	 * Computes the strongly connected components of this graph that consist
+	 * of at least two types. Each of these components contains (at least)
+	 * one cycle passing through all of its types. The qualified names within
+	 * a component are sorted lexicographically.
+	 *
+	 * @return
+	 * 		The strongly connected components of this graph with at least two
+	 * 		types.
+	 */
+	public List<List<String>> findCycles() {
+		final List<List<String>> cycles = new ArrayList<>();
+		for (final int[] component : computeComponents()) {
+			if (component.length > 1) {
+				final List<String> cycle = new ArrayList<>(component.length);
+				for (final int index : component) {
+					cycle.add(names.get(index));
+				}
+				Collections.sort(cycle);
+				cycles.add(cycle);
+			}
+		}
+		return cycles;
+	}
+
+	/**
+	 * Computes the strongly connected components of this graph with an
+	 * iterative version of Tarjan's algorithm (large graphs would overflow
+	 * the call stack otherwise).
+	 */
+	private List<int[]> computeComponents() {
+		final int n = names.size();
+		final int[] order = new int[n];
+		Arrays.fill(order, -1);
+		final int[] lowLink = new int[n];
+		final boolean[] onStack = new boolean[n];
+		final int[] stack = new int[n];
+		final int[] callStack = new int[n];
+		final int[] nextEdge = new int[n];
+		final List<int[]> components = new ArrayList<>();
+		int counter = 0;
+		int sp = 0;
+
+		for (int root = 0; root < n; root++) {
+			if (order[root] != -1) {
+				continue;
+			}
+			int csp = 0;
+			order[root] = lowLink[root] = counter++;
+			stack[sp++] = root;
+			onStack[root] = true;
+			callStack[csp++] = root;
+
+			while (csp > 0) {
+				final int v = callStack[csp - 1];
+				if (nextEdge[v] < degrees[v]) {
+					final int w = adjacency[v][nextEdge[v]++];
+					if (order[w] == -1) {
+						order[w] = lowLink[w] = counter++;
+						stack[sp++] = w;
+						onStack[w] = true;
+						callStack[csp++] = w;
+					} else if (onStack[w]) {
+						lowLink[v] = Math.min(lowLink[v], order[w]);
+					}
+				} else {
+					csp--;
+					if (csp > 0) {
+						final int u = callStack[csp - 1];
+						lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+					}
+					if (lowLink[v] == order[v]) {
+						int begin = sp;
+						do {
+							onStack[stack[--begin]] = false;
+						} while (stack[begin] != v);
+						components.add(Arrays.copyOfRange(stack, begin, sp));
+						sp = begin;
+					}
+				}
+			}
+		}
+		return components;
+	}
+
+	private void removeEdgesFrom(final int index) {
+		for (int i = 0; i < degrees[index]; i++) {
+			edges.remove(pack(index, adjacency[index][i]));
+		}
+		degrees[index] = 0;
+		adjacency[index] = null;
+	}
+
+	private static long pack(final int from, final int to) {
+		return ((long) from << 32) | (to & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,92 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Records the fields accessed by the methods of a type. Fields are mapped to
+ * consecutive indices (per type) and the accesses of a method are stored as
+ * {@link BitSet} over these indices. Thus, whether two methods access a
+ * common field is determined with a word-wise AND (see
+ * {@link BitSet#intersects(BitSet)}) rather than by intersecting sets of
+ * fields. Cohesion metrics, such as TCC or LCOM, can be computed from the
+ * number of connected method pairs (see {@link #countConnectedPairs()}).
+ */
+class FieldAccesses {
+
+	/**
+	 * Maps fields to their index.
+	 */
+	private final Map<CtField, Integer> fields = new IdentityHashMap<>();
+
+	/**
+	 * Maps methods to the (indices of the) fields they are accessing.
+	 */
+	private final Map<CtMethod, BitSet> methods = new IdentityHashMap<>();
+
+	/**
+	 * Adds the given method without any field access. Resets the field
+	 * accesses of {@code method} if it has already been added.
+	 *
+	 * @param method
+	 * 		The method to add.
+	 */
+	void addMethod(final CtMethod method) {
+		methods.put(method, new BitSet());
+	}
+
+	/**
+	 * Records that {@code method} accesses {@code field}. Adds
+	 * {@code method} if necessary.
+	 *
+	 * @param method
+	 * 		The accessing method.
+	 * @param field
+	 * 		The accessed field.
+	 */
+	void addAccess(final CtMethod method, final CtField field) {
+		Integer index = fields.get(field);
+		if (index == null) {
+			index = fields.size();
+			fields.put(field, index);
+		}
+		methods.computeIfAbsent(method, __ -> new BitSet()).set(index);
+	}
+
+	/**
+	 * Returns the number of methods.
+	 *
+	 * @return
+	 * 		The number of methods.
+	 */
+	int getNumMethods() {
+		return methods.size();
+	}
+
+	/**
+	 * Returns the number of (unordered) method pairs accessing at least one
+	 * common field.
+	 *
+	 * @return
+	 * 		The number of method pairs accessing at least one common field.
+	 */
+	int countConnectedPairs() {
+		// Methods without field accesses are not connected to any method.
+		final BitSet[] accesses = methods.values().stream()
+				.filter(a -> !a.isEmpty())
+				.toArray(BitSet[]::new);
+		int pairs = 0;
+		for (int i = 0; i < accesses.length; i++) {
+			for (int j = i + 1; j < accesses.length; j++) {
+				if (accesses[i].intersects(accesses[j])) {
+					pairs++;
+				}
+			}
+		}
+		return pairs;
+	}
+}
@@ -1,6 +1,5 @@
 package de.unibremen.informatik.st.libvcs4j.spoon.metric;
 
-import de.unibremen.informatik.st.libvcs4j.Validate;
 import de.unibremen.informatik.st.libvcs4j.spoon.Cache;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
@@ -18,13 +17,9 @@ import spoon.reflect.declaration.CtModifiable;
 import spoon.reflect.declaration.CtType;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.IdentityHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -40,11 +35,11 @@ public class TCC extends DecimalGatherer {
 	private static final BigDecimal INITIAL_VALUE = BigDecimal.ZERO;
 
 	/**
-	 * Maps a type `t` to its methods, which in turn are mapped to the fields
-	 * they are accessing, which in turn are in scope of `t`.
+	 * Maps a type `t` to its methods and the fields they are accessing, which
+	 * in turn are in scope of `t`.
 	 */
-	private final Map<CtType, Map<CtMethod, Set<CtField>>>
-			typeInfo = new IdentityHashMap<>();
+	private final Map<CtType, FieldAccesses> typeInfo =
+			new IdentityHashMap<>();
 
 	/**
 	 * Creates a TCC gatherer with given cache (see
@@ -91,44 +86,31 @@ public class TCC extends DecimalGatherer {
 
 	@Override
 	public <T> void visitCtClass(final CtClass<T> ctClass) {
-		typeInfo.put(ctClass, new IdentityHashMap<>());
+		typeInfo.put(ctClass, new FieldAccesses());
 		visitNode(ctClass, super::visitCtClass, this::visitType,
 				(__, parent) -> parent, INITIAL_VALUE);
 	}
 
 	@Override
 	public <T> void visitCtInterface(final CtInterface<T> ctInterface) {
-		typeInfo.put(ctInterface, new IdentityHashMap<>());
+		typeInfo.put(ctInterface, new FieldAccesses());
 		visitNode(ctInterface, super::visitCtInterface, this::visitType,
 				(__, parent) -> parent, INITIAL_VALUE);
 	}
 
 	@Override
 	public <T extends Enum<?>> void visitCtEnum(final CtEnum<T> ctEnum) {
-		typeInfo.put(ctEnum, new IdentityHashMap<>());
+		typeInfo.put(ctEnum, new FieldAccesses());
 		visitNode(ctEnum, super::visitCtEnum, this::visitType,
 				(__, parent) -> parent, INITIAL_VALUE);
 	}
 
 	private void visitType(final CtType type) {
-		final Map<CtMethod, Set<CtField>> ti = typeInfo.get(type);
+		final FieldAccesses ti = typeInfo.get(type);
 		if (ti != null) {
-			final List<CtMethod> methods = new ArrayList<>(ti.keySet());
-			final int numMethods = methods.size();
+			final int numMethods = ti.getNumMethods();
 			final int totalPairs = (numMethods * (numMethods - 1)) / 2;
-			int pairs = 0;
-			for (int i = 0; i < numMethods; i++) {
-				for (int j = i + 1; j < numMethods; j++) {
-					final CtMethod m1 = methods.get(i);
-					final CtMethod m2 = methods.get(j);
-					Validate.validateState(m1 != m2);
-					final Set<CtField> fields = new HashSet<>(ti.get(m1));
-					fields.retainAll(ti.get(m2));
-					if (!fields.isEmpty()) {
-						pairs++;
-					}
-				}
-			}
+			final int pairs = ti.countConnectedPairs();
 			final BigDecimal tcc = totalPairs == 0 || pairs == 0
 					? BigDecimal.ZERO: BigDecimal.valueOf(
 							(double) pairs/ (double) totalPairs);
@@ -138,8 +120,7 @@ public class TCC extends DecimalGatherer {
 
 	@Override
 	public <T> void visitCtMethod(final CtMethod<T> method) {
-		typeInfo.get(method.getParent(CtType.class))
-				.put(method, new HashSet<>());
+		typeInfo.get(method.getParent(CtType.class)).addMethod(method);
 		super.visitCtMethod(method);
 	}
 
@@ -165,9 +146,7 @@ public class TCC extends DecimalGatherer {
 					.map(f -> fieldAccess.getParent(CtMethod.class))
 					.filter(CtModifiable::isPublic);
 			if (field.isPresent() && method.isPresent()) {
-				typeInfo.get(type).computeIfAbsent(
-						method.get(), __ -> new HashSet<>())
-						.add(field.get());
+				typeInfo.get(type).addAccess(method.get(), field.get());
 			}
 		}
 	}
@@ -184,8 +163,7 @@ public class TCC extends DecimalGatherer {
 				.ifPresent(field -> {
 					final CtType type = invocation.getParent(CtType.class);
 					final CtMethod met = invocation.getParent(CtMethod.class);
-					typeInfo.get(type).computeIfAbsent(
-							met, __ -> new HashSet<>()).add(field);
+					typeInfo.get(type).addAccess(met, field);
 				});
 		super.visitCtInvocation(invocation);
 	}
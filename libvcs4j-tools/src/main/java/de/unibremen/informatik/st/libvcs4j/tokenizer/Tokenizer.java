@@ -0,0 +1,343 @@
+package de.unibremen.informatik.st.libvcs4j.tokenizer;
+
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import org.conqat.lib.commons.filesystem.FileSystemUtils;
+import org.conqat.lib.scanner.ELanguage;
+import org.conqat.lib.scanner.ScannerPool;
+import org.conqat.lib.scanner.TokenBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Tokenizes the files of a {@link Revision} (or the files of a set of
+ * {@link FileChange}s) in parallel. The files are read and scanned on a
+ * work-stealing pool ({@link ForkJoinPool}). Each worker of the pool reuses
+ * its own scanners (see {@link ScannerPool}), that is, scanners are neither
+ * shared between workers nor created for each file. The tokens of a file are
+ * stored in a {@link TokenBuffer} and passed to a consumer as soon as the
+ * file has been scanned:
+ *
+ * <pre>
+ * try (Tokenizer tokenizer = new Tokenizer()) {
+ *     for (RevisionRange range : engine) {
+ *         tokenizer.tokenize(range.getCurrent(), (file, tokens) -> {
+ *             ...
+ *         });
+ *     }
+ * }
+ * </pre>
+ *
+ * The consumer is called on the thread that invoked the tokenize method, one
+ * file at a time. Hence, it does not need to be thread-safe. The order in
+ * which the files are passed to the consumer is unspecified.
+ *
+ * Files whose language is unknown (see {@link #getLanguage(VCSFile)}) are
+ * skipped. A tokenizer owns the threads of its pool. Call {@link #close()}
+ * to release them.
+ */
+public class Tokenizer implements AutoCloseable {
+
+	/**
+	 * The result of tokenizing a single file.
+	 */
+	private static class Result {
+
+		/**
+		 * The tokenized file.
+		 */
+		private final VCSFile file;
+
+		/**
+		 * The tokens of {@link #file}. Is {@code null} if {@link #failure}
+		 * is not {@code null}.
+		 */
+		private final TokenBuffer tokens;
+
+		/**
+		 * The exception that was thrown while tokenizing {@link #file}.
+		 */
+		private final Throwable failure;
+
+		private Result(final VCSFile pFile, final TokenBuffer pTokens,
+				final Throwable pFailure) {
+			file = pFile;
+			tokens = pTokens;
+			failure = pFailure;
+		}
+	}
+
+	/**
+	 * The work-stealing pool the files are tokenized on.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a new tokenizer whose parallelism is equal to the number of
+	 * available processors.
+	 */
+	public Tokenizer() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new tokenizer with given parallelism.
+	 *
+	 * @param pParallelism
+	 * 		The number of workers tokenizing files in parallel.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pParallelism <= 0}.
+	 */
+	public Tokenizer(final int pParallelism) throws IllegalArgumentException {
+		Validate.isPositive(pParallelism, "Parallelism must be positive");
+		// The tasks are independent of each other. Async (FIFO) mode suits
+		// such event-style tasks better than the default (LIFO) mode.
+		pool = new ForkJoinPool(pParallelism,
+				ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+				null, true);
+	}
+
+	/**
+	 * Returns the number of workers tokenizing files in parallel.
+	 *
+	 * @return
+	 * 		The number of workers tokenizing files in parallel.
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Tokenizes all files of the given revision.
+	 *
+	 * @param pRevision
+	 * 		The revision whose files are tokenized.
+	 * @param pConsumer
+	 * 		Receives each file along with its tokens.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of a file.
+	 */
+	public void tokenize(final Revision pRevision,
+			final BiConsumer<VCSFile, TokenBuffer> pConsumer)
+			throws NullPointerException, IOException {
+		Validate.notNull(pRevision);
+		tokenizeFiles(pRevision.getFiles(), pConsumer);
+	}
+
+	/**
+	 * Tokenizes the files that have been added, modified, or relocated in the
+	 * given range (see {@link RevisionRange#getFileChanges()}).
+	 *
+	 * @param pRange
+	 * 		The range whose changed files are tokenized.
+	 * @param pConsumer
+	 * 		Receives each file along with its tokens.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of a file.
+	 */
+	public void tokenize(final RevisionRange pRange,
+			final BiConsumer<VCSFile, TokenBuffer> pConsumer)
+			throws NullPointerException, IOException {
+		Validate.notNull(pRange);
+		tokenizeChanges(pRange.getFileChanges(), pConsumer);
+	}
+
+	/**
+	 * Tokenizes the new files (see {@link FileChange#getNewFile()}) of the
+	 * given file changes. Removed files are skipped.
+	 *
+	 * @param pChanges
+	 * 		The file changes whose new files are tokenized.
+	 * @param pConsumer
+	 * 		Receives each file along with its tokens.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null} or if
+	 * 		{@code pChanges} contains {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of a file.
+	 */
+	public void tokenizeChanges(final Collection<FileChange> pChanges,
+			final BiConsumer<VCSFile, TokenBuffer> pConsumer)
+			throws NullPointerException, IOException {
+		Validate.noNullElements(pChanges);
+		tokenizeFiles(pChanges.stream()
+				.map(FileChange::getNewFile)
+				.filter(Optional::isPresent)
+				.map(Optional::get)
+				.collect(Collectors.toList()), pConsumer);
+	}
+
+	/**
+	 * Tokenizes the given files.
+	 *
+	 * @param pFiles
+	 * 		The files to tokenize.
+	 * @param pConsumer
+	 * 		Receives each file along with its tokens.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null} or if
+	 * 		{@code pFiles} contains {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of a file. The
+	 * 		files that have not been passed to {@code pConsumer} yet are
+	 * 		discarded.
+	 */
+	public void tokenizeFiles(final Collection<VCSFile> pFiles,
+			final BiConsumer<VCSFile, TokenBuffer> pConsumer)
+			throws NullPointerException, IOException {
+		Validate.noNullElements(pFiles);
+		Validate.notNull(pConsumer);
+
+		final BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>(pFiles.size());
+		for (final VCSFile file : pFiles) {
+			final Optional<ELanguage> language = getLanguage(file);
+			if (language.isPresent()) {
+				tasks.add(pool.submit(() ->
+						results.add(scan(file, language.get()))));
+			}
+		}
+
+		int pending = tasks.size();
+		try {
+			for (; pending > 0; pending--) {
+				final Result result = results.take();
+				if (result.failure != null) {
+					throw rethrow(result.failure);
+				}
+				pConsumer.accept(result.file, result.tokens);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"Interrupted while waiting for tokens");
+		} finally {
+			if (pending > 0) {
+				tasks.forEach(t -> t.cancel(false));
+			}
+		}
+	}
+
+	/**
+	 * Tokenizes the given file on the calling thread.
+	 *
+	 * @param pFile
+	 * 		The file to tokenize.
+	 * @return
+	 * 		The tokens of {@code pFile} or an empty {@link Optional} if the
+	 * 		language of {@code pFile} is unknown.
+	 * @throws NullPointerException
+	 * 		If {@code pFile} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents of {@code pFile}.
+	 */
+	public Optional<TokenBuffer> tokenize(final VCSFile pFile)
+			throws NullPointerException, IOException {
+		Validate.notNull(pFile);
+		final Optional<ELanguage> language = getLanguage(pFile);
+		if (!language.isPresent()) {
+			return Optional.empty();
+		}
+		return Optional.of(TokenBuffer.scan(language.get(),
+				pFile.readContent(), pFile.getRelativePath()));
+	}
+
+	/**
+	 * Shuts down the pool of this tokenizer. Files that are being tokenized
+	 * are not affected.
+	 */
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Tries to guess the language of the given file.
+	 *
+	 * You may override this method to adapt language detection to your
+	 * requirements. The default implementation uses
+	 * {@link ELanguage#fromFileExtension(String)} to detect the language of
+	 * the given file and filters files of type {@link ELanguage#TEXT} and
+	 * {@link ELanguage#LINE}. Note that this method is called on the thread
+	 * that invoked the tokenize method.
+	 *
+	 * @param pFile
+	 * 		The file to guess the language for.
+	 * @return
+	 * 		The language of {@code pFile} or an empty {@link Optional} if the
+	 * 		language is unknown.
+	 */
+	protected Optional<ELanguage> getLanguage(final VCSFile pFile) {
+		final ELanguage l = ELanguage.fromFileExtension(
+				FileSystemUtils.getFileExtension(
+						new File(pFile.getRelativePath())));
+		return l == null || l == ELanguage.TEXT || l == ELanguage.LINE
+				? Optional.empty()
+				: Optional.of(l);
+	}
+
+	/**
+	 * Reads and scans the given file. Is executed by the workers of
+	 * {@link #pool}.
+	 *
+	 * @param pFile
+	 * 		The file to scan.
+	 * @param pLanguage
+	 * 		The language of {@code pFile}.
+	 * @return
+	 * 		The tokens of {@code pFile} or the exception that was thrown
+	 * 		while reading or scanning {@code pFile}.
+	 */
+	private Result scan(final VCSFile pFile, final ELanguage pLanguage) {
+		try {
+			return new Result(pFile, TokenBuffer.scan(pLanguage,
+					pFile.readContent(), pFile.getRelativePath()), null);
+		} catch (final Throwable t) {
+			// Must not escape. Otherwise, the caller waits forever.
+			return new Result(pFile, null, t);
+		}
+	}
+
+	/**
+	 * Rethrows the given exception (thrown by a worker) on the calling
+	 * thread.
+	 *
+	 * @param pFailure
+	 * 		The exception to rethrow.
+	 * @return
+	 * 		Never returns normally. The return type allows to write
+	 * 		{@code throw rethrow(...)}.
+	 * @throws IOException
+	 * 		If {@code pFailure} is an {@link IOException}.
+	 */
+	private static RuntimeException rethrow(final Throwable pFailure)
+			throws IOException {
+		if (pFailure instanceof IOException) {
+			throw (IOException) pFailure;
+		} else if (pFailure instanceof RuntimeException) {
+			throw (RuntimeException) pFailure;
+		} else if (pFailure instanceof Error) {
+			throw (Error) pFailure;
+		}
+		throw new IllegalStateException(pFailure);
+	}
+}
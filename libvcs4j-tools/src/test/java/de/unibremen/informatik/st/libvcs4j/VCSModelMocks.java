@@ -0,0 +1,108 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Creates mocks of the model classes ({@link VCSFile}, {@link FileChange},
+ * {@link Commit}, and {@link RevisionRange}) for the use of testing tools
+ * that process the changes of a repository.
+ */
+public final class VCSModelMocks {
+
+	private VCSModelMocks() {
+	}
+
+	/**
+	 * Mocks a file with given relative path. Reading the content of the
+	 * returned file is not stubbed.
+	 *
+	 * @param path
+	 * 		The relative path of the file.
+	 * @return
+	 * 		The mocked file.
+	 */
+	public static VCSFile file(final String path) {
+		VCSFile file = mock(VCSFile.class);
+		when(file.getRelativePath()).thenReturn(path);
+		return file;
+	}
+
+	/**
+	 * Mocks a file with given relative path and content.
+	 *
+	 * @param path
+	 * 		The relative path of the file.
+	 * @param content
+	 * 		The content of the file.
+	 * @return
+	 * 		The mocked file.
+	 * @throws IOException
+	 * 		Never, but required by the signature of the stubbed methods.
+	 */
+	public static VCSFile file(final String path, final String content)
+			throws IOException {
+		VCSFile file = file(path);
+		when(file.readContent()).thenReturn(content);
+		when(file.readAllBytes()).thenReturn(
+				content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * Mocks a file change. The type of the returned change is derived from
+	 * the given files (see {@link FileChange#getType()}).
+	 *
+	 * @param oldFile
+	 * 		The old file. {@code null} for added files.
+	 * @param newFile
+	 * 		The new file. {@code null} for removed files.
+	 * @return
+	 * 		The mocked file change.
+	 */
+	public static FileChange change(final VCSFile oldFile,
+			final VCSFile newFile) {
+		FileChange change = mock(FileChange.class);
+		when(change.getOldFile()).thenReturn(Optional.ofNullable(oldFile));
+		when(change.getNewFile()).thenReturn(Optional.ofNullable(newFile));
+		when(change.getType()).thenCallRealMethod();
+		return change;
+	}
+
+	/**
+	 * Mocks a commit with given date and file changes.
+	 *
+	 * @param dateTime
+	 * 		The date of the commit.
+	 * @param changes
+	 * 		The file changes of the commit.
+	 * @return
+	 * 		The mocked commit.
+	 */
+	public static Commit commit(final LocalDateTime dateTime,
+			final FileChange... changes) {
+		Commit commit = mock(Commit.class);
+		when(commit.getDateTime()).thenReturn(dateTime);
+		when(commit.getFileChanges()).thenReturn(Arrays.asList(changes));
+		return commit;
+	}
+
+	/**
+	 * Mocks a range with given file changes.
+	 *
+	 * @param changes
+	 * 		The file changes of the range.
+	 * @return
+	 * 		The mocked range.
+	 */
+	public static RevisionRange range(final FileChange... changes) {
+		RevisionRange range = mock(RevisionRange.class);
+		when(range.getFileChanges()).thenReturn(Arrays.asList(changes));
+		return range;
+	}
+}
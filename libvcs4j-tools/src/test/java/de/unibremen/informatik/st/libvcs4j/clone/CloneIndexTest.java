@@ -0,0 +1,109 @@
+package de.unibremen.informatik.st.libvcs4j.clone;
+
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.tokenizer.Tokenizer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static de.unibremen.informatik.st.libvcs4j.VCSModelMocks.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CloneIndexTest {
+
+	private static final String SUM =
+			"int sum(int[] xs) { int s = 0; " +
+			"for (int i = 0; i < xs.length; i++) { s += xs[i]; } " +
+			"return s; }";
+
+	private static final String RENAMED_SUM =
+			"int total(int[] values) { int t = 0; " +
+			"for (int j = 0; j < values.length; j++) { t += values[j]; } " +
+			"return t; }";
+
+	private Tokenizer tokenizer;
+
+	private CloneIndex index;
+
+	@Before
+	public void init() throws IOException {
+		tokenizer = new Tokenizer(2);
+		index = spy(new CloneIndex(tokenizer, 20));
+		doAnswer(invocation -> mock(VCSFile.Range.class))
+				.when(index).createRange(any(), anyInt(), anyInt());
+	}
+
+	@After
+	public void close() {
+		tokenizer.close();
+	}
+
+	@Test
+	public void detectRenamedClone() throws IOException {
+		VCSFile a = file("A.java", "class A { " + SUM + " }");
+		VCSFile b = file("B.java", "class B { void m() { } " +
+				RENAMED_SUM + " }");
+		index.apply(range(change(null, a), change(null, b)));
+
+		List<CloneClass> clones = index.getCloneClasses();
+		assertThat(clones).hasSize(1);
+		assertThat(clones.get(0).getRanges()).hasSize(2);
+		// The clone ends with the closing brace of the classes.
+		assertThat(clones.get(0).getNumTokens()).isEqualTo(44);
+		verify(index).createRange(a, 10, SUM.length() + 11);
+	}
+
+	@Test
+	public void noCloneBelowMinimumLength() throws IOException {
+		VCSFile a = file("A.java", "class A { int x = 1; }");
+		VCSFile b = file("B.java", "class B { int y = 2; }");
+		index.apply(range(change(null, a), change(null, b)));
+
+		assertThat(index.getCloneClasses()).isEmpty();
+	}
+
+	@Test
+	public void applyChanges() throws IOException {
+		VCSFile a = file("A.java", "class A { " + SUM + " }");
+		VCSFile b = file("B.java", "class B { " + SUM + " }");
+		VCSFile c = file("C.java", "class C { " + SUM + " }");
+		index.apply(range(change(null, a), change(null, b),
+				change(null, c)));
+		assertThat(index.getCloneClasses())
+				.hasSize(1)
+				.allSatisfy(cc -> assertThat(cc.getRanges()).hasSize(3));
+
+		VCSFile b2 = file("B.java", "class B { }");
+		index.apply(range(change(c, null), change(b, b2)));
+		assertThat(index.getNumFiles()).isEqualTo(2);
+		assertThat(index.getCloneClasses()).isEmpty();
+	}
+
+	@Test
+	public void failedApplyKeepsIndex() throws IOException {
+		VCSFile a = file("A.java", "class A { " + SUM + " }");
+		VCSFile b = file("B.java", "class B { " + SUM + " }");
+		index.apply(range(change(null, a), change(null, b)));
+
+		VCSFile b2 = file("B.java");
+		when(b2.readContent()).thenThrow(new IOException("unreadable"));
+		assertThatThrownBy(() -> index.apply(range(change(b, b2))))
+				.isInstanceOf(IOException.class);
+		assertThat(index.getNumFiles()).isEqualTo(2);
+		assertThat(index.getCloneClasses()).hasSize(1);
+	}
+
+	@Test
+	public void overlappingCloneInSameFile() throws IOException {
+		VCSFile a = file("A.java", "class A { " + SUM + " " + SUM + " }");
+		index.apply(range(change(null, a)));
+
+		List<CloneClass> clones = index.getCloneClasses();
+		assertThat(clones).hasSize(1);
+		assertThat(clones.get(0).getNumTokens()).isEqualTo(43);
+	}
+}
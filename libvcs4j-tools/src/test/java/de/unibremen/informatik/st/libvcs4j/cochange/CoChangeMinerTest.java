@@ -0,0 +1,101 @@
+package de.unibremen.informatik.st.libvcs4j.cochange;
+
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.VCSModelMocks;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static de.unibremen.informatik.st.libvcs4j.VCSModelMocks.*;
+import static org.assertj.core.api.Assertions.*;
+
+public class CoChangeMinerTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	private static FileChange change(final String oldPath,
+			final String newPath) {
+		return VCSModelMocks.change(
+				oldPath == null ? null : file(oldPath),
+				newPath == null ? null : file(newPath));
+	}
+
+	private static FileChange modify(final String path) {
+		return change(path, path);
+	}
+
+	@Test
+	public void pairRules() {
+		CoChangeMiner miner = new CoChangeMiner(2, 0.6);
+		miner.add(commit(NOW, modify("A"), modify("B")));
+		miner.add(commit(NOW, modify("A"), modify("B")));
+		miner.add(commit(NOW, modify("A"), modify("C")));
+		miner.add(commit(NOW, modify("B")));
+
+		List<CoChangeRule> rules = miner.getRules();
+		assertThat(rules).hasSize(2);
+		assertThat(rules).extracting(CoChangeRule::getConsequent)
+				.containsExactlyInAnyOrder("A", "B");
+		CoChangeRule rule = rules.get(0);
+		assertThat(rule.getSupport()).isEqualTo(2);
+		assertThat(rule.getConfidence()).isCloseTo(2.0 / 3, within(1e-9));
+		// 2/3 * 4 commits / 3 commits changing the consequent
+		assertThat(rule.getLift()).isCloseTo(8.0 / 9, within(1e-9));
+	}
+
+	@Test
+	public void largerRules() {
+		CoChangeMiner miner = new CoChangeMiner(
+				2, 1.0, Integer.MAX_VALUE, null, 3);
+		miner.add(commit(NOW, modify("A"), modify("B"), modify("C")));
+		miner.add(commit(NOW, modify("A"), modify("B"), modify("C")));
+		miner.add(commit(NOW, modify("C")));
+
+		List<CoChangeRule> rules = miner.getRules();
+		assertThat(rules).anySatisfy(r -> {
+			assertThat(r.getAntecedent()).containsExactly("A", "B");
+			assertThat(r.getConsequent()).isEqualTo("C");
+			assertThat(r.getSupport()).isEqualTo(2);
+		});
+		// C -> A and C -> B have a confidence of 2/3.
+		assertThat(rules).noneSatisfy(r ->
+				assertThat(r.getAntecedent()).containsExactly("C"));
+	}
+
+	@Test
+	public void skipLargeCommits() {
+		CoChangeMiner miner = new CoChangeMiner(
+				1, 0.5, 2, null, 2);
+		miner.add(commit(NOW, modify("A"), modify("B"), modify("C")));
+
+		assertThat(miner.getNumSkippedCommits()).isEqualTo(1);
+		assertThat(miner.getNumCommits()).isZero();
+		assertThat(miner.getRules()).isEmpty();
+	}
+
+	@Test
+	public void slidingWindow() {
+		CoChangeMiner miner = new CoChangeMiner(
+				2, 0.5, Integer.MAX_VALUE, Duration.ofDays(7), 2);
+		miner.add(commit(NOW, modify("A"), modify("B")));
+		miner.add(commit(NOW.plusDays(1), modify("A"), modify("B")));
+		assertThat(miner.getRules()).hasSize(2);
+
+		miner.add(commit(NOW.plusDays(8), modify("C")));
+		assertThat(miner.getNumCommits()).isEqualTo(2);
+		assertThat(miner.getRules()).isEmpty();
+	}
+
+	@Test
+	public void relocatedFilesKeepHistory() {
+		CoChangeMiner miner = new CoChangeMiner(2, 1.0);
+		miner.add(commit(NOW, modify("A"), modify("B")));
+		miner.add(commit(NOW, change("A", "C"), modify("B")));
+
+		assertThat(miner.getRules())
+				.extracting(CoChangeRule::getConsequent)
+				.containsExactlyInAnyOrder("B", "C");
+	}
+}
@@ -0,0 +1,63 @@
+package de.unibremen.informatik.st.libvcs4j.d3;
+
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TreeMapTest {
+
+	private TreeMap treeMap;
+
+	@Before
+	public void init() {
+		VCSFile a = mockFile(Paths.get("src", "A.java"));
+		VCSFile b = mockFile(Paths.get("src", "main", "B.java"));
+		VCSFile c = mockFile(Paths.get("src", "main", "C.java"));
+		Map<VCSFile, TreeMap.RateCell> cells = new HashMap<>();
+		cells.put(a, new TreeMap.RateCell(2, 0.5));
+		cells.put(b, new TreeMap.RateCell(1, 1));
+		cells.put(c, new TreeMap.RateCell(1, 0));
+		treeMap = new TreeMap(Arrays.asList(a, b, c), cells::get);
+	}
+
+	@Test
+	public void generateJSON() {
+		assertThat(treeMap.generateJSON()).isEqualTo(
+				"{\"name\": \"src\",\"color\":0.5,\"children\": [" +
+				"{\"name\": \"A.java\",\"value\": 2.0,\"color\" :0.5}," +
+				"{\"name\": \"main\",\"color\":0.5,\"children\": [" +
+				"{\"name\": \"B.java\",\"value\": 1.0,\"color\" :1.0}," +
+				"{\"name\": \"C.java\",\"value\": 1.0,\"color\" :0.0}]}]}");
+	}
+
+	@Test
+	public void generateCompactJSON() throws IOException {
+		StringWriter writer = new StringWriter();
+		treeMap.generateJSON(writer, true);
+		assertThat(writer.toString()).isEqualTo(
+				"{\"name\":\"src\",\"color\":0.5,\"children\":[" +
+				"{\"name\":\"A.java\",\"value\":2.0,\"color\":0.5}," +
+				"{\"name\":\"main\",\"color\":0.5,\"children\":[" +
+				"{\"name\":\"B.java\",\"value\":1.0,\"color\":1.0}," +
+				"{\"name\":\"C.java\",\"value\":1.0,\"color\":0.0}]}]}");
+	}
+
+	private VCSFile mockFile(Path path) {
+		VCSFile file = mock(VCSFile.class);
+		when(file.toRelativePath()).thenReturn(path);
+		when(file.getRelativePath()).thenReturn(path.toString());
+		return file;
+	}
+}
@@ -0,0 +1,110 @@
+package de.unibremen.informatik.st.libvcs4j.metrics;
+
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.conqat.lib.scanner.ELanguage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+import static de.unibremen.informatik.st.libvcs4j.VCSModelMocks.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MetricsAggregatorTest {
+
+	private Metrics metrics;
+
+	private MetricsAggregator aggregator;
+
+	@Before
+	public void init() {
+		metrics = spy(Metrics.class);
+		doReturn(Optional.of(ELanguage.JAVA))
+				.when(metrics).getLanguage(any());
+		aggregator = new MetricsAggregator(metrics);
+	}
+
+	@Test
+	public void addAndModify() throws IOException {
+		String dir = "src" + File.separator + "a";
+		VCSFile a1 = file(dir + File.separator + "A.java", "class A {}\n");
+		VCSFile b1 = file("src" + File.separator + "B.java",
+				"class B {\n}\n");
+		aggregator.apply(range(change(null, a1), change(null, b1)));
+
+		assertThat(aggregator.getTotal().getSize().getLOC()).isEqualTo(3);
+		assertThat(aggregator.getDirectoryMetrics(dir))
+				.hasValueSatisfying(fm ->
+						assertThat(fm.getSize().getLOC()).isEqualTo(1));
+		assertThat(aggregator.getDirectoryMetrics("src"))
+				.hasValueSatisfying(fm ->
+						assertThat(fm.getSize().getLOC()).isEqualTo(3));
+
+		VCSFile a2 = file(a1.getRelativePath(), "class A {\n\n}\n");
+		aggregator.apply(range(change(a1, a2)));
+
+		assertThat(aggregator.getTotal().getSize().getLOC()).isEqualTo(5);
+		assertThat(aggregator.getFileMetrics(a2))
+				.hasValueSatisfying(fm ->
+						assertThat(fm.getSize().getLOC()).isEqualTo(3));
+		assertThat(aggregator.getNumAnalyzedFiles()).isEqualTo(3);
+	}
+
+	@Test
+	public void removeDirectory() throws IOException {
+		VCSFile a = file("dir" + File.separator + "A.java", "class A {}\n");
+		aggregator.apply(range(change(null, a)));
+		aggregator.apply(range(change(a, null)));
+
+		assertThat(aggregator.getTotal().getSize().getNOT()).isZero();
+		assertThat(aggregator.getFileMetrics(a)).isEmpty();
+		assertThat(aggregator.getDirectoryMetrics("dir")).isEmpty();
+	}
+
+	@Test
+	public void relocateWithoutModification() throws IOException {
+		VCSFile a = file("A.java", "class A {}\n");
+		aggregator.apply(range(change(null, a)));
+
+		VCSFile b = file("B.java", "class A {}\n");
+		aggregator.apply(range(change(a, b)));
+
+		assertThat(aggregator.getFileMetrics("A.java")).isEmpty();
+		assertThat(aggregator.getFileMetrics("B.java")).isPresent();
+		assertThat(aggregator.getNumAnalyzedFiles()).isEqualTo(2);
+		assertThat(aggregator.getTotal().getSize().getLOC()).isEqualTo(1);
+	}
+
+	@Test
+	public void relocateToUnknownLanguage() throws IOException {
+		VCSFile a = file("A.java", "class A {}\n");
+		aggregator.apply(range(change(null, a)));
+
+		VCSFile b = file("A.txt", "class A {}\n");
+		doReturn(Optional.empty()).when(metrics).getLanguage(b);
+		aggregator.apply(range(change(a, b)));
+
+		assertThat(aggregator.getFileMetrics("A.java")).isEmpty();
+		assertThat(aggregator.getFileMetrics("A.txt")).isEmpty();
+		assertThat(aggregator.getTotal().getSize().getNOT()).isZero();
+	}
+
+	@Test
+	public void relocateToRemovedPath() throws IOException {
+		VCSFile a = file("A.java", "class A {}\n");
+		VCSFile b = file("B.java", "class B {\n}\n");
+		aggregator.apply(range(change(null, a), change(null, b)));
+
+		VCSFile b2 = file("B.java", "class A {}\n");
+		aggregator.apply(range(change(a, b2), change(b, null)));
+
+		assertThat(aggregator.getFileMetrics("A.java")).isEmpty();
+		assertThat(aggregator.getFileMetrics("B.java"))
+				.hasValueSatisfying(fm ->
+						assertThat(fm.getSize().getLOC()).isEqualTo(1));
+		assertThat(aggregator.getTotal().getSize().getLOC()).isEqualTo(1);
+	}
+}
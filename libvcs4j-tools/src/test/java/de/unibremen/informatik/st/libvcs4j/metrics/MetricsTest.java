@@ -0,0 +1,123 @@
+package de.unibremen.informatik.st.libvcs4j.metrics;
+
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.conqat.lib.scanner.ELanguage;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MetricsTest {
+
+	@Test
+	public void computeAllReadsContentOnce() throws IOException {
+		VCSFile file = mock(VCSFile.class);
+		when(file.readContent()).thenReturn(
+				"/* Comment\n" +
+				"   spanning two lines. */\n" +
+				"class A {\n" +
+				"    int f(int x) {\n" +
+				"        if (x > 0) { return x; } // positive\n" +
+				"        return -x;\n" +
+				"    }\n" +
+				"}\n");
+
+		Metrics metrics = spy(Metrics.class);
+		doReturn(Optional.of(ELanguage.JAVA)).when(metrics).getLanguage(file);
+
+		FileMetrics all = metrics.computeAll(file)
+				.orElseThrow(AssertionError::new);
+		verify(file, times(1)).readContent();
+
+		Size size = all.getSize();
+		assertThat(size.getLOC()).isEqualTo(8);
+		assertThat(size.getSLOC()).isEqualTo(6);
+		assertThat(size.getCLOC()).isEqualTo(2);
+		assertThat(size.getNOT()).isEqualTo(29);
+		assertThat(size.getSNOT()).isEqualTo(27);
+		assertThat(size.getCNOT()).isEqualTo(2);
+
+		Complexity complexity = all.getComplexity();
+		assertThat(complexity.getMcCabe()).isEqualTo(2);
+		Complexity.Halstead halstead = complexity.getHalstead();
+		assertThat(halstead.getNumDistinctOperators()).isEqualTo(2);
+		assertThat(halstead.getNumDistinctOperands()).isEqualTo(13);
+		assertThat(halstead.getNumOperators()).isEqualTo(2);
+		assertThat(halstead.getNumOperands()).isEqualTo(25);
+	}
+
+	@Test
+	public void computeAllWithMultiLineComments() throws IOException {
+		VCSFile file = mock(VCSFile.class);
+		when(file.readContent()).thenReturn(
+				"class B {\n" +
+				"    /**\n" +
+				"     * Doc.\n" +
+				"     */\n" +
+				"    int i; /* trailing\n" +
+				"              comment */\n" +
+				"    String s = \"a\";\n" +
+				"}\n");
+
+		Metrics metrics = spy(Metrics.class);
+		doReturn(Optional.of(ELanguage.JAVA)).when(metrics).getLanguage(file);
+
+		Size size = metrics.computeSize(file)
+				.orElseThrow(AssertionError::new);
+		assertThat(size.getLOC()).isEqualTo(8);
+		assertThat(size.getSLOC()).isEqualTo(4);
+		assertThat(size.getCLOC()).isEqualTo(4);
+		assertThat(size.getNOT()).isEqualTo(14);
+		assertThat(size.getSNOT()).isEqualTo(12);
+		assertThat(size.getCNOT()).isEqualTo(2);
+	}
+
+	@Test
+	public void computeAllWithMultiLineString() throws IOException {
+		// The Java scanner does not support text blocks. Use a C# verbatim
+		// string literal instead.
+		VCSFile file = mock(VCSFile.class);
+		when(file.readContent()).thenReturn(
+				"class C {\n" +
+				"    string s = @\"multi\n" +
+				"        line\";\n" +
+				"    int i;\n" +
+				"}\n");
+
+		Metrics metrics = spy(Metrics.class);
+		doReturn(Optional.of(ELanguage.CS)).when(metrics).getLanguage(file);
+
+		Size size = metrics.computeSize(file)
+				.orElseThrow(AssertionError::new);
+		assertThat(size.getLOC()).isEqualTo(5);
+		assertThat(size.getSLOC()).isEqualTo(5);
+		assertThat(size.getCLOC()).isEqualTo(0);
+		assertThat(size.getNOT()).isEqualTo(12);
+	}
+
+	@Test
+	public void computeAllOfUnknownLanguage() throws IOException {
+		VCSFile file = mock(VCSFile.class);
+		Metrics metrics = spy(Metrics.class);
+		doReturn(Optional.empty()).when(metrics).getLanguage(file);
+
+		assertThat(metrics.computeAll(file)).isEmpty();
+		verify(file, never()).readContent();
+	}
+
+	@Test
+	public void countLines() {
+		assertThat(Metrics.countLines("", 0, 0)).isEqualTo(1);
+		assertThat(Metrics.countLines("a", 0, 1)).isEqualTo(1);
+		assertThat(Metrics.countLines("\n", 0, 1)).isEqualTo(0);
+		assertThat(Metrics.countLines("\r\n\n", 0, 3)).isEqualTo(0);
+		assertThat(Metrics.countLines("a\nb", 0, 3)).isEqualTo(2);
+		assertThat(Metrics.countLines("a\r\nb\r\n", 0, 6)).isEqualTo(2);
+		assertThat(Metrics.countLines("\na", 0, 2)).isEqualTo(2);
+		assertThat(Metrics.countLines("a\r", 0, 2)).isEqualTo(1);
+		assertThat(Metrics.countLines("x\na\ny", 2, 4)).isEqualTo(1);
+	}
+}
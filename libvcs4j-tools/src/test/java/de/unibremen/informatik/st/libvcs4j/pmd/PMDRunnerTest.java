@@ -1,5 +1,8 @@
 package de.unibremen.informatik.st.libvcs4j.pmd;
 
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.RevisionMock;
 import org.junit.Rule;
@@ -8,8 +11,17 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class PMDRunnerTest {
 
@@ -51,4 +63,89 @@ public class PMDRunnerTest {
 		PMDDetectionResult result = pmdRunner.analyze(revision);
 		assertThat(result).isNotNull();
 	}
+
+	@Test
+	public void rangeCarriesForwardUnchangedFiles() throws IOException {
+		RevisionMock revision = new RevisionMock(folder);
+		revision.addFile(Paths.get("godclass", "GodClass.java"));
+		VCSFile file = revision.getFiles().get(0);
+
+		PMDRunner pmdRunner = spy(new PMDRunner(
+				"category/java/errorprone.xml/EmptyIfStmt"));
+		pmdRunner.analyze(revision);
+
+		Revision current = mock(Revision.class);
+		when(current.getId()).thenReturn("2");
+		when(current.getFiles()).thenReturn(revision.getFiles());
+		RevisionRange range = mockRange(revision, current,
+				Collections.emptyList());
+
+		PMDDetectionResult result = pmdRunner.analyze(range);
+		verify(pmdRunner, never()).analyzeFiles(any());
+		assertThat(result.violationsOf(file)).hasSize(2);
+		assertThat(result.getViolations())
+				.extracting(v -> v.getRange().getBegin().getLine())
+				.containsExactlyInAnyOrder(29, 33);
+		assertThat(result.getViolations().get(0).getRange().readContent())
+				.isEqualTo("{}");
+	}
+
+	@Test
+	public void rangeAnalyzesModifiedFiles() throws IOException {
+		RevisionMock revision = new RevisionMock(folder);
+		revision.addFile(Paths.get("godclass", "GodClass.java"));
+		revision.addFile(Paths.get("lpl", "LongParameterList.java"));
+		VCSFile file = revision.getFiles().get(0);
+
+		PMDRunner pmdRunner = spy(new PMDRunner(
+				"category/java/errorprone.xml/EmptyIfStmt"));
+		pmdRunner.analyze(revision);
+
+		Revision current = mock(Revision.class);
+		when(current.getId()).thenReturn("2");
+		when(current.getFiles()).thenReturn(revision.getFiles());
+		FileChange change = mock(FileChange.class);
+		when(change.getOldFile()).thenReturn(Optional.of(file));
+		when(change.getNewFile()).thenReturn(Optional.of(file));
+		when(change.getType()).thenReturn(FileChange.Type.MODIFY);
+		RevisionRange range = mockRange(revision, current,
+				Collections.singletonList(change));
+
+		PMDDetectionResult result = pmdRunner.analyze(range);
+		verify(pmdRunner).analyzeFiles(Collections.singletonList(file));
+		assertThat(result.violationsOf(file)).hasSize(2);
+	}
+
+	@Test
+	public void rangeDropsRemovedFiles() throws IOException {
+		RevisionMock revision = new RevisionMock(folder);
+		revision.addFile(Paths.get("godclass", "GodClass.java"));
+		VCSFile file = revision.getFiles().get(0);
+
+		PMDRunner pmdRunner = new PMDRunner(
+				"category/java/errorprone.xml/EmptyIfStmt");
+		pmdRunner.analyze(revision);
+
+		Revision current = mock(Revision.class);
+		when(current.getId()).thenReturn("2");
+		when(current.getFiles()).thenReturn(Collections.emptyList());
+		FileChange change = mock(FileChange.class);
+		when(change.getOldFile()).thenReturn(Optional.of(file));
+		when(change.getNewFile()).thenReturn(Optional.empty());
+		when(change.getType()).thenReturn(FileChange.Type.REMOVE);
+		RevisionRange range = mockRange(revision, current,
+				Collections.singletonList(change));
+
+		PMDDetectionResult result = pmdRunner.analyze(range);
+		assertThat(result.getViolations()).isEmpty();
+	}
+
+	private RevisionRange mockRange(Revision previous, Revision current,
+			List<FileChange> changes) {
+		RevisionRange range = mock(RevisionRange.class);
+		when(range.getPrevious()).thenReturn(Optional.of(previous));
+		when(range.getCurrent()).thenReturn(current);
+		when(range.getFileChanges()).thenReturn(changes);
+		return range;
+	}
 }
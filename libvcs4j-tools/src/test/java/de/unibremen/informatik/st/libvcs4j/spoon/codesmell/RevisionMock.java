@@ -1,5 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j.spoon.codesmell;
 
+import de.unibremen.informatik.st.libvcs4j.CanonicalPaths;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.ITEngine;
 import de.unibremen.informatik.st.libvcs4j.LineChange;
@@ -22,6 +23,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -41,6 +43,8 @@ public class RevisionMock implements Revision {
 	@Getter
 	private final List<VCSFile> files = new ArrayList<>();
 
+	private final VCSEngine engine = new VCSEngineMock();
+
 	@Override
 	public String getId() {
 		return "1";
@@ -53,7 +57,7 @@ public class RevisionMock implements Revision {
 
 	@Override
 	public VCSEngine getVCSEngine() {
-		throw new UnsupportedOperationException();
+		return engine;
 	}
 
 	/**
@@ -74,10 +78,13 @@ public class RevisionMock implements Revision {
 
 	/**
 	 * Mocks a {@link VCSEngine} for the use of testing code smell detectors.
-	 * The only operation supported is {@link #getModelFactory()}.
+	 * The only operations supported are {@link #getModelFactory()} and
+	 * {@link #getCanonicalPaths()}.
 	 */
 	public static class VCSEngineMock implements VCSEngine {
 		private final VCSModelFactory factory = new VCSModelFactory() {};
+		private final CanonicalPaths canonicalPaths =
+				new CanonicalPaths(Paths.get(""));
 
 		@Override
 		public Optional<RevisionRange> next() {
@@ -144,6 +151,11 @@ public class RevisionMock implements Revision {
 			return factory;
 		}
 
+		@Override
+		public CanonicalPaths getCanonicalPaths() {
+			return canonicalPaths;
+		}
+
 		@Override
 		public void setModelFactory(VCSModelFactory factory) {
 			throw new UnsupportedOperationException();
@@ -162,7 +174,6 @@ public class RevisionMock implements Revision {
 
 		private final File file;
 		private final Path relativePath;
-		private final VCSEngine engine;
 
 		public VCSFileMock(@NonNull final Path relPath) throws IOException {
 			final Path path = folder.getRoot().toPath().resolve(relPath);
@@ -175,7 +186,6 @@ public class RevisionMock implements Revision {
 						"/" + relPath.toString()), fw, UTF_8);
 			}
 			relativePath = relPath;
-			engine = new VCSEngineMock();
 		}
 
 		@Override
@@ -54,4 +54,30 @@ public class CycleDetectorTest {
                 .matches(range -> range.getEnd().getLine() == 7)
                 .matches(range -> range.getEnd().getColumn() == 1);
     }
+
+    @Test
+    public void testLongCycleDetection() throws Exception {
+        RevisionMock revision = new RevisionMock(folder);
+        revision.addFile(Paths.get("cycle", "LongCycle.java"));
+
+        RevisionRange revisionRange = mock(RevisionRange.class);
+        when(revisionRange.getCurrent()).thenReturn(revision);
+
+        Launcher launcher = new Launcher();
+        launcher.addInputResource(folder.getRoot().getAbsolutePath());
+        CtModel model = launcher.buildModel();
+
+        Environment environment = new Environment(model, revisionRange);
+
+        CycleDetector cycleDetector = new CycleDetector(environment);
+        cycleDetector.scan(model);
+        List<CodeSmell> codeSmells = cycleDetector.getCodeSmells();
+
+        assertThat(codeSmells).hasSize(1);
+        CodeSmell codeSmell = codeSmells.get(0);
+        assertThat(codeSmell.getSummary()).hasValue("Cycle of 3 types");
+        assertThat(codeSmell.getRanges())
+                .extracting(range -> range.getBegin().getLine())
+                .containsExactly(1, 6, 9);
+    }
 }
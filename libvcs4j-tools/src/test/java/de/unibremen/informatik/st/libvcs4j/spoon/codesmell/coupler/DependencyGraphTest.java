@@ -0,0 +1,91 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.codesmell.coupler;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DependencyGraphTest {
+
+    @Test
+    public void noCycles() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        graph.addEdge("A", "C");
+
+        assertThat(graph.findCycles()).isEmpty();
+    }
+
+    @Test
+    public void selfEdgesAreIgnored() {
+        DependencyGraph graph = new DependencyGraph();
+        assertThat(graph.addEdge("A", "A")).isFalse();
+
+        assertThat(graph.getNumEdges()).isZero();
+        assertThat(graph.findCycles()).isEmpty();
+    }
+
+    @Test
+    public void duplicateEdgesAreIgnored() {
+        DependencyGraph graph = new DependencyGraph();
+        assertThat(graph.addEdge("A", "B")).isTrue();
+        assertThat(graph.addEdge("A", "B")).isFalse();
+
+        assertThat(graph.getNumEdges()).isEqualTo(1);
+    }
+
+    @Test
+    public void cyclesOfAnyLength() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "A");
+        graph.addEdge("B", "C");
+        graph.addEdge("C", "D");
+        graph.addEdge("D", "E");
+        graph.addEdge("E", "C");
+        graph.addEdge("E", "F");
+
+        assertThat(graph.findCycles()).containsExactlyInAnyOrder(
+                Arrays.asList("A", "B"),
+                Arrays.asList("C", "D", "E"));
+    }
+
+    @Test
+    public void longChainDoesNotOverflowStack() {
+        DependencyGraph graph = new DependencyGraph();
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            graph.addEdge("T" + i, "T" + (i + 1));
+        }
+        graph.addEdge("T" + n, "T0");
+
+        assertThat(graph.findCycles()).hasSize(1);
+        assertThat(graph.findCycles().get(0)).hasSize(n + 1);
+    }
+
+    @Test
+    public void incrementalUpdate() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        graph.addEdge("C", "A");
+        assertThat(graph.findCycles()).hasSize(1);
+
+        graph.removeEdgesFrom("C");
+        assertThat(graph.hasEdge("C", "A")).isFalse();
+        assertThat(graph.findCycles()).isEmpty();
+
+        graph.addEdge("C", "B");
+        assertThat(graph.findCycles()).containsExactly(
+                Arrays.asList("B", "C"));
+
+        graph.retainEdgesFrom(Collections.singleton("B"));
+        assertThat(graph.hasEdge("A", "B")).isFalse();
+        assertThat(graph.hasEdge("B", "C")).isTrue();
+        assertThat(graph.getNumEdges()).isEqualTo(1);
+        assertThat(graph.findCycles()).isEmpty();
+    }
+}
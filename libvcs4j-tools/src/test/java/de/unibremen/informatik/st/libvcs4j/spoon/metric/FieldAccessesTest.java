@@ -0,0 +1,66 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import org.junit.Test;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class FieldAccessesTest {
+
+	@Test
+	public void connectedPairs() {
+		CtField f1 = mock(CtField.class);
+		CtField f2 = mock(CtField.class);
+		CtMethod m1 = mock(CtMethod.class);
+		CtMethod m2 = mock(CtMethod.class);
+		CtMethod m3 = mock(CtMethod.class);
+		CtMethod m4 = mock(CtMethod.class);
+
+		FieldAccesses accesses = new FieldAccesses();
+		accesses.addMethod(m1);
+		accesses.addMethod(m2);
+		accesses.addMethod(m3);
+		accesses.addMethod(m4);
+		accesses.addAccess(m1, f1);
+		accesses.addAccess(m2, f1);
+		accesses.addAccess(m2, f2);
+		accesses.addAccess(m3, f2);
+
+		assertThat(accesses.getNumMethods()).isEqualTo(4);
+		// (m1, m2), (m2, m3)
+		assertThat(accesses.countConnectedPairs()).isEqualTo(2);
+	}
+
+	@Test
+	public void addMethodResetsAccesses() {
+		CtField f = mock(CtField.class);
+		CtMethod m1 = mock(CtMethod.class);
+		CtMethod m2 = mock(CtMethod.class);
+
+		FieldAccesses accesses = new FieldAccesses();
+		accesses.addAccess(m1, f);
+		accesses.addAccess(m2, f);
+		assertThat(accesses.countConnectedPairs()).isEqualTo(1);
+
+		accesses.addMethod(m2);
+		assertThat(accesses.getNumMethods()).isEqualTo(2);
+		assertThat(accesses.countConnectedPairs()).isZero();
+	}
+
+	@Test
+	public void manyFields() {
+		FieldAccesses accesses = new FieldAccesses();
+		CtMethod m1 = mock(CtMethod.class);
+		CtMethod m2 = mock(CtMethod.class);
+		CtField last = null;
+		for (int i = 0; i < 200; i++) {
+			last = mock(CtField.class);
+			accesses.addAccess(m1, last);
+		}
+		accesses.addAccess(m2, last);
+
+		assertThat(accesses.countConnectedPairs()).isEqualTo(1);
+	}
+}
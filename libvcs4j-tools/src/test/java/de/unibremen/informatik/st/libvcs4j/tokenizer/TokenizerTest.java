@@ -0,0 +1,89 @@
+package de.unibremen.informatik.st.libvcs4j.tokenizer;
+
+import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.conqat.lib.scanner.ETokenType;
+import org.conqat.lib.scanner.TokenBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.unibremen.informatik.st.libvcs4j.VCSModelMocks.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenizerTest {
+
+	private Tokenizer tokenizer;
+
+	@Before
+	public void init() {
+		tokenizer = new Tokenizer(4);
+	}
+
+	@After
+	public void close() {
+		tokenizer.close();
+	}
+
+	@Test
+	public void tokenizeRevision() throws IOException {
+		List<VCSFile> files = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			files.add(file("A" + i + ".java", "class A" + i + " { }"));
+		}
+		files.add(file("README", "Some text"));
+		Revision revision = mock(Revision.class);
+		when(revision.getFiles()).thenReturn(files);
+
+		Map<VCSFile, TokenBuffer> tokens = new HashMap<>();
+		tokenizer.tokenize(revision, tokens::put);
+
+		assertThat(tokens).hasSize(100);
+		TokenBuffer buffer = tokens.get(files.get(42));
+		assertThat(buffer.size()).isEqualTo(4);
+		assertThat(buffer.getType(0)).isEqualTo(ETokenType.CLASS);
+		assertThat(buffer.getText(1)).isEqualTo("A42");
+		assertThat(buffer.getOriginId()).isEqualTo("A42.java");
+	}
+
+	@Test
+	public void tokenizeChangesSkipsRemovedFiles() throws IOException {
+		VCSFile removed = file("A.java", "class A { }");
+		VCSFile added = file("B.java", "class B { }");
+
+		Map<VCSFile, TokenBuffer> tokens = new HashMap<>();
+		tokenizer.tokenizeChanges(Arrays.asList(
+				change(removed, null), change(null, added)), tokens::put);
+
+		assertThat(tokens).containsOnlyKeys(added);
+		verify(removed, never()).readContent();
+	}
+
+	@Test
+	public void exceptionIsRethrown() throws IOException {
+		VCSFile file = mock(VCSFile.class);
+		when(file.getRelativePath()).thenReturn("A.java");
+		when(file.readContent()).thenThrow(new IOException("unreadable"));
+
+		assertThatThrownBy(() -> tokenizer.tokenizeFiles(
+				Arrays.asList(file("B.java", "class B { }"), file),
+				(f, t) -> {}))
+				.isInstanceOf(IOException.class)
+				.hasMessage("unreadable");
+	}
+
+	@Test
+	public void tokenizeSingleFile() throws IOException {
+		assertThat(tokenizer.tokenize(file("a.txt", "text"))).isEmpty();
+		assertThat(tokenizer.tokenize(file("A.java", "class A { }")))
+				.hasValueSatisfying(t -> assertThat(t.size()).isEqualTo(4));
+	}
+}
@@ -0,0 +1,11 @@
+class C {
+    void m(D d) {
+    }
+}
+
+class D extends E {
+}
+
+class E {
+    C c;
+}
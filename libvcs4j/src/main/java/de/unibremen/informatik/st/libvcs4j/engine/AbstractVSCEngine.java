@@ -3,12 +3,15 @@ package de.unibremen.informatik.st.libvcs4j.engine;
 import bmsi.util.Diff;
 import com.ibm.icu.text.CharsetDetector;
 import com.ibm.icu.text.CharsetMatch;
+import de.unibremen.informatik.st.libvcs4j.CanonicalPaths;
 import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.ITEngine;
+import de.unibremen.informatik.st.libvcs4j.Instrumentation;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineChange;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.Revision;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
@@ -39,7 +42,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -64,10 +66,15 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	/* Factories. */
 	private VCSModelFactory modelFactory = new VCSModelFactory() {};
 
+	/* Services. */
+	private CanonicalPaths canonicalPaths = null;
+	private Instrumentation instrumentation = Instrumentation.NOOP;
+
 	/* Internal state of this engine. */
 	private int ordinal = 1;
 	private boolean initialized = false;
 	private List<String> revisions = null;
+	private Map<String, Integer> revisionIndex = null;
 	private int revisionIdx = -1;
 	private String revision = null;
 	private Revision currentRevision = null;
@@ -104,15 +111,7 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	@Override
 	public final Optional<RevisionRange> next() throws IOException {
 		init();
-
-		if (tmpOutputDir != null) {
-			log.info("Deleting temporary output directory");
-			try (Stream<Path> walk = Files.walk(tmpOutputDir)) {
-				walk.sorted(Comparator.reverseOrder()).map(Path::toFile)
-						.forEach(f -> Validate.validateState(f.delete()));
-			}
-			tmpOutputDir = null;
-		}
+		deleteTmpOutputDir();
 
 		revisionIdx++;
 		Validate.validateState(revisionIdx >= 0, // just to be sure
@@ -123,12 +122,128 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 			return Optional.empty();
 		}
 
+		instrumentation.revision(revisions.get(revisionIdx));
+		try (Instrumentation.Timer timer = instrumentation.start("next")) {
+			return Optional.of(processRevision());
+		}
+	}
+
+	/**
+	 * Checks out the revision with the given ordinal (see
+	 * {@link RevisionRange#getOrdinal()}) and returns its revision range.
+	 * The range is computed against the predecessor of the revision (if
+	 * any), which, therefore, is checked out beforehand. Subsequent calls of
+	 * {@link #next()} continue with the successor of the revision. Use this
+	 * method to process a particular revision without processing all of its
+	 * predecessors.
+	 *
+	 * @param pOrdinal
+	 * 		The ordinal of the revision to check out. The ordinal of the first
+	 * 		revision (see {@link #listRevisions()}) is {@code 1}.
+	 * @return
+	 * 		The revision range of the revision with the given ordinal.
+	 * @throws IllegalArgumentException
+	 * 		If there is no revision with the given ordinal.
+	 * @throws IOException
+	 * 		If an error occurred while checking out the revision or its
+	 * 		predecessor.
+	 */
+	public final RevisionRange seek(final int pOrdinal)
+			throws IllegalArgumentException, IOException {
+		init();
+		Validate.isTrue(pOrdinal >= 1 && pOrdinal <= revisions.size(),
+				"There is no revision with ordinal %d", pOrdinal);
+		final int idx = pOrdinal - 1;
+
+		instrumentation.revision(revisions.get(idx));
+		try (Instrumentation.Timer timer = instrumentation.start("seek")) {
+			currentRevision = null;
+			if (idx > 0) {
+				deleteTmpOutputDir();
+				revisionIdx = idx - 1;
+				checkout();
+				currentRevision = createRevision();
+			}
+			deleteTmpOutputDir();
+			revisionIdx = idx;
+			ordinal = pOrdinal;
+			return processRevision();
+		}
+	}
+
+	/**
+	 * Checks out the revision with the given id (see {@link Revision#getId()}
+	 * and {@link #listRevisions()}) and returns its revision range (see
+	 * {@link #seek(int)}).
+	 *
+	 * @param pRevision
+	 * 		The id of the revision to check out.
+	 * @return
+	 * 		The revision range of the revision with the given id.
+	 * @throws NullPointerException
+	 * 		If {@code pRevision} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If there is no revision with the given id.
+	 * @throws IOException
+	 * 		If an error occurred while checking out the revision or its
+	 * 		predecessor.
+	 */
+	public final RevisionRange seek(final String pRevision)
+			throws NullPointerException, IllegalArgumentException,
+			IOException {
+		Validate.notNull(pRevision);
+		init();
+		final Integer idx = revisionIndex.get(pRevision);
+		Validate.isTrue(idx != null, "Unknown revision '%s'", pRevision);
+		return seek(idx + 1);
+	}
+
+	/**
+	 * Checks out the revision at {@link #revisionIdx} and creates its
+	 * revision range. {@link #currentRevision} must be the revision of the
+	 * predecessor, if any.
+	 */
+	private RevisionRange processRevision() throws IOException {
+		checkout();
+
+		final Changes changes;
+		try (Instrumentation.Timer timer =
+				instrumentation.start("next.changes")) {
+			// the first revision can only have additions
+			if (revisionIdx == 0) {
+				changes = new Changes();
+				listFilesInOutput().stream()
+						.map(Path::toString)
+						.forEach(f -> changes.getAdded().add(f));
+			} else {
+				changes = createChangesImpl(getPreviousRevision(), revision);
+			}
+		}
+		final RevisionRange range = createRevisionRange(changes);
+		instrumentation.count("revisions", 1);
+		instrumentation.record("next.fileChanges",
+				range.getLatestCommit().getFileChanges().size());
+		currentRevision = range.getCurrent();
+		return range;
+	}
+
+	/**
+	 * Checks out the revision at {@link #revisionIdx} and, if necessary,
+	 * creates the output directory.
+	 */
+	private void checkout() throws IOException {
 		log.info("Checking out {} ({}/{})",
 				revisions.get(revisionIdx),
 				revisionIdx+1,
 				revisions.size());
-		checkoutImpl(revisions.get(revisionIdx));
+		try (Instrumentation.Timer timer =
+				instrumentation.start("next.checkout")) {
+			checkoutImpl(revisions.get(revisionIdx));
+		}
 		revision = revisions.get(revisionIdx);
+		// Cached paths are outdated. Listing the files of the new revision
+		// (see `listRelativeFilesInOutput`) enables lexical normalization again.
+		getCanonicalPaths().reset(false);
 
 		if (!getOutput().toFile().exists()) {
 			Validate.notEquals(getTarget(), getOutput());
@@ -145,21 +260,17 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 			log.info("Directory to delete in next call: {}", tmpOutputDir);
 			Files.createDirectories(getOutput());
 		}
+	}
 
-		final Changes changes;
-		// the first revision can only have additions
-		if (revisionIdx == 0) {
-			changes = new Changes();
-			listFilesInOutput().stream()
-					.map(Path::toString)
-					.forEach(f -> changes.getAdded().add(f));
-		} else {
-			changes = createChangesImpl(getPreviousRevision(), revision);
-			mapChanges(changes);
+	private void deleteTmpOutputDir() throws IOException {
+		if (tmpOutputDir != null) {
+			log.info("Deleting temporary output directory");
+			try (Stream<Path> walk = Files.walk(tmpOutputDir)) {
+				walk.sorted(Comparator.reverseOrder()).map(Path::toFile)
+						.forEach(f -> Validate.validateState(f.delete()));
+			}
+			tmpOutputDir = null;
 		}
-		final RevisionRange range = createRevisionRange(changes);
-		currentRevision = range.getCurrent();
-		return Optional.of(range);
 	}
 
 	@Override
@@ -168,17 +279,22 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		Validate.notNull(pFile);
 		final String rev = pFile.getRevision().getId();
 		init();
-		Validate.isTrue(revisions.contains(rev));
-		if (revision != null && revision.equals(rev)) {
-			Validate.isTrue(pFile.toFile().isFile(),
-					"'%s' is not a file", pFile.toPath());
-			return Files.readAllBytes(pFile.toPath());
-		} else {
-			final byte[] bytes = readAllBytesImpl(
-					pFile.getRelativePath(), rev);
-			IllegalReturnException.notNull(bytes);
-			return bytes;
+		Validate.isTrue(revisionIndex.containsKey(rev));
+		final boolean checkedOut = revision != null && revision.equals(rev);
+		instrumentation.lookup("read.checkout", checkedOut);
+		final byte[] bytes;
+		try (Instrumentation.Timer timer = instrumentation.start("read")) {
+			if (checkedOut) {
+				Validate.isTrue(pFile.toFile().isFile(),
+						"'%s' is not a file", pFile.toPath());
+				bytes = Files.readAllBytes(pFile.toPath());
+			} else {
+				bytes = readAllBytesImpl(pFile.getRelativePath(), rev);
+				IllegalReturnException.notNull(bytes);
+			}
 		}
+		instrumentation.count("read.bytes", bytes.length);
+		return bytes;
 	}
 
 	@Override
@@ -187,9 +303,17 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		Validate.notNull(pFile);
 		final String rev = pFile.getRevision().getId();
 		init();
-		Validate.isTrue(revisions.contains(rev));
-		final List<LineInfo> lineInfo = readLineInfoImpl(pFile);
-		IllegalReturnException.noNullElements(lineInfo);
+		Validate.isTrue(revisionIndex.containsKey(rev));
+		final List<LineInfo> lineInfo;
+		try (Instrumentation.Timer timer =
+				instrumentation.start("readLineInfo")) {
+			lineInfo = readLineInfoImpl(pFile);
+		}
+		// LineInfoTable never contains null elements. Checking them would
+		// needlessly create an instance for each line.
+		if (!(lineInfo instanceof LineInfoTable)) {
+			IllegalReturnException.noNullElements(lineInfo);
+		}
 		return lineInfo;
 	}
 
@@ -299,6 +423,26 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		return Optional.ofNullable(charset);
 	}
 
+	@Override
+	public Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
+	@Override
+	public void setInstrumentation(
+			@NonNull final Instrumentation pInstrumentation)
+			throws NullPointerException {
+		instrumentation = pInstrumentation;
+	}
+
+	@Override
+	public synchronized CanonicalPaths getCanonicalPaths() {
+		if (canonicalPaths == null) {
+			canonicalPaths = new CanonicalPaths(getOutput());
+		}
+		return canonicalPaths;
+	}
+
 	@Override
 	public VCSModelFactory getModelFactory() {
 		return modelFactory;
@@ -327,16 +471,22 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 
 	///////////////////////////// helping methods /////////////////////////////
 
+	/**
+	 * Merges added and removed paths pointing to the same file into
+	 * modifications. Must be called after the files of the current revision
+	 * have been listed, so that {@link #getCanonicalPaths()} is up-to-date.
+	 */
 	private void mapChanges(final Changes pChanges) throws IOException {
+		final CanonicalPaths paths = getCanonicalPaths();
 		// canonical path -> path
 		final Map<String, String> added = new HashMap<>();
 		for (final String a : pChanges.getAdded()) {
-			added.put(Paths.get(a).toFile().getCanonicalPath(), a);
+			added.put(paths.canonicalize(a), a);
 		}
 		// canonical path -> path
 		final Map<String, String> removed = new HashMap<>();
 		for (final String r : pChanges.getRemoved()) {
-			removed.put(Paths.get(r).toFile().getCanonicalPath(), r);
+			removed.put(paths.canonicalize(r), r);
 		}
 		// add (path) -> remove (path)
 		final Map<String, String> addRemoveMatches = new HashMap<>();
@@ -367,11 +517,12 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	}
 
 	private Revision createRevision() throws IOException {
-		final Path output = getOutput();
-		final List<String> files = listFilesInOutput().stream()
-				.map(output::relativize)
-				.map(Path::toString)
-				.collect(Collectors.toList());
+		final List<String> files;
+		try (Instrumentation.Timer timer =
+				instrumentation.start("next.listing")) {
+			files = listRelativeFilesInOutput();
+		}
+		instrumentation.record("next.files", files.size());
 		return getModelFactory().createRevision(revision, files, this);
 	}
 
@@ -382,6 +533,10 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 				revisions = listRevisionsImpl();
 				IllegalReturnException.noNullElements(revisions);
 			}
+			revisionIndex = new HashMap<>(revisions.size() * 4 / 3 + 1);
+			for (int i = 0; i < revisions.size(); i++) {
+				revisionIndex.putIfAbsent(revisions.get(i), i);
+			}
 			initialized = true;
 		}
 	}
@@ -389,6 +544,12 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	private RevisionRange createRevisionRange(final Changes pChanges)
 			throws IOException {
 		final Revision rev = createRevision();
+		if (revisionIdx > 0) {
+			try (Instrumentation.Timer timer =
+					instrumentation.start("next.mapChanges")) {
+				mapChanges(pChanges);
+			}
+		}
 		final Map<Path, VCSFile> path2File = new HashMap<>();
 		rev.getFiles().forEach(f -> path2File.put(f.toPath(), f));
 		final List<FileChange> fileChanges = new ArrayList<>();
@@ -440,15 +601,25 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 
 	private Commit createCommit(final List<FileChange> pFileChanges)
 			throws IOException {
-		final Commit commit = createCommitImpl(revision, pFileChanges,
-				Collections.emptyList());
-		return itEngine != null
-				? getModelFactory().createCommit(
-						commit.getId(), commit.getAuthor(),
-						commit.getMessage(), commit.getDateTime(),
-						commit.getParentIds(), commit.getFileChanges(),
-						itEngine.getIssuesFor(commit), commit.getVCSEngine())
-				: commit;
+		final Commit commit;
+		try (Instrumentation.Timer timer =
+				instrumentation.start("next.commit")) {
+			commit = createCommitImpl(revision, pFileChanges,
+					Collections.emptyList());
+		}
+		if (itEngine == null) {
+			return commit;
+		}
+		final List<Issue> issues;
+		try (Instrumentation.Timer timer =
+				instrumentation.start("next.issues")) {
+			issues = itEngine.getIssuesFor(commit);
+		}
+		return getModelFactory().createCommit(
+				commit.getId(), commit.getAuthor(),
+				commit.getMessage(), commit.getDateTime(),
+				commit.getParentIds(), commit.getFileChanges(),
+				issues, commit.getVCSEngine());
 	}
 
 	private String getPreviousRevision() {
@@ -4,6 +4,7 @@ import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import de.unibremen.informatik.st.libvcs4j.engine.AbstractVSCEngine;
@@ -18,7 +19,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -122,18 +122,20 @@ public class SingleEngine extends AbstractVSCEngine {
 		final File file = pFile.toFile();
 		Validate.isTrue(file.isFile(),
 				"'%s' is not a regular file", file);
-		final List<LineInfo> lineInfo = new ArrayList<>();
 		final List<String> lines = pFile.readLinesWithEOL();
-		for (int i = 0; i < lines.size(); i++) {
+		final LineInfoTable.Builder builder =
+				new LineInfoTable.Builder(pFile, this);
+		if (!lines.isEmpty()) {
 			final LocalDateTime dt = LocalDateTime.ofInstant(
 					Files.getLastModifiedTime(pFile.toPath()).toInstant(),
 					ZoneId.systemDefault());
-			final LineInfo info = getModelFactory().createLineInfo(
-					DEFAULT_REVISION, DEFAULT_AUTHOR, DEFAULT_MESSAGE, dt,
-					i + 1, lines.get(i).replaceAll("\r\n$|\n$", ""), pFile,
-					this);
-			lineInfo.add(info);
+			final int commit = builder.addCommit(DEFAULT_REVISION,
+					DEFAULT_AUTHOR, DEFAULT_MESSAGE, dt);
+			for (final String line : lines) {
+				builder.addLine(commit, line.replaceAll("\r\n$|\n$", ""));
+			}
 		}
+		final LineInfoTable lineInfo = builder.build();
 		return lineInfo;
 	}
 
@@ -6,6 +6,7 @@ import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
@@ -590,32 +591,31 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 			Validate.isTrue(result != null, "Unable to find '%s'", path);
 			final int blameNumLines = result.getResultContents().size();
 			final List<String> lines = pFile.readLines();
-			final List<LineInfo> lineInfo = new ArrayList<>();
+			final LineInfoTable.Builder builder =
+					new LineInfoTable.Builder(pFile, this);
+			/* Each commit is added to the table exactly once. */
+			final Map<RevCommit, Integer> commits = new HashMap<>();
 
 			/* Copy result from blame. */
 			for (int i = 0; i < blameNumLines; i++) {
 				final PersonIdent pi = result.getSourceAuthor(i);
 				final RevCommit rc = result.getSourceCommit(i);
-				final LocalDateTime dt = LocalDateTime.ofInstant(
-						pi.getWhen().toInstant(),
-						pi.getTimeZone().toZoneId());
-				final LineInfo li = getModelFactory().createLineInfo(
-						rc.getName(), pi.getName(),
-						rc.getFullMessage().replaceAll("\r\n$|\n$", ""),
-						dt, i + 1, lines.get(i), pFile, this);
-				lineInfo.add(li);
+				final int commit = commits.computeIfAbsent(rc, c ->
+						builder.addCommit(c.getName(), pi.getName(),
+								c.getFullMessage().replaceAll("\r\n$|\n$", ""),
+								LocalDateTime.ofInstant(
+										pi.getWhen().toInstant(),
+										pi.getTimeZone().toZoneId())));
+				builder.addLine(commit, lines.get(i));
 			}
 			/* Handle EOL fails by duplicating the last blame result. */
 			if (blameNumLines > 0) { // Consider empty files.
+				final int last = builder.getCommitOfLine(blameNumLines - 1);
 				for (int i = blameNumLines; i < lines.size(); i++) {
-					final LineInfo prev = lineInfo.get(i - 1);
-					final LineInfo next = getModelFactory().createLineInfo(
-							prev.getId(), prev.getAuthor(), prev.getMessage(),
-							prev.getDateTime(), prev.getLine(),  lines.get(i),
-							prev.getFile(), this);
-					lineInfo.add(next);
+					builder.addLine(last, lines.get(i));
 				}
 			}
+			final LineInfoTable lineInfo = builder.build();
 			return lineInfo;
 		} catch (final GitAPIException e) {
 			throw new IOException(e);
@@ -0,0 +1,69 @@
+package de.unibremen.informatik.st.libvcs4j.hg;
+
+import org.javahg.Repository;
+import org.javahg.internals.AbstractCommand;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the contents of several files of a single revision into a directory
+ * using a single invocation of {@code hg cat}. The contents of a file are
+ * written to {@code <directory>/<path of file relative to repository>}.
+ * JavaHG's {@link org.javahg.commands.CatCommand} supports a single file per
+ * invocation only.
+ */
+class BatchCatCommand extends AbstractCommand {
+
+	/**
+	 * Creates a new command for the given repository.
+	 *
+	 * @param pRepository
+	 * 		The repository to read the files from.
+	 */
+	BatchCatCommand(final Repository pRepository) {
+		super(pRepository);
+	}
+
+	@Override
+	public String getCommandName() {
+		return "cat";
+	}
+
+	/**
+	 * Sets the revision to read the files from.
+	 *
+	 * @param pRevision
+	 * 		The revision to read the files from.
+	 * @return
+	 * 		This command.
+	 */
+	BatchCatCommand rev(final String pRevision) {
+		cmdAppend("--rev", pRevision);
+		return this;
+	}
+
+	/**
+	 * Sets the directory to write the files into.
+	 *
+	 * @param pDirectory
+	 * 		The (absolute) directory to write the files into.
+	 * @return
+	 * 		This command.
+	 */
+	BatchCatCommand output(final Path pDirectory) {
+		cmdAppend("--output", pDirectory + File.separator + "%p");
+		return this;
+	}
+
+	/**
+	 * Executes this command.
+	 *
+	 * @param pFiles
+	 * 		The files (relative to the repository) to read.
+	 */
+	void execute(final List<String> pFiles) {
+		launchString(pFiles.toArray(new String[0]));
+	}
+}
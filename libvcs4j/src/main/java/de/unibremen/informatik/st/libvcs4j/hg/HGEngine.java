@@ -17,6 +17,7 @@ import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
@@ -30,12 +31,11 @@ import de.unibremen.informatik.st.libvcs4j.engine.Changes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
@@ -43,10 +43,17 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.logging.LogManager;
 import java.util.regex.Pattern;
@@ -78,10 +85,63 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 	private static final Predicate<String> FILE_PROTOCOL =
 			Pattern.compile("file://.*").asPredicate();
 
+	/**
+	 * The maximum number of files read by a single batched cat command.
+	 */
+	private static final int CAT_BATCH_SIZE = 512;
+
 	private final String branch;
 
 	private Repository repository = null;
 
+	/**
+	 * The changesets of the revisions to process (changeset id -> changeset).
+	 * Filled by {@link #listRevisionsImpl(LocalDateTime, LocalDateTime)} and
+	 * {@link #listRevisionsImpl(String, String)} so that
+	 * {@link #createCommitImpl(String, List, List)} does not need to query
+	 * the log of each revision. Entries are removed once used.
+	 */
+	private final Map<String, Changeset> changesetsById = new HashMap<>();
+
+	/**
+	 * Guards {@link #catRevision}, {@link #catCandidates},
+	 * {@link #catFetched}, and the contents of {@link #catDirectory}, so
+	 * that concurrent reads neither fetch a file twice nor read a file that
+	 * is still being written.
+	 */
+	private final Object catLock = new Object();
+
+	/**
+	 * The revision of {@link #catCandidates}.
+	 */
+	private String catRevision = null;
+
+	/**
+	 * The relative paths (see {@link VCSFile#getRelativePath()}) of the old
+	 * files of the last processed commit. Reading the contents of one of
+	 * these files reads all of them with batched cat commands.
+	 */
+	private final Set<String> catCandidates = new HashSet<>();
+
+	/**
+	 * Indicates whether {@link #catCandidates} have been written to
+	 * {@link #catDirectory}.
+	 */
+	private boolean catFetched = false;
+
+	/**
+	 * The temporary directory batched cat commands write into. Is created
+	 * lazily (see {@link #getCatDirectory()}) and deleted on shutdown.
+	 */
+	private Path catDirectory = null;
+
+	/**
+	 * The number of Mercurial commands issued by this engine (command name
+	 * -> count).
+	 */
+	private final Map<String, AtomicInteger> commandCounts =
+			new ConcurrentHashMap<>();
+
 	/**
 	 * Creates a new Mercurial engine that processes all commits of the given
 	 * root directory and branch. Use {@link VCSEngineBuilder} for convenience.
@@ -281,6 +341,114 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 		return getTarget().resolve(pPath).toString();
 	}
 
+	private void count(final String pCommand) {
+		commandCounts.computeIfAbsent(pCommand, c -> new AtomicInteger())
+				.incrementAndGet();
+		getInstrumentation().count("hg." + pCommand, 1);
+	}
+
+	/**
+	 * Returns the directory batched cat commands write into. Creates it if
+	 * necessary. Must be called while holding {@link #catLock}.
+	 */
+	private Path getCatDirectory() throws IOException {
+		if (catDirectory == null) {
+			catDirectory = Files.createTempDirectory("libvcs4j-hg-cat")
+					.toAbsolutePath();
+			log.info("Batched cat directory is '{}'", catDirectory);
+			final Path dir = catDirectory;
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					delete(dir, true);
+				} catch (final IOException e) {
+					log.warn("Error while deleting batched cat directory", e);
+				}
+			}));
+		}
+		return catDirectory;
+	}
+
+	/**
+	 * Deletes the contents of the given directory and, if {@code pSelf} is
+	 * {@code true}, the directory itself.
+	 */
+	private static void delete(final Path pDir, final boolean pSelf)
+			throws IOException {
+		if (!pDir.toFile().exists()) {
+			return;
+		}
+		try (Stream<Path> walk = Files.walk(pDir)) {
+			walk.sorted(Comparator.reverseOrder())
+					.filter(p -> pSelf || !p.equals(pDir))
+					.map(Path::toFile)
+					.forEach(f -> Validate.validateState(f.delete()));
+		}
+	}
+
+	/**
+	 * Registers the old files of {@code pFileChanges} as candidates of the
+	 * next batched cat command and discards the previous candidates.
+	 */
+	private void registerCatCandidates(final List<FileChange> pFileChanges)
+			throws IOException {
+		synchronized (catLock) {
+			catRevision = null;
+			catCandidates.clear();
+			catFetched = false;
+			if (catDirectory != null) {
+				delete(catDirectory, false);
+			}
+			pFileChanges.stream()
+					.map(FileChange::getOldFile)
+					.filter(Optional::isPresent)
+					.map(Optional::get)
+					.forEach(f -> {
+						catRevision = f.getRevision().getId();
+						catCandidates.add(f.getRelativePath());
+					});
+		}
+	}
+
+	/**
+	 * Writes the contents of {@link #catCandidates} to
+	 * {@link #getCatDirectory()} using as few cat commands as possible. Must
+	 * be called while holding {@link #catLock}.
+	 */
+	private void fetchCatCandidates() throws IOException {
+		final Path dir = getCatDirectory();
+		final List<String> paths = catCandidates.stream()
+				.map(p -> Paths.get(getRoot(), p).toString())
+				.collect(Collectors.toList());
+		try {
+			for (int i = 0; i < paths.size(); i += CAT_BATCH_SIZE) {
+				count("cat");
+				new BatchCatCommand(repository)
+						.rev(catRevision)
+						.output(dir)
+						.execute(paths.subList(i, Math.min(
+								i + CAT_BATCH_SIZE, paths.size())));
+			}
+		} catch (final RuntimeException e) {
+			throw new IOException(e);
+		}
+		catFetched = true;
+	}
+
+	/**
+	 * Returns the number of Mercurial commands---that is, the number of
+	 * round-trips to the Mercurial command server---issued by this engine so
+	 * far, grouped by command name (for instance, {@code "cat"} or
+	 * {@code "log"}).
+	 *
+	 * @return
+	 * 		The number of Mercurial commands issued by this engine.
+	 */
+	public Map<String, Integer> getCommandCounts() {
+		final Map<String, Integer> counts = new TreeMap<>();
+		commandCounts.forEach((c, n) -> counts.put(c, n.get()));
+		return counts;
+	}
+
 	///////////////////////////////////////////////////////////////////////////
 
 	@Override
@@ -292,6 +460,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 	protected void checkoutImpl(final String pRevision) throws IOException {
 		Validate.validateState(repository != null);
 		try {
+			count("update");
 			UpdateCommandFlags.on(repository)
 					.rev(pRevision)
 					.clean() // this is required by OSX
@@ -308,6 +477,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 
 		final StatusResult result;
 		try {
+			count("status");
 			final StatusCommand cmd = StatusCommandFlags.on(repository);
 			result = cmd.rev(pFromRev, pToRev).execute();
 		} catch (final RuntimeException e) {
@@ -344,23 +514,32 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 			final String pRevision) throws IOException {
 		Validate.validateState(repository != null);
 
+		final Path path = Paths.get(getRoot(), pPath);
+		synchronized (catLock) {
+			if (pRevision.equals(catRevision)
+					&& catCandidates.contains(pPath)) {
+				getInstrumentation().lookup("hg.catBatch", catFetched);
+				if (!catFetched) {
+					fetchCatCandidates();
+				}
+				final File file = getCatDirectory().resolve(path).toFile();
+				if (file.isFile()) {
+					return Files.readAllBytes(file.toPath());
+				}
+			}
+		}
+
 		final InputStream is;
 		try {
-			final String path = Paths.get(getRoot(), pPath).toString();
+			count("cat");
 			final CatCommand cmd = CatCommandFlags.on(repository);
-			is = cmd.rev(pRevision).execute(path);
+			is = cmd.rev(pRevision).execute(path.toString());
 		} catch (final RuntimeException e) {
 			throw new IOException(e);
 		}
-
-		final BufferedInputStream bis = new BufferedInputStream(is);
-		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		final byte[] buffer = new byte[4096];
-		int n;
-		while ((n = bis.read(buffer, 0, buffer.length)) != -1) {
-			bos.write(buffer, 0, n);
+		try (InputStream in = is) {
+			return in.readAllBytes();
 		}
-		return bos.toByteArray();
 	}
 
 	@Override
@@ -371,8 +550,12 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 		try {
 			final Path path = Paths.get(getRoot(), pFile.getRelativePath());
 			final List<String> lines = pFile.readLinesWithEOL();
-			final List<LineInfo> lineInfo = new ArrayList<>();
+			final LineInfoTable.Builder builder =
+					new LineInfoTable.Builder(pFile, this);
+			/* Each changeset is added to the table exactly once. */
+			final Map<String, Integer> commits = new HashMap<>();
 
+			count("annotate");
 			final AnnotateCommand cmd = AnnotateCommandFlags.on(repository);
 			final List<AnnotateLine> aLines = cmd
 					.rev(pFile.getRevision().getId())
@@ -383,24 +566,21 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 			}
 
 			for (int i = 0; i < lines.size(); i++) {
-				final AnnotateLine al = aLines.get(i);
-				final LocalDateTime dt = LocalDateTime.ofInstant(
-						al.getChangeset().getTimestamp().getDate().toInstant(),
-						ZoneId.systemDefault());
-				final LineInfo li = getModelFactory().createLineInfo(
-						al.getChangeset().getNode(),
-						al.getChangeset().getUser()
-								.replaceAll(" <.*@.*>$", ""),
-						al.getChangeset().getMessage(),
-						dt,
-						i + 1,
-						// JavaHG does not handle non-ASCII chars very well as
-						// it uses the system encoding to decode the line.
-						// al.getLine(),
-						lines.get(i).replaceAll("\r\n$|\n$", ""),
-						pFile, this);
-				lineInfo.add(li);
+				final Changeset cs = aLines.get(i).getChangeset();
+				final int commit = commits.computeIfAbsent(cs.getNode(), n ->
+						builder.addCommit(n,
+								cs.getUser().replaceAll(" <.*@.*>$", ""),
+								cs.getMessage(),
+								LocalDateTime.ofInstant(
+										cs.getTimestamp().getDate().toInstant(),
+										ZoneId.systemDefault())));
+				// JavaHG does not handle non-ASCII chars very well as it uses
+				// the system encoding to decode the line. Thus, do not use
+				// AnnotateLine#getLine.
+				builder.addLine(commit,
+						lines.get(i).replaceAll("\r\n$|\n$", ""));
 			}
+			final LineInfoTable lineInfo = builder.build();
 			return lineInfo;
 		} catch (final RuntimeException e) {
 			throw new IOException(e);
@@ -413,17 +593,23 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 			throws IllegalArgumentException, IOException {
 		Validate.validateState(repository != null);
 
-		final List<Changeset> changes;
-		try {
-			final LogCommand cmd = LogCommandFlags.on(repository);
-			changes = cmd.rev(pRevision).execute();
-		} catch (final RuntimeException e) {
-			throw new IOException(e);
+		Changeset changeset = changesetsById.remove(pRevision);
+		getInstrumentation().lookup("hg.changesets", changeset != null);
+		if (changeset == null) {
+			final List<Changeset> changes;
+			try {
+				count("log");
+				final LogCommand cmd = LogCommandFlags.on(repository);
+				changes = cmd.rev(pRevision).execute();
+			} catch (final RuntimeException e) {
+				throw new IOException(e);
+			}
+			Validate.validateState(changes.size() == 1,
+					"Unexpected number of log entries: Expected %d, Actual %d",
+					1, changes.size());
+			changeset = changes.get(0);
 		}
-		Validate.validateState(changes.size() == 1,
-				"Unexpected number of log entries: Expected %d, Actual %d",
-				1, changes.size());
-		final Changeset changeset = changes.get(0);
+		registerCatCandidates(pFileChanges);
 
 		final LocalDateTime dateTime = LocalDateTime.ofInstant(
 				changeset.getTimestamp().getDate().toInstant(),
@@ -446,6 +632,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 		// order: [n, n-1, ..., 0] (or corresponding changeset id)
 
 		try {
+			count("log");
 			final LogCommand cmd = LogCommandFlags.on(repository);
 			if (branch != null) {
 				cmd.branch(branch);
@@ -486,22 +673,20 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 			if (branch != null) {
 				cmd.branch(branch);
 			}
-			revisions = cmd
-					.execute(getRoot())
-					.stream()
-					.map(Changeset::getNode)
-					.map(String::valueOf)
-					.collect(Collectors.toList());
-			if (revisions.size() > 1) {
+			count("log");
+			List<Changeset> result = cmd.execute(getRoot());
+			if (result.size() > 1) {
 				// --follow-first returns an empty list if the result would
 				// contain a single changeset without this flag.
+				count("log");
 				//noinspection deprecation
-				revisions = cmd.followFirst()
-						.execute(getRoot())
-						.stream()
-						.map(Changeset::getNode)
-						.map(String::valueOf)
-						.collect(Collectors.toList());
+				result = cmd.followFirst().execute(getRoot());
+			}
+			revisions = new ArrayList<>();
+			for (final Changeset cs : result) {
+				final String revId = String.valueOf(cs.getNode());
+				revisions.add(revId);
+				changesetsById.put(revId, cs);
 			}
 		} catch (final RuntimeException e) {
 			// Message:
@@ -540,6 +725,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 				//noinspection deprecation
 				cmd.followFirst();
 			}
+			count("log");
 			List<Changeset> changesets = cmd
 					.execute(getRoot())
 					.stream()
@@ -565,6 +751,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 				}
 				if (include) {
 					revisions.add(revId);
+					changesetsById.put(revId, cs);
 				}
 				// Likewise, compare number and id.
 				if (fromIsInteger && revNumber.equals(pFromRev)
@@ -592,6 +779,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 		Validate.validateState(repository == null);
 		try {
 			log.info("Cloning {} to {}", getRepository(), getTarget());
+			count("clone");
 			repository = Repository.clone(
 					getTarget().toFile(), getRepository());
 		} catch (final RuntimeException e) {
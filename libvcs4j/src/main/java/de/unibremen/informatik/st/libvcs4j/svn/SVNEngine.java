@@ -4,6 +4,7 @@ import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
@@ -14,9 +15,8 @@ import de.unibremen.informatik.st.libvcs4j.exception.IllegalIntervalException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalRepositoryException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalRevisionException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalTargetException;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tmatesoft.svn.core.SVNException;
@@ -309,17 +309,20 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 		return revs;
 	}
 
-	@AllArgsConstructor
+	@RequiredArgsConstructor
 	private class AnnotateHandler implements ISVNAnnotateHandler {
 
 		@NonNull
 		private final String revision;
 
 		@NonNull
-		private final VCSFile file;
+		private final LineInfoTable.Builder builder;
 
-		@Getter
-		private final List<LineInfo> lineInfoList = new ArrayList<>();
+		/**
+		 * The message of {@link #revision}. Is read on demand, that is, when
+		 * the first line is handled.
+		 */
+		private String message = null;
 
 		@Override
 		public void handleLine(final Date pDate, long pRevision,
@@ -335,14 +338,15 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 				final String pMergedAuthor, final String pMergedPath,
 				final int pLineNumber) throws SVNException {
 			try {
-				final LineInfo li = getModelFactory().createLineInfo(
-						revision, pAuthor,
-						createCommitImpl(revision, Collections.emptyList(),
-								Collections.emptyList()).getMessage(),
-						LocalDateTime.ofInstant(pDate.toInstant(),
-								ZoneId.systemDefault()),
-						pLineNumber + 1, pLine, file, SVNEngine.this);
-				lineInfoList.add(li);
+				if (message == null) {
+					message = createCommitImpl(revision,
+							Collections.emptyList(), Collections.emptyList())
+							.getMessage();
+				}
+				final int commit = builder.addCommit(revision, pAuthor,
+						message, LocalDateTime.ofInstant(pDate.toInstant(),
+								ZoneId.systemDefault()));
+				builder.addLine(commit, pLine);
 			} catch (final IOException e) {
 				throw new UncheckedIOException(e);
 			}
@@ -511,7 +515,9 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 			final SVNRevision revision = createSVNRevision(rev);
 			final SvnTarget path = SvnTarget.fromURL(
 					createSVNURL(toSVNPath(relPath)), revision);
-			final AnnotateHandler handler = new AnnotateHandler(rev, pFile);
+			final LineInfoTable.Builder builder =
+					new LineInfoTable.Builder(pFile, this);
+			final AnnotateHandler handler = new AnnotateHandler(rev, builder);
 
 			SVNClientManager
 					.newInstance()
@@ -519,9 +525,8 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 					.doAnnotate(path.getURL(), revision,
 					SVNRevision.create(0), revision, handler);
 			final List<String> lines = pFile.readLinesWithEOL();
-			final List<LineInfo> lineInfoList = handler.lineInfoList;
-			Validate.validateState(lines.size() == lineInfoList.size());
-			return lineInfoList;
+			Validate.validateState(lines.size() == builder.getNumLines());
+			return builder.build();
 		} catch (final SVNException | UncheckedIOException e) {
 			throw new IOException(e);
 		} finally {
@@ -0,0 +1,151 @@
+package de.unibremen.informatik.st.libvcs4j.hg;
+
+import de.unibremen.informatik.st.libvcs4j.Commit;
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.javahg.Repository;
+import org.javahg.commands.flags.AddCommandFlags;
+import org.javahg.commands.flags.CommitCommandFlags;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HGEngineTest {
+
+	private static final int NUM_FILES = 5;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File repositoryDir;
+
+	@Before
+	public void setUp() throws IOException {
+		repositoryDir = folder.newFolder("repository");
+		final Repository repository = Repository.create(repositoryDir);
+		try {
+			final Path src = Files.createDirectory(
+					repositoryDir.toPath().resolve("src"));
+			for (int i = 0; i < NUM_FILES; i++) {
+				write(src.resolve("file" + i + ".txt"), "first " + i);
+			}
+			AddCommandFlags.on(repository).execute();
+			CommitCommandFlags.on(repository)
+					.user("Alice <alice@example.com>")
+					.message("first")
+					.execute();
+			for (int i = 0; i < NUM_FILES; i++) {
+				write(src.resolve("file" + i + ".txt"), "second " + i);
+			}
+			CommitCommandFlags.on(repository)
+					.user("Bob <bob@example.com>")
+					.message("second")
+					.execute();
+		} finally {
+			repository.close();
+		}
+	}
+
+	private static void write(final Path path, final String content)
+			throws IOException {
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private HGEngine createEngine() throws IOException {
+		return (HGEngine) VCSEngineBuilder
+				.ofHG("file://" + repositoryDir.getAbsolutePath())
+				.withTarget(folder.getRoot().toPath().resolve("target"))
+				.build();
+	}
+
+	@Test
+	public void commitsAreCreatedFromIntervalLog() throws IOException {
+		final HGEngine engine = createEngine();
+		engine.listRevisions();
+		final int logs = engine.getCommandCounts().get("log");
+
+		Optional<RevisionRange> range = engine.next();
+		assertTrue(range.isPresent());
+		Commit commit = range.get().getLatestCommit();
+		assertEquals("Alice", commit.getAuthor());
+		assertEquals("first", commit.getMessage());
+
+		range = engine.next();
+		assertTrue(range.isPresent());
+		commit = range.get().getLatestCommit();
+		assertEquals("Bob", commit.getAuthor());
+		assertEquals("second", commit.getMessage());
+		assertEquals(1, commit.getParentIds().size());
+
+		assertEquals(logs, (int) engine.getCommandCounts().get("log"));
+	}
+
+	@Test
+	public void oldFilesAreReadInBatches() throws IOException {
+		final HGEngine engine = createEngine();
+		engine.next();
+		final RevisionRange range = engine.next().orElseThrow(
+				IllegalStateException::new);
+		assertEquals(NUM_FILES, range.getFileChanges().size());
+
+		for (final FileChange change : range.getFileChanges()) {
+			final VCSFile oldFile = change.getOldFile().orElseThrow(
+					IllegalStateException::new);
+			final VCSFile newFile = change.getNewFile().orElseThrow(
+					IllegalStateException::new);
+			final String name = oldFile.toPath().getFileName().toString();
+			final String i = name.replaceAll("\\D", "");
+			assertEquals("first " + i, oldFile.readContent());
+			assertEquals("second " + i, newFile.readContent());
+		}
+
+		final Map<String, Integer> counts = engine.getCommandCounts();
+		assertEquals(1, (int) counts.get("cat"));
+		assertEquals(2, (int) counts.get("update"));
+	}
+
+	@Test
+	public void seekComputesRangeAgainstPredecessor() throws IOException {
+		final HGEngine engine = createEngine();
+		final String second = engine.listRevisions().get(1);
+
+		RevisionRange range = engine.seek(second);
+		assertEquals(2, range.getOrdinal());
+		assertEquals(second, range.getCurrent().getId());
+		assertTrue(range.getPredecessorRevision().isPresent());
+		assertEquals(NUM_FILES, range.getFileChanges().size());
+		assertFalse(engine.next().isPresent());
+
+		range = engine.seek(1);
+		assertEquals(1, range.getOrdinal());
+		assertFalse(range.getPredecessorRevision().isPresent());
+		assertEquals(NUM_FILES, range.getAddedFiles().size());
+		assertEquals(second, engine.next().orElseThrow(
+				IllegalStateException::new).getCurrent().getId());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void seekUnknownRevision() throws IOException {
+		createEngine().seek(3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void seekUnknownRevisionId() throws IOException {
+		createEngine().seek("0123456789abcdef0123456789abcdef01234567");
+	}
+}
@@ -0,0 +1,390 @@
+package de.unibremen.informatik.gxl4j;
+
+import net.sourceforge.gxl.GXL;
+import net.sourceforge.gxl.GXLAtomicValue;
+import net.sourceforge.gxl.GXLBool;
+import net.sourceforge.gxl.GXLEnum;
+import net.sourceforge.gxl.GXLFloat;
+import net.sourceforge.gxl.GXLInt;
+import net.sourceforge.gxl.GXLString;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartDocument;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming (StAX based) transformer which sets attributes of GXL nodes
+ * without loading the whole document into memory. Nodes are identified by
+ * their type and the string value of a key attribute (for example, the
+ * {@code Linkage.Name} of {@code File} nodes). Only the type and the
+ * attributes of the currently processed node are buffered, so memory is
+ * constant in the size of the graph.
+ * <p>
+ * Attributes are set like {@link net.sourceforge.gxl.GXLAttributedElement#setAttr}
+ * does: an existing attribute with the same name is replaced, otherwise the
+ * attribute is added. Changed and added attributes are written after the
+ * remaining attributes of an element. Everything else is copied as is.
+ */
+public class GXLStreamTransformer {
+
+    private final String nodeType;
+
+    private final String keyAttribute;
+
+    private final XMLInputFactory inputFactory;
+
+    private final XMLOutputFactory outputFactory;
+
+    private final XMLEventFactory eventFactory;
+
+    /**
+     * Creates a transformer for nodes of the given type.
+     * @param nodeType type (URI of the type element) of the nodes to modify
+     * @param keyAttribute name of the string attribute identifying a node
+     */
+    public GXLStreamTransformer(String nodeType, String keyAttribute) {
+        this.nodeType = nodeType;
+        this.keyAttribute = keyAttribute;
+        this.inputFactory = XMLInputFactory.newInstance();
+        this.inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // GXL files usually rely on the DTD to declare the xlink namespace.
+        this.inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // Never load the GXL DTD (e.g. from the internet). Its declarations are not required.
+        this.inputFactory.setXMLResolver((publicId, systemId, baseUri, namespace) ->
+                new ByteArrayInputStream(new byte[0]));
+        this.outputFactory = XMLOutputFactory.newInstance();
+        this.eventFactory = XMLEventFactory.newInstance();
+    }
+
+    /**
+     * Reads the keys of all matching nodes (in document order).
+     * @param file GXL file
+     * @return keys of the matching nodes
+     * @throws IOException exception
+     */
+    public Set<String> readKeys(File file) throws IOException {
+        Set<String> keys = new LinkedHashSet<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            XMLEventReader reader = inputFactory.createXMLEventReader(in);
+            try {
+                while (reader.hasNext()) {
+                    XMLEvent event = reader.nextEvent();
+                    if (isStartOf(event, GXL.NODE)) {
+                        Header header = readHeader(reader, event.asStartElement());
+                        if (header.key != null && nodeType.equals(header.type)) {
+                            keys.add(header.key);
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to read GXL file " + file, e);
+        }
+        return keys;
+    }
+
+    /**
+     * Sets the attributes of the given GXL file in place.
+     * @param file GXL file
+     * @param nodeAttributes attributes to set, by node key
+     * @param graphAttributes attributes to set at the first graph
+     * @throws IOException exception
+     */
+    public void transform(File file, Map<String, Map<String, GXLAtomicValue>> nodeAttributes,
+                          Map<String, GXLAtomicValue> graphAttributes) throws IOException {
+        Path path = file.toPath().toAbsolutePath();
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path));
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                transform(in, out, nodeAttributes, graphAttributes);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Copies a GXL document and sets the given attributes. The output is UTF-8 encoded.
+     * @param in GXL document to read
+     * @param out stream to write the modified document to
+     * @param nodeAttributes attributes to set, by node key
+     * @param graphAttributes attributes to set at the first graph
+     * @throws IOException exception
+     */
+    public void transform(InputStream in, OutputStream out,
+                          Map<String, Map<String, GXLAtomicValue>> nodeAttributes,
+                          Map<String, GXLAtomicValue> graphAttributes) throws IOException {
+        try {
+            XMLEventReader reader = inputFactory.createXMLEventReader(in);
+            XMLEventWriter writer = outputFactory.createXMLEventWriter(out, StandardCharsets.UTF_8.name());
+            try {
+                boolean firstGraph = true;
+                while (reader.hasNext()) {
+                    XMLEvent event = reader.nextEvent();
+                    if (event.isStartDocument()) {
+                        StartDocument document = (StartDocument) event;
+                        writer.add(eventFactory.createStartDocument(
+                                StandardCharsets.UTF_8.name(), document.getVersion()));
+                        writer.add(eventFactory.createCharacters(System.lineSeparator()));
+                    } else if (event.getEventType() == XMLEvent.DTD) {
+                        writer.add(event);
+                        writer.add(eventFactory.createCharacters(System.lineSeparator()));
+                    } else if (isStartOf(event, GXL.NODE)) {
+                        Header header = readHeader(reader, event.asStartElement());
+                        Map<String, GXLAtomicValue> attributes = header.key != null
+                                && nodeType.equals(header.type)
+                                ? nodeAttributes.get(header.key)
+                                : null;
+                        header.write(writer, attributes);
+                    } else if (firstGraph && isStartOf(event, GXL.GRAPH)) {
+                        firstGraph = false;
+                        readHeader(reader, event.asStartElement()).write(writer, graphAttributes);
+                    } else {
+                        writer.add(event);
+                    }
+                }
+                writer.flush();
+            } finally {
+                writer.close();
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to transform GXL document", e);
+        }
+    }
+
+    /**
+     * Buffers the type and attribute elements of the given element. Stops before the first other child element or
+     * before the end of the element.
+     * @param reader reader positioned after {@code start}
+     * @param start start of the element
+     * @return buffered header
+     * @throws XMLStreamException exception
+     */
+    private Header readHeader(XMLEventReader reader, StartElement start) throws XMLStreamException {
+        Header header = new Header(start);
+        while (reader.hasNext()) {
+            XMLEvent next = reader.peek();
+            if (next.isEndElement()) {
+                break;
+            }
+            if (next.isStartElement()) {
+                String name = next.asStartElement().getName().getLocalPart();
+                if (name.equals(GXL.TYPE)) {
+                    header.type = readType(reader, header.events);
+                } else if (name.equals(GXL.ATTR)) {
+                    readAttr(reader, header);
+                } else {
+                    break;
+                }
+            } else {
+                // Whitespace, comments, etc.
+                header.events.add(new Chunk(null, Collections.singletonList(reader.nextEvent())));
+            }
+        }
+        return header;
+    }
+
+    /**
+     * Reads a type element and returns its URI.
+     */
+    private String readType(XMLEventReader reader, List<Chunk> chunks) throws XMLStreamException {
+        List<XMLEvent> events = readElement(reader, null);
+        chunks.add(new Chunk(null, events));
+        Iterator<?> attributes = events.get(0).asStartElement().getAttributes();
+        while (attributes.hasNext()) {
+            Attribute attribute = (Attribute) attributes.next();
+            if (attribute.getName().getLocalPart().endsWith("href")) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads an attr element and extracts the key of the node if it is the key attribute.
+     */
+    private void readAttr(XMLEventReader reader, Header header) throws XMLStreamException {
+        StartElement start = reader.peek().asStartElement();
+        Attribute nameAttribute = start.getAttributeByName(new QName(GXL.NAME));
+        String name = nameAttribute == null ? null : nameAttribute.getValue();
+        StringBuilder value = new StringBuilder();
+        List<XMLEvent> events = readElement(reader, name != null && name.equals(keyAttribute) ? value : null);
+        header.events.add(new Chunk(name, events));
+        if (name != null && name.equals(keyAttribute)) {
+            header.key = value.toString();
+        }
+    }
+
+    /**
+     * Reads the next element including all children.
+     * @param reader reader positioned before the start of the element
+     * @param text if not null, the character data of string elements is appended
+     * @return events of the element
+     */
+    private List<XMLEvent> readElement(XMLEventReader reader, StringBuilder text) throws XMLStreamException {
+        List<XMLEvent> events = new ArrayList<>();
+        int depth = 0;
+        String current = null;
+        do {
+            XMLEvent event = reader.nextEvent();
+            events.add(event);
+            if (event.isStartElement()) {
+                depth++;
+                current = event.asStartElement().getName().getLocalPart();
+            } else if (event.isEndElement()) {
+                depth--;
+                current = null;
+            } else if (text != null && event.isCharacters() && GXL.STRING.equals(current)) {
+                text.append(event.asCharacters().getData());
+            }
+        } while (depth > 0);
+        return events;
+    }
+
+    private static boolean isStartOf(XMLEvent event, String name) {
+        return event.isStartElement() && event.asStartElement().getName().getLocalPart().equals(name);
+    }
+
+    /**
+     * Returns the element name of the given value.
+     */
+    private static String elementNameOf(GXLAtomicValue value) {
+        if (value instanceof GXLInt) {
+            return GXL.INT;
+        } else if (value instanceof GXLString) {
+            return GXL.STRING;
+        } else if (value instanceof GXLFloat) {
+            return GXL.FLOAT;
+        } else if (value instanceof GXLBool) {
+            return GXL.BOOL;
+        } else if (value instanceof GXLEnum) {
+            return GXL.ENUM;
+        }
+        throw new IllegalArgumentException("Unsupported value: " + value.getClass().getSimpleName());
+    }
+
+    /**
+     * Buffered events of a child of a header. The name is set for attr elements only.
+     */
+    private static class Chunk {
+
+        private final String attr;
+
+        private final List<XMLEvent> events;
+
+        private Chunk(String attr, List<XMLEvent> events) {
+            this.attr = attr;
+            this.events = events;
+        }
+
+        private boolean isWhitespace() {
+            return attr == null && events.size() == 1 && events.get(0).isCharacters()
+                    && events.get(0).asCharacters().isWhiteSpace();
+        }
+    }
+
+    /**
+     * Buffered start, type and attributes of a node or graph.
+     */
+    private class Header {
+
+        private final StartElement start;
+
+        private final List<Chunk> events = new ArrayList<>();
+
+        private String type;
+
+        private String key;
+
+        private Header(StartElement start) {
+            this.start = start;
+        }
+
+        /**
+         * Writes the header and sets the given attributes.
+         * @param writer writer
+         * @param attributes attributes to set (may be null)
+         * @throws XMLStreamException exception
+         */
+        private void write(XMLEventWriter writer, Map<String, GXLAtomicValue> attributes)
+                throws XMLStreamException {
+            writer.add(start);
+            // Keep the whitespace in front of the end of the element at the end.
+            int end = events.size();
+            if (attributes != null && end > 0 && events.get(end - 1).isWhitespace()) {
+                end--;
+            }
+            for (int i = 0; i < end; i++) {
+                Chunk chunk = events.get(i);
+                if (attributes != null) {
+                    if (chunk.attr != null && attributes.containsKey(chunk.attr)) {
+                        continue;
+                    }
+                    // Drop the indentation of replaced attributes.
+                    if (chunk.isWhitespace() && i + 1 < events.size()
+                            && events.get(i + 1).attr != null
+                            && attributes.containsKey(events.get(i + 1).attr)) {
+                        continue;
+                    }
+                }
+                for (XMLEvent event : chunk.events) {
+                    writer.add(event);
+                }
+            }
+            if (attributes != null) {
+                XMLEvent indentation = !events.isEmpty() && events.get(0).isWhitespace()
+                        ? events.get(0).events.get(0)
+                        : null;
+                for (Map.Entry<String, GXLAtomicValue> attribute : attributes.entrySet()) {
+                    String element = elementNameOf(attribute.getValue());
+                    if (indentation != null) {
+                        writer.add(indentation);
+                    }
+                    writer.add(eventFactory.createStartElement("", "", GXL.ATTR));
+                    writer.add(eventFactory.createAttribute(GXL.NAME, attribute.getKey()));
+                    writer.add(eventFactory.createStartElement("", "", element));
+                    writer.add(eventFactory.createCharacters(attribute.getValue().getValue()));
+                    writer.add(eventFactory.createEndElement("", "", element));
+                    writer.add(eventFactory.createEndElement("", "", GXL.ATTR));
+                }
+                for (int i = end; i < events.size(); i++) {
+                    for (XMLEvent event : events.get(i).events) {
+                        writer.add(event);
+                    }
+                }
+            }
+        }
+    }
+}
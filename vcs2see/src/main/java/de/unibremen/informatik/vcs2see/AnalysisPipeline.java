@@ -0,0 +1,141 @@
+package de.unibremen.informatik.vcs2see;
+
+import de.unibremen.informatik.st.libvcs4j.Commit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Component which runs the code analysis of several revisions concurrently.
+ * Each revision is exported into its own snapshot directory, so that the repository crawler can check out
+ * the next revision while the analysers of the previous ones are still running. The GXL files are
+ * post-processed by the {@link GraphModifier} in revision order.
+ * With a single worker, revisions are analysed in place one after another.
+ * Close the pipeline when done, also if an analysis failed, to shut down its worker threads.
+ */
+public class AnalysisPipeline implements AutoCloseable {
+
+    private final int workers;
+
+    private final ExecutorService executor;
+
+    private final Deque<Job> pending;
+
+    /**
+     * Creates a pipeline which analyses up to the given number of revisions concurrently.
+     * @param workers number of concurrent analyses
+     */
+    public AnalysisPipeline(int workers) {
+        this.workers = Math.max(1, workers);
+        this.executor = this.workers > 1 ? Executors.newFixedThreadPool(this.workers) : null;
+        this.pending = new ArrayDeque<>();
+    }
+
+    /**
+     * Submits the analysis of the revision currently checked out by the repository crawler.
+     * Post-processes all leading revisions whose analysis is finished.
+     * @param commit commit of the revision
+     * @param index ordinal of commit
+     * @throws IOException exception
+     */
+    public void submit(Commit commit, int index) throws IOException {
+        CodeAnalyser codeAnalyser = Vcs2See.getCodeAnalyser();
+        if(executor == null) {
+            codeAnalyser.analyse(index);
+            Vcs2See.getGraphModifier().process(commit, index);
+            return;
+        }
+
+        codeAnalyser.createSnapshot(index);
+        Future<?> future = executor.submit(() -> {
+            codeAnalyser.analyse(index);
+            return null;
+        });
+        pending.add(new Job(commit, index, future));
+
+        // Keep the workers busy, but limit the number of snapshots on disk
+        while(!pending.isEmpty() && (pending.size() > 2 * workers || pending.peek().future.isDone())) {
+            complete(pending.poll());
+        }
+    }
+
+    /**
+     * Waits for all submitted analyses and post-processes them in revision order.
+     * @throws IOException exception
+     */
+    public void finish() throws IOException {
+        while(!pending.isEmpty()) {
+            complete(pending.poll());
+        }
+    }
+
+    /**
+     * Shuts down the worker threads. Analyses which are still running are interrupted and
+     * revisions which are not post-processed yet (see {@link #finish()}) are discarded.
+     */
+    @Override
+    public void close() {
+        pending.clear();
+        if(executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the analysis of the given job, post-processes its GXL file, moves the output of the analysis
+     * out of its snapshot and deletes the snapshot. Afterwards, the GXL file is at the same location as with a
+     * single worker.
+     * @param job job to complete
+     * @throws IOException exception
+     */
+    private void complete(Job job) throws IOException {
+        try {
+            job.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while analysing revision " + job.index, e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to analyse revision " + job.index, e.getCause());
+        }
+
+        CodeAnalyser codeAnalyser = Vcs2See.getCodeAnalyser();
+        Vcs2See.getGraphModifier().process(job.commit, job.index);
+        codeAnalyser.collectOutputs(job.index);
+        codeAnalyser.deleteSnapshot(job.index);
+
+        // Outputs of the analysis must not be deleted along with the snapshot
+        String path = Vcs2See.getPropertiesManager().getProperty("modifier.path").orElseThrow();
+        File file = new File(codeAnalyser.replacePlaceholders(path, job.index));
+        if(!file.exists()) {
+            throw new IOException("GXL file of revision " + job.index + " is missing: " + file);
+        }
+    }
+
+    /**
+     * Analysis of a single revision.
+     */
+    private static class Job {
+
+        private final Commit commit;
+
+        private final int index;
+
+        private final Future<?> future;
+
+        private Job(Commit commit, int index, Future<?> future) {
+            this.commit = commit;
+            this.index = index;
+            this.future = future;
+        }
+    }
+
+}
@@ -23,11 +23,25 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Component to run baushaus on path.
@@ -37,6 +51,26 @@ import java.util.stream.Collectors;
  */
 public class CodeAnalyser {
 
+    /**
+     * Directories of version control metadata which are not exported into snapshots.
+     */
+    private static final List<String> METADATA = Arrays.asList(".git", ".hg", ".svn");
+
+    private final Map<Integer, Path> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Files exported into each snapshot, relative to the snapshot.
+     */
+    private final Map<Integer, Set<Path>> exports = new ConcurrentHashMap<>();
+
+    /**
+     * Files moved out of snapshots by {@link #collectOutputs(int)}, relative to the temporary repository.
+     * They are not exported into subsequent snapshots.
+     */
+    private final Set<Path> outputs = ConcurrentHashMap.newKeySet();
+
+    private Path snapshotDirectory;
+
     /**
      * Helper method to run a ProcessBuilder and output the output to the console.
      * @param command command which should be executed
@@ -44,12 +78,23 @@ public class CodeAnalyser {
      * @throws IOException exception
      */
     private void run(String command, String directory) throws IOException {
+        run(command, directory, "");
+    }
+
+    /**
+     * Helper method to run a ProcessBuilder and output the output to the console.
+     * @param command command which should be executed
+     * @param directory where the command should be executed
+     * @param prefix prefix of each output line (distinguishes concurrent analyses)
+     * @throws IOException exception
+     */
+    private void run(String command, String directory, String prefix) throws IOException {
         ProcessBuilder processBuilder = new ProcessBuilder();
         processBuilder.command(command.split("\\s(?=(?:[^\"]*([\"])[^\"]*\\1)*[^\"]*$)"));
         processBuilder.directory(new File(directory));
 
-        System.out.println("Directory: " + directory);
-        System.out.println(String.join(" ", processBuilder.command()));
+        System.out.println(prefix + "Directory: " + directory);
+        System.out.println(prefix + String.join(" ", processBuilder.command()));
 
         if(!processBuilder.directory().exists()) {
             processBuilder.directory().mkdirs();
@@ -61,7 +106,7 @@ public class CodeAnalyser {
 
         String line;
         while ((line = input.readLine()) != null) {
-            System.out.println(line);
+            System.out.println(prefix + line);
         }
     }
 
@@ -105,13 +150,134 @@ public class CodeAnalyser {
 
             String command = replacePlaceholders(optionalCommand.get(), revision);
             String directory = replacePlaceholders(optionalDirectory.get(), revision);
-            run(command, directory);
+            run(command, directory, snapshots.containsKey(revision) ? "[" + revision + "] " : "");
+        }
+    }
+
+    /**
+     * Returns the number of revisions which are analysed concurrently ("analyser.workers", defaults to 1).
+     * @return number of workers
+     */
+    public int getWorkers() {
+        PropertiesManager propertiesManager = Vcs2See.getPropertiesManager();
+        try {
+            return Math.max(1, Integer.parseInt(propertiesManager.getProperty("analyser.workers").orElse("1").trim()));
+        } catch (NumberFormatException e) {
+            Vcs2See.getConsoleManager().print("Invalid value of analyser.workers, analysing one revision at a time.");
+            return 1;
         }
     }
 
+    /**
+     * Exports the revision currently checked out in the temporary repository into its own directory.
+     * The placeholder %repository.temp% resolves to this directory until {@link #deleteSnapshot(int)} is called.
+     * @param revision revision
+     * @throws IOException exception
+     */
+    public void createSnapshot(int revision) throws IOException {
+        Path source = temporaryRepository();
+        if(snapshotDirectory == null) {
+            snapshotDirectory = Files.createTempDirectory("vcs2see-snapshots");
+            snapshotDirectory.toFile().deleteOnExit();
+        }
+
+        Path target = snapshotDirectory.resolve(String.valueOf(revision));
+        Set<Path> exported = new HashSet<>();
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if(!dir.equals(source) && METADATA.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path relative = source.relativize(file);
+                if(outputs.contains(relative)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                Files.copy(file, target.resolve(relative), StandardCopyOption.REPLACE_EXISTING);
+                exported.add(relative);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        exports.put(revision, exported);
+        snapshots.put(revision, target);
+    }
+
+    /**
+     * Moves the files created by the analysis of the given revision (e.g. its GXL file) from its snapshot
+     * to the same location in the temporary repository, i.e. where a single worker creates them.
+     * Call this method before {@link #deleteSnapshot(int)}.
+     * @param revision revision
+     * @throws IOException exception
+     */
+    public void collectOutputs(int revision) throws IOException {
+        Path snapshot = snapshots.get(revision);
+        if(snapshot == null || !Files.exists(snapshot)) {
+            return;
+        }
+
+        Path source = temporaryRepository();
+        Set<Path> exported = exports.getOrDefault(revision, Set.of());
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(snapshot)) {
+            files = stream.filter(Files::isRegularFile)
+                    .map(snapshot::relativize)
+                    .filter(file -> !exported.contains(file))
+                    .collect(Collectors.toList());
+        }
+        for(Path file : files) {
+            Path target = source.resolve(file);
+            Files.createDirectories(target.getParent());
+            Files.move(snapshot.resolve(file), target, StandardCopyOption.REPLACE_EXISTING);
+            outputs.add(file);
+        }
+    }
+
+    /**
+     * Deletes the directory created by {@link #createSnapshot(int)}.
+     * @param revision revision
+     * @throws IOException exception
+     */
+    public void deleteSnapshot(int revision) throws IOException {
+        Path snapshot = snapshots.remove(revision);
+        exports.remove(revision);
+        if(snapshot == null || !Files.exists(snapshot)) {
+            return;
+        }
+
+        // Delete children before their parents
+        List<Path> paths;
+        try (Stream<Path> stream = Files.walk(snapshot)) {
+            paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for(Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Returns the path of the temporary repository ("repository.temp").
+     * @return path of the temporary repository
+     */
+    private Path temporaryRepository() {
+        PropertiesManager propertiesManager = Vcs2See.getPropertiesManager();
+        return Paths.get(propertiesManager.getProperty("repository.temp").orElseThrow().replace("\\\\", "\\"));
+    }
+
     public String replacePlaceholders(String input, int revision) {
         PropertiesManager propertiesManager = Vcs2See.getPropertiesManager();
 
+        // Analyses running concurrently use their own export of the repository
+        Path snapshot = snapshots.get(revision);
+        if(snapshot != null) {
+            input = input.replace("%repository.temp%", snapshot.toAbsolutePath().toString());
+        }
+
         // Find all placeholders in properties
         Matcher matcher = Pattern.compile("%(.*?)%").matcher(input);
         while (matcher.find()) {
@@ -0,0 +1,89 @@
+package de.unibremen.informatik.vcs2see;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ranks paths by the frequency of their changes.
+ * The maximum frequency is maintained on each change instead of being searched for.
+ * With a decay below 1, the frequency of a path decays exponentially with each revision, so that frequent
+ * changes in the past rank lower than frequent changes in the recent history. Since all paths decay at the
+ * same rate, their order only changes when a path is changed, which keeps the maximum up to date in constant
+ * time as well.
+ */
+public class FrequencyRanking {
+
+    private final double decay;
+
+    private final Map<String, Score> scores;
+
+    private int revision;
+
+    private Score max;
+
+    /**
+     * Creates a ranking with the given decay per revision.
+     * @param decay factor in (0, 1], 1 counts changes without decay
+     */
+    public FrequencyRanking(double decay) {
+        if(!(decay > 0 && decay <= 1)) {
+            throw new IllegalArgumentException("Decay must be in (0, 1]: " + decay);
+        }
+        this.decay = decay;
+        this.scores = new HashMap<>();
+    }
+
+    /**
+     * Advances to the given revision. Frequencies decay with each revision.
+     * @param revision ordinal of the current revision
+     */
+    public void advance(int revision) {
+        this.revision = Math.max(this.revision, revision);
+    }
+
+    /**
+     * Counts a change of the given path in the current revision.
+     * @param path path of the changed file
+     */
+    public void increment(String path) {
+        Score score = scores.computeIfAbsent(path, k -> new Score());
+        score.value = valueOf(score) + 1;
+        score.revision = revision;
+        if(max == null || score.value >= valueOf(max)) {
+            max = score;
+        }
+    }
+
+    /**
+     * Returns the (decayed) frequency of the given path in the current revision.
+     * @param path path of the file
+     * @return frequency, 0 if the path has never been changed
+     */
+    public double frequency(String path) {
+        Score score = scores.get(path);
+        return score == null ? 0 : valueOf(score);
+    }
+
+    /**
+     * Returns the maximum (decayed) frequency of all paths in the current revision.
+     * @return maximum frequency, 0 if no path has been changed
+     */
+    public double max() {
+        return max == null ? 0 : valueOf(max);
+    }
+
+    private double valueOf(Score score) {
+        return decay == 1 ? score.value : score.value * Math.pow(decay, revision - score.revision);
+    }
+
+    /**
+     * Frequency of a path at the revision it has been changed last.
+     */
+    private static class Score {
+
+        private double value;
+
+        private int revision;
+    }
+
+}
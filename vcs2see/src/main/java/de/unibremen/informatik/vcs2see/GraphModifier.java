@@ -17,12 +17,12 @@
 
 package de.unibremen.informatik.vcs2see;
 
+import de.unibremen.informatik.gxl4j.GXLStreamTransformer;
 import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.LineChange;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import net.sourceforge.gxl.*;
-import org.xml.sax.SAXException;
 
 import java.io.File;
 import java.io.IOException;
@@ -38,18 +38,32 @@ import java.util.stream.Collectors;
  */
 public class GraphModifier {
 
-    private GXLDocument document;
+    private final GXLStreamTransformer transformer;
 
-    private final Map<String, GXLNode> nodes;
+    private final Set<String> nodes;
 
-    private final Deque<String> mostRecent;
+    private Map<String, Map<String, GXLAtomicValue>> nodeAttributes;
 
-    private final Map<String, Integer> mostFrequent;
+    private Map<String, GXLAtomicValue> graphAttributes;
 
+    private final RecencyRanking mostRecent;
+
+    private final FrequencyRanking mostFrequent;
+
+    private final double recencyDecay;
+
+    /**
+     * Creates the graph modifier. The rankings can be configured with the optional properties
+     * "modifier.recency.capacity" (number of most recently changed files, defaults to 255),
+     * "modifier.recency.decay" (exponential decay per rank instead of a linear scale) and
+     * "modifier.frequency.decay" (exponential decay per revision, defaults to 1, i.e. no decay).
+     */
     public GraphModifier() {
-        this.nodes = new HashMap<>();
-        this.mostFrequent = new LinkedHashMap<>();
-        this.mostRecent = new LinkedList<>();
+        this.transformer = new GXLStreamTransformer("File", "Linkage.Name");
+        this.nodes = new HashSet<>();
+        this.mostRecent = new RecencyRanking((int) property("modifier.recency.capacity", 255));
+        this.mostFrequent = new FrequencyRanking(property("modifier.frequency.decay", 1));
+        this.recencyDecay = property("modifier.recency.decay", 1);
     }
 
     /**
@@ -57,56 +71,49 @@ public class GraphModifier {
      * @param commit commit to extract information from
      * @param index ordinal of commit
      * @throws IOException exception
-     * @throws SAXException exception
      */
-    public void process(Commit commit, int index) throws IOException, SAXException {
+    public void process(Commit commit, int index) throws IOException {
         // Get GXL file of revision
         PropertiesManager propertiesManager = Vcs2See.getPropertiesManager();
         String path = propertiesManager.getProperty("modifier.path").orElseThrow();
         path = Vcs2See.getCodeAnalyser().replacePlaceholders(path, index);
 
         File file = new File(path);
-        document = new GXLDocument(file);
+        nodeAttributes = new HashMap<>();
+        graphAttributes = new LinkedHashMap<>();
 
-        loadNodes();
-        loadCommit(commit);
+        loadNodes(file);
+        mostFrequent.advance(index);
+        loadCommit(commit, index);
         populateNodes();
         addCommitGraph(commit);
 
-        document.write(file);
-        System.gc();
+        // Stream the file instead of loading it as GXLDocument, graphs can be hundreds of megabytes.
+        transformer.transform(file, nodeAttributes, graphAttributes);
     }
 
     /**
      * Loads Nodes from GXL file.
+     * @param file GXL file
+     * @throws IOException exception
      */
-    private void loadNodes() {
+    private void loadNodes(File file) throws IOException {
         ConsoleManager consoleManager = Vcs2See.getConsoleManager();
         consoleManager.print("Nodes:");
 
-        GXLGraph graph = document.getDocumentElement().getGraphAt(0);
-        for(int i = 0; i < graph.getGraphElementCount(); i++) {
-            GXLElement element = graph.getGraphElementAt(i);
-
-            if(element instanceof GXLNode) {
-                GXLNode node = (GXLNode) element;
-                if(!node.getType().getURI().toString().equals("File")) {
-                    continue;
-                }
-
-                GXLString reference = (GXLString) node.getAttr("Linkage.Name").getValue();
-                consoleManager.print("- " + reference.getValue());
-                nodes.put(reference.getValue(), node);
-            }
+        for(String reference : transformer.readKeys(file)) {
+            consoleManager.print("- " + reference);
+            nodes.add(reference);
         }
     }
 
     /**
      * Loads commit from VCSLib4j.
      * @param commit commit
+     * @param index ordinal of commit
      * @throws IOException exception
      */
-    private void loadCommit(Commit commit) throws IOException {
+    private void loadCommit(Commit commit, int index) throws IOException {
         PropertiesManager propertiesManager = Vcs2See.getPropertiesManager();
         String basePath = propertiesManager.getProperty("project.base").orElseThrow();
         CodeAnalyser.Language language = CodeAnalyser.Language.valueOf(propertiesManager.getProperty("repository.language").orElseThrow());
@@ -130,7 +137,7 @@ public class GraphModifier {
             }
 
             // Calculate and add line changes.
-            if(nodes.containsKey(path)) {
+            if(nodes.contains(path)) {
                 List<LineChange> lineChanges = fileChange.computeDiff();
 
                 List<Integer> insertedLines = lineChanges.stream()
@@ -147,11 +154,11 @@ public class GraphModifier {
                 insertedLines.removeAll(editedLines);
                 deletedLines.removeAll(editedLines);
 
-                GXLNode node = nodes.get(path);
-                node.setAttr("Metric.Vcs2See.Commit.Line_Changes", new GXLInt(lineChanges.size()));
-                node.setAttr("Metric.Vcs2See.Commit.Lines_Added", new GXLInt(insertedLines.size()));
-                node.setAttr("Metric.Vcs2See.Commit.Lines_Edited", new GXLInt(editedLines.size()));
-                node.setAttr("Metric.Vcs2See.Commit.Lines_Deleted", new GXLInt(deletedLines.size()));
+                Map<String, GXLAtomicValue> node = attributesOf(path);
+                node.put("Metric.Vcs2See.Commit.Line_Changes", new GXLInt(lineChanges.size()));
+                node.put("Metric.Vcs2See.Commit.Lines_Added", new GXLInt(insertedLines.size()));
+                node.put("Metric.Vcs2See.Commit.Lines_Edited", new GXLInt(editedLines.size()));
+                node.put("Metric.Vcs2See.Commit.Lines_Deleted", new GXLInt(deletedLines.size()));
 
                 consoleManager.print("- " + path);
             } else {
@@ -160,10 +167,10 @@ public class GraphModifier {
             }
 
             // Calculate most recent changes
-            addMostRecent(path);
+            mostRecent.touch(path);
 
             // Calculate most frequent changes
-            addMostFrequent(path);
+            mostFrequent.increment(path);
         }
     }
 
@@ -171,15 +178,16 @@ public class GraphModifier {
      * Populates GXL Nodes with queried information.
      */
     private void populateNodes() {
-        List<String> list = (LinkedList<String>) mostRecent;
-        for(int i = 0; i < list.size(); i++) {
-            String path = list.get(i);
-            if(nodes.containsKey(path)) {
-                int frequent = Math.round(calculateMostFrequent(mostFrequent.getOrDefault(path, 0)));
-
-                GXLNode node = nodes.get(path);
-                node.setAttr("Metric.Vcs2See.Most_Recent_Edit", new GXLInt(calculateMostRecent(list.size(), i)));
-                node.setAttr("Metric.Vcs2See.Most_Frequent_Edit", new GXLInt(frequent));
+        List<String> ranked = mostRecent.ranked();
+        double max = mostFrequent.max();
+        for(int i = 0; i < ranked.size(); i++) {
+            String path = ranked.get(i);
+            if(nodes.contains(path)) {
+                int frequent = calculateMostFrequent(mostFrequent.frequency(path), max);
+
+                Map<String, GXLAtomicValue> node = attributesOf(path);
+                node.put("Metric.Vcs2See.Most_Recent_Edit", new GXLInt(calculateMostRecent(ranked.size(), i)));
+                node.put("Metric.Vcs2See.Most_Frequent_Edit", new GXLInt(frequent));
             }
         }
     }
@@ -189,25 +197,34 @@ public class GraphModifier {
      * @param commit commit
      */
     private void addCommitGraph(Commit commit) {
-        GXLGraph codeGraph = document.getDocumentElement().getGraphAt(0);
-        codeGraph.setAttr("CommitId", new GXLString(commit.getId()));
-        codeGraph.setAttr("CommitAuthor", new GXLString(commit.getAuthor()));
-        codeGraph.setAttr("CommitMessage", new GXLString(commit.getMessage()));
-        codeGraph.setAttr("CommitTimestamp", new GXLString(commit.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+        graphAttributes.put("CommitId", new GXLString(commit.getId()));
+        graphAttributes.put("CommitAuthor", new GXLString(commit.getAuthor()));
+        graphAttributes.put("CommitMessage", new GXLString(commit.getMessage()));
+        graphAttributes.put("CommitTimestamp", new GXLString(commit.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
     }
 
-    private void addMostRecent(String path) {
-        mostRecent.remove(path);
-        mostRecent.addFirst(path);
-
-        if(mostRecent.size() > 255) {
-            mostRecent.removeLastOccurrence(path);
-        }
+    /**
+     * Returns the attributes to set at the node with the given path.
+     * @param path path of the node
+     * @return attributes of the node
+     */
+    private Map<String, GXLAtomicValue> attributesOf(String path) {
+        return nodeAttributes.computeIfAbsent(path, k -> new LinkedHashMap<>());
     }
 
-    private void addMostFrequent(String path) {
-        if(mostFrequent.computeIfPresent(path, (k, v) -> v + 1) == null) {
-            mostFrequent.put(path, 1);
+    /**
+     * Reads a numeric property of the modifier.
+     * @param key properties file key
+     * @param defaultValue value if the property is not set
+     * @return value of the property
+     */
+    private double property(String key, double defaultValue) {
+        Optional<String> value = Vcs2See.getPropertiesManager().getProperty(key);
+        try {
+            return value.isPresent() ? Double.parseDouble(value.get().trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            Vcs2See.getConsoleManager().print("Invalid value of " + key + ", using " + defaultValue + ".");
+            return defaultValue;
         }
     }
 
@@ -218,6 +235,12 @@ public class GraphModifier {
      * @return most recent value
      */
     private int calculateMostRecent(int size, int index) {
+        if(recencyDecay < 1) {
+            return (int) Math.round(255 * Math.pow(recencyDecay, index));
+        }
+        if(size < 2) {
+            return 255;
+        }
         int step = 255 / (size - 1);
         return 255 - (step  * index);
     }
@@ -225,12 +248,14 @@ public class GraphModifier {
     /**
      * Calculates most frequent value from collected information.
      * @param value value of current node
+     * @param max maximum value of all nodes
      * @return most frequent value
      */
-    private int calculateMostFrequent(int value) {
-        float min = 0; //mostFrequent.values().stream().min(Integer::compareTo).orElse(0);
-        float max = mostFrequent.values().stream().max(Integer::compareTo).orElse(255);
-        float output = (255 / (max - min)) * (value - min);
+    private int calculateMostFrequent(double value, double max) {
+        if(max <= 0) {
+            return 0;
+        }
+        float output = (255 / (float) max) * (float) value;
         return (int) output;
     }
 
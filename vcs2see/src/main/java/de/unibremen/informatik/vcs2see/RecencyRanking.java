@@ -0,0 +1,67 @@
+package de.unibremen.informatik.vcs2see;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks paths by the recency of their last change.
+ * Backed by an access-ordered {@link LinkedHashMap}, so that touching a path and evicting the least recently
+ * changed path take constant time. Ranks are not looked up per path, as each change shifts the ranks of all
+ * other paths. Use {@link #ranked()} once per revision instead.
+ */
+public class RecencyRanking {
+
+    private final int capacity;
+
+    private final Map<String, Boolean> paths;
+
+    /**
+     * Creates a ranking which keeps track of the given number of most recently changed paths.
+     * @param capacity maximum number of paths
+     */
+    public RecencyRanking(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.paths = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RecencyRanking.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Marks the given path as the most recently changed one.
+     * @param path path of the changed file
+     */
+    public void touch(String path) {
+        paths.put(path, Boolean.TRUE);
+    }
+
+    /**
+     * Returns all tracked paths, starting with the most recently changed one.
+     * The index of a path in this list is its rank.
+     * @return paths ordered by recency
+     */
+    public List<String> ranked() {
+        String[] ranked = new String[paths.size()];
+        int rank = ranked.length;
+        for(String path : paths.keySet()) {
+            ranked[--rank] = path;
+        }
+        return Arrays.asList(ranked);
+    }
+
+    /**
+     * Returns the number of tracked paths.
+     * @return number of paths
+     */
+    public int size() {
+        return paths.size();
+    }
+
+}
@@ -20,7 +20,6 @@ package de.unibremen.informatik.vcs2see;
 import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import lombok.Getter;
-import org.xml.sax.SAXException;
 
 import java.io.IOException;
 import java.util.HashSet;
@@ -132,6 +131,9 @@ public class Vcs2See {
     private void setupAnalysis() throws IOException {
         consoleManager.print("SETUP - ANALYSIS");
         consoleManager.printSeparator();
+        consoleManager.print("Number of revisions that are analysed concurrently. Each of \nthese revisions is exported into its own snapshot directory.");
+        read("analyser.workers");
+        consoleManager.printSeparator();
         consoleManager.print("Current value: ");
 
         // Find existing commands
@@ -209,7 +211,7 @@ public class Vcs2See {
      * @param args ignored
      * @throws IOException exception
      */
-    public static void main(String[] args) throws IOException, SAXException {
+    public static void main(String[] args) throws IOException {
         Vcs2See vcs2See = new Vcs2See();
 
         // Check if CI-Mode argument is set
@@ -230,18 +232,20 @@ public class Vcs2See {
         codeAnalyser.prepare();
         consoleManager.printSeparator();
 
-        // Go through all revisions
-        int index = 1;
-        do {
-            for(Commit commit : optional.orElseThrow().getCommits()) {
-                consoleManager.print("CRAWLING - " + index);
-                consoleManager.printSeparator();
-                codeAnalyser.analyse(index);
-                graphModifier.process(commit, index);
-                consoleManager.printSeparator();
-                index++;
-            }
-        } while ((optional = repositoryCrawler.nextRevision()).isPresent());
+        // Go through all revisions, analyses of several revisions may run concurrently
+        try (AnalysisPipeline pipeline = new AnalysisPipeline(codeAnalyser.getWorkers())) {
+            int index = 1;
+            do {
+                for(Commit commit : optional.orElseThrow().getCommits()) {
+                    consoleManager.print("CRAWLING - " + index);
+                    consoleManager.printSeparator();
+                    pipeline.submit(commit, index);
+                    consoleManager.printSeparator();
+                    index++;
+                }
+            } while ((optional = repositoryCrawler.nextRevision()).isPresent());
+            pipeline.finish();
+        }
 
         // Postprocess analysis
         codeAnalyser.postprocess();